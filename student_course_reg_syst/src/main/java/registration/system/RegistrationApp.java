@@ -2,33 +2,47 @@ package registration.system;
 
 import registration.system.course_management.Course;
 import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.storage.SqliteStorageEngine;
+import registration.system.database_management.storage.Storage;
 import registration.system.student_management.StudentManager;
 
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 
 public class RegistrationApp {
     /**
      * Initializes the database by creating tables and uploading courses from a JSON file.
+     * Both steps are skipped when the schema and catalogue are unchanged since the last launch.
+     * When another storage engine is chosen with the {@value Storage#ENGINE_PROPERTY} system property,
+     * the courses it does not hold yet are added to it instead.
      * @throws SQLException if a database access error occurs
      * @throws IOException if an I/O error occurs
      */
     public static void initializeDatabase() throws SQLException, IOException {
-        Connection conn = DatabaseManager.connect();
-        DatabaseManager.createTables(conn);
+        if (!(Storage.getEngine() instanceof SqliteStorageEngine)) {
+            Course.uploadCoursesRowByRow();
+            return;
+        }
+        try (Connection conn = DatabaseManager.connect()) {
+            DatabaseManager.createTables(conn);
+        }
         Course.uploadCoursesToDatabase();
     }
 
     /**
      * Main method to start the student management system.
+     * Prints how long startup took, from entering main to just before the first prompt.
      * @param args the command line arguments
      * @throws SQLException if a database access error occurs
      * @throws IOException if an I/O error occurs
      */
     public static void main(String[] args) throws SQLException, IOException {
+        long start = System.nanoTime();
         StudentManager studentManager = new StudentManager();
         initializeDatabase();
+        System.out.printf("Started in %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         studentManager.start();
     }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package registration.system.course_management;
+
+/**
+ * How a batch registration treats courses that cannot be registered.
+ */
+public enum BatchMode {
+    /** Register for every course or for none of them. */
+    ALL_OR_NOTHING,
+    /** Register for every course that can be registered and report the others. */
+    PARTIAL
+}
@@ -0,0 +1,40 @@
+package registration.system.course_management;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of registering a student for several courses at once.
+ *
+ * @param committed whether the registrations were committed; false when an all-or-nothing batch was rolled back
+ * @param results the outcome for each requested course, in the order the courses were requested
+ * @param titles the title of each requested course that exists, by course code
+ */
+public record BatchReservation(boolean committed, Map<String, ReservationResult> results, Map<String, String> titles) {
+
+    /**
+     * Returns the title of a requested course, as read while the batch was checked.
+     *
+     * @param courseCode the course code
+     * @return the course title, or the course code if the course was not found
+     */
+    public String title(String courseCode) {
+        return titles.getOrDefault(courseCode, courseCode);
+    }
+
+    /**
+     * Returns the courses the student was registered for.
+     *
+     * @return the course codes whose result is REGISTERED
+     */
+    public List<String> registered() {
+        List<String> registered = new ArrayList<>();
+        for (Map.Entry<String, ReservationResult> entry : results.entrySet()) {
+            if (entry.getValue() == ReservationResult.REGISTERED) {
+                registered.add(entry.getKey());
+            }
+        }
+        return registered;
+    }
+}
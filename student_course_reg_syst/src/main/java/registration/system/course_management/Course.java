@@ -1,14 +1,14 @@
 package registration.system.course_management;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import registration.system.course_management.schedule.PackedSchedule;
 import registration.system.course_management.schedule.Schedule;
-import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.storage.Storage;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 public class Course {
@@ -17,6 +17,7 @@ public class Course {
     private String description;
     private int spacesLeft;
     private Schedule schedule;
+    private int packedSchedule;
 
     /**
      * Constructs a Course object with default values.
@@ -68,6 +69,24 @@ public class Course {
         this.schedule = schedule;
     }
 
+    /**
+     * Constructs a Course object whose schedule is given in its packed form, as read from the database.
+     * The Schedule record is only built when {@link #getSchedule()} is first called.
+     *
+     * @param courseCode the course code
+     * @param title the title of the course
+     * @param description the description of the course
+     * @param spacesLeft the number of spaces left in the course
+     * @param packedSchedule the schedule of the course as a {@link PackedSchedule}
+     */
+    public Course(String courseCode, String title, String description, int spacesLeft, int packedSchedule) {
+        this.courseCode = courseCode;
+        this.title = title;
+        this.description = description;
+        this.spacesLeft = spacesLeft;
+        this.packedSchedule = packedSchedule;
+    }
+
     /**
      * Returns the course code.
      *
@@ -101,9 +120,26 @@ public class Course {
      * @return the schedule of the course
      */
     public Schedule getSchedule() {
+        if (schedule == null && packedSchedule != PackedSchedule.NONE) {
+            schedule = PackedSchedule.decode(packedSchedule);
+        }
         return schedule;
     }
 
+    /**
+     * Returns the schedule of the course packed into an int, packing it on first use
+     * if the course was built from a Schedule record.
+     *
+     * @return the packed schedule, or {@link PackedSchedule#NONE} if the course has no schedule or it cannot be parsed
+     */
+    @JsonIgnore
+    public int getPackedSchedule() {
+        if (packedSchedule == PackedSchedule.NONE && schedule != null) {
+            packedSchedule = PackedSchedule.encode(schedule);
+        }
+        return packedSchedule;
+    }
+
     /**
      * Returns the number of spaces left in the course.
      *
@@ -123,48 +159,63 @@ public class Course {
     }
 
     /**
-     * Updates the capacity of the course in the database.
+     * Updates the capacity of the course in the storage engine.
      *
      * @throws SQLException if a database access error occurs
      */
     public void courseCapacity() throws SQLException {
-        DatabaseManager.updateCapacity(this.courseCode, this.spacesLeft);
+        Storage.courses().updateCapacity(this.courseCode, this.spacesLeft);
     }
 
     /**
-     * Saves the course information to the database.
+     * Saves the course and its schedule to the storage engine, unless a course with its code is already stored.
      *
      * @throws SQLException if a database access error occurs
      */
     public void saveToDatabase() throws SQLException {
-        Course existingCourse = DatabaseManager.getCourseByCourseCode(this.getCourseCode());
+        Course existingCourse = Storage.courses().findCourse(this.getCourseCode());
         if (existingCourse == null) {
-            DatabaseManager.insertCourse(this);
-            DatabaseManager.insertSchedule(this.getCourseCode(), this.getSchedule());
+            Storage.courses().addCourse(this);
         }
     }
 
     /**
-     * Loads the list of courses from a JSON file.
+     * Loads the list of courses from the course catalogue on the classpath.
+     * Courses are read one at a time, so the only copy held in memory is the returned list.
+     * Use {@link CourseCatalogReader} directly to process a catalogue without keeping it in memory.
      *
      * @return the list of courses
      */
     public static List<Course> loadCourses() {
         List<Course> courses = new ArrayList<>();
-        ObjectMapper mapper  = new ObjectMapper();
-        try {
-            Course[] courseAArray = mapper.readValue(new File("src/main/resources/courses.json"), Course[].class);
-            courses.addAll(Arrays.asList(courseAArray));
-        } catch (IOException e) {
-            System.err.println("Error: failed to load courses.sql file.\n" + e.getMessage());
+        try (CourseCatalogReader reader = CourseCatalogReader.fromClasspath()) {
+            reader.forEachRemaining(courses::add);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error: failed to load courses.json file.\n" + e.getMessage());
         }
         return courses;
     }
 
     /**
-     * Uploads the courses to the database.
+     * Uploads the courses to the database using the bulk importer, unless the catalogue is
+     * unchanged since the last upload.
+     *
+     * @return the import report, or null if the import failed
+     */
+    public static ImportReport uploadCoursesToDatabase() {
+        try {
+            return new CourseImporter().importCoursesIfChanged();
+        } catch (IOException | SQLException e) {
+            System.out.println("Error: failed to upload files.\n" + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Uploads the courses to the database one course at a time.
+     * Kept as the baseline for comparing against the bulk importer.
      */
-    public static void uploadCoursesToDatabase() {
+    public static void uploadCoursesRowByRow() {
         try {
             List<Course> courses = loadCourses();
             for (Course course : courses) {
@@ -187,7 +238,7 @@ public class Course {
                 ", title='" + title + '\'' +
                 ", description='" + description + '\'' +
                 ", spacesLeft=" + spacesLeft +
-                ", schedule=" + schedule +
+                ", schedule=" + getSchedule() +
                 '}';
     }
 }
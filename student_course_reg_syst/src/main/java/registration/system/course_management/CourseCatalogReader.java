@@ -0,0 +1,133 @@
+package registration.system.course_management;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads a JSON course catalogue one course at a time.
+ * Only the course currently being read is held in memory, so the catalogue can be any size.
+ * I/O errors while iterating are rethrown as {@link UncheckedIOException}.
+ */
+public class CourseCatalogReader implements Iterator<Course>, Closeable {
+    public static final String DEFAULT_CATALOGUE = "courses.json";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JsonParser parser;
+    private JsonToken next;
+
+    /**
+     * Constructs a CourseCatalogReader over the given stream, which must contain a JSON array of courses.
+     * The stream is closed when the reader is closed.
+     *
+     * @param in the stream to read from
+     * @throws IOException if the stream cannot be read or does not start with a JSON array
+     */
+    public CourseCatalogReader(InputStream in) throws IOException {
+        this.parser = MAPPER.getFactory().createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IOException("Expected a JSON array of courses");
+        }
+    }
+
+    /**
+     * Opens the default course catalogue from the classpath.
+     *
+     * @return a reader over the default catalogue
+     * @throws IOException if the catalogue cannot be found or read
+     */
+    public static CourseCatalogReader fromClasspath() throws IOException {
+        return fromClasspath(DEFAULT_CATALOGUE);
+    }
+
+    /**
+     * Opens a course catalogue from the classpath.
+     *
+     * @param resource the classpath resource name, relative to the classpath root
+     * @return a reader over the catalogue
+     * @throws IOException if the catalogue cannot be found or read
+     */
+    public static CourseCatalogReader fromClasspath(String resource) throws IOException {
+        InputStream in = CourseCatalogReader.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new FileNotFoundException("Course catalogue not found on classpath: " + resource);
+        }
+        return new CourseCatalogReader(in);
+    }
+
+    /**
+     * Opens a course catalogue from a file.
+     *
+     * @param path the path of the catalogue file
+     * @return a reader over the catalogue
+     * @throws IOException if the file cannot be found or read
+     */
+    public static CourseCatalogReader fromFile(String path) throws IOException {
+        return new CourseCatalogReader(new FileInputStream(path));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = parser.nextToken();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next == JsonToken.START_OBJECT;
+    }
+
+    @Override
+    public Course next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        next = null;
+        try {
+            return parser.readValueAs(Course.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the remaining courses as a sequential stream. Closing the stream closes the reader.
+     *
+     * @return a stream of courses
+     */
+    public Stream<Course> stream() {
+        Spliterator<Course> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Closes the underlying parser and stream.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
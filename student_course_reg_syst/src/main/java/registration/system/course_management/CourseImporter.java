@@ -0,0 +1,151 @@
+package registration.system.course_management;
+
+import registration.system.database_management.AppMetadata;
+import registration.system.database_management.DatabaseManager;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Bulk-imports a JSON course catalogue into the database.
+ * The catalogue is read one course at a time by a {@link CourseCatalogReader} and written with JDBC batching inside a single
+ * transaction, so memory use does not grow with the size of the catalogue.
+ */
+public class CourseImporter {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final int batchSize;
+
+    /**
+     * Constructs a CourseImporter with the default batch size.
+     */
+    public CourseImporter() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a CourseImporter that sends the given number of courses to the database per batch.
+     *
+     * @param batchSize the number of courses per JDBC batch
+     */
+    public CourseImporter(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, was " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports the default course catalogue from the classpath.
+     *
+     * @return the import report
+     * @throws IOException if the catalogue cannot be found, read or is not a JSON array of courses
+     * @throws SQLException if a database access error occurs
+     */
+    public ImportReport importCourses() throws IOException, SQLException {
+        long start = System.nanoTime();
+        try (CourseCatalogReader reader = CourseCatalogReader.fromClasspath()) {
+            return importCourses(reader, start);
+        }
+    }
+
+    /**
+     * Imports the default course catalogue from the classpath, unless it is unchanged since it was last imported.
+     *
+     * @return the import report
+     * @throws IOException if the catalogue cannot be found, read or is not a JSON array of courses
+     * @throws SQLException if a database access error occurs
+     */
+    public ImportReport importCoursesIfChanged() throws IOException, SQLException {
+        return importCoursesIfChanged(CourseCatalogReader.DEFAULT_CATALOGUE);
+    }
+
+    /**
+     * Imports a course catalogue from the classpath, unless it is unchanged since it was last imported.
+     * The catalogue is streamed once to compute its SHA-256, which is compared with the hash recorded
+     * by the last import into this database. Only if they differ, or the database has no courses,
+     * is the catalogue streamed again and imported, and the new hash recorded.
+     *
+     * @param resource the classpath resource name of the catalogue
+     * @return the import report; skipped if the catalogue was already imported
+     * @throws IOException if the catalogue cannot be found, read or is not a JSON array of courses
+     * @throws SQLException if a database access error occurs
+     */
+    public ImportReport importCoursesIfChanged(String resource) throws IOException, SQLException {
+        long start = System.nanoTime();
+        String hash;
+        try (InputStream in = CourseCatalogReader.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new FileNotFoundException("Course catalogue not found on classpath: " + resource);
+            }
+            hash = AppMetadata.sha256(in);
+        }
+        String key = AppMetadata.CATALOGUE_HASH_PREFIX + resource;
+        try (Connection conn = DatabaseManager.connect()) {
+            if (hash.equals(AppMetadata.get(conn, key)) && DatabaseManager.hasCourses(conn)) {
+                return new ImportReport(0, System.nanoTime() - start, true);
+            }
+        }
+        ImportReport report;
+        try (CourseCatalogReader reader = CourseCatalogReader.fromClasspath(resource)) {
+            report = importCourses(reader, start);
+        }
+        try (Connection conn = DatabaseManager.connect()) {
+            AppMetadata.put(conn, key, hash);
+        }
+        return report;
+    }
+
+    /**
+     * Imports the courses in the given JSON file.
+     *
+     * @param file the JSON file containing an array of courses
+     * @return the import report
+     * @throws IOException if the file cannot be read or is not a JSON array of courses
+     * @throws SQLException if a database access error occurs
+     */
+    public ImportReport importCourses(File file) throws IOException, SQLException {
+        try (InputStream in = new FileInputStream(file)) {
+            return importCourses(in);
+        }
+    }
+
+    /**
+     * Imports the courses in the given JSON stream.
+     *
+     * @param in the stream containing a JSON array of courses
+     * @return the import report
+     * @throws IOException if the stream cannot be read or is not a JSON array of courses
+     * @throws SQLException if a database access error occurs
+     */
+    public ImportReport importCourses(InputStream in) throws IOException, SQLException {
+        long start = System.nanoTime();
+        try (CourseCatalogReader reader = new CourseCatalogReader(in)) {
+            return importCourses(reader, start);
+        }
+    }
+
+    /**
+     * Imports every remaining course from the given reader.
+     *
+     * @param reader the catalogue reader
+     * @param start the {@link System#nanoTime()} at which the import started
+     * @return the import report
+     * @throws IOException if the catalogue cannot be read
+     * @throws SQLException if a database access error occurs
+     */
+    private ImportReport importCourses(CourseCatalogReader reader, long start) throws IOException, SQLException {
+        try {
+            int count = DatabaseManager.upsertCourses(reader, batchSize);
+            return new ImportReport(count, System.nanoTime() - start);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
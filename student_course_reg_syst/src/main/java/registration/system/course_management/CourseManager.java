@@ -1,13 +1,19 @@
 package registration.system.course_management;
 
 import registration.system.course_management.schedule.Schedule;
-import registration.system.database_management.DatabaseManager;
+import registration.system.course_management.schedule.WeekView;
+import registration.system.course_management.schedule.WeeklyTimetable;
+import registration.system.database_management.storage.Storage;
 import registration.system.student_management.Student;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 
 public class CourseManager implements ICourseManagement {
+    public static final int SEARCH_RESULTS = 10;
+    public static final int PAGE_SIZE = 20;
+
     /**
      * Prints a list of courses with their course code and title.
      *
@@ -15,15 +21,34 @@ public class CourseManager implements ICourseManagement {
      * @param courses the list of courses to print
      */
     public void courseList(String message, List<Course> courses) {
-        int count = 1;
-
         System.out.println(message);
+        courseList(courses, 1);
+    }
+
+    /**
+     * Prints a numbered list of courses with their course code and title.
+     *
+     * @param courses the list of courses to print
+     * @param firstNumber the number of the first course, so pages of a listing continue the numbering
+     */
+    public void courseList(List<Course> courses, int firstNumber) {
+        int count = firstNumber;
         for (Course course : courses) {
             System.out.println(count + ". " + course.getCourseCode() + " - " + course.getTitle());
             count++;
         }
     }
 
+    /**
+     * Decides whether to print the next page of a course listing. This default prints every page;
+     * interactive front ends override it to let the student stop browsing.
+     *
+     * @return true to print the next page
+     */
+    protected boolean showMoreCourses() {
+        return true;
+    }
+
     /**
      * Prints the schedule for a course, including days, start time, and end time.
      *
@@ -39,18 +64,24 @@ public class CourseManager implements ICourseManagement {
 
     @Override
     public void checkAvailableCourses() throws SQLException {
-        List<Course> availableCourses = DatabaseManager.getAvailableCourses();
-        if (!availableCourses.isEmpty()) {
-            String message = "Available courses:";
-            courseList(message, availableCourses);
-        } else {
+        CoursePage page = Storage.courses().getAvailableCoursesPage(null, PAGE_SIZE);
+        if (page.courses().isEmpty()) {
             System.out.println("Sorry, there are no available courses.");
+            return;
+        }
+        String message = "Available courses:";
+        courseList(message, page.courses());
+        int shown = page.courses().size();
+        while (page.hasMore() && showMoreCourses()) {
+            page = Storage.courses().getAvailableCoursesPage(page.nextAfter(), PAGE_SIZE);
+            courseList(page.courses(), shown + 1);
+            shown += page.courses().size();
         }
     }
 
     @Override
     public void checkRegisteredCourses(Student student) throws SQLException {
-        List<Course> registeredCourses = DatabaseManager.getRegisteredCourses(student);
+        List<Course> registeredCourses = Storage.registrations().getRegisteredCourses(student.studentId());
         if (!registeredCourses.isEmpty()) {
             String message = "Registered course(s):";
             courseList(message, registeredCourses);
@@ -60,17 +91,21 @@ public class CourseManager implements ICourseManagement {
     }
 
     @Override
-    public void checkSchedule(Student student) throws SQLException {
-        List<Course> courses = DatabaseManager.getRegisteredCourses(student);
-        if (!courses.isEmpty()) {
-            for (Course course : courses) {
-                String courseCode = course.getCourseCode();
-                Schedule schedule = DatabaseManager.getScheduleByCourseCode(courseCode);
+    public void searchCourses(String keywords) throws SQLException {
+        List<Course> matches = Storage.courses().searchCourses(keywords, SEARCH_RESULTS);
+        if (!matches.isEmpty()) {
+            String message = "Courses matching \"" + keywords.trim() + "\":";
+            courseList(message, matches);
+        } else {
+            System.out.println("No courses match \"" + keywords.trim() + "\".");
+        }
+    }
 
-                if (schedule != null) {
-                    printSchedule(schedule, courseCode);
-                }
-            }
+    @Override
+    public void checkSchedule(Student student) throws SQLException {
+        WeeklyTimetable timetable = Storage.registrations().getWeeklyTimetable(student.studentId());
+        if (!timetable.isEmpty()) {
+            System.out.print(WeekView.render(timetable));
         } else {
             System.err.println("Schedule not found! You have no registered courses.");
         }
@@ -78,25 +113,61 @@ public class CourseManager implements ICourseManagement {
 
     @Override
     public void registerForCourse(Student student, Course course) throws SQLException {
-        if (course.getSpacesLeft() > 0) {
-            DatabaseManager.registerStudentForCourse(student.studentId(), course.getCourseCode());
-            if (DatabaseManager.isStudentRegisteredForCourse(student, course.getCourseCode())) {
-                course.setSpacesLeft(course.getSpacesLeft() - 1);
-                course.courseCapacity();
+        ReservationResult result = Storage.registrations().reserveSeat(student.studentId(), course.getCourseCode());
+        switch (result) {
+            case REGISTERED:
+                course.setSpacesLeft(Math.max(0, course.getSpacesLeft() - 1));
                 System.out.println("You have successfully registered for course: " + course.getTitle());
+                break;
+            case FULL: joinWaitlist(student, course.getCourseCode(), course.getTitle()); break;
+            case DUPLICATE: System.err.println("You cannot register for same course twice!"); break;
+            case NOT_FOUND: System.err.println("Course not found."); break;
+            case CONFLICT: System.err.println("Course " + course.getTitle() + " clashes with your timetable."); break;
+            case BATCH_ABORTED: break;
+        }
+    }
+
+    @Override
+    public void registerForCourses(Student student, List<String> courseCodes) throws SQLException {
+        BatchReservation batch = Storage.registrations().reserveSeats(student.studentId(), courseCodes, BatchMode.PARTIAL);
+        for (Map.Entry<String, ReservationResult> entry : batch.results().entrySet()) {
+            String courseCode = entry.getKey();
+            String title = batch.title(courseCode);
+            switch (entry.getValue()) {
+                case REGISTERED: System.out.println("You have successfully registered for course: " + title); break;
+                case FULL: joinWaitlist(student, courseCode, title); break;
+                case DUPLICATE: System.err.println("You are already registered for course: " + title); break;
+                case NOT_FOUND: System.err.println("Course not found: " + courseCode); break;
+                case CONFLICT: System.err.println("Course " + title + " clashes with your timetable."); break;
+                case BATCH_ABORTED: break;
             }
+        }
+    }
+
+    /**
+     * Puts the student on the waitlist of a full course and tells them their position.
+     *
+     * @param student the student
+     * @param courseCode the code of the full course
+     * @param title the title of the full course
+     * @throws SQLException if a database access error occurs
+     */
+    private void joinWaitlist(Student student, String courseCode, String title) throws SQLException {
+        int position = Storage.registrations().joinWaitlist(student.studentId(), courseCode);
+        if (position > 0) {
+            System.out.println("Course " + title + " is full. You are number " + position + " on the waitlist.");
         } else {
-            System.out.println("Course " + course.getTitle() + " is full.");
+            System.out.println("Course " + title + " is full.");
         }
     }
 
     @Override
     public void deregisterFromCourse(Student student, Course course) throws SQLException {
-        DatabaseManager.deregisterStudentFromCourse(student.studentId(), course.getCourseCode());
-        if (!DatabaseManager.isStudentRegisteredForCourse(student, course.getCourseCode())) {
+        if (Storage.registrations().releaseSeat(student.studentId(), course.getCourseCode())) {
             course.setSpacesLeft(course.getSpacesLeft() + 1);
-            course.courseCapacity();
             System.out.println("Successfully deregistered from course: " + course.getTitle());
+        } else {
+            System.err.println("You are not registered for course: " + course.getTitle());
         }
     }
 }
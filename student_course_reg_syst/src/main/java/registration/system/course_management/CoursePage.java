@@ -0,0 +1,21 @@
+package registration.system.course_management;
+
+import java.util.List;
+
+/**
+ * One page of a catalogue listing, ordered by course code.
+ *
+ * @param courses the courses on this page
+ * @param nextAfter the course code to pass as {@code after} to fetch the next page, or null if this is the last page
+ */
+public record CoursePage(List<Course> courses, String nextAfter) {
+
+    /**
+     * Returns whether there are more courses after this page.
+     *
+     * @return true if there is a next page
+     */
+    public boolean hasMore() {
+        return nextAfter != null;
+    }
+}
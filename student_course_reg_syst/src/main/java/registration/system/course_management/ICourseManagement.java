@@ -27,7 +27,7 @@ public interface ICourseManagement {
     void checkRegisteredCourses(Student student) throws SQLException;
 
     /**
-     * Checks and displays the schedule of courses registered by the specified student.
+     * Displays the weekly timetable of the courses registered by the specified student, grouped by day.
      *
      * @param student the student whose course schedule is to be checked
      * @throws SQLException if a database access error occurs
@@ -35,7 +35,17 @@ public interface ICourseManagement {
     void checkSchedule(Student student) throws SQLException;
 
     /**
-     * Registers the specified student for the specified course.
+     * Searches the course catalogue by keywords and displays the best matches.
+     *
+     * @param keywords the keywords to search the course codes, titles and descriptions for
+     * @throws SQLException if a database access error occurs
+     */
+    void searchCourses(String keywords) throws SQLException;
+
+    /**
+     * Registers the specified student for the specified course, unless it clashes with the student's timetable.
+     * The seat is claimed and the registration recorded in a single transaction.
+     * If the course is full, the student is put on its waitlist instead.
      *
      * @param student the student to register
      * @param course the course to register for
@@ -43,8 +53,21 @@ public interface ICourseManagement {
      */
     void registerForCourse(Student student, Course course) throws SQLException;
 
+    /**
+     * Registers the specified student for several courses in a single transaction, reporting the result
+     * for each course. Courses that cannot be registered do not stop the others; full courses put the
+     * student on their waitlist.
+     *
+     * @param student the student to register
+     * @param courseCodes the codes of the courses to register for
+     * @throws SQLException if a database access error occurs
+     */
+    void registerForCourses(Student student, List<String> courseCodes) throws SQLException;
+
     /**
      * Deregisters the specified student from the specified course.
+     * The registration is removed and the seat released in a single transaction,
+     * which also promotes the next student on the course's waitlist.
      *
      * @param student the student to deregister
      * @param course the course to deregister from
@@ -0,0 +1,50 @@
+package registration.system.course_management;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of a bulk course import.
+ *
+ * @param courses the number of courses imported
+ * @param elapsedNanos how long the import took, including parsing
+ * @param skipped whether the import was skipped because the catalogue had not changed since it was last imported
+ */
+public record ImportReport(int courses, long elapsedNanos, boolean skipped) {
+
+    /**
+     * Constructs the report of an import that ran.
+     *
+     * @param courses the number of courses imported
+     * @param elapsedNanos how long the import took, including parsing
+     */
+    public ImportReport(int courses, long elapsedNanos) {
+        this(courses, elapsedNanos, false);
+    }
+
+    /**
+     * Returns the import throughput.
+     *
+     * @return the number of courses imported per second
+     */
+    public double rowsPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return courses / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Returns a one-line summary of the import.
+     *
+     * @return the number of courses, elapsed time and rows per second
+     */
+    @Override
+    public String toString() {
+        if (skipped) {
+            return String.format("Course catalogue unchanged, import skipped after %d ms",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+        return String.format("Imported %d courses in %d ms (%.0f rows/sec)",
+                courses, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond());
+    }
+}
@@ -0,0 +1,19 @@
+package registration.system.course_management;
+
+/**
+ * The outcome of an attempt to reserve a seat in a course.
+ */
+public enum ReservationResult {
+    /** The student was registered and a seat was taken. */
+    REGISTERED,
+    /** The course has no spaces left; nothing was changed. */
+    FULL,
+    /** The student is already registered for the course; nothing was changed. */
+    DUPLICATE,
+    /** No course with the given course code exists; nothing was changed. */
+    NOT_FOUND,
+    /** The course meets at the same time as a course the student is registered for; nothing was changed. */
+    CONFLICT,
+    /** The seat could have been reserved, but another course in the same all-or-nothing batch failed; nothing was changed. */
+    BATCH_ABORTED
+}
@@ -0,0 +1,66 @@
+package registration.system.course_management;
+
+import registration.system.course_management.schedule.PackedSchedule;
+import registration.system.course_management.schedule.TimetableConflict;
+import registration.system.course_management.schedule.TimetableIndex;
+import registration.system.database_management.DatabaseManager;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Checks existing timetables for courses that meet at the same time, for example timetables
+ * created before registrations were checked for conflicts. Students are validated in parallel.
+ */
+public class TimetableValidator {
+
+    /**
+     * Validates the timetable of every student in the database.
+     *
+     * @return every conflict found, grouped by student
+     * @throws SQLException if a database access error occurs
+     */
+    public static List<TimetableConflict> validateAll() throws SQLException {
+        return validate(DatabaseManager.getAllTimetables());
+    }
+
+    /**
+     * Validates timetables in parallel across students.
+     *
+     * @param timetables the registered courses of each student, keyed by student ID
+     * @return every conflict found, grouped by student
+     */
+    public static List<TimetableConflict> validate(Map<String, List<Course>> timetables) {
+        return timetables.entrySet().parallelStream()
+                .flatMap(timetable -> validate(timetable.getKey(), timetable.getValue()).stream())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Validates one student's timetable. Each course is checked against the courses before it,
+     * so a clash between two courses is reported once.
+     *
+     * @param studentId the student
+     * @param courses the student's registered courses
+     * @return the conflicts in the timetable
+     */
+    public static List<TimetableConflict> validate(String studentId, List<Course> courses) {
+        List<TimetableConflict> conflicts = new ArrayList<>();
+        TimetableIndex index = new TimetableIndex();
+        for (Course course : courses) {
+            int packed = course.getPackedSchedule();
+            if (packed == PackedSchedule.NONE) {
+                continue;
+            }
+            String conflicting = index.findConflict(packed);
+            if (conflicting != null) {
+                conflicts.add(new TimetableConflict(studentId, course.getCourseCode(), conflicting));
+            }
+            index.add(course.getCourseCode(), packed);
+        }
+        return conflicts;
+    }
+}
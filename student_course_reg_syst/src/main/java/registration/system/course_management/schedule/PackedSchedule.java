@@ -0,0 +1,232 @@
+package registration.system.course_management.schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * A schedule packed into a single int, so it can be stored, compared and checked for overlaps
+ * without parsing text or allocating objects. The layout is:
+ * <ul>
+ *     <li>bits 0-6: the day mask, bit {@code n - 1} for {@code DayOfWeek.of(n)} as in {@link ScheduleSlot}</li>
+ *     <li>bits 7-17: the start time in minutes since midnight</li>
+ *     <li>bits 18-28: the end time in minutes since midnight</li>
+ *     <li>bits 29-30: the notation the times were written in, so they are displayed the same way</li>
+ * </ul>
+ * A valid packed schedule has at least one day, so it is never {@link #NONE}.
+ * The database stores the parts in the {@code dayMask}, {@code startMinute}, {@code endMinute}
+ * and {@code timeNotation} columns of the schedule table.
+ */
+public final class PackedSchedule {
+    public static final int NONE = 0;
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int DAY_MASK = 0x7F;
+    private static final int MINUTE_MASK = 0x7FF;
+    private static final int START_SHIFT = 7;
+    private static final int END_SHIFT = 18;
+    private static final int NOTATION_SHIFT = 29;
+    private static final int NOTATION_MASK = 0x3;
+
+    /**
+     * The time notations, indexed by notation code: bit 0 is set for a zero-padded hour
+     * and bit 1 for the 24-hour clock.
+     */
+    private static final DateTimeFormatter[] NOTATIONS = {
+            DateTimeFormatter.ofPattern("h:mm a", Locale.US),
+            DateTimeFormatter.ofPattern("hh:mm a", Locale.US),
+            DateTimeFormatter.ofPattern("H:mm", Locale.US),
+            DateTimeFormatter.ofPattern("HH:mm", Locale.US)
+    };
+
+    private PackedSchedule() {}
+
+    /**
+     * Packs a schedule.
+     *
+     * @param dayMask the days the course meets on
+     * @param startMinute the start time in minutes since midnight
+     * @param endMinute the end time in minutes since midnight, after the start time
+     * @return the packed schedule
+     * @throws IllegalArgumentException if the parts do not form a valid schedule
+     */
+    public static int pack(int dayMask, int startMinute, int endMinute) {
+        return pack(dayMask, startMinute, endMinute, 0);
+    }
+
+    /**
+     * Packs a schedule whose times are displayed in the given notation.
+     *
+     * @param dayMask the days the course meets on
+     * @param startMinute the start time in minutes since midnight
+     * @param endMinute the end time in minutes since midnight, after the start time
+     * @param notation the notation code, see {@link #notationOf(String)}
+     * @return the packed schedule
+     * @throws IllegalArgumentException if the parts do not form a valid schedule
+     */
+    public static int pack(int dayMask, int startMinute, int endMinute, int notation) {
+        if (!isValid(dayMask, startMinute, endMinute) || (notation & ~NOTATION_MASK) != 0) {
+            throw new IllegalArgumentException("Invalid schedule: days " + dayMask + ", minutes " + startMinute + "-" + endMinute
+                    + ", notation " + notation);
+        }
+        return dayMask | startMinute << START_SHIFT | endMinute << END_SHIFT | notation << NOTATION_SHIFT;
+    }
+
+    /**
+     * Checks whether the parts form a valid schedule: at least one day, and a start and end
+     * on the same day with the end after the start.
+     *
+     * @param dayMask the days the course meets on
+     * @param startMinute the start time in minutes since midnight
+     * @param endMinute the end time in minutes since midnight
+     * @return true if the parts can be packed
+     */
+    public static boolean isValid(int dayMask, int startMinute, int endMinute) {
+        return dayMask != 0 && (dayMask & ~DAY_MASK) == 0
+                && startMinute >= 0 && endMinute > startMinute && endMinute < MINUTES_PER_DAY;
+    }
+
+    /**
+     * Packs a schedule given as text, parsing it once.
+     *
+     * @param schedule the schedule, may be null
+     * @return the packed schedule, or {@link #NONE} if there is no schedule or it cannot be parsed
+     */
+    public static int encode(Schedule schedule) {
+        ScheduleSlot slot = ScheduleSlot.tryParse(schedule);
+        if (slot == null) {
+            return NONE;
+        }
+        return pack(slot.dayMask(), slot.start().toSecondOfDay() / 60, slot.end().toSecondOfDay() / 60,
+                notationOf(schedule.startTime()));
+    }
+
+    /**
+     * Returns the notation code of a time as written: "10:00 AM" and "9:30 AM" use the 12-hour clock,
+     * "14:30" and "09:00" the 24-hour clock, and an hour written with two digits is zero-padded.
+     * The migration that adds the packed columns derives the same code in SQL.
+     *
+     * @param time the time as written
+     * @return the notation code
+     */
+    public static int notationOf(String time) {
+        String trimmed = time.trim();
+        int notation = trimmed.indexOf(':') == 2 ? 1 : 0;
+        if (!trimmed.regionMatches(true, trimmed.length() - 1, "M", 0, 1)) {
+            notation |= 2;
+        }
+        return notation;
+    }
+
+    /**
+     * Unpacks a schedule into the record shown to students. Like the records built from the text
+     * columns, the days are a single comma-separated entry, such as "Monday,Wednesday",
+     * and the times are written in the notation they were stored in.
+     *
+     * @param packed the packed schedule
+     * @return the schedule
+     */
+    public static Schedule decode(int packed) {
+        StringBuilder days = new StringBuilder();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((packed & ScheduleSlot.maskOf(day)) != 0) {
+                if (days.length() > 0) {
+                    days.append(',');
+                }
+                days.append(day.getDisplayName(TextStyle.FULL, Locale.US));
+            }
+        }
+        DateTimeFormatter notation = NOTATIONS[notation(packed)];
+        return new Schedule(Collections.singletonList(days.toString()),
+                formatMinute(startMinute(packed), notation), formatMinute(endMinute(packed), notation));
+    }
+
+    /**
+     * Returns the days of a packed schedule.
+     *
+     * @param packed the packed schedule
+     * @return the day mask
+     */
+    public static int dayMask(int packed) {
+        return packed & DAY_MASK;
+    }
+
+    /**
+     * Returns the start time of a packed schedule.
+     *
+     * @param packed the packed schedule
+     * @return the start time in minutes since midnight
+     */
+    public static int startMinute(int packed) {
+        return packed >>> START_SHIFT & MINUTE_MASK;
+    }
+
+    /**
+     * Returns the end time of a packed schedule.
+     *
+     * @param packed the packed schedule
+     * @return the end time in minutes since midnight
+     */
+    public static int endMinute(int packed) {
+        return packed >>> END_SHIFT & MINUTE_MASK;
+    }
+
+    /**
+     * Returns the notation the times of a packed schedule are displayed in.
+     *
+     * @param packed the packed schedule
+     * @return the notation code, see {@link #notationOf(String)}
+     */
+    public static int notation(int packed) {
+        return packed >>> NOTATION_SHIFT & NOTATION_MASK;
+    }
+
+    /**
+     * Checks whether two packed schedules share a day and overlap in time.
+     * Schedules that only touch, where one ends when the other starts, do not overlap.
+     *
+     * @param a a packed schedule
+     * @param b another packed schedule
+     * @return true if the schedules overlap
+     */
+    public static boolean overlaps(int a, int b) {
+        return (a & b & DAY_MASK) != 0 && startMinute(a) < endMinute(b) && startMinute(b) < endMinute(a);
+    }
+
+    /**
+     * Orders packed schedules the way they appear in a week: by their first day,
+     * then by start time, then by end time.
+     *
+     * @param a a packed schedule
+     * @param b another packed schedule
+     * @return a negative number, zero or a positive number as a comes before, with or after b
+     */
+    public static int compare(int a, int b) {
+        return Long.compare(sortKey(a), sortKey(b));
+    }
+
+    /**
+     * Returns a key that sorts packed schedules in week order, as {@link #compare} does.
+     *
+     * @param packed the packed schedule
+     * @return the sort key
+     */
+    public static long sortKey(int packed) {
+        long firstDay = Integer.numberOfTrailingZeros(dayMask(packed));
+        return (firstDay * MINUTES_PER_DAY + startMinute(packed)) * MINUTES_PER_DAY + endMinute(packed);
+    }
+
+    /**
+     * Formats a time of day for display.
+     *
+     * @param minute the time in minutes since midnight
+     * @param notation the notation to write the time in
+     * @return the time, for example "10:00 AM"
+     */
+    private static String formatMinute(int minute, DateTimeFormatter notation) {
+        return LocalTime.of(minute / 60, minute % 60).format(notation);
+    }
+}
@@ -0,0 +1,148 @@
+package registration.system.course_management.schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A parsed {@link Schedule}: the days of the week as a bitmask and the start and end times.
+ * Bit {@code n - 1} of the mask is set when the course meets on {@code DayOfWeek.of(n)},
+ * so Monday is bit 0 and Sunday is bit 6.
+ *
+ * @param dayMask the days the course meets on
+ * @param start the start time
+ * @param end the end time, after the start time
+ */
+public record ScheduleSlot(int dayMask, LocalTime start, LocalTime end) {
+    private static final DateTimeFormatter TWELVE_HOUR = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive().appendPattern("h:mm[ ]a").toFormatter(Locale.US);
+    private static final DateTimeFormatter TWENTY_FOUR_HOUR = DateTimeFormatter.ofPattern("H:mm", Locale.US);
+
+    /**
+     * Constructs a ScheduleSlot, checking that it covers at least one day and ends after it starts.
+     */
+    public ScheduleSlot {
+        if (dayMask == 0 || (dayMask & ~0x7F) != 0) {
+            throw new IllegalArgumentException("Invalid day mask: " + dayMask);
+        }
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("End time " + end + " is not after start time " + start);
+        }
+    }
+
+    /**
+     * Parses a schedule. Days may be given as separate list entries or as one comma-separated entry,
+     * as they are stored in the database; times may be "10:00 AM" or "10:00".
+     *
+     * @param schedule the schedule to parse
+     * @return the parsed slot
+     * @throws IllegalArgumentException if a day or time cannot be parsed, or the slot is empty
+     */
+    public static ScheduleSlot parse(Schedule schedule) {
+        int dayMask = 0;
+        for (String entry : schedule.days()) {
+            for (String day : entry.split("[,\\s]+")) {
+                if (!day.isEmpty()) {
+                    dayMask |= maskOf(DayOfWeek.valueOf(day.toUpperCase(Locale.ROOT)));
+                }
+            }
+        }
+        return new ScheduleSlot(dayMask, parseTime(schedule.startTime()), parseTime(schedule.endTime()));
+    }
+
+    /**
+     * Parses a schedule, returning null instead of throwing when it cannot be parsed.
+     *
+     * @param schedule the schedule to parse, may be null
+     * @return the parsed slot, or null if there is no schedule or it cannot be parsed
+     */
+    public static ScheduleSlot tryParse(Schedule schedule) {
+        if (schedule == null || schedule.days() == null || schedule.startTime() == null || schedule.endTime() == null) {
+            return null;
+        }
+        try {
+            return parse(schedule);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Unpacks a slot from its {@link PackedSchedule} form.
+     *
+     * @param packed the packed schedule
+     * @return the slot
+     */
+    public static ScheduleSlot fromPacked(int packed) {
+        int start = PackedSchedule.startMinute(packed);
+        int end = PackedSchedule.endMinute(packed);
+        return new ScheduleSlot(PackedSchedule.dayMask(packed),
+                LocalTime.of(start / 60, start % 60), LocalTime.of(end / 60, end % 60));
+    }
+
+    /**
+     * Packs the slot into a single int.
+     *
+     * @return the {@link PackedSchedule} form of the slot
+     */
+    public int packed() {
+        return PackedSchedule.pack(dayMask, start.toSecondOfDay() / 60, end.toSecondOfDay() / 60);
+    }
+
+    /**
+     * Parses a time of day in 12-hour or 24-hour notation.
+     *
+     * @param time the time, for example "10:00 AM" or "14:30"
+     * @return the parsed time
+     * @throws DateTimeParseException if the time cannot be parsed
+     */
+    static LocalTime parseTime(String time) {
+        String trimmed = time.trim();
+        try {
+            return LocalTime.parse(trimmed, TWELVE_HOUR);
+        } catch (DateTimeParseException e) {
+            return LocalTime.parse(trimmed, TWENTY_FOUR_HOUR);
+        }
+    }
+
+    /**
+     * Returns the mask bit of a day.
+     *
+     * @param day the day
+     * @return the bit for the day
+     */
+    public static int maskOf(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    /**
+     * Returns the days the course meets on.
+     *
+     * @return the days, in order from Monday
+     */
+    public Set<DayOfWeek> days() {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((dayMask & maskOf(day)) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Checks whether two slots share a day and overlap in time. Slots that only touch,
+     * where one ends when the other starts, do not overlap.
+     *
+     * @param other the other slot
+     * @return true if the slots overlap
+     */
+    public boolean overlaps(ScheduleSlot other) {
+        return (dayMask & other.dayMask) != 0 && start.isBefore(other.end) && other.start.isBefore(end);
+    }
+}
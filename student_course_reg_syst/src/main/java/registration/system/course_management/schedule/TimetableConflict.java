@@ -0,0 +1,10 @@
+package registration.system.course_management.schedule;
+
+/**
+ * Two courses in a student's timetable that meet at the same time.
+ *
+ * @param studentId the student
+ * @param courseCode the course that clashes
+ * @param conflictingCourseCode the course it clashes with
+ */
+public record TimetableConflict(String studentId, String courseCode, String conflictingCourseCode) {}
@@ -0,0 +1,11 @@
+package registration.system.course_management.schedule;
+
+/**
+ * One course in a student's {@link WeeklyTimetable}.
+ *
+ * @param courseCode the course code
+ * @param title the course title
+ * @param schedule the course's schedule, with the times written as they were stored
+ */
+public record TimetableEntry(String courseCode, String title, Schedule schedule) {
+}
@@ -0,0 +1,155 @@
+package registration.system.course_management.schedule;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An index of one student's timetable for finding clashes with a new course.
+ * A bitmask records the days the student has classes, and for each day the slots are kept
+ * sorted by start time. Slots in a valid timetable never overlap, so the only slot on a day that
+ * can clash with a new one is the last one starting before the new slot ends: finding a clash
+ * takes O(log n) per day. Slots that already clash when they are added (timetables created before
+ * clashes were checked) are kept aside and checked one by one.
+ * Slots are held in their {@link PackedSchedule} form, so a lookup only compares ints.
+ * The index is not thread-safe; callers hold a lock while they use it.
+ */
+public class TimetableIndex {
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final List<TreeMap<Integer, Entry>> days = new ArrayList<>(DayOfWeek.values().length);
+    private final List<Entry> clashing = new ArrayList<>();
+    private int dayMask;
+
+    /**
+     * A course and its {@link PackedSchedule}.
+     */
+    private record Entry(String courseCode, int packed) {}
+
+    /**
+     * Constructs an empty TimetableIndex.
+     */
+    public TimetableIndex() {
+        for (int i = 0; i < DayOfWeek.values().length; i++) {
+            days.add(new TreeMap<>());
+        }
+    }
+
+    /**
+     * Adds a course to the timetable. Adding a course that is already in the timetable replaces its slot.
+     *
+     * @param courseCode the course code
+     * @param slot the course's slot
+     */
+    public void add(String courseCode, ScheduleSlot slot) {
+        add(courseCode, slot.packed());
+    }
+
+    /**
+     * Adds a course to the timetable. Adding a course that is already in the timetable replaces its slot.
+     *
+     * @param courseCode the course code
+     * @param packed the course's {@link PackedSchedule}
+     */
+    public void add(String courseCode, int packed) {
+        remove(courseCode);
+        Entry entry = new Entry(courseCode, packed);
+        entries.put(courseCode, entry);
+        if (findConflict(packed) != null) {
+            clashing.add(entry);
+        } else {
+            int mask = PackedSchedule.dayMask(packed);
+            for (int day = 0; day < days.size(); day++) {
+                if ((mask & 1 << day) != 0) {
+                    days.get(day).put(PackedSchedule.startMinute(packed), entry);
+                }
+            }
+        }
+        dayMask |= PackedSchedule.dayMask(packed);
+    }
+
+    /**
+     * Removes a course from the timetable.
+     *
+     * @param courseCode the course code
+     */
+    public void remove(String courseCode) {
+        Entry removed = entries.remove(courseCode);
+        if (removed == null) {
+            return;
+        }
+        if (!clashing.remove(removed)) {
+            int mask = PackedSchedule.dayMask(removed.packed());
+            for (int day = 0; day < days.size(); day++) {
+                if ((mask & 1 << day) != 0) {
+                    days.get(day).remove(PackedSchedule.startMinute(removed.packed()));
+                }
+            }
+        }
+        dayMask = 0;
+        for (Entry remaining : entries.values()) {
+            dayMask |= PackedSchedule.dayMask(remaining.packed());
+        }
+    }
+
+    /**
+     * Checks whether a course is in the timetable.
+     *
+     * @param courseCode the course code
+     * @return true if the course has been added
+     */
+    public boolean contains(String courseCode) {
+        return entries.containsKey(courseCode);
+    }
+
+    /**
+     * Returns the number of courses in the timetable.
+     *
+     * @return the number of courses
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Finds a course in the timetable that clashes with a slot.
+     *
+     * @param slot the slot to check
+     * @return the code of a clashing course, or null if the slot fits the timetable
+     */
+    public String findConflict(ScheduleSlot slot) {
+        return findConflict(slot.packed());
+    }
+
+    /**
+     * Finds a course in the timetable that clashes with a packed schedule.
+     *
+     * @param packed the {@link PackedSchedule} to check
+     * @return the code of a clashing course, or null if the schedule fits the timetable
+     */
+    public String findConflict(int packed) {
+        int mask = dayMask & PackedSchedule.dayMask(packed);
+        if (mask == 0) {
+            return null;
+        }
+        int start = PackedSchedule.startMinute(packed);
+        int end = PackedSchedule.endMinute(packed);
+        for (int day = 0; day < days.size(); day++) {
+            if ((mask & 1 << day) == 0) {
+                continue;
+            }
+            Map.Entry<Integer, Entry> before = days.get(day).lowerEntry(end);
+            if (before != null && PackedSchedule.endMinute(before.getValue().packed()) > start) {
+                return before.getValue().courseCode();
+            }
+        }
+        for (Entry entry : clashing) {
+            if (PackedSchedule.overlaps(entry.packed(), packed)) {
+                return entry.courseCode();
+            }
+        }
+        return null;
+    }
+}
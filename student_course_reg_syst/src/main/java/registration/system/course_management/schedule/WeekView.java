@@ -0,0 +1,64 @@
+package registration.system.course_management.schedule;
+
+import java.time.DayOfWeek;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders a {@link WeeklyTimetable} as text, one block per day in order from Monday:
+ * <pre>
+ * Monday
+ *   10:00 - 12:00  CS101  Introduction to Computer Science
+ *   13:00 - 14:00  CS102  Data Structures
+ * </pre>
+ * The time column is padded so the course codes line up across the whole week.
+ */
+public final class WeekView {
+    private WeekView() {
+    }
+
+    /**
+     * Renders a timetable.
+     *
+     * @param timetable the timetable
+     * @return the week view, one line per day heading and per course
+     */
+    public static String render(WeeklyTimetable timetable) {
+        int timeWidth = 0;
+        for (List<TimetableEntry> entries : timetable.days().values()) {
+            for (TimetableEntry entry : entries) {
+                timeWidth = Math.max(timeWidth, times(entry.schedule()).length());
+            }
+        }
+        StringBuilder view = new StringBuilder();
+        for (Map.Entry<DayOfWeek, List<TimetableEntry>> day : timetable.days().entrySet()) {
+            view.append(day.getKey().getDisplayName(TextStyle.FULL, Locale.US)).append('\n');
+            for (TimetableEntry entry : day.getValue()) {
+                view.append("  ").append(String.format("%-" + timeWidth + "s", times(entry.schedule())))
+                        .append("  ").append(entry.courseCode()).append("  ").append(entry.title()).append('\n');
+            }
+        }
+        if (!timetable.unscheduled().isEmpty()) {
+            view.append("Unscheduled\n");
+            for (TimetableEntry entry : timetable.unscheduled()) {
+                Schedule schedule = entry.schedule();
+                view.append("  ").append(entry.courseCode()).append("  ").append(entry.title())
+                        .append(" (").append(String.join(", ", schedule.days())).append(' ')
+                        .append(times(schedule)).append(")\n");
+            }
+        }
+        return view.toString();
+    }
+
+    /**
+     * Formats the time range of a schedule.
+     *
+     * @param schedule the schedule
+     * @return the start and end time, such as "10:00 - 12:00"
+     */
+    private static String times(Schedule schedule) {
+        return schedule.startTime() + " - " + schedule.endTime();
+    }
+}
@@ -0,0 +1,70 @@
+package registration.system.course_management.schedule;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A student's courses laid out over the week. A course that meets on several days appears under
+ * each of them. Entries are kept in the order they are added, which for timetables read with
+ * {@code DatabaseManager.getWeeklyTimetable} is by start time. Courses whose schedule could not
+ * be read have no place in the week and are kept aside as unscheduled.
+ */
+public class WeeklyTimetable {
+    private final Map<DayOfWeek, List<TimetableEntry>> days = new EnumMap<>(DayOfWeek.class);
+    private final List<TimetableEntry> unscheduled = new ArrayList<>();
+
+    /**
+     * Adds a course to one day of the week.
+     *
+     * @param day the day, or null if the course's schedule could not be read
+     * @param entry the course
+     */
+    public void add(DayOfWeek day, TimetableEntry entry) {
+        if (day == null) {
+            unscheduled.add(entry);
+        } else {
+            days.computeIfAbsent(day, d -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    /**
+     * Returns the courses on one day of the week.
+     *
+     * @param day the day
+     * @return the day's courses, empty if there are none
+     */
+    public List<TimetableEntry> entries(DayOfWeek day) {
+        return Collections.unmodifiableList(days.getOrDefault(day, List.of()));
+    }
+
+    /**
+     * Returns the days that have at least one course, keyed in order from Monday.
+     *
+     * @return each day's courses
+     */
+    public Map<DayOfWeek, List<TimetableEntry>> days() {
+        return Collections.unmodifiableMap(days);
+    }
+
+    /**
+     * Returns the courses whose schedule could not be read.
+     *
+     * @return the unscheduled courses
+     */
+    public List<TimetableEntry> unscheduled() {
+        return Collections.unmodifiableList(unscheduled);
+    }
+
+    /**
+     * Checks whether the timetable has no courses at all.
+     *
+     * @return true if there are no courses
+     */
+    public boolean isEmpty() {
+        return days.isEmpty() && unscheduled.isEmpty();
+    }
+}
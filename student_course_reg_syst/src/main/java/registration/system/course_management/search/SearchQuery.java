@@ -0,0 +1,143 @@
+package registration.system.course_management.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns the keywords a student types into SQLite FTS5 match expressions for the
+ * {@code course_search} table. Keywords are split into terms the same way the table's
+ * {@code unicode61} tokenizer splits course text, so "intro comp" and "CS10" find
+ * "Introduction to Computer Science" and "CS101" by prefix. When a search finds nothing,
+ * each term can be widened with indexed terms a few edits away to tolerate typos.
+ */
+public final class SearchQuery {
+    public static final int MAX_TERMS = 8;
+
+    private SearchQuery() {}
+
+    /**
+     * Splits keywords into lowercase search terms, dropping punctuation.
+     *
+     * @param keywords the keywords as typed, may be null
+     * @return the terms, at most {@link #MAX_TERMS}; empty if there is nothing to search for
+     */
+    public static List<String> terms(String keywords) {
+        List<String> terms = new ArrayList<>();
+        if (keywords == null) {
+            return terms;
+        }
+        for (String term : keywords.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty() && !terms.contains(term) && terms.size() < MAX_TERMS) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Builds a match expression that requires every term, each matched as a prefix.
+     *
+     * @param terms the search terms
+     * @return the match expression
+     */
+    public static String prefixMatch(List<String> terms) {
+        List<List<String>> alternatives = new ArrayList<>();
+        for (String term : terms) {
+            alternatives.add(List.of(term));
+        }
+        return match(terms, alternatives);
+    }
+
+    /**
+     * Builds a match expression that requires every term, each matched as a prefix
+     * or as one of its spelling alternatives.
+     *
+     * @param terms the search terms
+     * @param alternatives the indexed terms to accept in place of each search term, in the same order
+     * @return the match expression
+     */
+    public static String match(List<String> terms, List<List<String>> alternatives) {
+        StringBuilder match = new StringBuilder();
+        for (int i = 0; i < terms.size(); i++) {
+            if (i > 0) {
+                match.append(" AND ");
+            }
+            match.append("(\"").append(terms.get(i)).append("\"*");
+            for (String alternative : alternatives.get(i)) {
+                if (!alternative.equals(terms.get(i))) {
+                    match.append(" OR \"").append(alternative).append('"');
+                }
+            }
+            match.append(')');
+        }
+        return match.toString();
+    }
+
+    /**
+     * Returns how many typing mistakes to tolerate in a term. Short terms get none,
+     * since almost every short word is one edit away from another.
+     *
+     * @param term the search term
+     * @return the maximum edit distance for spelling alternatives
+     */
+    public static int maxEdits(String term) {
+        if (term.length() < 4) {
+            return 0;
+        }
+        return term.length() < 8 ? 1 : 2;
+    }
+
+    /**
+     * Checks whether an indexed term is close enough to a search term to be one of its spelling alternatives.
+     *
+     * @param term the search term
+     * @param candidate the indexed term
+     * @return true if the candidate is within {@link #maxEdits(String)} of the term
+     */
+    public static boolean isAlternative(String term, String candidate) {
+        return editDistance(term, candidate, maxEdits(term)) <= maxEdits(term);
+    }
+
+    /**
+     * Computes the edit distance between two terms, counting insertions, deletions, substitutions
+     * and swaps of adjacent characters as one edit each. Gives up as soon as the distance exceeds the limit.
+     *
+     * @param a a term
+     * @param b another term
+     * @param limit the largest distance of interest
+     * @return the edit distance, or {@code limit + 1} if it is larger than the limit
+     */
+    public static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, previous2[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+}
@@ -0,0 +1,119 @@
+package registration.system.database_management;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HexFormat;
+
+/**
+ * Records what startup has already loaded into a database, so an unchanged schema or course
+ * catalogue is not loaded again on the next launch. Each entry in the {@code app_metadata} table
+ * maps a key, such as {@link #SCHEMA_HASH}, to the SHA-256 of the content that was loaded.
+ */
+public class AppMetadata {
+    public static final String SCHEMA_HASH = "schema.sha256";
+    public static final String CATALOGUE_HASH_PREFIX = "catalogue.sha256:";
+
+    private AppMetadata() {
+    }
+
+    /**
+     * Returns a metadata value.
+     *
+     * @param conn the connection to the database
+     * @param key the key
+     * @return the value, or null if nothing is recorded under the key
+     * @throws SQLException if a database access error occurs
+     */
+    public static String get(Connection conn, String key) throws SQLException {
+        createTable(conn);
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT value FROM app_metadata WHERE key = ?")) {
+            stmt.setString(1, key);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("value") : null;
+            }
+        }
+    }
+
+    /**
+     * Records a metadata value, replacing any value already recorded under the key.
+     *
+     * @param conn the connection to the database
+     * @param key the key
+     * @param value the value
+     * @throws SQLException if a database access error occurs
+     */
+    public static void put(Connection conn, String key, String value) throws SQLException {
+        createTable(conn);
+        String sql = "INSERT INTO app_metadata (key, value) VALUES (?, ?) " +
+                "ON CONFLICT(key) DO UPDATE SET value = excluded.value, updatedAt = CURRENT_TIMESTAMP";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, key);
+            stmt.setString(2, value);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Creates the metadata table, if it does not exist yet. Like the schema_version table, it is
+     * created here rather than by a migration, because it is read before the schema is loaded.
+     *
+     * @param conn the connection to the database
+     * @throws SQLException if a database access error occurs
+     */
+    private static void createTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS app_metadata (" +
+                "key VARCHAR(100) PRIMARY KEY, " +
+                "value VARCHAR(100), " +
+                "updatedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Computes the SHA-256 of some content.
+     *
+     * @param content the content
+     * @return the hash as lowercase hex
+     */
+    public static String sha256(byte[] content) {
+        return HexFormat.of().formatHex(digest().digest(content));
+    }
+
+    /**
+     * Computes the SHA-256 of a stream, reading it to the end without holding it in memory.
+     * The stream is not closed.
+     *
+     * @param in the stream
+     * @return the hash as lowercase hex
+     * @throws IOException if the stream cannot be read
+     */
+    public static String sha256(InputStream in) throws IOException {
+        MessageDigest digest = digest();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns a new SHA-256 digest.
+     *
+     * @return the digest
+     */
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package registration.system.database_management;
+
+import registration.system.course_management.BatchMode;
+import registration.system.course_management.BatchReservation;
+import registration.system.course_management.Course;
+import registration.system.course_management.CoursePage;
+import registration.system.course_management.ReservationResult;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.course_management.schedule.WeeklyTimetable;
+import registration.system.student_management.Student;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A non-blocking facade over {@link DatabaseManager}. Every call returns a {@link CompletableFuture}
+ * and runs on one of two lanes:
+ * <ul>
+ *     <li>the read lane, a fixed pool of threads, so independent reads run side by side on separate
+ *     pooled connections</li>
+ *     <li>the write lane, a single thread, so writes submitted here reach SQLite one at a time
+ *     instead of contending for its single write lock</li>
+ * </ul>
+ * Both lanes have bounded queues. When a lane is full, the call's future fails with a
+ * {@link RejectedExecutionException} instead of queueing without limit. A failed database call
+ * fails its future with the original {@link SQLException}, which {@link #await} rethrows.
+ * The facade does not stop other threads from writing through DatabaseManager directly; those
+ * writes are still serialized by SQLite itself.
+ */
+public class AsyncDatabase implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final ThreadPoolExecutor readLane;
+    private final ThreadPoolExecutor writeLane;
+
+    /**
+     * A database call that may throw SQLException.
+     *
+     * @param <T> the type of the call's result
+     */
+    @FunctionalInterface
+    public interface SqlCall<T> {
+        /**
+         * Performs the call.
+         *
+         * @return the result
+         * @throws SQLException if a database access error occurs
+         */
+        T call() throws SQLException;
+    }
+
+    /**
+     * Constructs an AsyncDatabase whose read lane leaves one pooled connection free for the write lane.
+     */
+    public AsyncDatabase() {
+        this(Math.max(1, DatabaseManager.POOL_SIZE - 1), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructs an AsyncDatabase.
+     *
+     * @param readThreads the number of reads that may run at once; keep it below the connection pool
+     *                    size so the write lane never waits for a connection
+     * @param queueCapacity the number of calls each lane may hold waiting before it rejects new ones
+     */
+    public AsyncDatabase(int readThreads, int queueCapacity) {
+        if (readThreads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Invalid lanes: " + readThreads + " read threads, queue capacity " + queueCapacity);
+        }
+        this.readLane = newLane("registration-db-read-", readThreads, queueCapacity);
+        this.writeLane = newLane("registration-db-write-", 1, queueCapacity);
+    }
+
+    /**
+     * Creates the executor for one lane.
+     *
+     * @param namePrefix the prefix of the lane's thread names
+     * @param threads the number of threads
+     * @param queueCapacity the number of calls that may wait for a thread
+     * @return the lane's executor
+     */
+    private static ThreadPoolExecutor newLane(String namePrefix, int threads, int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, namePrefix + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Runs a read-only call on the read lane.
+     *
+     * @param call the call, which must not write to the database
+     * @param <T> the type of the call's result
+     * @return a future completed with the call's result or failure
+     */
+    public <T> CompletableFuture<T> read(SqlCall<T> call) {
+        return submit(readLane, call);
+    }
+
+    /**
+     * Runs a call that writes to the database on the write lane, after every write submitted before it.
+     *
+     * @param call the call
+     * @param <T> the type of the call's result
+     * @return a future completed with the call's result or failure
+     */
+    public <T> CompletableFuture<T> write(SqlCall<T> call) {
+        return submit(writeLane, call);
+    }
+
+    /**
+     * Hands a call to a lane.
+     *
+     * @param lane the lane to run the call on
+     * @param call the call
+     * @param <T> the type of the call's result
+     * @return a future completed with the call's result or failure
+     */
+    private static <T> CompletableFuture<T> submit(ThreadPoolExecutor lane, SqlCall<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            lane.execute(() -> {
+                try {
+                    future.complete(call.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Retrieves all courses.
+     *
+     * @return a future list of all courses
+     */
+    public CompletableFuture<List<Course>> getAllCourses() {
+        return read(DatabaseManager::getAllCourses);
+    }
+
+    /**
+     * Retrieves the courses with spaces left.
+     *
+     * @return a future list of available courses
+     */
+    public CompletableFuture<List<Course>> getAvailableCourses() {
+        return read(DatabaseManager::getAvailableCourses);
+    }
+
+    /**
+     * Retrieves one page of the courses with spaces left.
+     *
+     * @param after the course code the page starts after, or null for the first page
+     * @param limit the maximum number of courses on the page
+     * @return a future page of available courses
+     */
+    public CompletableFuture<CoursePage> getAvailableCoursesPage(String after, int limit) {
+        return read(() -> DatabaseManager.getAvailableCoursesPage(after, limit));
+    }
+
+    /**
+     * Searches the course catalogue by keywords.
+     *
+     * @param keywords the keywords as typed
+     * @param limit the maximum number of courses to return
+     * @return a future list of matching courses, best match first
+     */
+    public CompletableFuture<List<Course>> searchCourses(String keywords, int limit) {
+        return read(() -> DatabaseManager.searchCourses(keywords, limit));
+    }
+
+    /**
+     * Finds a course and its schedule, from the course cache when possible.
+     *
+     * @param courseCode the course code
+     * @return a future course, or null if not found
+     */
+    public CompletableFuture<Course> findCourse(String courseCode) {
+        return read(() -> DatabaseManager.findCourse(courseCode));
+    }
+
+    /**
+     * Retrieves the schedule of a course.
+     *
+     * @param courseCode the course code
+     * @return a future schedule, or null if not found
+     */
+    public CompletableFuture<Schedule> getScheduleByCourseCode(String courseCode) {
+        return read(() -> DatabaseManager.getScheduleByCourseCode(courseCode));
+    }
+
+    /**
+     * Retrieves the schedules of several courses at once, each on its own read.
+     *
+     * @param courseCodes the course codes
+     * @return a future list of the schedules in the order of the course codes, with null for unknown courses
+     */
+    public CompletableFuture<List<Schedule>> getSchedulesByCourseCodes(Collection<String> courseCodes) {
+        List<CompletableFuture<Schedule>> reads = new ArrayList<>(courseCodes.size());
+        for (String courseCode : courseCodes) {
+            reads.add(getScheduleByCourseCode(courseCode));
+        }
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<Schedule> schedules = new ArrayList<>(reads.size());
+            for (CompletableFuture<Schedule> read : reads) {
+                schedules.add(read.join());
+            }
+            return schedules;
+        });
+    }
+
+    /**
+     * Retrieves a student's weekly timetable in one query.
+     *
+     * @param studentId the student ID
+     * @return a future timetable, empty if the student has no registered courses
+     */
+    public CompletableFuture<WeeklyTimetable> getWeeklyTimetable(String studentId) {
+        return read(() -> DatabaseManager.getWeeklyTimetable(studentId));
+    }
+
+    /**
+     * Retrieves the courses a student is registered for.
+     *
+     * @param student the student
+     * @return a future list of the student's courses
+     */
+    public CompletableFuture<List<Course>> getRegisteredCourses(Student student) {
+        return read(() -> DatabaseManager.getRegisteredCourses(student));
+    }
+
+    /**
+     * Retrieves a student by ID.
+     *
+     * @param studentId the student ID
+     * @return a future student, or null if not found
+     */
+    public CompletableFuture<Student> getStudentById(String studentId) {
+        return read(() -> DatabaseManager.getStudentById(studentId));
+    }
+
+    /**
+     * Saves a new student.
+     *
+     * @param student the student to save
+     * @return a future completed once the student is saved
+     */
+    public CompletableFuture<Void> saveStudent(Student student) {
+        return write(() -> {
+            DatabaseManager.saveStudent(student);
+            return null;
+        });
+    }
+
+    /**
+     * Claims a seat in a course and registers the student for it.
+     *
+     * @param studentId the student ID
+     * @param courseCode the course code
+     * @return a future reservation result
+     */
+    public CompletableFuture<ReservationResult> reserveSeat(String studentId, String courseCode) {
+        return write(() -> DatabaseManager.reserveSeat(studentId, courseCode));
+    }
+
+    /**
+     * Registers a student for several courses in one transaction.
+     *
+     * @param studentId the student ID
+     * @param courseCodes the course codes
+     * @param mode whether to keep the registrations that succeed when others fail
+     * @return a future outcome of the batch
+     */
+    public CompletableFuture<BatchReservation> reserveSeats(String studentId, Collection<String> courseCodes, BatchMode mode) {
+        return write(() -> DatabaseManager.reserveSeats(studentId, courseCodes, mode));
+    }
+
+    /**
+     * Deregisters a student from a course and releases the seat.
+     *
+     * @param studentId the student ID
+     * @param courseCode the course code
+     * @return a future that is true if the student was registered
+     */
+    public CompletableFuture<Boolean> releaseSeat(String studentId, String courseCode) {
+        return write(() -> DatabaseManager.releaseSeat(studentId, courseCode));
+    }
+
+    /**
+     * Puts a student on a course's waitlist.
+     *
+     * @param studentId the student ID
+     * @param courseCode the course code
+     * @return a future position on the waitlist, or 0 if the student could not join it
+     */
+    public CompletableFuture<Integer> joinWaitlist(String studentId, String courseCode) {
+        return write(() -> DatabaseManager.joinWaitlist(studentId, courseCode));
+    }
+
+    /**
+     * Takes a student off a course's waitlist.
+     *
+     * @param studentId the student ID
+     * @param courseCode the course code
+     * @return a future that is true if the student was on the waitlist
+     */
+    public CompletableFuture<Boolean> leaveWaitlist(String studentId, String courseCode) {
+        return write(() -> DatabaseManager.leaveWaitlist(studentId, courseCode));
+    }
+
+    /**
+     * Waits for a future from this facade and returns its result, rethrowing a database failure
+     * as the original SQLException.
+     *
+     * @param future the future to wait for
+     * @param <T> the type of the result
+     * @return the result
+     * @throws SQLException if the call failed with a database access error
+     */
+    public static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the database", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new SQLException(cause);
+        }
+    }
+
+    /**
+     * Returns the number of calls waiting on the read lane.
+     *
+     * @return the read lane's queue length
+     */
+    public int getQueuedReads() {
+        return readLane.getQueue().size();
+    }
+
+    /**
+     * Returns the number of calls waiting on the write lane.
+     *
+     * @return the write lane's queue length
+     */
+    public int getQueuedWrites() {
+        return writeLane.getQueue().size();
+    }
+
+    /**
+     * Stops accepting calls, lets the queued calls finish, and waits up to five seconds for them.
+     */
+    @Override
+    public void close() {
+        readLane.shutdown();
+        writeLane.shutdown();
+        try {
+            boolean readsDone = readLane.awaitTermination(5, TimeUnit.SECONDS);
+            boolean writesDone = writeLane.awaitTermination(5, TimeUnit.SECONDS);
+            if (!readsDone || !writesDone) {
+                readLane.shutdownNow();
+                writeLane.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            readLane.shutdownNow();
+            writeLane.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package registration.system.database_management;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A small, fixed-size pool of reusable JDBC connections.
+ * Connections handed out by the pool are proxies whose {@code close()} returns the
+ * underlying connection to the pool instead of closing the SQLite file handle.
+ */
+public class ConnectionPool implements AutoCloseable {
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+
+    private final String url;
+    private final int maxSize;
+    private final long checkoutTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+    private final ConnectionInitializer initializer;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<Lease> leased = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService leakDetector;
+
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final AtomicInteger opened = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * Constructs a ConnectionPool for the given database URL.
+     *
+     * @param url the JDBC URL of the database
+     * @param maxSize the maximum number of connections that may be checked out at once
+     * @param checkoutTimeoutMillis how long a caller waits for a free connection before failing
+     * @param validationIntervalMillis how long a connection may sit idle before it is health-checked on checkout
+     * @param leakThresholdMillis how long a connection may be held before it is reported as leaked, or 0 to disable
+     */
+    public ConnectionPool(String url, int maxSize, long checkoutTimeoutMillis,
+                          long validationIntervalMillis, long leakThresholdMillis) {
+        this(url, maxSize, checkoutTimeoutMillis, validationIntervalMillis, leakThresholdMillis,
+                DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs a ConnectionPool for the given database URL with a prepared-statement cache of the given size.
+     *
+     * @param url the JDBC URL of the database
+     * @param maxSize the maximum number of connections that may be checked out at once
+     * @param checkoutTimeoutMillis how long a caller waits for a free connection before failing
+     * @param validationIntervalMillis how long a connection may sit idle before it is health-checked on checkout
+     * @param leakThresholdMillis how long a connection may be held before it is reported as leaked, or 0 to disable
+     * @param statementCacheSize the number of prepared statements kept per connection, or 0 to disable caching
+     */
+    public ConnectionPool(String url, int maxSize, long checkoutTimeoutMillis,
+                          long validationIntervalMillis, long leakThresholdMillis, int statementCacheSize) {
+        this(url, maxSize, checkoutTimeoutMillis, validationIntervalMillis, leakThresholdMillis,
+                statementCacheSize, conn -> {});
+    }
+
+    /**
+     * Constructs a ConnectionPool that runs the given initializer on every connection it opens.
+     *
+     * @param url the JDBC URL of the database
+     * @param maxSize the maximum number of connections that may be checked out at once
+     * @param checkoutTimeoutMillis how long a caller waits for a free connection before failing
+     * @param validationIntervalMillis how long a connection may sit idle before it is health-checked on checkout
+     * @param leakThresholdMillis how long a connection may be held before it is reported as leaked, or 0 to disable
+     * @param statementCacheSize the number of prepared statements kept per connection, or 0 to disable caching
+     * @param initializer the setup run once on each newly opened connection, for example to apply pragmas
+     */
+    public ConnectionPool(String url, int maxSize, long checkoutTimeoutMillis, long validationIntervalMillis,
+                          long leakThresholdMillis, int statementCacheSize, ConnectionInitializer initializer) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1, was " + maxSize);
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.initializer = initializer;
+        this.permits = new Semaphore(maxSize, true);
+
+        if (leakThresholdMillis > 0) {
+            leakDetector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "connection-pool-leak-detector");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, leakThresholdMillis / 2);
+            leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            leakDetector = null;
+        }
+    }
+
+    /**
+     * Returns the JDBC URL this pool connects to.
+     *
+     * @return the database URL
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Returns the maximum number of connections this pool hands out at once.
+     *
+     * @return the pool size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Checks out a connection, waiting up to the checkout timeout for one to become free.
+     * Idle connections are reused most-recently-used first and health-checked when they
+     * have been idle for longer than the validation interval.
+     *
+     * @return a pooled connection; closing it returns it to the pool
+     * @throws SQLException if the pool is closed, the wait times out or a new connection cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(checkoutTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + checkoutTimeoutMillis
+                        + " ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        waitNanos.add(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeHealthyIdle();
+            if (pooled == null) {
+                Connection physical = DriverManager.getConnection(url);
+                try {
+                    initializer.initialize(physical);
+                } catch (SQLException | RuntimeException e) {
+                    physical.close();
+                    throw e;
+                }
+                StatementCache statementCache = statementCacheSize > 0
+                        ? new StatementCache(physical, statementCacheSize, statementCacheHits, statementCacheMisses)
+                        : null;
+                pooled = new PooledConnection(physical, statementCache);
+                opened.incrementAndGet();
+            }
+            checkouts.increment();
+            Lease lease = new Lease(pooled);
+            leased.add(lease);
+            return lease.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool's usage counters.
+     *
+     * @return the current pool metrics
+     */
+    public PoolMetrics getMetrics() {
+        return new PoolMetrics(
+                checkouts.sum(),
+                waitNanos.sum(),
+                leased.size(),
+                idle.size(),
+                opened.get(),
+                leaksDetected.sum(),
+                statementCacheHits.sum(),
+                statementCacheMisses.sum()
+        );
+    }
+
+    /**
+     * Closes every idle connection and stops the leak detector.
+     * Connections that are still checked out are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (leakDetector != null) {
+            leakDetector.shutdownNow();
+        }
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closeQuietly();
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection that passes its health check,
+     * discarding any broken ones found along the way.
+     *
+     * @return a healthy idle connection, or null if none is available
+     */
+    private PooledConnection takeHealthyIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isHealthy(pooled)) {
+                return pooled;
+            }
+            pooled.closeQuietly();
+        }
+        return null;
+    }
+
+    /**
+     * Checks that a connection is still open, and for connections idle longer than the
+     * validation interval that the database still answers.
+     *
+     * @param pooled the connection to check
+     * @return true if the connection can be handed out
+     */
+    private boolean isHealthy(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pooled.lastReturnedNanos);
+            return idleMillis < validationIntervalMillis || pooled.physical.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a leased connection to the pool, rolling back any transaction left open.
+     *
+     * @param lease the lease being returned
+     */
+    private void release(Lease lease) {
+        if (!leased.remove(lease)) {
+            return;
+        }
+        PooledConnection pooled = lease.pooled;
+        boolean reusable = !closed;
+        try {
+            if (pooled.physical.isClosed()) {
+                reusable = false;
+            } else if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            pooled.lastReturnedNanos = System.nanoTime();
+            idle.offerFirst(pooled);
+        } else {
+            pooled.closeQuietly();
+        }
+        permits.release();
+    }
+
+    /**
+     * Reports connections that have been checked out for longer than the leak threshold.
+     * Each lease is reported once, together with the stack trace of the code that checked it out.
+     */
+    private void detectLeaks() {
+        long now = System.nanoTime();
+        for (Lease lease : leased) {
+            long heldMillis = TimeUnit.NANOSECONDS.toMillis(now - lease.checkedOutNanos);
+            if (heldMillis >= leakThresholdMillis && !lease.reportedAsLeak) {
+                lease.reportedAsLeak = true;
+                leaksDetected.increment();
+                System.err.println("Warning: database connection held for " + heldMillis
+                        + " ms by thread " + lease.owner + ", possible connection leak.");
+                lease.checkoutSite.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Setup run once on each physical connection when the pool opens it.
+     */
+    @FunctionalInterface
+    public interface ConnectionInitializer {
+        /**
+         * Prepares a newly opened connection for use.
+         *
+         * @param conn the new connection
+         * @throws SQLException if a database access error occurs
+         */
+        void initialize(Connection conn) throws SQLException;
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private static final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private volatile long lastReturnedNanos = System.nanoTime();
+
+        private PooledConnection(Connection physical, StatementCache statementCache) {
+            this.physical = physical;
+            this.statementCache = statementCache;
+        }
+
+        private void closeQuietly() {
+            if (statementCache != null) {
+                statementCache.closeAll();
+            }
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+                // the connection is being discarded anyway
+            }
+        }
+    }
+
+    /**
+     * A single checkout of a pooled connection, exposed to callers as a {@link Connection} proxy.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final Connection proxy;
+        private final long checkedOutNanos = System.nanoTime();
+        private final String owner = Thread.currentThread().getName();
+        private final Throwable checkoutSite = new Throwable("Connection checked out here");
+        private volatile boolean released;
+        private volatile boolean reportedAsLeak;
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    if (released) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    if (pooled.statementCache != null && method.getName().equals("prepareStatement")
+                            && args.length == 1) {
+                        return pooled.statementCache.prepare((String) args[0], this.proxy);
+                    }
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
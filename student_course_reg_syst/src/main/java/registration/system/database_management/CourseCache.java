@@ -0,0 +1,205 @@
+package registration.system.database_management;
+
+import registration.system.course_management.Course;
+import registration.system.course_management.schedule.PackedSchedule;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A process-wide cache of courses keyed by course code.
+ * Entries expire after a configurable time to live, and once the cache is full the entry loaded
+ * longest ago is evicted. Entries are kept in load order, which is also the order they expire in,
+ * so both expiry and eviction only look at the head of the map. The map is guarded by its own lock,
+ * held only for the lookup or update itself. Courses are stored and returned as copies, so callers
+ * may modify the courses they get without affecting other threads.
+ */
+public class CourseCache {
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a CourseCache with the default time to live and size.
+     */
+    public CourseCache() {
+        this(DEFAULT_TTL_MILLIS, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructs a CourseCache with the given time to live and size.
+     *
+     * @param ttlMillis how long a cached course stays valid
+     * @param maxSize the maximum number of courses kept in the cache
+     */
+    public CourseCache(long ttlMillis, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1, was " + maxSize);
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > CourseCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of the cached course with the given code.
+     *
+     * @param courseCode the course code
+     * @return the cached course, or null if it is not cached or has expired
+     */
+    public Course get(String courseCode) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(courseCode);
+            if (entry != null && isExpired(entry, System.nanoTime())) {
+                entries.remove(courseCode);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copyOf(entry.course);
+    }
+
+    /**
+     * Caches a copy of the given course, evicting the oldest entry if the cache is full.
+     *
+     * @param course the course to cache
+     */
+    public void put(Course course) {
+        Entry entry = new Entry(copyOf(course), System.nanoTime());
+        synchronized (entries) {
+            // Removed first so a reloaded course moves to the end of the load order
+            entries.remove(course.getCourseCode());
+            removeExpired(entry.loadedNanos);
+            entries.put(course.getCourseCode(), entry);
+        }
+    }
+
+    /**
+     * Sets the number of spaces left of a cached course, if it is cached.
+     *
+     * @param courseCode the course code
+     * @param spacesLeft the new number of spaces left
+     */
+    public void updateSpacesLeft(String courseCode, int spacesLeft) {
+        synchronized (entries) {
+            entries.computeIfPresent(courseCode, (code, entry) -> entry.withSpacesLeft(spacesLeft));
+        }
+    }
+
+    /**
+     * Adds to the number of spaces left of a cached course, if it is cached.
+     *
+     * @param courseCode the course code
+     * @param delta the number of spaces to add, negative to take spaces
+     */
+    public void adjustSpacesLeft(String courseCode, int delta) {
+        synchronized (entries) {
+            entries.computeIfPresent(courseCode,
+                    (code, entry) -> entry.withSpacesLeft(entry.course.getSpacesLeft() + delta));
+        }
+    }
+
+    /**
+     * Removes a course from the cache.
+     *
+     * @param courseCode the course code
+     */
+    public void invalidate(String courseCode) {
+        synchronized (entries) {
+            entries.remove(courseCode);
+        }
+    }
+
+    /**
+     * Removes every course from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of courses currently cached, including expired ones not yet removed.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to go to the database.
+     *
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Drops the expired entries from the head of the load order. The caller holds the lock.
+     *
+     * @param now the current time from System.nanoTime
+     */
+    private void removeExpired(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext() && isExpired(it.next(), now)) {
+            it.remove();
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.loadedNanos >= ttlNanos;
+    }
+
+    private static Course copyOf(Course course) {
+        int packed = course.getPackedSchedule();
+        if (packed != PackedSchedule.NONE) {
+            return new Course(course.getCourseCode(), course.getTitle(), course.getDescription(),
+                    course.getSpacesLeft(), packed);
+        }
+        return new Course(course.getCourseCode(), course.getTitle(), course.getDescription(),
+                course.getSpacesLeft(), course.getSchedule());
+    }
+
+    /**
+     * A cached course and the time it was loaded.
+     */
+    private record Entry(Course course, long loadedNanos) {
+        private Entry withSpacesLeft(int spacesLeft) {
+            Course updated = copyOf(course);
+            updated.setSpacesLeft(spacesLeft);
+            return new Entry(updated, loadedNanos);
+        }
+    }
+}
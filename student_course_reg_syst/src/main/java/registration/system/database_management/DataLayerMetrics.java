@@ -0,0 +1,515 @@
+package registration.system.database_management;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times every connection checkout of the data layer and attributes it to the operation that made it.
+ * {@link DatabaseManager#connect()} hands out connections through {@link #connect(ConnectionPool)},
+ * which wraps them so the time of each checkout is split into four phases:
+ * <ul>
+ *     <li>acquire: waiting for the connection pool</li>
+ *     <li>prepare: preparing statements, including statement cache lookups</li>
+ *     <li>execute: running statements until the first row or update count is ready</li>
+ *     <li>map: reading rows after a query has run, until its statement is closed</li>
+ * </ul>
+ * The operation is the outermost {@code DatabaseManager} method on the stack when the connection was
+ * checked out, such as {@code DatabaseManager.reserveSeat}, or the calling method for code outside
+ * DatabaseManager. Each phase has a {@link LatencyHistogram} per operation, and every checkout and
+ * statement is also emitted as a JDK Flight Recorder event ({@code registration.DatabaseOperation}
+ * and {@code registration.Query}), which costs next to nothing unless a recording is running.
+ * When a {@link SlowQueryLog} is set, every statement run that takes longer than its threshold,
+ * from execution until its last row is read, is handed to the log with its bind values and row count.
+ */
+public class DataLayerMetrics {
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String DATABASE_MANAGER = DatabaseManager.class.getName();
+
+    private final Map<String, OperationRecorder> operations = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+    private volatile SlowQueryLog slowQueryLog;
+
+    /**
+     * The histograms of one operation.
+     */
+    private static final class OperationRecorder {
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram acquire = new LatencyHistogram();
+        private final LatencyHistogram prepare = new LatencyHistogram();
+        private final LatencyHistogram execute = new LatencyHistogram();
+        private final LatencyHistogram map = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * Returns whether checkouts are being timed.
+     *
+     * @return true if metrics are collected
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns timing on or off. While it is off, connections are handed out unwrapped.
+     *
+     * @param enabled whether to collect metrics
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the log that statements slower than its threshold are handed to.
+     *
+     * @return the slow-query log, or null if slow queries are not logged
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * Sets the log that statements slower than its threshold are handed to. Only connections
+     * checked out afterwards use the new log, and only while metrics are enabled.
+     *
+     * @param slowQueryLog the slow-query log, or null to stop logging slow queries
+     */
+    public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Checks out a connection from the pool, timed and attributed to the calling operation when metrics are enabled.
+     *
+     * @param pool the pool to check the connection out from
+     * @return the connection; closing it returns it to the pool and records the checkout
+     * @throws SQLException if no connection could be checked out
+     */
+    public Connection connect(ConnectionPool pool) throws SQLException {
+        if (!enabled) {
+            return pool.getConnection();
+        }
+        String operation = callerOperation();
+        OperationRecorder recorder = operations.computeIfAbsent(operation, name -> new OperationRecorder());
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = pool.getConnection();
+        } catch (SQLException e) {
+            recorder.errors.increment();
+            throw e;
+        }
+        return new Checkout(operation, recorder, connection, start, System.nanoTime() - start, pool,
+                slowQueryLog).proxy;
+    }
+
+    /**
+     * Returns the latency of every operation recorded so far, slowest total time first.
+     *
+     * @return the metrics of each operation
+     */
+    public List<OperationMetrics> snapshot() {
+        List<OperationMetrics> snapshot = new ArrayList<>();
+        for (Map.Entry<String, OperationRecorder> entry : operations.entrySet()) {
+            OperationRecorder recorder = entry.getValue();
+            snapshot.add(new OperationMetrics(entry.getKey(), recorder.total.count(), recorder.errors.sum(),
+                    recorder.total.summary(), recorder.acquire.summary(), recorder.prepare.summary(),
+                    recorder.execute.summary(), recorder.map.summary()));
+        }
+        snapshot.sort(Comparator.comparingDouble((OperationMetrics metrics) -> metrics.count() * metrics.total().meanMillis())
+                .reversed());
+        return snapshot;
+    }
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    public void reset() {
+        operations.clear();
+    }
+
+    /**
+     * Returns a table with the latency percentiles of every phase of every operation.
+     *
+     * @return the report as text
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder(String.format("%-45s %-8s %8s %8s %10s %10s %10s %10s%n",
+                "operation", "phase", "count", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (OperationMetrics metrics : snapshot()) {
+            appendPhase(report, metrics.operation(), "total", metrics.total(), metrics.errors());
+            appendPhase(report, "", "acquire", metrics.acquire(), 0);
+            appendPhase(report, "", "prepare", metrics.prepare(), 0);
+            appendPhase(report, "", "execute", metrics.execute(), 0);
+            appendPhase(report, "", "map", metrics.map(), 0);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Appends one row of the report.
+     *
+     * @param report the report being built
+     * @param operation the operation name, or empty for the rows after an operation's first
+     * @param phase the phase name
+     * @param summary the phase's latencies
+     * @param errors the number of errors to show
+     */
+    private static void appendPhase(StringBuilder report, String operation, String phase, LatencySummary summary, long errors) {
+        report.append(String.format("%-45s %-8s %8d %8s %10.3f %10.3f %10.3f %10.3f%n", operation, phase, summary.count(),
+                operation.isEmpty() ? "" : String.valueOf(errors),
+                summary.p50Millis(), summary.p95Millis(), summary.p99Millis(), summary.maxMillis()));
+    }
+
+    /**
+     * Names the operation that is checking out a connection: the outermost method of the run of
+     * DatabaseManager frames above {@code DatabaseManager.connect}, or the first method outside
+     * DatabaseManager if it checked out the connection itself.
+     *
+     * @return the operation, as the simple class name and method name
+     */
+    private static String callerOperation() {
+        return STACK_WALKER.walk(frames -> {
+            Iterator<StackWalker.StackFrame> iterator = frames.iterator();
+            StackWalker.StackFrame operation = null;
+            while (iterator.hasNext()) {
+                StackWalker.StackFrame frame = iterator.next();
+                if (frame.getClassName().equals(DataLayerMetrics.class.getName())
+                        || frame.getClassName().equals(DATABASE_MANAGER) && frame.getMethodName().equals("connect")) {
+                    continue;
+                }
+                if (!frame.getClassName().equals(DATABASE_MANAGER)) {
+                    if (operation == null) {
+                        operation = frame;
+                    }
+                    break;
+                }
+                operation = frame;
+            }
+            if (operation == null) {
+                return "unknown";
+            }
+            String className = operation.getClassName();
+            return className.substring(className.lastIndexOf('.') + 1) + "." + operation.getMethodName();
+        });
+    }
+
+    /**
+     * One timed connection checkout, exposed to callers as a {@link Connection} proxy.
+     * A connection is used by one thread at a time, so the phase totals need no synchronization.
+     */
+    private static final class Checkout implements InvocationHandler {
+        private final String operation;
+        private final OperationRecorder recorder;
+        private final Connection connection;
+        private final Connection proxy;
+        private final long startNanos;
+        private final long acquireNanos;
+        private final ConnectionPool pool;
+        private final SlowQueryLog slowQueryLog;
+        private final List<TimedStatement> openStatements = new ArrayList<>();
+        private final OperationEvent event = new OperationEvent();
+        private long prepareNanos;
+        private long executeNanos;
+        private long mapNanos;
+        private int statements;
+        private boolean closed;
+
+        private Checkout(String operation, OperationRecorder recorder, Connection connection, long startNanos,
+                         long acquireNanos, ConnectionPool pool, SlowQueryLog slowQueryLog) {
+            this.operation = operation;
+            this.recorder = recorder;
+            this.connection = connection;
+            this.startNanos = startNanos;
+            this.acquireNanos = acquireNanos;
+            this.pool = pool;
+            this.slowQueryLog = slowQueryLog;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+            event.begin();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        for (TimedStatement statement : new ArrayList<>(openStatements)) {
+                            statement.finish();
+                        }
+                        connection.close();
+                        record();
+                    }
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "TimedConnection[" + operation + ", " + connection + "]";
+                case "prepareStatement":
+                    long start = System.nanoTime();
+                    PreparedStatement statement = (PreparedStatement) invokeOnConnection(method, args);
+                    long prepared = System.nanoTime() - start;
+                    prepareNanos += prepared;
+                    statements++;
+                    return new TimedStatement(this, statement, (String) args[0], prepared).proxy;
+                default:
+                    return invokeOnConnection(method, args);
+            }
+        }
+
+        /**
+         * Calls a method on the pooled connection, counting database errors against the operation.
+         *
+         * @param method the method
+         * @param args its arguments
+         * @return the method's result
+         * @throws Throwable whatever the method threw
+         */
+        private Object invokeOnConnection(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException) {
+                    recorder.errors.increment();
+                }
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Records the finished checkout in the operation's histograms and emits its flight recorder event.
+         */
+        private void record() {
+            recorder.total.record(System.nanoTime() - startNanos);
+            recorder.acquire.record(acquireNanos);
+            recorder.prepare.record(prepareNanos);
+            recorder.execute.record(executeNanos);
+            recorder.map.record(mapNanos);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.statements = statements;
+                event.acquireTime = acquireNanos;
+                event.prepareTime = prepareNanos;
+                event.executeTime = executeNanos;
+                event.mapTime = mapNanos;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * One timed statement of a checkout, exposed to callers as a {@link PreparedStatement} proxy.
+     * Each execution is a run that lasts until the statement is executed again or closed; runs
+     * slower than the slow-query threshold are handed to the checkout's slow-query log.
+     */
+    private static final class TimedStatement implements InvocationHandler {
+        private final Checkout checkout;
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private final String sql;
+        private final QueryEvent event = new QueryEvent();
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private final long prepareNanos;
+        private long executeNanos;
+        private long mapNanos;
+        private long mappingSince;
+        private long runNanos;
+        private long runRows;
+        private boolean running;
+        private boolean runFailed;
+        private boolean failed;
+        private boolean finished;
+
+        private TimedStatement(Checkout checkout, PreparedStatement statement, String sql, long prepareNanos) {
+            this.checkout = checkout;
+            this.statement = statement;
+            this.sql = sql;
+            this.prepareNanos = prepareNanos;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+            event.begin();
+            event.sql = sql;
+            checkout.openStatements.add(this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close")) {
+                finish();
+                statement.close();
+                return null;
+            }
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (checkout.slowQueryLog != null) {
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, args[1]);
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                }
+            }
+            if (!name.startsWith("execute")) {
+                return invokeOnStatement(method, args);
+            }
+            endRun();
+            boolean failedBefore = failed;
+            long start = System.nanoTime();
+            Object result = null;
+            try {
+                result = invokeOnStatement(method, args);
+                if (result instanceof ResultSet resultSet) {
+                    mappingSince = System.nanoTime();
+                    if (checkout.slowQueryLog != null) {
+                        result = countRows(resultSet);
+                    }
+                }
+                return result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                executeNanos += elapsed;
+                runNanos = elapsed;
+                runRows = updateCount(result);
+                runFailed = failed && !failedBefore;
+                running = true;
+                if (mappingSince == 0) {
+                    endRun();
+                }
+            }
+        }
+
+        /**
+         * Wraps a result set so the rows read from it are counted for the slow-query log.
+         *
+         * @param resultSet the result set returned by the statement
+         * @return a result set proxy that counts the rows read
+         */
+        private ResultSet countRows(ResultSet resultSet) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        try {
+                            Object result = method.invoke(resultSet, args);
+                            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                                runRows++;
+                            }
+                            return result;
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        /**
+         * Returns the number of rows changed by an update, as reported by the driver.
+         *
+         * @param result the value returned by an execute method
+         * @return the update count, the sum of a batch's update counts, or 0 for queries
+         */
+        private static long updateCount(Object result) {
+            if (result instanceof Integer count) {
+                return Math.max(0, count);
+            }
+            if (result instanceof Long count) {
+                return Math.max(0, count);
+            }
+            long total = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    total += Math.max(0, count);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    total += Math.max(0, count);
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Calls a method on the cached statement, counting database errors against the operation.
+         *
+         * @param method the method
+         * @param args its arguments
+         * @return the method's result
+         * @throws Throwable whatever the method threw
+         */
+        private Object invokeOnStatement(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException) {
+                    failed = true;
+                    checkout.recorder.errors.increment();
+                }
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Ends the last run, including the mapping phase of its query, and hands it to the
+         * slow-query log if it took longer than the threshold.
+         */
+        private void endRun() {
+            if (mappingSince != 0) {
+                long mapped = System.nanoTime() - mappingSince;
+                mapNanos += mapped;
+                runNanos += mapped;
+                mappingSince = 0;
+            }
+            if (!running) {
+                return;
+            }
+            running = false;
+            SlowQueryLog log = checkout.slowQueryLog;
+            if (log != null && runNanos >= log.getThresholdNanos()) {
+                log.offer(checkout.pool, checkout.operation, sql, parameters, runRows, runNanos, runFailed);
+            }
+        }
+
+        /**
+         * Adds the statement's times to its checkout and emits its flight recorder event.
+         * Called when the statement or its connection is closed, whichever comes first.
+         */
+        private void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            endRun();
+            checkout.executeNanos += executeNanos;
+            checkout.mapNanos += mapNanos;
+            checkout.openStatements.remove(this);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = checkout.operation;
+                event.prepareTime = prepareNanos;
+                event.executeTime = executeNanos;
+                event.mapTime = mapNanos;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+}
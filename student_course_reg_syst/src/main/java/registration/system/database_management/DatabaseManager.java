@@ -1,33 +1,147 @@
 package registration.system.database_management;
 
+import registration.system.course_management.BatchMode;
+import registration.system.course_management.BatchReservation;
 import registration.system.course_management.Course;
+import registration.system.course_management.CoursePage;
+import registration.system.course_management.ReservationResult;
+import registration.system.course_management.schedule.PackedSchedule;
 import registration.system.course_management.schedule.Schedule;
+import registration.system.course_management.schedule.TimetableEntry;
+import registration.system.course_management.schedule.TimetableIndex;
+import registration.system.course_management.schedule.WeeklyTimetable;
+import registration.system.course_management.search.SearchQuery;
 import registration.system.student_management.Student;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
+import java.time.DayOfWeek;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class DatabaseManager {
-    public static String URL = "jdbc:sqlite:registration.db";
-    public static String SCHEMA_PATH = "src/main/resources/database.sql";
-    public static BufferedReader reader;
+    public static final String AVAILABLE_COURSES_SQL =
+            "SELECT c.courseCode, c.title, c.description, c.spacesLeft, s.days, s.startTime, s.endTime, " +
+            "s.dayMask, s.startMinute, s.endMinute, s.timeNotation " +
+            "FROM courses c " +
+            "JOIN schedule s ON c.courseCode = s.courseCode " +
+            "WHERE c.spacesLeft > 0 " +
+            "ORDER BY +c.courseCode";
+    public static final String ALL_COURSES_PAGE_SQL =
+            "SELECT c.courseCode, c.title, c.description, c.spacesLeft, s.days, s.startTime, s.endTime, " +
+            "s.dayMask, s.startMinute, s.endMinute, s.timeNotation " +
+            "FROM courses c " +
+            "LEFT JOIN schedule s ON c.courseCode = s.courseCode " +
+            "WHERE c.courseCode > ? " +
+            "ORDER BY c.courseCode " +
+            "LIMIT ?";
+    /**
+     * The unary plus on spacesLeft keeps SQLite from using the spacesLeft index, which would
+     * return the page in index order and then have to sort it; walking the primary key instead
+     * returns the courses already in course code order and stops after one page.
+     */
+    public static final String AVAILABLE_COURSES_PAGE_SQL =
+            "SELECT c.courseCode, c.title, c.description, c.spacesLeft, s.days, s.startTime, s.endTime, " +
+            "s.dayMask, s.startMinute, s.endMinute, s.timeNotation " +
+            "FROM courses c " +
+            "JOIN schedule s ON c.courseCode = s.courseCode " +
+            "WHERE +c.spacesLeft > 0 AND c.courseCode > ? " +
+            "ORDER BY c.courseCode " +
+            "LIMIT ?";
+    public static final String REGISTERED_COURSES_SQL =
+            "SELECT r.courseCode, c.title, s.days, s.startTime, s.endTime, " +
+            "s.dayMask, s.startMinute, s.endMinute, s.timeNotation " +
+            "FROM registrations r " +
+            "INNER JOIN courses c ON r.courseCode = c.courseCode " +
+            "INNER JOIN schedule s ON r.courseCode = s.courseCode " +
+            "WHERE r.studentID = ?";
+    public static final String WEEKLY_TIMETABLE_SQL =
+            "WITH week(day, bit) AS (VALUES (1, 1), (2, 2), (3, 4), (4, 8), (5, 16), (6, 32), (7, 64)) " +
+            "SELECT w.day, r.courseCode, c.title, s.days, s.startTime, s.endTime, " +
+            "s.dayMask, s.startMinute, s.endMinute, s.timeNotation " +
+            "FROM registrations r " +
+            "INNER JOIN courses c ON r.courseCode = c.courseCode " +
+            "INNER JOIN schedule s ON r.courseCode = s.courseCode " +
+            "LEFT JOIN week w ON s.dayMask & w.bit " +
+            "WHERE r.studentID = ? " +
+            "ORDER BY w.day NULLS LAST, s.startMinute, r.courseCode";
+    public static final String IS_REGISTERED_SQL =
+            "SELECT COUNT(*) AS count FROM registrations WHERE studentID = ? AND courseCode = ?";
+    public static final String WAITLIST_POSITION_SQL =
+            "SELECT w.ticket - q.servedTicket AS position " +
+            "FROM waitlist w " +
+            "JOIN waitlist_queue q ON q.courseCode = w.courseCode " +
+            "WHERE w.courseCode = ? AND w.studentID = ?";
+    public static final String COURSE_SEARCH_SQL =
+            "SELECT c.courseCode, c.title, c.description, c.spacesLeft, s.days, s.startTime, s.endTime, " +
+            "s.dayMask, s.startMinute, s.endMinute, s.timeNotation " +
+            "FROM course_search f " +
+            "JOIN courses c ON c.courseCode = f.courseCode " +
+            "LEFT JOIN schedule s ON c.courseCode = s.courseCode " +
+            "WHERE course_search MATCH ? " +
+            "ORDER BY f.rank " +
+            "LIMIT ?";
+    private static final String SEARCH_TERMS_SQL =
+            "SELECT term FROM course_search_terms WHERE term >= ? AND term < ? ORDER BY doc DESC";
+    private static final int MAX_SPELLING_ALTERNATIVES = 5;
+    private static final String CLAIM_SEAT_SQL =
+            "UPDATE courses SET spacesLeft = spacesLeft - 1 " +
+            "WHERE courseCode = ? AND spacesLeft > 0 " +
+            "AND NOT EXISTS (SELECT 1 FROM registrations WHERE studentID = ? AND courseCode = ?)";
+    private static final String REGISTER_SQL = "INSERT INTO registrations (studentID, courseCode) VALUES (?, ?)";
+    private static final String REGISTER_IF_NEW_SQL =
+            "INSERT INTO registrations (studentID, courseCode) SELECT ?, ? " +
+            "WHERE NOT EXISTS (SELECT 1 FROM registrations WHERE studentID = ? AND courseCode = ?)";
+
+    public static volatile String URL = "jdbc:sqlite:registration.db";
+    public static final String SCHEMA_RESOURCE = "database.sql";
+    public static String SCHEMA_PATH = null;
+    public static volatile int POOL_SIZE = 8;
+    public static long CHECKOUT_TIMEOUT_MILLIS = 30_000;
+    public static long VALIDATION_INTERVAL_MILLIS = 30_000;
+    public static long LEAK_THRESHOLD_MILLIS = 60_000;
+    public static int STATEMENT_CACHE_SIZE = ConnectionPool.DEFAULT_STATEMENT_CACHE_SIZE;
+    public static StorageProfile STORAGE_PROFILE = StorageProfile.WAL;
+    private static volatile ConnectionPool pool;
+    private static CourseCache courseCache = new CourseCache();
+    private static TimetableCache timetableCache = new TimetableCache();
+    private static final Object[] studentLocks = new Object[64];
+    private static final Set<String> promotedStudents = ConcurrentHashMap.newKeySet();
+    private static StudentIdAllocator studentIdAllocator = new StudentIdAllocator();
+    private static AsyncDatabase asyncDatabase;
+    private static final DataLayerMetrics metrics = new DataLayerMetrics();
+    private static volatile SeatLedger seatLedger;
 
     /**
-     * Initializes the database schema reader with the path specified in SCHEMA_PATH.
-     * This is done once when the class is loaded.
+     * Flushes the seat ledger, if one is set, and closes the pooled connections when the JVM exits,
+     * so SQLite can checkpoint and remove its WAL file.
      */
     static {
-        try {
-            reader = new BufferedReader(new FileReader(SCHEMA_PATH));
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
+        for (int i = 0; i < studentLocks.length; i++) {
+            studentLocks[i] = new Object();
         }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            setSeatLedger(null);
+            resetPool();
+        }, "database-pool-shutdown"));
     }
 
     /**
@@ -36,33 +150,308 @@ public class DatabaseManager {
      */
     public static void setURL(String databaseUrl) {
         URL = databaseUrl;
+        courseCache.invalidateAll();
+        timetableCache.invalidateAll();
+        studentIdAllocator.reset();
+    }
+
+    /**
+     * Returns the process-wide course cache used by findCourse and kept up to date by course writes.
+     * @return the course cache
+     */
+    public static CourseCache getCourseCache() {
+        return courseCache;
+    }
+
+    /**
+     * Replaces the course cache, for example to change its time to live or size.
+     * @param cache the new course cache
+     */
+    public static void setCourseCache(CourseCache cache) {
+        courseCache = cache;
+    }
+
+    /**
+     * Returns the process-wide cache of student timetables used to check registrations for schedule conflicts.
+     * @return the timetable cache
+     */
+    public static TimetableCache getTimetableCache() {
+        return timetableCache;
+    }
+
+    /**
+     * Replaces the timetable cache, for example to change its time to live or size.
+     * @param cache the new timetable cache
+     */
+    public static void setTimetableCache(TimetableCache cache) {
+        timetableCache = cache;
+    }
+
+    /**
+     * Returns the process-wide allocator that hands out new student IDs.
+     * @return the student ID allocator
+     */
+    public static StudentIdAllocator getStudentIdAllocator() {
+        return studentIdAllocator;
+    }
+
+    /**
+     * Replaces the student ID allocator, for example to change the ID width or block size.
+     * @param allocator the new student ID allocator
+     */
+    public static void setStudentIdAllocator(StudentIdAllocator allocator) {
+        studentIdAllocator = allocator;
+    }
+
+    /**
+     * Returns the process-wide asynchronous facade, creating it on first use.
+     * @return the asynchronous database facade
+     */
+    public static synchronized AsyncDatabase getAsyncDatabase() {
+        if (asyncDatabase == null) {
+            asyncDatabase = new AsyncDatabase();
+        }
+        return asyncDatabase;
+    }
+
+    /**
+     * Replaces the asynchronous facade, for example to change its lane sizes. The previous facade is closed.
+     * @param database the new asynchronous database facade
+     */
+    public static synchronized void setAsyncDatabase(AsyncDatabase database) {
+        if (asyncDatabase != null && asyncDatabase != database) {
+            asyncDatabase.close();
+        }
+        asyncDatabase = database;
+    }
+
+    /**
+     * Returns the process-wide latency metrics of every operation that checks out a connection.
+     * @return the data layer metrics
+     */
+    public static DataLayerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the log that slow statements are handed to.
+     * @return the slow-query log, or null if slow queries are not logged
+     */
+    public static SlowQueryLog getSlowQueryLog() {
+        return metrics.getSlowQueryLog();
+    }
+
+    /**
+     * Replaces the slow-query log, for example to change its threshold or file. The previous log is closed.
+     * @param slowQueryLog the new slow-query log, or null to stop logging slow queries
+     */
+    public static synchronized void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        SlowQueryLog previous = metrics.getSlowQueryLog();
+        metrics.setSlowQueryLog(slowQueryLog);
+        if (previous != null && previous != slowQueryLog) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Returns the seat ledger that holds the number of spaces left in each course, if seats are counted in memory.
+     * @return the seat ledger, or null if seats are claimed with a write to the courses table
+     */
+    public static SeatLedger getSeatLedger() {
+        return seatLedger;
+    }
+
+    /**
+     * Switches seat accounting between the courses table and an in-memory seat ledger. The previous ledger
+     * is closed, which flushes it, and the course cache is cleared so it is reloaded with the new counts.
+     * @param ledger the new seat ledger, or null to claim seats with a write to the courses table again
+     */
+    public static synchronized void setSeatLedger(SeatLedger ledger) {
+        SeatLedger previous = seatLedger;
+        seatLedger = ledger;
+        if (previous != null && previous != ledger) {
+            previous.close();
+        }
+        courseCache.invalidateAll();
+    }
+
+    /**
+     * Returns the number of spaces left in a course, from the seat ledger if one is set.
+     * @param courseCode the course code
+     * @param stored the spacesLeft column as read from the database
+     * @return the number of spaces left
+     */
+    private static int liveSpacesLeft(String courseCode, int stored) {
+        SeatLedger ledger = seatLedger;
+        return ledger == null ? stored : ledger.spacesLeft(courseCode, stored);
+    }
+
+    /**
+     * Setter for the maximum number of pooled connections.
+     * @param poolSize the new pool size
+     */
+    public static void setPoolSize(int poolSize) {
+        POOL_SIZE = poolSize;
+    }
+
+    /**
+     * Setter for how long a connection may be held before it is reported as leaked.
+     * @param leakThresholdMillis the new threshold in milliseconds, or 0 to disable leak detection
+     */
+    public static void setLeakThreshold(long leakThresholdMillis) {
+        LEAK_THRESHOLD_MILLIS = leakThresholdMillis;
+        resetPool();
     }
 
     /**
      * Setter for the database schema path, primarily for test purposes.
-     * @param schemaPath the new schema path to set
+     * @param schemaPath the new schema path to set, or null to read {@link #SCHEMA_RESOURCE} from the classpath
      */
     public static void setSchemaPath(String schemaPath) {
         SCHEMA_PATH = schemaPath;
     }
 
     /**
-     * Establishes a connection to the database using the URL.
+     * Setter for the number of prepared statements cached per pooled connection.
+     * @param statementCacheSize the new cache size, or 0 to disable statement caching
+     */
+    public static void setStatementCacheSize(int statementCacheSize) {
+        STATEMENT_CACHE_SIZE = statementCacheSize;
+        resetPool();
+    }
+
+    /**
+     * Setter for the storage profile whose pragmas are applied to every new connection.
+     * @param storageProfile the new storage profile
+     */
+    public static void setStorageProfile(StorageProfile storageProfile) {
+        STORAGE_PROFILE = storageProfile;
+        resetPool();
+    }
+
+    /**
+     * Checks out a connection to the database from the connection pool.
+     * New connections are configured with the current storage profile.
+     * Closing the returned connection hands it back to the pool, and statements prepared on it
+     * are served from the connection's prepared-statement cache. The checkout is timed by the
+     * data layer metrics and attributed to the DatabaseManager method that called this one.
      * @return a Connection object representing the database connection
      * @throws SQLException if a database access error occurs
      */
     public static Connection connect() throws SQLException {
-        return DriverManager.getConnection(URL);
+        return metrics.connect(getPool());
+    }
+
+    /**
+     * Returns the connection pool for the current URL, creating it on first use.
+     * The pool is read without locking; only building a new one, when the URL or pool size
+     * has changed, takes the class lock.
+     * @return the connection pool
+     */
+    public static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current != null && current.getUrl().equals(URL) && current.getMaxSize() == POOL_SIZE) {
+            return current;
+        }
+        synchronized (DatabaseManager.class) {
+            current = pool;
+            if (current == null || !current.getUrl().equals(URL) || current.getMaxSize() != POOL_SIZE) {
+                if (current != null) {
+                    current.close();
+                }
+                current = new ConnectionPool(URL, POOL_SIZE, CHECKOUT_TIMEOUT_MILLIS,
+                        VALIDATION_INTERVAL_MILLIS, LEAK_THRESHOLD_MILLIS, STATEMENT_CACHE_SIZE, STORAGE_PROFILE::apply);
+                pool = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the connection pool metrics: checkouts, wait time, active connections
+     * and prepared-statement cache hits and misses.
+     * @return the current pool metrics
+     */
+    public static PoolMetrics getPoolMetrics() {
+        return getPool().getMetrics();
+    }
+
+    /**
+     * Closes the current connection pool so the next call to connect() builds a new one
+     * from the current settings.
+     */
+    public static synchronized void resetPool() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
     }
 
     /**
-     * Creates database tables using the provided connection and schema reader.
+     * Creates database tables using the provided connection, then applies any pending schema migrations.
+     * The schema is read when this is called, and its statements are only run if its SHA-256
+     * differs from the one recorded in the database the last time they were run, so an unchanged
+     * schema costs one metadata lookup on startup.
      * @param conn the connection to the database
+     * @return true if the schema statements were run, false if the database already had this schema
      * @throws SQLException if a database access error occurs
      * @throws IOException if an I/O error occurs
      */
-    public static void createTables(Connection conn) throws SQLException, IOException {
-        processSqlStatements(conn, reader);
+    public static boolean createTables(Connection conn) throws SQLException, IOException {
+        byte[] schema = readSchema();
+        String hash = AppMetadata.sha256(schema);
+        boolean changed = !hash.equals(AppMetadata.get(conn, AppMetadata.SCHEMA_HASH));
+        if (changed) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new ByteArrayInputStream(schema), StandardCharsets.UTF_8))) {
+                processSqlStatements(conn, reader);
+            }
+        }
+        SchemaMigrator.migrate(conn);
+        if (changed) {
+            AppMetadata.put(conn, AppMetadata.SCHEMA_HASH, hash);
+        }
+        return changed;
+    }
+
+    /**
+     * Reads the baseline schema: the file at SCHEMA_PATH if one is set and exists, otherwise
+     * {@link #SCHEMA_RESOURCE} from the classpath, so the application does not depend on the
+     * directory it is started from.
+     * @return the schema script
+     * @throws IOException if the schema cannot be found or read
+     */
+    private static byte[] readSchema() throws IOException {
+        if (SCHEMA_PATH != null && new File(SCHEMA_PATH).exists()) {
+            return Files.readAllBytes(Path.of(SCHEMA_PATH));
+        }
+        try (InputStream schema = DatabaseManager.class.getClassLoader().getResourceAsStream(SCHEMA_RESOURCE)) {
+            if (schema == null) {
+                throw new FileNotFoundException(SCHEMA_RESOURCE + " is not on the classpath" +
+                        (SCHEMA_PATH == null ? "" : " and " + SCHEMA_PATH + " does not exist"));
+            }
+            return schema.readAllBytes();
+        }
+    }
+
+    /**
+     * Returns the query plan SQLite chooses for a statement, one line per plan step,
+     * for example "SEARCH r USING INDEX idx_registrations_studentID_courseCode (studentID=?)".
+     * Parameters are left unbound, which does not change the plan.
+     * @param sql the statement to explain
+     * @return the detail column of each EXPLAIN QUERY PLAN row
+     * @throws SQLException if a database access error occurs
+     */
+    public static List<String> explainQueryPlan(String sql) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                plan.add(rs.getString("detail"));
+            }
+        }
+        return plan;
     }
 
     /**
@@ -92,16 +481,25 @@ public class DatabaseManager {
      */
     public static void createTrigger() throws SQLException {
         try(Connection conn = connect()) {
-            String trigger = "CREATE TRIGGER IF NOT EXISTS insert_course_codes " +
-                    "AFTER INSERT ON courses " +
-                    "FOR EACH ROW " +
-                    "BEGIN " +
-                    "INSERT INTO course_code (courseCode, title) " +
-                    "VALUES (NEW.courseCode, NEW.title); " +
-                    "END;";
-            try(PreparedStatement stmt = conn.prepareStatement(trigger)) {
-                stmt.executeUpdate();
-            }
+            createTrigger(conn);
+        }
+    }
+
+    /**
+     * Creates the course code trigger using the provided connection.
+     * @param conn the connection to the database
+     * @throws SQLException if a database access error occurs
+     */
+    public static void createTrigger(Connection conn) throws SQLException {
+        String trigger = "CREATE TRIGGER IF NOT EXISTS insert_course_codes " +
+                "AFTER INSERT ON courses " +
+                "FOR EACH ROW " +
+                "BEGIN " +
+                "INSERT INTO course_code (courseCode, title) " +
+                "VALUES (NEW.courseCode, NEW.title); " +
+                "END;";
+        try(PreparedStatement stmt = conn.prepareStatement(trigger)) {
+            stmt.executeUpdate();
         }
     }
 
@@ -121,6 +519,7 @@ public class DatabaseManager {
                 stmt.executeUpdate();
             }
         }
+        courseCache.invalidate(course.getCourseCode());
         createTrigger();
     }
 
@@ -141,6 +540,104 @@ public class DatabaseManager {
                 stmt.executeUpdate();
             }
         }
+        courseCache.invalidate(courseCode);
+    }
+
+    /**
+     * Checks whether the database has any courses.
+     * @param conn the connection to the database
+     * @return true if the courses table has at least one row
+     * @throws SQLException if a database access error occurs
+     */
+    public static boolean hasCourses(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT EXISTS (SELECT 1 FROM courses) AS found");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() && rs.getBoolean("found");
+        }
+    }
+
+    /**
+     * Upserts courses and their schedules in JDBC batches inside a single transaction.
+     * New courses are inserted; existing courses get their title, description and schedule updated
+     * while their spacesLeft is kept, so a re-import never resets seats that are already taken.
+     * The course code trigger is created once up front rather than per course.
+     * @param courses the courses to upsert, consumed one at a time
+     * @param batchSize the number of courses sent to the database per batch
+     * @return the number of courses processed
+     * @throws SQLException if a database access error occurs; the whole import is rolled back
+     */
+    public static int upsertCourses(Iterator<Course> courses, int batchSize) throws SQLException {
+        String upsertCourse = "INSERT INTO courses (courseCode, title, description, spacesLeft) VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT(courseCode) DO UPDATE SET title = excluded.title, description = excluded.description";
+        String updateSchedule = "UPDATE schedule SET days = ?, startTime = ?, endTime = ? WHERE courseCode = ?";
+        String insertSchedule = "INSERT INTO schedule (courseCode, days, startTime, endTime) " +
+                "SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM schedule WHERE courseCode = ?)";
+
+        int count = 0;
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try {
+                createTrigger(conn);
+                try (PreparedStatement courseStmt = conn.prepareStatement(upsertCourse);
+                     PreparedStatement updateStmt = conn.prepareStatement(updateSchedule);
+                     PreparedStatement insertStmt = conn.prepareStatement(insertSchedule)) {
+                    int pending = 0;
+                    while (courses.hasNext()) {
+                        Course course = courses.next();
+                        courseStmt.setString(1, course.getCourseCode());
+                        courseStmt.setString(2, course.getTitle());
+                        courseStmt.setString(3, course.getDescription());
+                        courseStmt.setInt(4, course.getSpacesLeft());
+                        courseStmt.addBatch();
+
+                        Schedule schedule = course.getSchedule();
+                        if (schedule != null) {
+                            String days = String.join(",", schedule.days());
+                            updateStmt.setString(1, days);
+                            updateStmt.setString(2, schedule.startTime());
+                            updateStmt.setString(3, schedule.endTime());
+                            updateStmt.setString(4, course.getCourseCode());
+                            updateStmt.addBatch();
+
+                            insertStmt.setString(1, course.getCourseCode());
+                            insertStmt.setString(2, days);
+                            insertStmt.setString(3, schedule.startTime());
+                            insertStmt.setString(4, schedule.endTime());
+                            insertStmt.setString(5, course.getCourseCode());
+                            insertStmt.addBatch();
+                        }
+
+                        count++;
+                        if (++pending == batchSize) {
+                            executeBatches(courseStmt, updateStmt, insertStmt);
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        executeBatches(courseStmt, updateStmt, insertStmt);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        courseCache.invalidateAll();
+        return count;
+    }
+
+    /**
+     * Executes the pending batches of the given statements in order.
+     * @param statements the statements whose batches to execute
+     * @throws SQLException if a database access error occurs
+     */
+    private static void executeBatches(PreparedStatement... statements) throws SQLException {
+        for (PreparedStatement statement : statements) {
+            statement.executeBatch();
+        }
     }
 
     /**
@@ -169,12 +666,20 @@ public class DatabaseManager {
     }
 
     /**
-     * Updates the capacity of a course in the database.
+     * Updates the capacity of a course in the database, or in the seat ledger if one is set.
      * @param courseCode the code of the course
      * @param spacesLeft the updated number of spaces left
      * @throws SQLException if a database access error occurs
      */
     public static void updateCapacity(String courseCode, int spacesLeft) throws SQLException {
+        SeatLedger ledger = seatLedger;
+        if (ledger != null) {
+            try (Connection conn = connect()) {
+                ledger.set(conn, courseCode, spacesLeft);
+            }
+            courseCache.updateSpacesLeft(courseCode, spacesLeft);
+            return;
+        }
         try(Connection conn = connect()) {
             String sql = "UPDATE courses SET spacesLeft = ? WHERE courseCode = ?";
             try(PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -183,6 +688,7 @@ public class DatabaseManager {
                 stmt.executeUpdate();
             }
         }
+        courseCache.updateSpacesLeft(courseCode, spacesLeft);
     }
 
     /**
@@ -197,23 +703,74 @@ public class DatabaseManager {
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                String courseCode = rs.getString("courseCode");
-                String title = rs.getString("title");
-                String description = rs.getString("description");
-                int spacesLeft = rs.getInt("spacesLeft");
-
-                String days = rs.getString("days");
-                String startTime = rs.getString("startTime");
-                String endTime = rs.getString("endTime");
-
-                Schedule schedule = new Schedule(Collections.singletonList(days), startTime, endTime);
-                Course course = new Course(courseCode, title, description, spacesLeft, schedule);
-                courses.add(course);
+                courses.add(mapCourseWithSchedule(rs));
             }
         }
         return courses;
     }
 
+    /**
+     * Maps the current row of a courses/schedule join to a Course with its Schedule.
+     * @param rs the result set positioned on the row to map
+     * @return the course on the current row
+     * @throws SQLException if a database access error occurs
+     */
+    private static Course mapCourseWithSchedule(ResultSet rs) throws SQLException {
+        return mapCourse(rs, rs.getString("description"), liveSpacesLeft(rs.getString("courseCode"), rs.getInt("spacesLeft")));
+    }
+
+    /**
+     * Maps the current row of a join with the schedule table to a Course. The schedule is kept in
+     * its packed form and only decoded when displayed; rows whose text could not be packed when they
+     * were written fall back to a Schedule built from the text columns.
+     * @param rs the result set positioned on the row to map
+     * @param description the description of the course
+     * @param spacesLeft the number of spaces left in the course
+     * @return the course on the current row
+     * @throws SQLException if a database access error occurs
+     */
+    private static Course mapCourse(ResultSet rs, String description, int spacesLeft) throws SQLException {
+        String courseCode = rs.getString("courseCode");
+        String title = rs.getString("title");
+        int packed = readPackedSchedule(rs);
+        if (packed != PackedSchedule.NONE) {
+            return new Course(courseCode, title, description, spacesLeft, packed);
+        }
+        return new Course(courseCode, title, description, spacesLeft, readTextSchedule(rs));
+    }
+
+    /**
+     * Reads the integer schedule columns of the current row and packs them.
+     * @param rs the result set positioned on the row to read
+     * @return the packed schedule, or PackedSchedule.NONE if the columns are null or not a valid schedule
+     * @throws SQLException if a database access error occurs
+     */
+    private static int readPackedSchedule(ResultSet rs) throws SQLException {
+        int dayMask = rs.getInt("dayMask");
+        boolean missing = rs.wasNull();
+        int startMinute = rs.getInt("startMinute");
+        missing |= rs.wasNull();
+        int endMinute = rs.getInt("endMinute");
+        missing |= rs.wasNull();
+        if (missing || !PackedSchedule.isValid(dayMask, startMinute, endMinute)) {
+            return PackedSchedule.NONE;
+        }
+        return PackedSchedule.pack(dayMask, startMinute, endMinute, rs.getInt("timeNotation"));
+    }
+
+    /**
+     * Reads the text schedule columns of the current row as they were stored.
+     * @param rs the result set positioned on the row to read
+     * @return the schedule
+     * @throws SQLException if a database access error occurs
+     */
+    private static Schedule readTextSchedule(ResultSet rs) throws SQLException {
+        String days = rs.getString("days");
+        String startTime = rs.getString("startTime");
+        String endTime = rs.getString("endTime");
+        return new Schedule(Collections.singletonList(days), startTime, endTime);
+    }
+
     /**
      * Retrieves all courses from the database.
      * @return a list of all courses in the database
@@ -221,7 +778,8 @@ public class DatabaseManager {
      */
     public static List<Course> getAllCourses() throws SQLException {
         try(Connection conn = connect()) {
-            String sql = "SELECT c.courseCode, c.title, c.description, c.spacesLeft, s.days, s.startTime, s.endTime " +
+            String sql = "SELECT c.courseCode, c.title, c.description, c.spacesLeft, s.days, s.startTime, s.endTime, " +
+                    "s.dayMask, s.startMinute, s.endMinute, s.timeNotation " +
                     "FROM courses c " +
                     "LEFT JOIN schedule s ON c.courseCode = s.courseCode";
             return getCoursesFromResultSet(conn, sql);
@@ -229,122 +787,334 @@ public class DatabaseManager {
     }
 
     /**
-     * Retrieves available courses (courses with spaces left) from the database.
+     * Retrieves available courses (courses with spaces left) from the database, in course code order.
+     * The courses with spaces left are found through the spacesLeft index and only they are sorted,
+     * rather than walking the whole primary key.
      * @return a list of available courses
      * @throws SQLException if a database access error occurs
      */
     public static List<Course> getAvailableCourses() throws SQLException {
         try(Connection conn = connect()) {
-            String sql = "SELECT c.courseCode, c.title, c.description, c.spacesLeft, s.days, s.startTime, s.endTime " +
-                    "FROM courses c " +
-                    "JOIN schedule s ON c.courseCode = s.courseCode " +
-                    "WHERE c.spacesLeft > 0";
-            return getCoursesFromResultSet(conn, sql);
+            return getCoursesFromResultSet(conn, AVAILABLE_COURSES_SQL);
         }
     }
 
     /**
-     * Saves a student to the database.
-     * @param student the student to save
+     * Retrieves one page of all courses, ordered by course code. Each page is found by seeking
+     * the primary key past the last course of the previous page, so later pages cost the same as the first.
+     * @param after the course code the page starts after, or null for the first page
+     * @param limit the maximum number of courses on the page
+     * @return the page of courses
      * @throws SQLException if a database access error occurs
      */
-    public static void saveStudent(Student student) throws SQLException {
-        try(Connection conn = connect()) {
-            String sql = "INSERT INTO students (studentID, name, surname) VALUES (?, ?, ?)";
-            try(PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, student.studentId());
-                stmt.setString(2, student.name());
-                stmt.setString(3, student.surname());
-                stmt.executeUpdate();
-            }
-        }
+    public static CoursePage getAllCoursesPage(String after, int limit) throws SQLException {
+        return getCoursesPage(ALL_COURSES_PAGE_SQL, after, limit);
     }
 
     /**
-     * Retrieves a course from the database by its course code.
-     * @param courseCode the course code
-     * @return the course with the specified course code, or null if not found
+     * Retrieves one page of the courses with spaces left, ordered by course code.
+     * @param after the course code the page starts after, or null for the first page
+     * @param limit the maximum number of courses on the page
+     * @return the page of available courses
      * @throws SQLException if a database access error occurs
      */
-    public static Course getCourseByCourseCode(String courseCode) throws SQLException {
-        try (Connection conn = connect()) {
-            String sql = "SELECT * FROM courses WHERE courseCode = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, courseCode);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        String title = rs.getString("title");
-                        String description = rs.getString("description");
-                        int spacesLeft = rs.getInt("spacesLeft");
-                        return new Course(courseCode, title, description, spacesLeft);
-                    }
-                }
-            }
-        }
-        return null;
+    public static CoursePage getAvailableCoursesPage(String after, int limit) throws SQLException {
+        return getCoursesPage(AVAILABLE_COURSES_PAGE_SQL, after, limit);
     }
 
     /**
-     * Retrieves the schedule of a course from the database by its course code.
-     * @param courseCode the course code
-     * @return the schedule of the course, or null if not found
+     * Runs a keyset-paged course query. One course more than the limit is read to find out
+     * whether there is a next page without a separate count.
+     * @param sql the page query, taking the course code to start after and the row limit
+     * @param after the course code the page starts after, or null for the first page
+     * @param limit the maximum number of courses on the page
+     * @return the page of courses
      * @throws SQLException if a database access error occurs
      */
-    public static Schedule getScheduleByCourseCode(String courseCode) throws SQLException {
-        try (Connection conn = connect()) {
-            String sql = "SELECT * FROM schedule WHERE courseCode = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, courseCode);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        String days = rs.getString("days");
-                        String startTime = rs.getString("startTime");
-                        String endTime = rs.getString("endTime");
-                        return new Schedule(Collections.singletonList(days), startTime, endTime);
+    private static CoursePage getCoursesPage(String sql, String after, int limit) throws SQLException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("A page needs room for at least one course, limit was " + limit);
+        }
+        List<Course> courses = new ArrayList<>(limit);
+        boolean hasMore = false;
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, after == null ? "" : after);
+            stmt.setInt(2, limit + 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (courses.size() == limit) {
+                        hasMore = true;
+                        break;
                     }
+                    courses.add(mapCourseWithSchedule(rs));
                 }
             }
         }
-        return null;
+        String nextAfter = hasMore ? courses.get(courses.size() - 1).getCourseCode() : null;
+        return new CoursePage(courses, nextAfter);
     }
 
     /**
-     * Retrieves a student from the database by their ID.
-     * @param studentId the ID of the student
-     * @return the student with the specified ID, or null if not found
+     * Passes every course to the action in course code order, one row at a time, without
+     * collecting the courses in a list. The result set and connection are closed when the
+     * action has seen the last course or throws.
+     * @param action the action to perform on each course
+     * @return the number of courses passed to the action
      * @throws SQLException if a database access error occurs
      */
-    public static Student getStudentById(String studentId) throws SQLException {
-        try(Connection conn = connect()) {
-            String sql = "SELECT * FROM students WHERE studentID = ?";
-            try(PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, studentId);
-                ResultSet rs = stmt.executeQuery();
-                if (rs.next()) {
-                    return new Student(
-                            rs.getString("studentID"),
-                            rs.getString("name"),
-                            rs.getString("surname")
-                    );
-                }
-            }
-        }
-        return null;
+    public static int forEachCourse(Consumer<Course> action) throws SQLException {
+        return forEachCourse(ALL_COURSES_PAGE_SQL, action);
     }
 
     /**
-     * Checks if a student ID is valid (exists in the database).
-     * @param studentId the student ID to check
-     * @return true if the student ID is valid, otherwise false
+     * Passes every course with spaces left to the action in course code order, one row at a time.
+     * @param action the action to perform on each available course
+     * @return the number of courses passed to the action
      * @throws SQLException if a database access error occurs
      */
-    public static boolean isValidStudentId(String studentId) throws  SQLException {
-        try(Connection conn = connect()) {
-            String sql  = "SELECT COUNT(*) AS count FROM students WHERE studentID = ?";
-            try(PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, studentId);
-                ResultSet rs = stmt.executeQuery();
-                if (rs.next()) {
+    public static int forEachAvailableCourse(Consumer<Course> action) throws SQLException {
+        return forEachCourse(AVAILABLE_COURSES_PAGE_SQL, action);
+    }
+
+    /**
+     * Runs a page query without a limit and streams its rows to an action.
+     * @param sql the page query, taking the course code to start after and the row limit
+     * @param action the action to perform on each course
+     * @return the number of courses passed to the action
+     * @throws SQLException if a database access error occurs
+     */
+    private static int forEachCourse(String sql, Consumer<Course> action) throws SQLException {
+        int count = 0;
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, "");
+            stmt.setInt(2, -1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(mapCourseWithSchedule(rs));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Searches the course catalogue by keywords. Every keyword must match the start of a word in the
+     * course code, title or description; matches in the course code rank above matches in the title,
+     * which rank above matches in the description. If nothing matches, keywords are also matched
+     * against indexed words a typo or two away, so "algoritms" still finds "Algorithms".
+     * @param keywords the keywords as typed
+     * @param limit the maximum number of courses to return
+     * @return the matching courses, best match first
+     * @throws SQLException if a database access error occurs
+     */
+    public static List<Course> searchCourses(String keywords, int limit) throws SQLException {
+        List<String> terms = SearchQuery.terms(keywords);
+        if (terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        try (Connection conn = connect()) {
+            List<Course> courses = searchCourses(conn, SearchQuery.prefixMatch(terms), limit);
+            if (!courses.isEmpty()) {
+                return courses;
+            }
+            List<List<String>> alternatives = new ArrayList<>();
+            boolean widened = false;
+            for (String term : terms) {
+                List<String> found = findSpellingAlternatives(conn, term);
+                widened |= !found.isEmpty();
+                alternatives.add(found);
+            }
+            return widened ? searchCourses(conn, SearchQuery.match(terms, alternatives), limit) : courses;
+        }
+    }
+
+    /**
+     * Runs a full-text match against the course search index.
+     * @param conn the connection to the database
+     * @param match the FTS5 match expression
+     * @param limit the maximum number of courses to return
+     * @return the matching courses, best match first
+     * @throws SQLException if a database access error occurs
+     */
+    private static List<Course> searchCourses(Connection conn, String match, int limit) throws SQLException {
+        List<Course> courses = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(COURSE_SEARCH_SQL)) {
+            stmt.setString(1, match);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    courses.add(mapCourseWithSchedule(rs));
+                }
+            }
+        }
+        return courses;
+    }
+
+    /**
+     * Finds indexed words that a search term may be a misspelling of. Only words with the same first
+     * character are considered, which keeps the lookup to a small range of the index vocabulary.
+     * @param conn the connection to the database
+     * @param term the search term
+     * @return up to five indexed words within the term's edit distance, the most common first
+     * @throws SQLException if a database access error occurs
+     */
+    private static List<String> findSpellingAlternatives(Connection conn, String term) throws SQLException {
+        List<String> alternatives = new ArrayList<>();
+        if (SearchQuery.maxEdits(term) == 0) {
+            return alternatives;
+        }
+        int first = term.codePointAt(0);
+        try (PreparedStatement stmt = conn.prepareStatement(SEARCH_TERMS_SQL)) {
+            stmt.setString(1, new String(Character.toChars(first)));
+            stmt.setString(2, new String(Character.toChars(first + 1)));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next() && alternatives.size() < MAX_SPELLING_ALTERNATIVES) {
+                    String candidate = rs.getString("term");
+                    if (SearchQuery.isAlternative(term, candidate)) {
+                        alternatives.add(candidate);
+                    }
+                }
+            }
+        }
+        return alternatives;
+    }
+
+    /**
+     * Saves a student to the database.
+     * @param student the student to save
+     * @throws SQLException if a database access error occurs
+     */
+    public static void saveStudent(Student student) throws SQLException {
+        try(Connection conn = connect()) {
+            String sql = "INSERT INTO students (studentID, name, surname) VALUES (?, ?, ?)";
+            try(PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, student.studentId());
+                stmt.setString(2, student.name());
+                stmt.setString(3, student.surname());
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Retrieves a course from the database by its course code.
+     * @param courseCode the course code
+     * @return the course with the specified course code, or null if not found
+     * @throws SQLException if a database access error occurs
+     */
+    public static Course getCourseByCourseCode(String courseCode) throws SQLException {
+        try (Connection conn = connect()) {
+            String sql = "SELECT * FROM courses WHERE courseCode = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, courseCode);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        String title = rs.getString("title");
+                        String description = rs.getString("description");
+                        int spacesLeft = liveSpacesLeft(courseCode, rs.getInt("spacesLeft"));
+                        return new Course(courseCode, title, description, spacesLeft);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds a course and its schedule by course code, answering from the course cache when possible.
+     * Unlike getCourseByCourseCode this may return a course whose spacesLeft is up to the cache
+     * time to live old if the database was changed by another process; seat reservations
+     * themselves are always checked against the database.
+     * @param courseCode the course code
+     * @return the course with the specified course code, or null if not found
+     * @throws SQLException if a database access error occurs
+     */
+    public static Course findCourse(String courseCode) throws SQLException {
+        Course cached = courseCache.get(courseCode);
+        if (cached != null) {
+            return cached;
+        }
+        String sql = "SELECT c.courseCode, c.title, c.description, c.spacesLeft, s.days, s.startTime, s.endTime, " +
+                "s.dayMask, s.startMinute, s.endMinute, s.timeNotation " +
+                "FROM courses c " +
+                "LEFT JOIN schedule s ON c.courseCode = s.courseCode " +
+                "WHERE c.courseCode = ?";
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, courseCode);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Course course = mapCourseWithSchedule(rs);
+                    courseCache.put(course);
+                    return course;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the schedule of a course from the database by its course code.
+     * @param courseCode the course code
+     * @return the schedule of the course, or null if not found
+     * @throws SQLException if a database access error occurs
+     */
+    public static Schedule getScheduleByCourseCode(String courseCode) throws SQLException {
+        try (Connection conn = connect()) {
+            String sql = "SELECT * FROM schedule WHERE courseCode = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, courseCode);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        int packed = readPackedSchedule(rs);
+                        return packed != PackedSchedule.NONE ? PackedSchedule.decode(packed) : readTextSchedule(rs);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves a student from the database by their ID.
+     * @param studentId the ID of the student
+     * @return the student with the specified ID, or null if not found
+     * @throws SQLException if a database access error occurs
+     */
+    public static Student getStudentById(String studentId) throws SQLException {
+        try(Connection conn = connect()) {
+            String sql = "SELECT * FROM students WHERE studentID = ?";
+            try(PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, studentId);
+                ResultSet rs = stmt.executeQuery();
+                if (rs.next()) {
+                    return new Student(
+                            rs.getString("studentID"),
+                            rs.getString("name"),
+                            rs.getString("surname")
+                    );
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a student ID is valid (exists in the database).
+     * @param studentId the student ID to check
+     * @return true if the student ID is valid, otherwise false
+     * @throws SQLException if a database access error occurs
+     */
+    public static boolean isValidStudentId(String studentId) throws  SQLException {
+        try(Connection conn = connect()) {
+            String sql  = "SELECT COUNT(*) AS count FROM students WHERE studentID = ?";
+            try(PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, studentId);
+                ResultSet rs = stmt.executeQuery();
+                if (rs.next()) {
                     int count  = rs.getInt("count");
                     return count > 0;
                 }
@@ -353,6 +1123,38 @@ public class DatabaseManager {
         return false;
     }
 
+    /**
+     * Reserves a block of values from a persistent sequence in the id_sequence table.
+     * The reservation is a single UPDATE, so concurrent callers in any process get disjoint blocks.
+     * A sequence that does not exist yet starts at 1.
+     * @param sequence the name of the sequence
+     * @param count the number of values to reserve
+     * @return the first value of the reserved block; the block ends before first value + count
+     * @throws SQLException if a database access error occurs
+     */
+    public static long reserveSequenceBlock(String sequence, int count) throws SQLException {
+        try (Connection conn = connect()) {
+            String sql = "UPDATE id_sequence SET nextValue = nextValue + ? WHERE name = ? RETURNING nextValue";
+            for (int attempt = 0; attempt < 2; attempt++) {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, count);
+                    stmt.setString(2, sequence);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            return rs.getLong("nextValue") - count;
+                        }
+                    }
+                }
+                String insert = "INSERT OR IGNORE INTO id_sequence (name, nextValue) VALUES (?, 1)";
+                try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+                    stmt.setString(1, sequence);
+                    stmt.executeUpdate();
+                }
+            }
+        }
+        throw new SQLException("Failed to reserve values from sequence " + sequence);
+    }
+
     /**
      * Registers a student for a course in the database.
      * @param studentId the ID of the student
@@ -368,6 +1170,833 @@ public class DatabaseManager {
                 stmt.executeUpdate();
             }
         }
+        timetableCache.invalidate(studentId);
+    }
+
+    /**
+     * Returns the lock held while a student's timetable is checked and changed. Locks are striped by
+     * student ID rather than taken on the cached timetable index, which is replaced whenever the cache
+     * entry expires or is invalidated, so every thread working on the same student gets the same lock.
+     * @param studentId the ID of the student
+     * @return the student's lock
+     */
+    private static Object studentLock(String studentId) {
+        return studentLocks[Math.floorMod(studentId.hashCode(), studentLocks.length)];
+    }
+
+    /**
+     * Reserves a seat in a course for a student, unless the course clashes with the student's timetable.
+     * The clash check uses the student's cached timetable index and holds the student's lock until the
+     * seat is claimed, so two registrations of the same student cannot both pass the check.
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @return REGISTERED if a seat was taken, otherwise the reason nothing was changed
+     * @throws SQLException if a database access error occurs
+     */
+    public static ReservationResult reserveSeat(String studentId, String courseCode) throws SQLException {
+        Course course = findCourse(courseCode);
+        if (course == null) {
+            return ReservationResult.NOT_FOUND;
+        }
+        int packed = course.getPackedSchedule();
+        synchronized (studentLock(studentId)) {
+            TimetableIndex timetable = getTimetable(studentId);
+            if (packed != PackedSchedule.NONE && !timetable.contains(courseCode) && timetable.findConflict(packed) != null) {
+                return ReservationResult.CONFLICT;
+            }
+            ReservationResult result = claimSeat(studentId, courseCode, packed);
+            if (result == ReservationResult.REGISTERED && packed != PackedSchedule.NONE) {
+                addToCachedTimetable(studentId, courseCode, packed);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns the timetable of a student from the timetable cache, loading it on a miss.
+     * @param studentId the ID of the student
+     * @return the student's timetable index
+     * @throws SQLException if a database access error occurs
+     */
+    public static TimetableIndex getTimetable(String studentId) throws SQLException {
+        TimetableIndex timetable = timetableCache.get(studentId);
+        if (timetable != null) {
+            return timetable;
+        }
+        try (Connection conn = connect()) {
+            timetable = loadTimetable(conn, studentId);
+        }
+        return timetableCache.putIfAbsent(studentId, timetable);
+    }
+
+    /**
+     * Loads the timetable of a student from the courses they are registered for.
+     * @param conn the connection to the database
+     * @param studentId the ID of the student
+     * @return the student's timetable index
+     * @throws SQLException if a database access error occurs
+     */
+    private static TimetableIndex loadTimetable(Connection conn, String studentId) throws SQLException {
+        TimetableIndex timetable = new TimetableIndex();
+        try (PreparedStatement stmt = conn.prepareStatement(REGISTERED_COURSES_SQL)) {
+            stmt.setString(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Course course = mapCourse(rs, null, 0);
+                    int packed = course.getPackedSchedule();
+                    if (packed != PackedSchedule.NONE) {
+                        timetable.add(course.getCourseCode(), packed);
+                    }
+                }
+            }
+        }
+        return timetable;
+    }
+
+    /**
+     * Adds a course a student has just been registered for to their cached timetable, if it is cached.
+     * The caller holds the student's lock.
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @param packed the course's packed schedule
+     */
+    private static void addToCachedTimetable(String studentId, String courseCode, int packed) {
+        TimetableIndex timetable = timetableCache.get(studentId);
+        if (timetable != null) {
+            timetable.add(courseCode, packed);
+        }
+    }
+
+    /**
+     * Checks, inside a reservation transaction, whether a student was promoted from a waitlist into a course
+     * that clashes with one being reserved. A promotion can commit after the clash check outside the transaction
+     * read the student's timetable, so the release that promotes a student flags them before it commits, and
+     * the next reservation to see the flag reloads their timetable on its own connection. That connection has
+     * already written, so it holds the write lock and the reload sees every committed promotion; the reloaded
+     * timetable replaces the cached one. The caller holds the student's lock.
+     * @param conn the connection holding the reservation transaction, after its first write
+     * @param studentId the ID of the student
+     * @param reserved the packed schedules of the courses being reserved, by course code
+     * @param inserted the courses whose registrations the transaction has already inserted
+     * @return true if a course being reserved clashes with the reloaded timetable
+     * @throws SQLException if a database access error occurs
+     */
+    private static boolean clashesAfterPromotion(Connection conn, String studentId, Map<String, Integer> reserved,
+                                                 Collection<String> inserted) throws SQLException {
+        if (!promotedStudents.remove(studentId)) {
+            return false;
+        }
+        TimetableIndex timetable = loadTimetable(conn, studentId);
+        for (String courseCode : inserted) {
+            timetable.remove(courseCode);
+        }
+        timetableCache.invalidate(studentId);
+        timetable = timetableCache.putIfAbsent(studentId, timetable);
+        for (Map.Entry<String, Integer> course : reserved.entrySet()) {
+            int packed = course.getValue();
+            if (packed != PackedSchedule.NONE && !timetable.contains(course.getKey()) && timetable.findConflict(packed) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reserves seats in several courses for a student in one transaction.
+     * Unknown courses and clashes, with the student's timetable or between the requested courses,
+     * are found from the course cache and the student's timetable index, with the student's lock held
+     * until the transaction ends, as in reserveSeat. Every remaining seat is then claimed with one JDBC
+     * batch and the registrations inserted with another, on a single connection.
+     * @param studentId the ID of the student
+     * @param courseCodes the codes of the courses to register for; repeated codes are reserved once
+     * @param mode whether to commit the courses that can be registered when others cannot
+     * @return whether the batch was committed and the result for each course
+     * @throws SQLException if a database access error occurs
+     */
+    public static BatchReservation reserveSeats(String studentId, Collection<String> courseCodes, BatchMode mode) throws SQLException {
+        synchronized (studentLock(studentId)) {
+            BatchReservation batch;
+            do {
+                batch = tryReserveSeats(studentId, courseCodes, mode);
+            } while (batch == null);
+            return batch;
+        }
+    }
+
+    /**
+     * Makes one attempt at reserving seats in several courses. The caller holds the student's lock.
+     * @param studentId the ID of the student
+     * @param courseCodes the codes of the courses to register for
+     * @param mode whether to commit the courses that can be registered when others cannot
+     * @return the batch outcome, or null if the student turned out to have been promoted into a clashing course;
+     * the transaction was rolled back and the reloaded timetable is cached for the next attempt
+     * @throws SQLException if a database access error occurs
+     */
+    private static BatchReservation tryReserveSeats(String studentId, Collection<String> courseCodes, BatchMode mode) throws SQLException {
+        Map<String, ReservationResult> results = new LinkedHashMap<>();
+        Map<String, String> titles = new HashMap<>();
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        TimetableIndex timetable = getTimetable(studentId);
+        for (String courseCode : courseCodes) {
+            if (results.containsKey(courseCode)) {
+                continue;
+            }
+            Course course = findCourse(courseCode);
+            if (course == null) {
+                results.put(courseCode, ReservationResult.NOT_FOUND);
+                continue;
+            }
+            titles.put(courseCode, course.getTitle());
+            int packed = course.getPackedSchedule();
+            if (packed != PackedSchedule.NONE && !timetable.contains(courseCode)
+                    && (timetable.findConflict(packed) != null || clashesWithAny(packed, candidates.values()))) {
+                results.put(courseCode, ReservationResult.CONFLICT);
+                continue;
+            }
+            results.put(courseCode, ReservationResult.REGISTERED);
+            candidates.put(courseCode, packed);
+        }
+        boolean failed = candidates.size() < results.size();
+        if (candidates.isEmpty() || (failed && mode == BatchMode.ALL_OR_NOTHING)) {
+            return abortBatch(results, titles, !failed || mode == BatchMode.PARTIAL);
+        }
+        SeatLedger ledger = seatLedger;
+        SeatLedger.SeatChanges seats = ledger == null ? null : ledger.begin();
+        try (Connection conn = connect()) {
+            // With a seat ledger, seats are claimed in memory before the transaction starts
+            List<String> ledgerClaims = new ArrayList<>();
+            if (seats != null) {
+                for (String courseCode : candidates.keySet()) {
+                    if (seats.tryClaim(conn, courseCode)) {
+                        ledgerClaims.add(courseCode);
+                    }
+                }
+            }
+            conn.setAutoCommit(false);
+            try {
+                // The claims come first so the transaction holds the write lock before anything is read
+                int[] claimed;
+                if (seats == null) {
+                    try (PreparedStatement stmt = conn.prepareStatement(CLAIM_SEAT_SQL)) {
+                        for (String courseCode : candidates.keySet()) {
+                            stmt.setString(1, courseCode);
+                            stmt.setString(2, studentId);
+                            stmt.setString(3, courseCode);
+                            stmt.addBatch();
+                        }
+                        claimed = stmt.executeBatch();
+                    }
+                } else {
+                    claimed = registerLedgerClaims(seats, conn, studentId, candidates.keySet(), ledgerClaims);
+                }
+                List<String> inserted = new ArrayList<>();
+                int i = 0;
+                for (String courseCode : candidates.keySet()) {
+                    if (seats != null && claimed[i++] > 0) {
+                        inserted.add(courseCode);
+                    }
+                }
+                if (clashesAfterPromotion(conn, studentId, candidates, inserted)) {
+                    rollback(conn, seats);
+                    return null;
+                }
+                i = 0;
+                for (Iterator<String> it = candidates.keySet().iterator(); it.hasNext(); i++) {
+                    String courseCode = it.next();
+                    if (claimed[i] == 0) {
+                        results.put(courseCode, reasonSeatNotClaimed(conn, studentId, courseCode));
+                        it.remove();
+                        failed = true;
+                    }
+                }
+                if (failed && mode == BatchMode.ALL_OR_NOTHING) {
+                    rollback(conn, seats);
+                    return abortBatch(results, titles, false);
+                }
+                if (seats == null) {
+                    try (PreparedStatement stmt = conn.prepareStatement(REGISTER_SQL)) {
+                        for (String courseCode : candidates.keySet()) {
+                            stmt.setString(1, studentId);
+                            stmt.setString(2, courseCode);
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+                for (String courseCode : candidates.keySet()) {
+                    removeFromWaitlist(conn, studentId, courseCode);
+                }
+                commit(conn, seats);
+            } catch (SQLException e) {
+                rollback(conn, seats);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        for (Map.Entry<String, Integer> registered : candidates.entrySet()) {
+            courseCache.adjustSpacesLeft(registered.getKey(), -1);
+            if (registered.getValue() != PackedSchedule.NONE) {
+                addToCachedTimetable(studentId, registered.getKey(), registered.getValue());
+            }
+        }
+        return new BatchReservation(true, results, titles);
+    }
+
+    /**
+     * Checks whether a packed schedule clashes with any of the given packed schedules.
+     * @param packed the packed schedule to check
+     * @param others the packed schedules to check against; PackedSchedule.NONE entries never clash
+     * @return true if any of them overlaps
+     */
+    private static boolean clashesWithAny(int packed, Collection<Integer> others) {
+        for (int other : others) {
+            if (other != PackedSchedule.NONE && PackedSchedule.overlaps(packed, other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registers a student for the courses of a batch whose seats were claimed from the seat ledger, logging
+     * each claim that is used. A claim for a course the student is already registered for is given back.
+     * @param seats the seat changes of the reservation transaction
+     * @param conn the connection holding the reservation transaction
+     * @param studentId the ID of the student
+     * @param courseCodes the codes of the courses in the batch
+     * @param ledgerClaims the courses whose seats were claimed
+     * @return 1 for each course the student was registered for and 0 for the others, in the order of courseCodes
+     * @throws SQLException if a database access error occurs or a claim could not be logged
+     */
+    private static int[] registerLedgerClaims(SeatLedger.SeatChanges seats, Connection conn, String studentId,
+                                              Collection<String> courseCodes, List<String> ledgerClaims) throws SQLException {
+        int[] registered = new int[courseCodes.size()];
+        int i = 0;
+        for (String courseCode : courseCodes) {
+            if (ledgerClaims.contains(courseCode)) {
+                if (registerIfNew(conn, studentId, courseCode)) {
+                    seats.claimed(studentId, courseCode);
+                    registered[i] = 1;
+                } else {
+                    seats.cancelClaim(courseCode);
+                }
+            }
+            i++;
+        }
+        return registered;
+    }
+
+    /**
+     * Commits a registration transaction, forcing its seat changes to the redo log first if seats are
+     * counted by a seat ledger.
+     * @param conn the connection holding the transaction
+     * @param seats the seat changes of the transaction, or null if seats are claimed in the courses table
+     * @throws SQLException if a database access error occurs
+     */
+    private static void commit(Connection conn, SeatLedger.SeatChanges seats) throws SQLException {
+        if (seats == null) {
+            conn.commit();
+        } else {
+            seats.commit(conn);
+        }
+    }
+
+    /**
+     * Rolls back a registration transaction, and undoes its seat changes if seats are counted by a seat ledger.
+     * @param conn the connection holding the transaction
+     * @param seats the seat changes of the transaction, or null if seats are claimed in the courses table
+     * @throws SQLException if a database access error occurs
+     */
+    private static void rollback(Connection conn, SeatLedger.SeatChanges seats) throws SQLException {
+        if (seats == null) {
+            conn.rollback();
+        } else {
+            seats.rollback(conn);
+        }
+    }
+
+    /**
+     * Registers a student for a course unless they are registered for it already.
+     * @param conn the connection holding the reservation transaction
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @return true if the registration was inserted
+     * @throws SQLException if a database access error occurs
+     */
+    private static boolean registerIfNew(Connection conn, String studentId, String courseCode) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(REGISTER_IF_NEW_SQL)) {
+            stmt.setString(1, studentId);
+            stmt.setString(2, courseCode);
+            stmt.setString(3, studentId);
+            stmt.setString(4, courseCode);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Finishes a batch that registered nothing.
+     * @param results the result for each course; REGISTERED results become BATCH_ABORTED
+     * @param titles the title of each requested course that exists
+     * @param committed whether to report the batch as committed: a partial batch is committed even when
+     * every course failed, an all-or-nothing batch only when it asked for no courses
+     * @return the batch outcome
+     */
+    private static BatchReservation abortBatch(Map<String, ReservationResult> results, Map<String, String> titles,
+                                               boolean committed) {
+        results.replaceAll((courseCode, result) ->
+                result == ReservationResult.REGISTERED ? ReservationResult.BATCH_ABORTED : result);
+        return new BatchReservation(committed, results, titles);
+    }
+
+    /**
+     * Atomically claims a seat in a course for a student.
+     * The conditional decrement of spacesLeft and the registration insert run in one transaction,
+     * so concurrent registrations can neither lose updates nor oversell the course.
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @param packed the course's packed schedule, checked again if the student was promoted from a waitlist meanwhile
+     * @return REGISTERED if a seat was taken, otherwise the reason nothing was changed
+     * @throws SQLException if a database access error occurs
+     */
+    private static ReservationResult claimSeat(String studentId, String courseCode, int packed) throws SQLException {
+        SeatLedger ledger = seatLedger;
+        if (ledger != null) {
+            return claimLedgerSeat(ledger, studentId, courseCode, packed);
+        }
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try {
+                // The write comes first so the transaction holds the write lock before anything is read
+                int claimed;
+                try (PreparedStatement stmt = conn.prepareStatement(CLAIM_SEAT_SQL)) {
+                    stmt.setString(1, courseCode);
+                    stmt.setString(2, studentId);
+                    stmt.setString(3, courseCode);
+                    claimed = stmt.executeUpdate();
+                }
+                if (claimed == 0) {
+                    ReservationResult reason = reasonSeatNotClaimed(conn, studentId, courseCode);
+                    conn.rollback();
+                    return reason;
+                }
+                if (clashesAfterPromotion(conn, studentId, Map.of(courseCode, packed), List.of())) {
+                    conn.rollback();
+                    return ReservationResult.CONFLICT;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(REGISTER_SQL)) {
+                    stmt.setString(1, studentId);
+                    stmt.setString(2, courseCode);
+                    stmt.executeUpdate();
+                }
+                removeFromWaitlist(conn, studentId, courseCode);
+                conn.commit();
+                courseCache.adjustSpacesLeft(courseCode, -1);
+                return ReservationResult.REGISTERED;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Claims a seat from the seat ledger and registers the student for the course. A course with no
+     * spaces left is turned away by the ledger without writing to the database. Otherwise the claim is
+     * logged once the registration is inserted and forced to disk before the transaction commits, and
+     * given back if the student turns out to be registered already or the transaction fails.
+     * @param ledger the seat ledger
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @param packed the course's packed schedule, checked again if the student was promoted from a waitlist meanwhile
+     * @return REGISTERED if a seat was taken, otherwise the reason nothing was changed
+     * @throws SQLException if a database access error occurs or the claim could not be logged
+     */
+    private static ReservationResult claimLedgerSeat(SeatLedger ledger, String studentId, String courseCode, int packed)
+            throws SQLException {
+        SeatLedger.SeatChanges seats = ledger.begin();
+        try (Connection conn = connect()) {
+            if (!seats.tryClaim(conn, courseCode)) {
+                return reasonSeatNotClaimed(conn, studentId, courseCode);
+            }
+            conn.setAutoCommit(false);
+            try {
+                if (!registerIfNew(conn, studentId, courseCode)) {
+                    seats.rollback(conn);
+                    return ReservationResult.DUPLICATE;
+                }
+                if (clashesAfterPromotion(conn, studentId, Map.of(courseCode, packed), List.of(courseCode))) {
+                    seats.rollback(conn);
+                    return ReservationResult.CONFLICT;
+                }
+                seats.claimed(studentId, courseCode);
+                removeFromWaitlist(conn, studentId, courseCode);
+                seats.commit(conn);
+            } catch (SQLException e) {
+                seats.rollback(conn);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            courseCache.adjustSpacesLeft(courseCode, -1);
+            return ReservationResult.REGISTERED;
+        }
+    }
+
+    /**
+     * Works out why a conditional seat claim matched no rows.
+     * @param conn the connection holding the reservation transaction
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @return DUPLICATE, NOT_FOUND or FULL
+     * @throws SQLException if a database access error occurs
+     */
+    private static ReservationResult reasonSeatNotClaimed(Connection conn, String studentId, String courseCode) throws SQLException {
+        String sql = "SELECT (SELECT COUNT(*) FROM registrations WHERE studentID = ? AND courseCode = ?) AS registered, " +
+                "(SELECT COUNT(*) FROM courses WHERE courseCode = ?) AS found";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, studentId);
+            stmt.setString(2, courseCode);
+            stmt.setString(3, courseCode);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                if (rs.getInt("registered") > 0) {
+                    return ReservationResult.DUPLICATE;
+                }
+                return rs.getInt("found") > 0 ? ReservationResult.FULL : ReservationResult.NOT_FOUND;
+            }
+        }
+    }
+
+    /**
+     * Atomically releases a student's seat in a course.
+     * The registration delete and either the promotion of the next student on the course's waitlist
+     * or, when nobody on the waitlist can take the seat, the increment of spacesLeft run in one transaction.
+     * With a seat ledger the seat is given back to the ledger, and the change forced to its redo log,
+     * before the transaction commits, so the freed seat is visible by the time the write lock is released.
+     * A promoted student's cached timetable is dropped, and the student flagged so a reservation that
+     * read the timetable earlier checks its clash again, before the promotion commits.
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @return true if the student was registered and the seat was released, otherwise false
+     * @throws SQLException if a database access error occurs
+     */
+    public static boolean releaseSeat(String studentId, String courseCode) throws SQLException {
+        String deregister = "DELETE FROM registrations WHERE studentID = ? AND courseCode = ?";
+        String freeSeat = "UPDATE courses SET spacesLeft = spacesLeft + 1 WHERE courseCode = ?";
+        SeatLedger ledger = seatLedger;
+        SeatLedger.SeatChanges seats = ledger == null ? null : ledger.begin();
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try {
+                int removed;
+                try (PreparedStatement stmt = conn.prepareStatement(deregister)) {
+                    stmt.setString(1, studentId);
+                    stmt.setString(2, courseCode);
+                    removed = stmt.executeUpdate();
+                }
+                String promoted = null;
+                if (removed > 0) {
+                    promoted = promoteFromWaitlist(conn, courseCode);
+                }
+                if (promoted != null) {
+                    // Flagged before the promotion is visible, so the student's next reservation rechecks its clash
+                    promotedStudents.add(promoted);
+                    timetableCache.invalidate(promoted);
+                }
+                if (removed > 0 && seats != null) {
+                    if (promoted == null) {
+                        seats.released(conn, studentId, courseCode);
+                    } else {
+                        seats.promoted(studentId, promoted, courseCode);
+                    }
+                } else if (removed > 0 && promoted == null) {
+                    try (PreparedStatement stmt = conn.prepareStatement(freeSeat)) {
+                        stmt.setString(1, courseCode);
+                        stmt.executeUpdate();
+                    }
+                }
+                commit(conn, seats);
+                if (promoted != null) {
+                    timetableCache.invalidate(promoted);
+                } else if (removed > 0) {
+                    courseCache.adjustSpacesLeft(courseCode, 1);
+                }
+                if (removed > 0) {
+                    synchronized (studentLock(studentId)) {
+                        TimetableIndex timetable = timetableCache.get(studentId);
+                        if (timetable != null) {
+                            timetable.remove(courseCode);
+                        }
+                    }
+                }
+                return removed > 0;
+            } catch (SQLException e) {
+                rollback(conn, seats);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Gives a freed seat to the first student on the course's waitlist who can take it.
+     * Students who have registered for the course in the meantime, or whose timetable now clashes
+     * with it, are taken off the waitlist and skipped.
+     * @param conn the connection holding the release transaction
+     * @param courseCode the course code
+     * @return the ID of the promoted student, or null if nobody on the waitlist can take the seat
+     * @throws SQLException if a database access error occurs
+     */
+    private static String promoteFromWaitlist(Connection conn, String courseCode) throws SQLException {
+        String head = "SELECT w.studentID FROM waitlist_queue q " +
+                "JOIN waitlist w ON w.courseCode = q.courseCode AND w.ticket = q.servedTicket + 1 " +
+                "WHERE q.courseCode = ?";
+        String serve = "UPDATE waitlist_queue SET servedTicket = servedTicket + 1 WHERE courseCode = ?";
+        String dequeue = "DELETE FROM waitlist WHERE courseCode = ? AND studentID = ?";
+        String register = "INSERT INTO registrations (studentID, courseCode) VALUES (?, ?)";
+        while (true) {
+            String studentId;
+            try (PreparedStatement stmt = conn.prepareStatement(head)) {
+                stmt.setString(1, courseCode);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    studentId = rs.getString("studentID");
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(serve)) {
+                stmt.setString(1, courseCode);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(dequeue)) {
+                stmt.setString(1, courseCode);
+                stmt.setString(2, studentId);
+                stmt.executeUpdate();
+            }
+            if (canTakeSeat(conn, studentId, courseCode)) {
+                try (PreparedStatement stmt = conn.prepareStatement(register)) {
+                    stmt.setString(1, studentId);
+                    stmt.setString(2, courseCode);
+                    stmt.executeUpdate();
+                }
+                return studentId;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a student can be promoted into a course: they are not registered for it yet,
+     * and it does not clash with any course they are registered for. The clash check compares the
+     * packed schedule columns, so it needs no timetable lock.
+     * @param conn the connection holding the release transaction
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @return true if the student can take the seat
+     * @throws SQLException if a database access error occurs
+     */
+    private static boolean canTakeSeat(Connection conn, String studentId, String courseCode) throws SQLException {
+        String sql = "SELECT EXISTS (SELECT 1 FROM registrations WHERE studentID = ? AND courseCode = ?) " +
+                "OR EXISTS (SELECT 1 FROM registrations r " +
+                "JOIN schedule s ON s.courseCode = r.courseCode " +
+                "JOIN schedule t ON t.courseCode = ? " +
+                "WHERE r.studentID = ? AND (s.dayMask & t.dayMask) != 0 " +
+                "AND s.startMinute < t.endMinute AND t.startMinute < s.endMinute) AS blocked";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, studentId);
+            stmt.setString(2, courseCode);
+            stmt.setString(3, courseCode);
+            stmt.setString(4, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && !rs.getBoolean("blocked");
+            }
+        }
+    }
+
+    /**
+     * Puts a student on the waitlist of a full course, at the back of the queue.
+     * A student who is already on the waitlist keeps their place.
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @return the student's position on the waitlist, starting at 1, or 0 if the student was not put on
+     * the waitlist because the course does not exist, still has spaces left, or the student is registered for it
+     * @throws SQLException if a database access error occurs
+     */
+    public static int joinWaitlist(String studentId, String courseCode) throws SQLException {
+        String openQueue = "INSERT OR IGNORE INTO waitlist_queue (courseCode) SELECT courseCode FROM courses WHERE courseCode = ?";
+        String mustWait = "SELECT spacesLeft, EXISTS " +
+                "(SELECT 1 FROM registrations WHERE studentID = ? AND courseCode = ?) AS registered " +
+                "FROM courses WHERE courseCode = ?";
+        String takeTicket = "UPDATE waitlist_queue SET nextTicket = nextTicket + 1 WHERE courseCode = ? " +
+                "RETURNING nextTicket - 1 AS ticket, servedTicket";
+        String enqueue = "INSERT INTO waitlist (courseCode, studentID, ticket) VALUES (?, ?, ?)";
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try {
+                // The write comes first so the transaction holds the write lock before anything is read
+                try (PreparedStatement stmt = conn.prepareStatement(openQueue)) {
+                    stmt.setString(1, courseCode);
+                    stmt.executeUpdate();
+                }
+                int position = getWaitlistPosition(conn, studentId, courseCode);
+                if (position == 0) {
+                    try (PreparedStatement stmt = conn.prepareStatement(mustWait)) {
+                        stmt.setString(1, studentId);
+                        stmt.setString(2, courseCode);
+                        stmt.setString(3, courseCode);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            if (!rs.next() || rs.getBoolean("registered")
+                                    || liveSpacesLeft(courseCode, rs.getInt("spacesLeft")) > 0) {
+                                conn.commit();
+                                return 0;
+                            }
+                        }
+                    }
+                    long ticket;
+                    try (PreparedStatement stmt = conn.prepareStatement(takeTicket)) {
+                        stmt.setString(1, courseCode);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            rs.next();
+                            ticket = rs.getLong("ticket");
+                            position = (int) (ticket - rs.getLong("servedTicket"));
+                        }
+                    }
+                    try (PreparedStatement stmt = conn.prepareStatement(enqueue)) {
+                        stmt.setString(1, courseCode);
+                        stmt.setString(2, studentId);
+                        stmt.setLong(3, ticket);
+                        stmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+                return position;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Returns a student's position on the waitlist of a course.
+     * Positions are kept as tickets, so the lookup reads one waitlist row and one queue row
+     * however long the waitlist is.
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @return the position, starting at 1, or 0 if the student is not on the waitlist
+     * @throws SQLException if a database access error occurs
+     */
+    public static int getWaitlistPosition(String studentId, String courseCode) throws SQLException {
+        try (Connection conn = connect()) {
+            return getWaitlistPosition(conn, studentId, courseCode);
+        }
+    }
+
+    /**
+     * Returns a student's position on the waitlist of a course using an open connection.
+     * @param conn the connection to use
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @return the position, starting at 1, or 0 if the student is not on the waitlist
+     * @throws SQLException if a database access error occurs
+     */
+    private static int getWaitlistPosition(Connection conn, String studentId, String courseCode) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(WAITLIST_POSITION_SQL)) {
+            stmt.setString(1, courseCode);
+            stmt.setString(2, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("position") : 0;
+            }
+        }
+    }
+
+    /**
+     * Takes a student off the waitlist of a course. Everyone behind the student moves up one place.
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @return true if the student was on the waitlist, otherwise false
+     * @throws SQLException if a database access error occurs
+     */
+    public static boolean leaveWaitlist(String studentId, String courseCode) throws SQLException {
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try {
+                boolean removed = removeFromWaitlist(conn, studentId, courseCode);
+                conn.commit();
+                return removed;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Removes a student from the waitlist of a course and closes the gap in the tickets,
+     * so the tickets of a course stay consecutive and positions stay exact.
+     * @param conn the connection holding the transaction
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @return true if the student was on the waitlist, otherwise false
+     * @throws SQLException if a database access error occurs
+     */
+    private static boolean removeFromWaitlist(Connection conn, String studentId, String courseCode) throws SQLException {
+        String dequeue = "DELETE FROM waitlist WHERE courseCode = ? AND studentID = ? RETURNING ticket";
+        String moveUp = "UPDATE waitlist SET ticket = ticket - 1 WHERE courseCode = ? AND ticket > ?";
+        String shrink = "UPDATE waitlist_queue SET nextTicket = nextTicket - 1 WHERE courseCode = ?";
+        long ticket;
+        try (PreparedStatement stmt = conn.prepareStatement(dequeue)) {
+            stmt.setString(1, courseCode);
+            stmt.setString(2, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                ticket = rs.getLong("ticket");
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(moveUp)) {
+            stmt.setString(1, courseCode);
+            stmt.setLong(2, ticket);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(shrink)) {
+            stmt.setString(1, courseCode);
+            stmt.executeUpdate();
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the registered courses of every student, with their schedules, in one query.
+     * @return the registered courses keyed by student ID, in student ID order
+     * @throws SQLException if a database access error occurs
+     */
+    public static Map<String, List<Course>> getAllTimetables() throws SQLException {
+        String sql = "SELECT r.studentID, r.courseCode, c.title, s.days, s.startTime, s.endTime, " +
+                "s.dayMask, s.startMinute, s.endMinute, s.timeNotation " +
+                "FROM registrations r " +
+                "INNER JOIN courses c ON r.courseCode = c.courseCode " +
+                "INNER JOIN schedule s ON r.courseCode = s.courseCode " +
+                "ORDER BY r.studentID";
+        Map<String, List<Course>> timetables = new LinkedHashMap<>();
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                timetables.computeIfAbsent(rs.getString("studentID"), id -> new ArrayList<>())
+                        .add(mapCourse(rs, null, 0));
+            }
+        }
+        return timetables;
     }
 
     /**
@@ -378,31 +2007,44 @@ public class DatabaseManager {
      */
     public static List<Course> getRegisteredCourses(Student student) throws SQLException {
         List<Course> registeredCourses = new ArrayList<>();
-        String sql = "SELECT r.courseCode, c.title, s.days, s.startTime, s.endTime " +
-                "FROM registrations r " +
-                "INNER JOIN courses c ON r.courseCode = c.courseCode " +
-                "INNER JOIN schedule s ON r.courseCode = s.courseCode " +
-                "WHERE r.studentID = ?";
         try (Connection conn = connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(REGISTERED_COURSES_SQL)) {
             stmt.setString(1, student.studentId());
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    String courseCode = rs.getString("courseCode");
-                    String title = rs.getString("title");
-                    String days = rs.getString("days");
-                    String startTime = rs.getString("startTime");
-                    String endTime = rs.getString("endTime");
-
-                    Schedule schedule = new Schedule(Collections.singletonList(days), startTime, endTime);
-                    Course course = new Course(courseCode, title, schedule);
-                    registeredCourses.add(course);
+                    registeredCourses.add(mapCourse(rs, null, 0));
                 }
                 return registeredCourses;
             }
         }
     }
 
+    /**
+     * Retrieves a student's weekly timetable in one query: a row for every day each registered course
+     * meets on, sorted by day and start time. Courses whose schedule could not be packed when it was
+     * written are returned as unscheduled.
+     * @param studentId the student ID
+     * @return the student's timetable, empty if the student has no registered courses
+     * @throws SQLException if a database access error occurs
+     */
+    public static WeeklyTimetable getWeeklyTimetable(String studentId) throws SQLException {
+        WeeklyTimetable timetable = new WeeklyTimetable();
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(WEEKLY_TIMETABLE_SQL)) {
+            stmt.setString(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int day = rs.getInt("day");
+                    DayOfWeek dayOfWeek = rs.wasNull() ? null : DayOfWeek.of(day);
+                    Course course = mapCourse(rs, null, 0);
+                    timetable.add(dayOfWeek,
+                            new TimetableEntry(course.getCourseCode(), course.getTitle(), course.getSchedule()));
+                }
+            }
+        }
+        return timetable;
+    }
+
     /**
      * Checks if a student is registered for a specific course.
      * @param student the student
@@ -412,8 +2054,7 @@ public class DatabaseManager {
      */
     public static boolean isStudentRegisteredForCourse(Student student, String courseCode) throws SQLException {
         try (Connection conn = connect()) {
-            String sql = "SELECT COUNT(*) AS count FROM registrations WHERE studentID = ? AND courseCode = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (PreparedStatement stmt = conn.prepareStatement(IS_REGISTERED_SQL)) {
                 stmt.setString(1, student.studentId());
                 stmt.setString(2, courseCode);
                 ResultSet rs = stmt.executeQuery();
@@ -441,5 +2082,6 @@ public class DatabaseManager {
                 stmt.executeUpdate();
             }
         }
+        timetableCache.invalidate(studentId);
     }
 }
@@ -0,0 +1,133 @@
+package registration.system.database_management;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size, thread-safe histogram of latencies in nanoseconds. Values are counted in
+ * logarithmic buckets, each power of two split into {@value #SUB_BUCKETS} linear sub-buckets,
+ * so every recorded value is within about 6% of the value reported for its bucket. Recording
+ * never allocates, which keeps the histogram cheap enough to update on every database call.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds; negative values are counted as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the count
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded latencies.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public double meanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Returns the highest recorded latency.
+     *
+     * @return the maximum in nanoseconds, or 0 if nothing was recorded
+     */
+    public long maxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Returns a percentile of the recorded latencies using the nearest-rank method.
+     * Values recorded while the percentile is computed may or may not be included.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the percentile in nanoseconds, the midpoint of its bucket capped at the maximum, or 0 if nothing was recorded
+     */
+    public long percentileNanos(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(midpointOf(i), maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+
+    /**
+     * Summarises the histogram in milliseconds.
+     *
+     * @return the summary
+     */
+    public LatencySummary summary() {
+        return new LatencySummary(count(), percentileNanos(50) / 1e6, percentileNanos(95) / 1e6,
+                percentileNanos(99) / 1e6, maxNanos() / 1e6, meanNanos() / 1e6);
+    }
+
+    /**
+     * Returns the bucket a value is counted in. Values below {@value #SUB_BUCKETS} get a bucket each;
+     * larger values are grouped by their highest set bit and the {@value #SUB_BUCKET_BITS} bits below it.
+     *
+     * @param value a non-negative value
+     * @return the bucket index
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the value in the middle of a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the midpoint of the values counted in the bucket
+     */
+    static long midpointOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (1L << exponent) + (bucket % SUB_BUCKETS) * width;
+        return lower + width / 2;
+    }
+}
@@ -0,0 +1,15 @@
+package registration.system.database_management;
+
+/**
+ * Latency percentiles of one phase of a data layer operation.
+ *
+ * @param count the number of recorded latencies
+ * @param p50Millis the median latency
+ * @param p95Millis the 95th percentile latency
+ * @param p99Millis the 99th percentile latency
+ * @param maxMillis the highest latency
+ * @param meanMillis the mean latency
+ */
+public record LatencySummary(long count, double p50Millis, double p95Millis, double p99Millis, double maxMillis,
+                             double meanMillis) {
+}
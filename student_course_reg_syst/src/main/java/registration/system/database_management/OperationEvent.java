@@ -0,0 +1,40 @@
+package registration.system.database_management;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JDK Flight Recorder event for one data layer operation, from asking the pool for a connection
+ * until the connection is closed, with the time split into its phases.
+ * Recorded by {@link DataLayerMetrics} and shown under Registration / Database in JFR tools.
+ */
+@Name("registration.DatabaseOperation")
+@Label("Database Operation")
+@Category({"Registration", "Database"})
+@Description("One connection checkout by the registration data layer")
+class OperationEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Statements")
+    int statements;
+
+    @Label("Acquire Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long acquireTime;
+
+    @Label("Prepare Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long prepareTime;
+
+    @Label("Execute Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long executeTime;
+
+    @Label("Map Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long mapTime;
+}
@@ -0,0 +1,19 @@
+package registration.system.database_management;
+
+/**
+ * A point-in-time snapshot of the latency of one data layer operation, such as
+ * {@code DatabaseManager.reserveSeat}. Each sample covers one connection checkout, from asking
+ * the pool for a connection until the connection is closed.
+ *
+ * @param operation the class and method that checked out the connection
+ * @param count the number of samples
+ * @param errors the number of statements that failed with a database error
+ * @param total the time from asking for the connection until closing it
+ * @param acquire the time spent waiting for the connection pool
+ * @param prepare the time spent preparing statements, including statement cache lookups
+ * @param execute the time spent executing statements until the first row or update count was ready
+ * @param map the time spent reading rows after a query was executed, until its statement was closed
+ */
+public record OperationMetrics(String operation, long count, long errors, LatencySummary total, LatencySummary acquire,
+                               LatencySummary prepare, LatencySummary execute, LatencySummary map) {
+}
@@ -0,0 +1,41 @@
+package registration.system.database_management;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point-in-time snapshot of {@link ConnectionPool} usage.
+ *
+ * @param checkouts the total number of connections handed out
+ * @param totalWaitNanos the total time callers spent waiting for a free connection
+ * @param active the number of connections currently checked out
+ * @param idle the number of open connections waiting in the pool
+ * @param opened the number of physical connections opened since the pool was created
+ * @param leaksDetected the number of checkouts held longer than the leak threshold
+ * @param statementCacheHits the number of prepared statements reused from a connection's statement cache
+ * @param statementCacheMisses the number of statements that had to be parsed and prepared
+ */
+public record PoolMetrics(long checkouts, long totalWaitNanos, int active, int idle, int opened, long leaksDetected,
+                          long statementCacheHits, long statementCacheMisses) {
+
+    /**
+     * Returns the average time a caller waited for a connection.
+     *
+     * @return the average wait in milliseconds, or 0 if nothing has been checked out
+     */
+    public double averageWaitMillis() {
+        if (checkouts == 0) {
+            return 0;
+        }
+        return (double) TimeUnit.NANOSECONDS.toMicros(totalWaitNanos) / checkouts / 1000.0;
+    }
+
+    /**
+     * Returns the fraction of prepared statements served from the statement cache.
+     *
+     * @return the hit ratio between 0 and 1, or 0 if nothing has been prepared
+     */
+    public double statementCacheHitRatio() {
+        long total = statementCacheHits + statementCacheMisses;
+        return total == 0 ? 0 : (double) statementCacheHits / total;
+    }
+}
@@ -0,0 +1,40 @@
+package registration.system.database_management;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JDK Flight Recorder event for one SQL statement, from preparing it until it is closed.
+ * Recorded by {@link DataLayerMetrics} and shown under Registration / Database in JFR tools.
+ */
+@Name("registration.Query")
+@Label("SQL Query")
+@Category({"Registration", "Database"})
+@Description("One SQL statement run by the registration data layer")
+@StackTrace(false)
+class QueryEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Prepare Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long prepareTime;
+
+    @Label("Execute Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long executeTime;
+
+    @Label("Map Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long mapTime;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,184 @@
+package registration.system.database_management;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies versioned schema migrations on top of the baseline schema in database.sql.
+ * Each migration is a SQL script on the classpath under {@code migrations/}, named
+ * {@code V<version>__<description>.sql}. Applied versions are recorded in the
+ * {@code schema_version} table, and each migration runs in its own transaction.
+ */
+public class SchemaMigrator {
+    public static final String MIGRATION_DIRECTORY = "migrations/";
+
+    /**
+     * The migrations in the order they are applied. New migrations are appended with the next version.
+     */
+    public static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "registration_indexes"),
+            new Migration(2, "course_availability_index"),
+            new Migration(3, "student_id_sequence"),
+            new Migration(4, "packed_schedule"),
+            new Migration(5, "course_waitlist"),
+            new Migration(6, "course_search")
+    );
+
+    /**
+     * A single schema migration.
+     *
+     * @param version the schema version the migration brings the database to
+     * @param description the description part of the script name
+     */
+    public record Migration(int version, String description) {
+
+        /**
+         * Returns the classpath location of the migration script.
+         *
+         * @return the script resource name
+         */
+        public String resource() {
+            return MIGRATION_DIRECTORY + "V" + version + "__" + description + ".sql";
+        }
+    }
+
+    /**
+     * Brings the database up to the latest schema version.
+     *
+     * @param conn the connection to the database
+     * @return the number of migrations applied
+     * @throws SQLException if a database access error occurs
+     * @throws IOException if a migration script cannot be read
+     */
+    public static int migrate(Connection conn) throws SQLException, IOException {
+        createVersionTable(conn);
+        int current = getCurrentVersion(conn);
+        int applied = 0;
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version() > current && apply(conn, migration)) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Returns the highest schema version applied to the database.
+     *
+     * @param conn the connection to the database
+     * @return the current schema version, or 0 if no migration has been applied
+     * @throws SQLException if a database access error occurs
+     */
+    public static int getCurrentVersion(Connection conn) throws SQLException {
+        createVersionTable(conn);
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COALESCE(MAX(version), 0) AS version FROM schema_version");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt("version") : 0;
+        }
+    }
+
+    /**
+     * Creates the table that records applied migrations, if it does not exist yet.
+     *
+     * @param conn the connection to the database
+     * @throws SQLException if a database access error occurs
+     */
+    private static void createVersionTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INTEGER PRIMARY KEY, " +
+                "description VARCHAR(100), " +
+                "appliedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Applies one migration in a transaction. The version row is written first, so when two
+     * processes migrate at once the second one blocks on the write lock and then skips the
+     * migration instead of applying it twice.
+     *
+     * @param conn the connection to the database
+     * @param migration the migration to apply
+     * @return true if the migration was applied, false if another process applied it first
+     * @throws SQLException if a database access error occurs; the migration is rolled back
+     * @throws IOException if the migration script cannot be read
+     */
+    private static boolean apply(Connection conn, Migration migration) throws SQLException, IOException {
+        List<String> statements = readStatements(migration.resource());
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            String record = "INSERT OR IGNORE INTO schema_version (version, description) VALUES (?, ?)";
+            try (PreparedStatement stmt = conn.prepareStatement(record)) {
+                stmt.setInt(1, migration.version());
+                stmt.setString(2, migration.description());
+                if (stmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+            }
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : statements) {
+                    stmt.executeUpdate(sql);
+                }
+            }
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Failed to apply migration " + migration.resource() + ": " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Reads a migration script and splits it into statements.
+     * A statement ends at a line ending with a semicolon, except inside CREATE TRIGGER,
+     * which ends at its closing {@code END;} line.
+     *
+     * @param resource the classpath resource name of the script
+     * @return the statements in the script
+     * @throws IOException if the script cannot be found or read
+     */
+    static List<String> readStatements(String resource) throws IOException {
+        InputStream in = SchemaMigrator.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new FileNotFoundException("Migration script not found on classpath: " + resource);
+        }
+
+        List<String> statements = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            StringBuilder sqlBuilder = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (sqlBuilder.length() == 0 && line.isBlank()) {
+                    continue;
+                }
+                sqlBuilder.append(line).append('\n');
+                String trimmed = line.trim();
+                boolean inTrigger = sqlBuilder.toString().stripLeading().regionMatches(true, 0, "CREATE TRIGGER", 0, 14);
+                if (inTrigger ? trimmed.equalsIgnoreCase("END;") : trimmed.endsWith(";")) {
+                    statements.add(sqlBuilder.toString().trim());
+                    sqlBuilder.setLength(0);
+                }
+            }
+            if (!sqlBuilder.toString().isBlank()) {
+                statements.add(sqlBuilder.toString().trim());
+            }
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,727 @@
+package registration.system.database_management;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the authoritative number of spaces left in each course in memory, so seats can be claimed
+ * without writing the courses table.
+ * <p>
+ * Each course has an {@link AtomicInteger} counter, and a seat is claimed by a compare-and-set
+ * decrement that never goes below zero, so a full course is turned away without touching the
+ * database at all. The transaction that registers or deregisters a student records its seat
+ * changes in a {@link SeatChanges}, which appends each one to a redo log as a numbered delta naming
+ * the student, and forces the log to disk before the transaction commits. Transactions that commit
+ * together share one {@code force} of the log file.
+ * <p>
+ * A background thread flushes the deltas of committed transactions to the courses table in periodic
+ * batches. The batch and the sequence number of its last delta are committed in one transaction,
+ * with the sequence number recorded in {@link AppMetadata}. When a ledger is opened, the deltas in the
+ * log numbered after the recorded sequence are applied first. A process can stop after a delta is
+ * logged and before its transaction commits, so a student's deltas are not applied as they are: the
+ * first one tells whether the student held a seat in the course before, the registrations table
+ * tells whether they hold one now, and the difference is applied.
+ * <p>
+ * While a ledger is in use it owns spacesLeft: capacity changes must go through
+ * {@link #set(Connection, String, int)}, registrations must be added and removed by transactions that
+ * record their seat changes, and the stored column may lag the counters by up to one flush interval.
+ */
+public class SeatLedger implements AutoCloseable {
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+    public static final long DEFAULT_MAX_LOG_BYTES = 1024 * 1024;
+    public static final String FLUSHED_SEQUENCE = "seats.flushedSequence";
+
+    private final Path redoLog;
+    private final long maxLogBytes;
+    private final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+    private final Object loadLock = new Object();
+    private final Object logLock = new Object();
+    private final Object syncLock = new Object();
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher;
+    private final List<Change> pending = new ArrayList<>();
+    private FileChannel channel;
+    private long sequence;
+    private long durableSequence;
+    private IOException broken;
+
+    /**
+     * A change to one course's counter, as written to the redo log. A claim or release names the
+     * student whose registration it belongs to, and is only flushed once its transaction has
+     * committed; a capacity change names no student and can be flushed as soon as it is written.
+     */
+    private static final class Change {
+        private final long sequence;
+        private final String courseCode;
+        private final int delta;
+        private final String studentId;
+        private final int counted;
+        private boolean committed;
+
+        /**
+         * Creates a change.
+         *
+         * @param sequence the position of the change in the log
+         * @param courseCode the course code
+         * @param delta the change in spaces left
+         * @param studentId the student whose seat changed, or null for a capacity change
+         * @param counted the change made to the course's counter, undone if the transaction rolls back
+         */
+        private Change(long sequence, String courseCode, int delta, String studentId, int counted) {
+            this.sequence = sequence;
+            this.courseCode = courseCode;
+            this.delta = delta;
+            this.studentId = studentId;
+            this.counted = counted;
+            this.committed = studentId == null;
+        }
+
+        /**
+         * Returns the change as a line of the redo log: the sequence number, the course code, the delta
+         * and, for a claim or release, the student ID, separated by spaces.
+         *
+         * @return the line, ending with a newline
+         */
+        private String line() {
+            return sequence + " " + courseCode + " " + delta + (studentId == null ? "" : " " + studentId) + "\n";
+        }
+    }
+
+    /**
+     * The seat changes of one registration transaction. Seats are claimed before the transaction
+     * starts; each claim the transaction uses is logged once its registration is inserted, and every
+     * other claim is given back. {@link #commit(Connection)} forces the logged changes to disk before
+     * committing, and {@link #rollback(Connection)} undoes them along with the unused claims.
+     */
+    public final class SeatChanges {
+        private final List<String> claims = new ArrayList<>();
+        private final List<Change> logged = new ArrayList<>();
+
+        private SeatChanges() {
+        }
+
+        /**
+         * Claims a seat in a course. The claim is held in memory until it is logged with
+         * {@link #claimed(String, String)} or given back.
+         *
+         * @param conn a connection to load the course's counter with, if it is not loaded yet
+         * @param courseCode the course code
+         * @return true if a seat was claimed, false if the course has no spaces left or does not exist
+         * @throws SQLException if the counter could not be loaded
+         */
+        public boolean tryClaim(Connection conn, String courseCode) throws SQLException {
+            AtomicInteger counter = counter(conn, courseCode);
+            if (counter == null) {
+                return false;
+            }
+            int spacesLeft;
+            do {
+                spacesLeft = counter.get();
+                if (spacesLeft <= 0) {
+                    return false;
+                }
+            } while (!counter.compareAndSet(spacesLeft, spacesLeft - 1));
+            claims.add(courseCode);
+            return true;
+        }
+
+        /**
+         * Gives back a claim the transaction does not use, such as one for a course the student is
+         * already registered for.
+         *
+         * @param courseCode the course code
+         */
+        public void cancelClaim(String courseCode) {
+            if (claims.remove(courseCode)) {
+                counters.get(courseCode).incrementAndGet();
+            }
+        }
+
+        /**
+         * Logs a claim once the student's registration for the course has been inserted.
+         *
+         * @param studentId the ID of the student
+         * @param courseCode the course code
+         * @throws SQLException if the claim could not be written to the redo log; it is given back
+         */
+        public void claimed(String studentId, String courseCode) throws SQLException {
+            if (!claims.remove(courseCode)) {
+                throw new IllegalStateException("No seat was claimed in " + courseCode);
+            }
+            logged.add(append(counters.get(courseCode), courseCode, -1, studentId, -1));
+        }
+
+        /**
+         * Gives a seat back to a course once the student's registration for it has been deleted.
+         * The counter is raised straight away, while the transaction still holds the write lock, so
+         * a student joining the waitlist after it commits sees the free seat.
+         *
+         * @param conn a connection to load the course's counter with, if it is not loaded yet
+         * @param studentId the ID of the student
+         * @param courseCode the course code
+         * @throws SQLException if the release could not be written to the redo log
+         */
+        public void released(Connection conn, String studentId, String courseCode) throws SQLException {
+            AtomicInteger counter = counter(conn, courseCode);
+            if (counter != null) {
+                counter.incrementAndGet();
+                logged.add(append(counter, courseCode, 1, studentId, 1));
+            }
+        }
+
+        /**
+         * Logs a seat passing from one student to another without the course's counter changing,
+         * when a released seat goes to the next student on the waitlist.
+         *
+         * @param releasedStudentId the ID of the student whose registration was deleted
+         * @param promotedStudentId the ID of the student who was registered in their place
+         * @param courseCode the course code
+         * @throws SQLException if the changes could not be written to the redo log
+         */
+        public void promoted(String releasedStudentId, String promotedStudentId, String courseCode) throws SQLException {
+            logged.add(append(null, courseCode, 1, releasedStudentId, 0));
+            logged.add(append(null, courseCode, -1, promotedStudentId, 0));
+        }
+
+        /**
+         * Forces the logged changes to disk and commits the transaction. Claims that were never
+         * logged are given back.
+         *
+         * @param conn the connection holding the transaction
+         * @throws SQLException if the log could not be forced or the commit failed; the caller rolls back
+         */
+        public void commit(Connection conn) throws SQLException {
+            if (!logged.isEmpty()) {
+                awaitDurable(logged.get(logged.size() - 1).sequence);
+            }
+            conn.commit();
+            synchronized (logLock) {
+                for (Change change : logged) {
+                    change.committed = true;
+                }
+            }
+            logged.clear();
+            giveBackClaims();
+        }
+
+        /**
+         * Rolls the transaction back, drops its logged changes from the pending changes and undoes
+         * what they did to the counters, and gives back the claims that were never logged. The
+         * dropped changes stay in the redo log, where recovery finds they have no effect.
+         *
+         * @param conn the connection holding the transaction
+         * @throws SQLException if the rollback failed; the changes are undone anyway
+         */
+        public void rollback(Connection conn) throws SQLException {
+            try {
+                conn.rollback();
+            } finally {
+                synchronized (logLock) {
+                    for (Change change : logged) {
+                        pending.remove(change);
+                        if (change.counted != 0) {
+                            counters.get(change.courseCode).addAndGet(-change.counted);
+                        }
+                    }
+                }
+                logged.clear();
+                giveBackClaims();
+            }
+        }
+
+        /**
+         * Gives back every claim that was not logged.
+         */
+        private void giveBackClaims() {
+            for (String courseCode : claims) {
+                counters.get(courseCode).incrementAndGet();
+            }
+            claims.clear();
+        }
+    }
+
+    /**
+     * Opens a ledger that flushes every {@link #DEFAULT_FLUSH_INTERVAL_MILLIS} milliseconds.
+     *
+     * @param redoLog the redo log file, created if it does not exist
+     * @throws SQLException if the counters could not be recovered or loaded
+     * @throws IOException if the redo log could not be read or opened
+     */
+    public SeatLedger(Path redoLog) throws SQLException, IOException {
+        this(redoLog, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_LOG_BYTES);
+    }
+
+    /**
+     * Opens a ledger. Deltas left in the redo log by a process that stopped before flushing them are
+     * applied to the courses table, then every course's counter is loaded.
+     *
+     * @param redoLog the redo log file, created if it does not exist
+     * @param flushIntervalMillis how often deltas are flushed to the courses table, or 0 to only flush
+     * on {@link #flush()} and {@link #close()}
+     * @param maxLogBytes the size above which the redo log is rewritten without its flushed deltas
+     * @throws SQLException if the counters could not be recovered or loaded
+     * @throws IOException if the redo log could not be read or opened
+     */
+    public SeatLedger(Path redoLog, long flushIntervalMillis, long maxLogBytes) throws SQLException, IOException {
+        if (flushIntervalMillis < 0 || maxLogBytes < 1) {
+            throw new IllegalArgumentException("Invalid flush interval " + flushIntervalMillis + " or log size " + maxLogBytes);
+        }
+        this.redoLog = redoLog;
+        this.maxLogBytes = maxLogBytes;
+        try (Connection conn = DatabaseManager.connect()) {
+            sequence = recover(conn);
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT courseCode, spacesLeft FROM courses");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counters.put(rs.getString("courseCode"), new AtomicInteger(rs.getInt("spacesLeft")));
+                }
+            }
+        }
+        durableSequence = sequence;
+        channel = openLog(redoLog);
+        if (flushIntervalMillis > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "seat-ledger-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Applies the deltas in the redo log that were not flushed before the last process stopped, then empties the log.
+     * A capacity change is applied as it is. For each student whose seat in a course changed, the first of their
+     * deltas tells whether they held the seat before, and the registrations table whether they hold it now, so
+     * a change logged by a transaction that never committed has no effect. A last line cut short by a crash while
+     * it was being written belongs to a transaction that never committed, so it is skipped.
+     *
+     * @param conn the connection to the database
+     * @return the highest sequence number seen, which numbering continues from
+     * @throws SQLException if the deltas could not be applied
+     * @throws IOException if the redo log could not be read
+     */
+    private long recover(Connection conn) throws SQLException, IOException {
+        String flushed = AppMetadata.get(conn, FLUSHED_SEQUENCE);
+        long flushedSequence = flushed == null ? 0 : Long.parseLong(flushed);
+        long last = flushedSequence;
+        int unflushed = 0;
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        Map<List<String>, Boolean> heldBefore = new LinkedHashMap<>();
+        for (String line : readCompleteLines(redoLog)) {
+            Change change = parse(line);
+            if (change != null && change.sequence > flushedSequence) {
+                unflushed++;
+                last = Math.max(last, change.sequence);
+                if (change.studentId == null) {
+                    deltas.merge(change.courseCode, change.delta, Integer::sum);
+                } else {
+                    heldBefore.putIfAbsent(List.of(change.studentId, change.courseCode), change.delta > 0);
+                }
+            }
+        }
+        for (Map.Entry<List<String>, Boolean> seat : heldBefore.entrySet()) {
+            int before = seat.getValue() ? 1 : 0;
+            int now = isRegistered(conn, seat.getKey().get(0), seat.getKey().get(1)) ? 1 : 0;
+            deltas.merge(seat.getKey().get(1), before - now, Integer::sum);
+        }
+        if (unflushed > 0) {
+            apply(conn, deltas, last);
+            System.out.println("Seat ledger recovered " + unflushed + " unflushed seat change(s) from " + redoLog);
+        }
+        Files.deleteIfExists(redoLog);
+        return last;
+    }
+
+    /**
+     * Reads the lines of the redo log that were written in full. Every line is written with its newline,
+     * so text after the last newline is a line cut short by a crash; it is dropped even when it would
+     * parse, since a delta of {@code 30} cut to {@code 3} looks no different from a whole one.
+     *
+     * @param file the redo log file
+     * @return the complete lines, without their newlines, or an empty list if the file does not exist
+     * @throws IOException if the file could not be read
+     */
+    private static List<String> readCompleteLines(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n');
+        return end < 0 ? List.of() : content.substring(0, end).lines().toList();
+    }
+
+    /**
+     * Checks whether a student is registered for a course.
+     *
+     * @param conn the connection to the database
+     * @param studentId the ID of the student
+     * @param courseCode the course code
+     * @return true if the student is registered
+     * @throws SQLException if a database access error occurs
+     */
+    private static boolean isRegistered(Connection conn, String studentId, String courseCode) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(DatabaseManager.IS_REGISTERED_SQL)) {
+            stmt.setString(1, studentId);
+            stmt.setString(2, courseCode);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt("count") > 0;
+            }
+        }
+    }
+
+    /**
+     * Parses one line of the redo log: the sequence number, the course code, the delta and, for a
+     * claim or release, the student ID, separated by spaces.
+     *
+     * @param line the line
+     * @return the change, or null if the line is incomplete
+     */
+    private static Change parse(String line) {
+        String[] fields = line.split(" ");
+        if (fields.length != 3 && fields.length != 4) {
+            return null;
+        }
+        try {
+            return new Change(Long.parseLong(fields[0]), fields[1], Integer.parseInt(fields[2]),
+                    fields.length == 4 ? fields[3] : null, 0);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Opens the redo log for appending.
+     *
+     * @param file the redo log file
+     * @return the channel
+     * @throws IOException if the file could not be opened
+     */
+    private static FileChannel openLog(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Starts recording the seat changes of a registration transaction.
+     *
+     * @return the seat changes
+     */
+    public SeatChanges begin() {
+        return new SeatChanges();
+    }
+
+    /**
+     * Sets the number of spaces left in a course, for capacity changes. The change is in the redo log
+     * on disk when this returns.
+     *
+     * @param conn a connection to load the course's counter with, if it is not loaded yet
+     * @param courseCode the course code
+     * @param spacesLeft the new number of spaces left
+     * @throws SQLException if the change could not be written to the redo log
+     */
+    public void set(Connection conn, String courseCode, int spacesLeft) throws SQLException {
+        AtomicInteger counter = counter(conn, courseCode);
+        if (counter != null) {
+            int delta = spacesLeft - counter.getAndSet(spacesLeft);
+            if (delta != 0) {
+                awaitDurable(append(counter, courseCode, delta, null, delta).sequence);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of spaces left in a course.
+     *
+     * @param courseCode the course code
+     * @param stored the spacesLeft column as read from the database
+     * @return the course's counter, or the stored value if its counter is not loaded
+     */
+    public int spacesLeft(String courseCode, int stored) {
+        AtomicInteger counter = counters.get(courseCode);
+        return counter == null ? stored : counter.get();
+    }
+
+    /**
+     * Returns the counter of a course, loading it from the database for courses added after the ledger was opened.
+     * No delta of a course is flushed before its counter exists, so the stored value is current when it is loaded.
+     *
+     * @param conn the connection to load the counter with
+     * @param courseCode the course code
+     * @return the counter, or null if the course does not exist
+     * @throws SQLException if a database access error occurs
+     */
+    private AtomicInteger counter(Connection conn, String courseCode) throws SQLException {
+        AtomicInteger counter = counters.get(courseCode);
+        if (counter != null || courseCode == null) {
+            return counter;
+        }
+        synchronized (loadLock) {
+            counter = counters.get(courseCode);
+            if (counter == null) {
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT spacesLeft FROM courses WHERE courseCode = ?")) {
+                    stmt.setString(1, courseCode);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            counter = new AtomicInteger(rs.getInt("spacesLeft"));
+                            counters.put(courseCode, counter);
+                        }
+                    }
+                }
+            }
+            return counter;
+        }
+    }
+
+    /**
+     * Appends a counter change to the redo log and adds it to the pending changes. If it cannot be
+     * written, its effect on the counter is undone and the ledger refuses further changes, since the
+     * log may end in a partial line.
+     *
+     * @param counter the counter that was changed, or null if it was not
+     * @param courseCode the course code
+     * @param delta the change in spaces left
+     * @param studentId the student whose seat changed, or null for a capacity change
+     * @param counted the change already made to the counter
+     * @return the change
+     * @throws SQLException if the change could not be written
+     */
+    private Change append(AtomicInteger counter, String courseCode, int delta, String studentId, int counted)
+            throws SQLException {
+        synchronized (logLock) {
+            if (broken != null) {
+                undo(counter, counted);
+                throw new SQLException("The seat redo log " + redoLog + " could not be written", broken);
+            }
+            Change change = new Change(++sequence, courseCode, delta, studentId, counted);
+            ByteBuffer line = StandardCharsets.UTF_8.encode(change.line());
+            try {
+                while (line.hasRemaining()) {
+                    channel.write(line);
+                }
+            } catch (IOException e) {
+                broken = e;
+                undo(counter, counted);
+                throw new SQLException("Could not write to the seat redo log " + redoLog, e);
+            }
+            pending.add(change);
+            return change;
+        }
+    }
+
+    /**
+     * Undoes a change made to a counter.
+     *
+     * @param counter the counter, or null if it was not changed
+     * @param counted the change made to it
+     */
+    private static void undo(AtomicInteger counter, int counted) {
+        if (counter != null) {
+            counter.addAndGet(-counted);
+        }
+    }
+
+    /**
+     * Waits until the redo log is on disk up to a sequence number. One thread forces the file for
+     * every change written before it started; the threads waiting behind it then find their change already durable.
+     *
+     * @param changed the sequence number of the change
+     * @throws SQLException if the log could not be forced to disk
+     */
+    private void awaitDurable(long changed) throws SQLException {
+        synchronized (syncLock) {
+            if (durableSequence >= changed) {
+                return;
+            }
+            long written;
+            synchronized (logLock) {
+                written = sequence;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new SQLException("Could not force the seat redo log " + redoLog + " to disk", e);
+            }
+            durableSequence = written;
+        }
+    }
+
+    /**
+     * Writes the logged changes of committed transactions to the courses table in one transaction,
+     * recording the sequence number of the last one. Changes are written in log order up to the first
+     * one whose transaction is still open, so every change up to the recorded sequence number is either
+     * in the courses table or was rolled back. If the redo log has grown past its size limit, it is then
+     * rewritten with only the changes still pending.
+     *
+     * @throws SQLException if the changes could not be written; they are kept and retried by the next flush
+     */
+    public void flush() throws SQLException {
+        synchronized (flushLock) {
+            List<Change> batch;
+            synchronized (logLock) {
+                int committed = 0;
+                while (committed < pending.size() && pending.get(committed).committed) {
+                    committed++;
+                }
+                if (committed == 0) {
+                    return;
+                }
+                List<Change> prefix = pending.subList(0, committed);
+                batch = new ArrayList<>(prefix);
+                prefix.clear();
+            }
+            Map<String, Integer> deltas = new LinkedHashMap<>();
+            for (Change change : batch) {
+                deltas.merge(change.courseCode, change.delta, Integer::sum);
+            }
+            try (Connection conn = DatabaseManager.connect()) {
+                apply(conn, deltas, batch.get(batch.size() - 1).sequence);
+            } catch (SQLException e) {
+                synchronized (logLock) {
+                    pending.addAll(0, batch);
+                }
+                throw e;
+            }
+            try {
+                compactIfLarge();
+            } catch (IOException e) {
+                System.err.println("Could not compact the seat redo log " + redoLog + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Flushes from the background thread, reporting failures instead of stopping the schedule.
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException e) {
+            System.err.println("Seat ledger flush failed, will retry: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds deltas to the stored spacesLeft of their courses and records the last sequence number, in one transaction.
+     *
+     * @param conn the connection to the database
+     * @param deltas the change in spaces left of each course
+     * @param lastSequence the sequence number to record as flushed
+     * @throws SQLException if a database access error occurs; nothing is applied
+     */
+    private static void apply(Connection conn, Map<String, Integer> deltas, long lastSequence) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            try (PreparedStatement stmt = conn.prepareStatement("UPDATE courses SET spacesLeft = spacesLeft + ? WHERE courseCode = ?")) {
+                for (Map.Entry<String, Integer> delta : deltas.entrySet()) {
+                    if (delta.getValue() != 0) {
+                        stmt.setInt(1, delta.getValue());
+                        stmt.setString(2, delta.getKey());
+                        stmt.addBatch();
+                    }
+                }
+                stmt.executeBatch();
+            }
+            AppMetadata.put(conn, FLUSHED_SEQUENCE, Long.toString(lastSequence));
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Rewrites the redo log with only the changes not yet flushed, once it has grown past its size limit.
+     * The new log is written and forced next to the old one and moved into place, so an acknowledged
+     * change is on disk at every moment.
+     *
+     * @throws IOException if the log could not be rewritten
+     */
+    private void compactIfLarge() throws IOException {
+        synchronized (syncLock) {
+            synchronized (logLock) {
+                if (channel.size() <= maxLogBytes) {
+                    return;
+                }
+                Path compacted = redoLog.resolveSibling(redoLog.getFileName() + ".tmp");
+                try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    for (Change change : pending) {
+                        ByteBuffer line = StandardCharsets.UTF_8.encode(change.line());
+                        while (line.hasRemaining()) {
+                            out.write(line);
+                        }
+                    }
+                    out.force(false);
+                }
+                Files.move(compacted, redoLog, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                channel.close();
+                channel = openLog(redoLog);
+                durableSequence = sequence;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of changes logged but not yet flushed to the courses table, including those
+     * of transactions that have not committed yet.
+     *
+     * @return the number of pending changes
+     */
+    public int getPendingChanges() {
+        synchronized (logLock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Stops the background flushes, flushes what is left and closes the redo log. If the last flush
+     * fails, the changes stay in the redo log and are applied when the next ledger is opened.
+     */
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } catch (SQLException e) {
+            System.err.println("Could not flush the seat ledger, its redo log will be replayed on the next start: " + e.getMessage());
+        }
+        synchronized (logLock) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Could not close the seat redo log " + redoLog + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package registration.system.database_management;
+
+import java.util.List;
+
+/**
+ * One statement run that took longer than the slow-query threshold.
+ *
+ * @param time when the statement finished, as an ISO-8601 instant
+ * @param operation the class and method that ran the statement
+ * @param sql the statement's SQL
+ * @param parameters the bind values at the time of the run, in parameter order
+ * @param rows the number of rows read or changed
+ * @param elapsedMillis the time from executing the statement until its last row was read
+ * @param plan the lines of the statement's {@code EXPLAIN QUERY PLAN} output
+ * @param failed whether the statement failed with a database error
+ */
+public record SlowQuery(String time, String operation, String sql, List<String> parameters, long rows,
+                        double elapsedMillis, List<String> plan, boolean failed) {
+}
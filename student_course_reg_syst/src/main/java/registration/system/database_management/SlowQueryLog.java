@@ -0,0 +1,322 @@
+package registration.system.database_management;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records every statement that runs for longer than a threshold, with its SQL, bind values,
+ * row count, elapsed time and {@code EXPLAIN QUERY PLAN} output.
+ * <p>
+ * {@link DataLayerMetrics} hands slow statements to the log as they finish. Everything else happens
+ * on the log's own writer thread: explaining the query on a connection borrowed from the statement's
+ * pool, or reusing the plan of the same SQL from an earlier entry, adding the entry
+ * to a bounded in-memory ring of the most recent slow queries, and appending it to a log file that
+ * is rolled over when it grows too large. If the writer falls behind, new entries are dropped and
+ * counted rather than slowing down the statements being logged.
+ */
+public class SlowQueryLog implements AutoCloseable {
+    public static final long DEFAULT_THRESHOLD_MILLIS = 100;
+    public static final int DEFAULT_CAPACITY = 256;
+    public static final long DEFAULT_MAX_FILE_BYTES = 10 * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 5;
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final int PLAN_CACHE_SIZE = 256;
+
+    private final long thresholdNanos;
+    private final int capacity;
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final ThreadPoolExecutor writer;
+    private final ArrayDeque<SlowQuery> recent = new ArrayDeque<>();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, List<String>> plans = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > PLAN_CACHE_SIZE;
+        }
+    };
+    private String plansUrl;
+    private BufferedWriter out;
+    private long fileBytes;
+
+    /**
+     * Constructs a slow-query log with the default ring capacity and file rollover.
+     *
+     * @param thresholdMillis the run time above which a statement is logged
+     * @param file the log file, or null to keep slow queries in memory only
+     */
+    public SlowQueryLog(long thresholdMillis, Path file) {
+        this(thresholdMillis, DEFAULT_CAPACITY, file, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_FILES);
+    }
+
+    /**
+     * Constructs a slow-query log.
+     *
+     * @param thresholdMillis the run time above which a statement is logged; 0 logs every statement
+     * @param capacity the number of recent slow queries kept in memory
+     * @param file the log file, or null to keep slow queries in memory only
+     * @param maxFileBytes the size above which the log file is rolled over
+     * @param maxFiles the number of rolled-over files kept next to the log file, named {@code <file>.1} (newest) to {@code <file>.<maxFiles>}
+     */
+    public SlowQueryLog(long thresholdMillis, int capacity, Path file, long maxFileBytes, int maxFiles) {
+        if (thresholdMillis < 0 || capacity < 1 || maxFileBytes < 1 || maxFiles < 0) {
+            throw new IllegalArgumentException("Invalid slow-query log settings");
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.capacity = capacity;
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                task -> {
+                    Thread thread = new Thread(task, "registration-slow-query-log");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Returns the run time above which a statement is logged.
+     *
+     * @return the threshold in nanoseconds
+     */
+    public long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    /**
+     * Hands a slow statement to the writer thread. Never blocks: if the writer's queue is full, the entry is dropped.
+     *
+     * @param pool the pool of the connection the statement ran on, used to explain it
+     * @param operation the class and method that ran the statement
+     * @param sql the statement's SQL
+     * @param parameters the bind values by parameter index
+     * @param rows the number of rows read or changed
+     * @param elapsedNanos the statement's run time
+     * @param failed whether the statement failed with a database error
+     */
+    void offer(ConnectionPool pool, String operation, String sql, Map<Integer, Object> parameters, long rows,
+               long elapsedNanos, boolean failed) {
+        String time = Instant.now().toString();
+        List<String> values = new ArrayList<>(parameters.size());
+        for (Object value : parameters.values()) {
+            String text = value == null ? "NULL" : value instanceof String ? "'" + value + "'" : String.valueOf(value);
+            values.add(text.length() > MAX_PARAMETER_LENGTH ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : text);
+        }
+        try {
+            writer.execute(() -> write(new SlowQuery(time, operation, sql, values, rows, elapsedNanos / 1e6,
+                    explain(pool, sql), failed)));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Returns the most recent slow queries that have been written, oldest first.
+     *
+     * @return the recent slow queries
+     */
+    public List<SlowQuery> recent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    /**
+     * Returns the number of slow queries dropped because the writer thread fell behind.
+     *
+     * @return the number of dropped entries
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Waits until every slow query handed to the log so far has been written.
+     *
+     * @param timeoutMillis how long to wait at most
+     * @return true if everything was written in time
+     */
+    public boolean flush(long timeoutMillis) {
+        try {
+            Future<?> marker = writer.submit(() -> { });
+            marker.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException | ExecutionException | TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the {@code EXPLAIN QUERY PLAN} output for a statement. Plans are cached by SQL, so a statement
+     * that is slow again reuses its plan; otherwise it is explained on a connection borrowed from the pool.
+     * The cache is cleared when statements start arriving from a pool for another database.
+     *
+     * @param pool the pool of the connection the statement ran on
+     * @param sql the statement's SQL
+     * @return the plan, one line per step indented by its depth, or a single line explaining why there is none
+     */
+    private List<String> explain(ConnectionPool pool, String sql) {
+        if (!pool.getUrl().equals(plansUrl)) {
+            plans.clear();
+            plansUrl = pool.getUrl();
+        }
+        List<String> cached = plans.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        List<String> plan = new ArrayList<>();
+        try (Connection conn = pool.getConnection()) {
+            Map<Integer, Integer> depths = new HashMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int depth = depths.getOrDefault(rs.getInt("parent"), -1) + 1;
+                    depths.put(rs.getInt("id"), depth);
+                    plan.add("  ".repeat(depth) + rs.getString("detail"));
+                }
+            }
+        } catch (SQLException e) {
+            return List.of("(no plan: " + e.getMessage() + ")");
+        }
+        plan = List.copyOf(plan);
+        plans.put(sql, plan);
+        return plan;
+    }
+
+    /**
+     * Adds a slow query to the ring and appends it to the log file.
+     *
+     * @param query the slow query
+     */
+    private void write(SlowQuery query) {
+        synchronized (recent) {
+            if (recent.size() == capacity) {
+                recent.removeFirst();
+            }
+            recent.addLast(query);
+        }
+        if (file == null) {
+            return;
+        }
+        try {
+            String entry = format(query);
+            long entryBytes = entry.getBytes(StandardCharsets.UTF_8).length;
+            if (out != null && fileBytes + entryBytes > maxFileBytes) {
+                rollOver();
+            }
+            if (out == null) {
+                out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                fileBytes = Files.size(file);
+            }
+            out.write(entry);
+            out.flush();
+            fileBytes += entryBytes;
+        } catch (IOException e) {
+            System.err.println("Could not write to the slow-query log " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the log file and shifts it and the older files one place down, deleting the oldest.
+     *
+     * @throws IOException if a file could not be moved
+     */
+    private void rollOver() throws IOException {
+        out.close();
+        out = null;
+        if (maxFiles == 0) {
+            Files.delete(file);
+            return;
+        }
+        Files.deleteIfExists(rolledFile(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            if (Files.exists(rolledFile(i))) {
+                Files.move(rolledFile(i), rolledFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rolledFile(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Returns the path of a rolled-over log file.
+     *
+     * @param index the file's place, 1 being the most recently rolled over
+     * @return the path
+     */
+    private Path rolledFile(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    /**
+     * Formats a slow query as a block of lines for the log file.
+     *
+     * @param query the slow query
+     * @return the log entry
+     */
+    private static String format(SlowQuery query) {
+        StringBuilder entry = new StringBuilder(String.format("%s %.3f ms %d rows %s%s%n", query.time(),
+                query.elapsedMillis(), query.rows(), query.operation(), query.failed() ? " FAILED" : ""));
+        entry.append("  SQL: ").append(query.sql().replaceAll("\\s+", " ").trim()).append(System.lineSeparator());
+        if (!query.parameters().isEmpty()) {
+            entry.append("  Parameters: ").append(String.join(", ", query.parameters())).append(System.lineSeparator());
+        }
+        entry.append("  Plan:").append(System.lineSeparator());
+        for (String step : query.plan()) {
+            entry.append("    ").append(step).append(System.lineSeparator());
+        }
+        return entry.toString();
+    }
+
+    /**
+     * Writes the queued slow queries, waiting up to five seconds, then closes the log file.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (out != null) {
+                out.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Could not close the slow-query log " + file + ": " + e.getMessage());
+        }
+    }
+}
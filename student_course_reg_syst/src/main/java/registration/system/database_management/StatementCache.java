@@ -0,0 +1,225 @@
+package registration.system.database_management;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A least-recently-used cache of prepared statements for a single physical connection, keyed by SQL text.
+ * Statements handed out by the cache are proxies whose {@code close()} resets the statement and keeps it
+ * prepared for the next caller, so SQLite only parses and plans each query once per connection.
+ * Every checkout of a statement gets its own proxy, which stops working once it is closed, so a caller
+ * holding on to a closed proxy cannot act on the statement after it has been handed to someone else.
+ * The proxy's {@code getConnection()} returns the pooled connection it was prepared through.
+ * <p>
+ * The cache is only used by the thread that currently holds the connection, so it is not synchronized.
+ */
+class StatementCache {
+    private final Connection physical;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final Map<String, CachedStatement> statements;
+
+    /**
+     * Constructs a StatementCache for the given connection.
+     *
+     * @param physical the connection the statements are prepared on
+     * @param capacity the maximum number of statements kept prepared
+     * @param hits the counter incremented when a prepared statement is reused
+     * @param misses the counter incremented when a statement has to be prepared
+     */
+    StatementCache(Connection physical, int capacity, LongAdder hits, LongAdder misses) {
+        this.physical = physical;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > capacity) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL, reusing a cached one when it is not already in use.
+     * If the same SQL is still open further up the call stack a fresh, uncached statement is returned,
+     * which is closed when the caller closes it.
+     *
+     * @param sql the SQL text to prepare
+     * @param connection the pooled connection the statement is prepared through, returned by its {@code getConnection()}
+     * @return a prepared statement; closing it returns it to the cache
+     * @throws SQLException if a database access error occurs
+     */
+    PreparedStatement prepare(String sql, Connection connection) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && cached.evicted) {
+            statements.remove(sql);
+            cached = null;
+        }
+        if (cached != null && !cached.inUse) {
+            hits.increment();
+            return cached.checkout(connection);
+        }
+
+        misses.increment();
+        PreparedStatement statement = physical.prepareStatement(sql);
+        if (cached != null) {
+            CachedStatement uncached = new CachedStatement(statement);
+            uncached.evicted = true;
+            return uncached.checkout(connection);
+        }
+        cached = new CachedStatement(statement);
+        statements.put(sql, cached);
+        return cached.checkout(connection);
+    }
+
+    /**
+     * Returns the number of statements currently held by the cache.
+     *
+     * @return the cache size
+     */
+    int size() {
+        return statements.size();
+    }
+
+    /**
+     * Closes every cached statement.
+     */
+    void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.evict();
+        }
+        statements.clear();
+    }
+
+    /**
+     * A prepared statement owned by the cache, handed to one caller at a time through a {@link Handle}.
+     */
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        private final List<ResultSet> openResultSets = new ArrayList<>();
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        /**
+         * Hands the statement to a caller.
+         *
+         * @param connection the pooled connection the caller prepared the statement through
+         * @return a new proxy for this checkout of the statement
+         */
+        private PreparedStatement checkout(Connection connection) {
+            inUse = true;
+            return new Handle(this, connection).proxy;
+        }
+
+        /**
+         * Resets the statement so the next caller sees it freshly prepared:
+         * open result sets are closed and bound parameters cleared.
+         */
+        private void release() throws SQLException {
+            inUse = false;
+            try {
+                for (ResultSet resultSet : openResultSets) {
+                    resultSet.close();
+                }
+                openResultSets.clear();
+                if (evicted) {
+                    statement.close();
+                } else {
+                    statement.clearParameters();
+                    statement.clearBatch();
+                }
+            } catch (SQLException e) {
+                evicted = true;
+                statement.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Marks the statement as no longer cached, closing it now if nobody is using it.
+         */
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                    // the statement is being discarded anyway
+                }
+            }
+        }
+    }
+
+    /**
+     * One checkout of a cached statement, exposed to the caller as a {@link PreparedStatement} proxy.
+     * Closing the proxy returns the statement to the cache and leaves the proxy closed for good.
+     */
+    private static final class Handle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection connection;
+        private final PreparedStatement proxy;
+        private boolean closed;
+
+        private Handle(CachedStatement cached, Connection connection) {
+            this.cached = cached;
+            this.connection = connection;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        cached.release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.statement + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Statement has already been closed");
+                    }
+                    if (method.getName().equals("getConnection")) {
+                        return connection;
+                    }
+                    try {
+                        Object result = method.invoke(cached.statement, args);
+                        if (result instanceof ResultSet resultSet) {
+                            cached.openResultSets.add(resultSet);
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
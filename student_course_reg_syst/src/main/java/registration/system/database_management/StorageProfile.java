@@ -0,0 +1,87 @@
+package registration.system.database_management;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * A set of SQLite pragmas applied to every connection the pool opens.
+ *
+ * @param name a short name for reports
+ * @param journalMode how SQLite journals writes; WAL lets readers run while a writer commits
+ * @param synchronous how often SQLite waits for data to reach the disk
+ * @param cacheSizeKib the page cache size per connection in KiB
+ * @param mmapSizeBytes how much of the database file may be memory-mapped, or 0 to disable
+ * @param tempStore where temporary tables and indexes are kept
+ * @param busyTimeoutMillis how long a connection waits for a lock before failing with SQLITE_BUSY
+ */
+public record StorageProfile(String name, JournalMode journalMode, Synchronous synchronous, int cacheSizeKib,
+                             long mmapSizeBytes, TempStore tempStore, int busyTimeoutMillis) {
+
+    /** SQLite's own defaults: a rollback journal and a full fsync on every commit. */
+    public static final StorageProfile ROLLBACK_JOURNAL = new StorageProfile(
+            "rollback-journal", JournalMode.DELETE, Synchronous.FULL, 2_000, 0, TempStore.DEFAULT, 3_000);
+
+    /**
+     * WAL with synchronous=NORMAL: readers never block behind the writer, and commits skip the fsync.
+     * A power loss may roll back the last commits, but never corrupts the database.
+     */
+    public static final StorageProfile WAL = new StorageProfile(
+            "wal", JournalMode.WAL, Synchronous.NORMAL, 16_000, 256L * 1024 * 1024, TempStore.MEMORY, 5_000);
+
+    /** WAL with synchronous=FULL: concurrent readers as with {@link #WAL}, and every commit is durable. */
+    public static final StorageProfile WAL_DURABLE = new StorageProfile(
+            "wal-durable", JournalMode.WAL, Synchronous.FULL, 16_000, 256L * 1024 * 1024, TempStore.MEMORY, 5_000);
+
+    /** Every preset profile, in the order they are reported by the storage benchmark. */
+    public static final List<StorageProfile> PRESETS = List.of(ROLLBACK_JOURNAL, WAL, WAL_DURABLE);
+
+    /**
+     * SQLite journal modes.
+     */
+    public enum JournalMode { DELETE, TRUNCATE, PERSIST, MEMORY, WAL, OFF }
+
+    /**
+     * SQLite synchronous levels.
+     */
+    public enum Synchronous { OFF, NORMAL, FULL, EXTRA }
+
+    /**
+     * SQLite temporary storage locations.
+     */
+    public enum TempStore { DEFAULT, FILE, MEMORY }
+
+    /**
+     * Returns the preset profile with the given name.
+     *
+     * @param name the profile name, for example "wal"
+     * @return the matching preset
+     * @throws IllegalArgumentException if there is no preset with that name
+     */
+    public static StorageProfile named(String name) {
+        for (StorageProfile profile : PRESETS) {
+            if (profile.name().equalsIgnoreCase(name)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown storage profile: " + name);
+    }
+
+    /**
+     * Applies the profile's pragmas to a connection.
+     *
+     * @param conn the connection to configure
+     * @throws SQLException if a database access error occurs
+     */
+    public void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            stmt.execute("PRAGMA journal_mode = " + journalMode);
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA cache_size = " + -cacheSizeKib);
+            stmt.execute("PRAGMA mmap_size = " + mmapSizeBytes);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+}
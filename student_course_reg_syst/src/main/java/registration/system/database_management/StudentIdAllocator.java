@@ -0,0 +1,98 @@
+package registration.system.database_management;
+
+import java.sql.SQLException;
+
+/**
+ * Hands out unique student IDs such as "SE00042" without checking the students table.
+ * IDs come from the persistent {@code id_sequence} table in blocks: one database round trip
+ * reserves a whole block, and the IDs in it are then handed out from memory. Reserving a block
+ * is a single atomic update, so allocators in different threads and processes never get
+ * overlapping blocks. IDs left in a block when the process exits are skipped, not reused.
+ */
+public class StudentIdAllocator {
+    public static final String SEQUENCE = "students";
+    public static final String DEFAULT_PREFIX = "SE";
+    public static final int DEFAULT_WIDTH = 5;
+    public static final int DEFAULT_BLOCK_SIZE = 20;
+
+    private final String prefix;
+    private final int width;
+    private final int blockSize;
+    private long next;
+    private long limit;
+
+    /**
+     * Constructs a StudentIdAllocator with the default prefix, width and block size.
+     */
+    public StudentIdAllocator() {
+        this(DEFAULT_PREFIX, DEFAULT_WIDTH, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructs a StudentIdAllocator.
+     *
+     * @param prefix the text every ID starts with
+     * @param width the minimum number of digits after the prefix; numbers that need more digits,
+     *              such as student 100000 with a width of 5, get as many as they need
+     * @param blockSize the number of IDs reserved per database round trip
+     */
+    public StudentIdAllocator(String prefix, int width, int blockSize) {
+        if (width < 1) {
+            throw new IllegalArgumentException("ID width must be at least 1, was " + width);
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1, was " + blockSize);
+        }
+        this.prefix = prefix;
+        this.width = width;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Returns the next unused student ID, reserving a new block from the database when the
+     * current one is used up.
+     *
+     * @return the student ID
+     * @throws SQLException if a database access error occurs while reserving a block
+     */
+    public synchronized String nextId() throws SQLException {
+        if (next == limit) {
+            next = DatabaseManager.reserveSequenceBlock(SEQUENCE, blockSize);
+            limit = next + blockSize;
+        }
+        return format(next++);
+    }
+
+    /**
+     * Drops the rest of the current block, so the next ID is taken from a newly reserved block.
+     * Used when the database URL changes.
+     */
+    public synchronized void reset() {
+        next = 0;
+        limit = 0;
+    }
+
+    /**
+     * Formats a sequence number as a student ID.
+     *
+     * @param number the sequence number
+     * @return the prefix followed by the number, zero-padded to the configured width
+     */
+    public String format(long number) {
+        String digits = Long.toString(number);
+        StringBuilder id = new StringBuilder(prefix.length() + Math.max(width, digits.length())).append(prefix);
+        for (int i = digits.length(); i < width; i++) {
+            id.append('0');
+        }
+        return id.append(digits).toString();
+    }
+
+    /**
+     * Returns the number of IDs reserved per database round trip.
+     *
+     * @return the block size
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+}
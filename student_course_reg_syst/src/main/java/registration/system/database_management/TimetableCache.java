@@ -0,0 +1,127 @@
+package registration.system.database_management;
+
+import registration.system.course_management.schedule.TimetableIndex;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A process-wide cache of student timetables, keyed by student ID, used to check new registrations
+ * for schedule conflicts without reloading and reparsing the student's courses.
+ * Entries expire after a configurable time to live, so registrations made by other processes are
+ * picked up, and once the cache is full the timetable loaded longest ago is evicted.
+ * The cached indexes are shared: callers hold the student's lock in DatabaseManager while they read or change one.
+ */
+public class TimetableCache {
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a TimetableCache with the default time to live and size.
+     */
+    public TimetableCache() {
+        this(DEFAULT_TTL_MILLIS, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructs a TimetableCache with the given time to live and size.
+     *
+     * @param ttlMillis how long a cached timetable stays valid
+     * @param maxSize the maximum number of timetables kept in the cache
+     */
+    public TimetableCache(long ttlMillis, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1, was " + maxSize);
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached timetable of a student.
+     *
+     * @param studentId the student ID
+     * @return the timetable, or null if it is not cached or has expired
+     */
+    public TimetableIndex get(String studentId) {
+        Entry entry = entries.get(studentId);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedNanos >= ttlNanos) {
+            entries.remove(studentId, entry);
+            return null;
+        }
+        return entry.timetable;
+    }
+
+    /**
+     * Caches a student's timetable, evicting the oldest entry if the cache is full.
+     * If another thread cached a timetable for the student first, that one is kept and returned,
+     * so every thread works on the same index.
+     *
+     * @param studentId the student ID
+     * @param timetable the freshly loaded timetable
+     * @return the timetable now cached for the student
+     */
+    public TimetableIndex putIfAbsent(String studentId, TimetableIndex timetable) {
+        if (entries.size() >= maxSize && !entries.containsKey(studentId)) {
+            evict();
+        }
+        Entry entry = new Entry(timetable, System.nanoTime());
+        Entry existing = entries.putIfAbsent(studentId, entry);
+        return existing == null ? timetable : existing.timetable;
+    }
+
+    /**
+     * Removes a student's timetable from the cache.
+     *
+     * @param studentId the student ID
+     */
+    public void invalidate(String studentId) {
+        entries.remove(studentId);
+    }
+
+    /**
+     * Removes every timetable from the cache.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of timetables currently cached, including expired ones not yet removed.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Makes room for a new entry: drops the entry that was loaded longest ago.
+     */
+    private void evict() {
+        String oldestId = null;
+        long oldestLoaded = 0;
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            if (oldestId == null || e.getValue().loadedNanos - oldestLoaded < 0) {
+                oldestId = e.getKey();
+                oldestLoaded = e.getValue().loadedNanos;
+            }
+        }
+        if (oldestId != null) {
+            entries.remove(oldestId);
+        }
+    }
+
+    /**
+     * A cached timetable and the time it was loaded.
+     */
+    private record Entry(TimetableIndex timetable, long loadedNanos) {}
+}
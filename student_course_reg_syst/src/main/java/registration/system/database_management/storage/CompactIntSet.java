@@ -0,0 +1,79 @@
+package registration.system.database_management.storage;
+
+import java.util.Arrays;
+
+/**
+ * A set of ints kept as a sorted array, four bytes per member and no boxing. Lookups are a binary
+ * search; adding and removing shift the members above the changed one, which is cheap for the
+ * sizes of a course's class list or a student's courses. Not thread-safe: the in-memory engine
+ * only touches a set while holding the lock stripe of the course or student that owns it.
+ */
+final class CompactIntSet {
+    private int[] members = new int[4];
+    private int size;
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     * @return true if the value was not in the set yet
+     */
+    boolean add(int value) {
+        int index = Arrays.binarySearch(members, 0, size, value);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        if (size == members.length) {
+            members = Arrays.copyOf(members, size * 2);
+        }
+        System.arraycopy(members, insertAt, members, insertAt + 1, size - insertAt);
+        members[insertAt] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param value the value
+     * @return true if the value was in the set
+     */
+    boolean remove(int value) {
+        int index = Arrays.binarySearch(members, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(members, index + 1, members, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Checks whether a value is in the set.
+     *
+     * @param value the value
+     * @return true if the value is a member
+     */
+    boolean contains(int value) {
+        return Arrays.binarySearch(members, 0, size, value) >= 0;
+    }
+
+    /**
+     * Returns the number of members.
+     *
+     * @return the size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies the members out.
+     *
+     * @return the members in ascending order
+     */
+    int[] toArray() {
+        return Arrays.copyOf(members, size);
+    }
+}
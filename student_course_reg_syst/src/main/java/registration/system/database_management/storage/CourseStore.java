@@ -0,0 +1,78 @@
+package registration.system.database_management.storage;
+
+import registration.system.course_management.Course;
+import registration.system.course_management.CoursePage;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The course catalogue of a {@link StorageEngine}: courses, their schedules and their remaining seats.
+ */
+public interface CourseStore {
+    /**
+     * Adds a course and, if it has one, its schedule.
+     *
+     * @param course the course to add
+     * @throws SQLException if the course could not be stored, for example because its course code is taken
+     */
+    void addCourse(Course course) throws SQLException;
+
+    /**
+     * Finds a course and its schedule by course code.
+     *
+     * @param courseCode the course code
+     * @return the course, or null if not found
+     * @throws SQLException if the course could not be read
+     */
+    Course findCourse(String courseCode) throws SQLException;
+
+    /**
+     * Sets the number of spaces left in a course.
+     *
+     * @param courseCode the course code
+     * @param spacesLeft the new number of spaces left
+     * @throws SQLException if the course could not be updated
+     */
+    void updateCapacity(String courseCode, int spacesLeft) throws SQLException;
+
+    /**
+     * Retrieves every course with spaces left, in course code order.
+     *
+     * @return the available courses
+     * @throws SQLException if the courses could not be read
+     */
+    List<Course> getAvailableCourses() throws SQLException;
+
+    /**
+     * Retrieves one page of the courses with spaces left, in course code order.
+     *
+     * @param after the course code the page starts after, or null for the first page
+     * @param limit the maximum number of courses on the page, at least 1
+     * @return the page of courses
+     * @throws SQLException if the courses could not be read
+     */
+    CoursePage getAvailableCoursesPage(String after, int limit) throws SQLException;
+
+    /**
+     * Passes every course to an action in course code order without collecting them in a list.
+     *
+     * @param action the action to perform on each course
+     * @return the number of courses passed to the action
+     * @throws SQLException if the courses could not be read
+     */
+    int forEachCourse(Consumer<Course> action) throws SQLException;
+
+    /**
+     * Searches the catalogue by keywords. Every keyword must match the start of a word in the course
+     * code, title or description; matches in the course code rank highest and matches in the
+     * description lowest. If nothing matches, keywords a typo or two away are matched as well.
+     *
+     * @param keywords the keywords as typed
+     * @param limit the maximum number of courses to return
+     * @return the matching courses, best match first
+     * @throws SQLException if the courses could not be read
+     */
+    List<Course> searchCourses(String keywords, int limit) throws SQLException;
+}
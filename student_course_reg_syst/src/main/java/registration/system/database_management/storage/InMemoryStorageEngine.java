@@ -0,0 +1,979 @@
+package registration.system.database_management.storage;
+
+import registration.system.course_management.BatchMode;
+import registration.system.course_management.BatchReservation;
+import registration.system.course_management.Course;
+import registration.system.course_management.CoursePage;
+import registration.system.course_management.ReservationResult;
+import registration.system.course_management.schedule.PackedSchedule;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.course_management.schedule.ScheduleSlot;
+import registration.system.course_management.schedule.TimetableEntry;
+import registration.system.course_management.schedule.WeeklyTimetable;
+import registration.system.course_management.search.SearchQuery;
+import registration.system.database_management.StudentIdAllocator;
+import registration.system.student_management.Student;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * A storage engine that keeps everything on the heap, for registration bursts that should not wait
+ * for disk and for tests that should not touch files.
+ * <p>
+ * Every course and student gets a dense int ID when it is first stored. A course keeps the IDs of its
+ * registered students and a student the IDs of their courses in {@link CompactIntSet}s, so the two
+ * indexes cost four bytes per registration each. Schedules are kept in their {@link PackedSchedule}
+ * form, so clash checks only compare ints.
+ * <p>
+ * Seats are guarded by a fixed array of lock stripes: a course and a student each map to one stripe,
+ * and an operation locks the stripes of everything it changes, always in ascending stripe order so two
+ * operations can never wait for each other. Registrations in different courses by different students
+ * therefore run in parallel. Releasing a seat in a course with a waitlist, which may promote any student
+ * on it, and taking a snapshot lock every stripe.
+ * <p>
+ * With a snapshot file, the engine loads the file when it is constructed and writes it on
+ * {@link #snapshot()} and {@link #close()}. Changes made since the last snapshot are lost if the
+ * process dies.
+ */
+public class InMemoryStorageEngine implements StorageEngine, CourseStore, StudentStore, RegistrationStore {
+    public static final int DEFAULT_STRIPES = 64;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int CODE_WEIGHT = 10;
+    private static final int TITLE_WEIGHT = 5;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final Pattern WORD_BREAK = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReentrantLock[] stripes;
+    private final int[] allStripes;
+    private final ConcurrentSkipListMap<String, CourseSlot> courses = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, StudentSlot> students = new ConcurrentHashMap<>();
+    private final Object idLock = new Object();
+    private volatile CourseSlot[] coursesById = new CourseSlot[64];
+    private volatile StudentSlot[] studentsById = new StudentSlot[64];
+    private int courseCount;
+    private int studentCount;
+    private final AtomicLong studentSequence = new AtomicLong();
+    private final Path snapshotFile;
+
+    /**
+     * A stored course. The description, title and schedule never change; spacesLeft, the class list
+     * and the waitlist are guarded by the course's stripe.
+     * <p>
+     * The waitlist is kept as tickets, like the SQLite waitlist tables: every waiting student holds a
+     * ticket, the head of the queue holds {@code servedTicket + 1}, and a student's position is their
+     * ticket minus servedTicket. The student holding a ticket is found in the waitlist array at
+     * {@code ticket - firstTicket}.
+     */
+    private static final class CourseSlot {
+        private final int id;
+        private final String courseCode;
+        private final String title;
+        private final String description;
+        private final int packed;
+        private final Schedule textSchedule;
+        private final CompactIntSet registered = new CompactIntSet();
+        private final Map<Integer, Integer> tickets = new HashMap<>();
+        private int[] waitlist = new int[0];
+        private int firstTicket = 1;
+        private int servedTicket;
+        private int nextTicket = 1;
+        private volatile int spacesLeft;
+
+        private CourseSlot(int id, String courseCode, String title, String description, int spacesLeft,
+                           int packed, Schedule textSchedule) {
+            this.id = id;
+            this.courseCode = courseCode;
+            this.title = title;
+            this.description = description;
+            this.spacesLeft = spacesLeft;
+            this.packed = packed;
+            this.textSchedule = textSchedule;
+        }
+
+        /**
+         * Copies the course out as a Course.
+         *
+         * @return the course with its current number of spaces left
+         */
+        private Course toCourse() {
+            if (packed != PackedSchedule.NONE) {
+                return new Course(courseCode, title, description, spacesLeft, packed);
+            }
+            return new Course(courseCode, title, description, spacesLeft, textSchedule);
+        }
+
+        /**
+         * Returns the number of students on the waitlist.
+         *
+         * @return the waitlist size
+         */
+        private int waitlistSize() {
+            return nextTicket - servedTicket - 1;
+        }
+
+        /**
+         * Returns a student's position on the waitlist.
+         *
+         * @param studentId the student's int ID
+         * @return the position, starting at 1, or 0 if the student is not waiting
+         */
+        private int waitlistPosition(int studentId) {
+            Integer ticket = tickets.get(studentId);
+            return ticket == null ? 0 : ticket - servedTicket;
+        }
+
+        /**
+         * Gives a student the next ticket, putting them at the back of the waitlist.
+         *
+         * @param studentId the student's int ID
+         * @return the student's position, starting at 1
+         */
+        private int enqueue(int studentId) {
+            if (nextTicket - firstTicket == waitlist.length) {
+                // Drop the served tickets from the front before growing
+                int waiting = waitlistSize();
+                int[] moved = waiting * 2 < waitlist.length ? waitlist : new int[Math.max(4, waiting * 2)];
+                System.arraycopy(waitlist, servedTicket + 1 - firstTicket, moved, 0, waiting);
+                waitlist = moved;
+                firstTicket = servedTicket + 1;
+            }
+            waitlist[nextTicket - firstTicket] = studentId;
+            tickets.put(studentId, nextTicket);
+            nextTicket++;
+            return nextTicket - 1 - servedTicket;
+        }
+
+        /**
+         * Serves the head of the waitlist, taking them off it.
+         *
+         * @return the int ID of the student who was at the head
+         */
+        private int serve() {
+            servedTicket++;
+            int studentId = waitlist[servedTicket - firstTicket];
+            tickets.remove(studentId);
+            return studentId;
+        }
+
+        /**
+         * Takes a student off the waitlist and closes the gap in the tickets: everyone behind them
+         * moves up one place, so positions stay exact.
+         *
+         * @param studentId the student's int ID
+         * @return true if the student was waiting
+         */
+        private boolean leave(int studentId) {
+            Integer ticket = tickets.remove(studentId);
+            if (ticket == null) {
+                return false;
+            }
+            for (int behind = ticket + 1; behind < nextTicket; behind++) {
+                int waiting = waitlist[behind - firstTicket];
+                waitlist[behind - 1 - firstTicket] = waiting;
+                tickets.put(waiting, behind - 1);
+            }
+            nextTicket--;
+            return true;
+        }
+    }
+
+    /**
+     * A student ID that has been saved or registered. The student record is null for IDs that were
+     * registered without being saved, which the SQLite engine allows as well. The course set is
+     * guarded by the student's stripe.
+     */
+    private static final class StudentSlot {
+        private final int id;
+        private final String studentId;
+        private volatile Student student;
+        private final CompactIntSet courses = new CompactIntSet();
+
+        private StudentSlot(int id, String studentId) {
+            this.id = id;
+            this.studentId = studentId;
+        }
+    }
+
+    /**
+     * Constructs an empty in-memory engine without a snapshot file.
+     */
+    public InMemoryStorageEngine() {
+        this(DEFAULT_STRIPES, null);
+    }
+
+    /**
+     * Constructs an in-memory engine, loading the snapshot file if it exists.
+     *
+     * @param stripes the number of lock stripes
+     * @param snapshotFile the file to load from and snapshot to, or null to keep nothing on disk
+     * @throws UncheckedIOException if the snapshot file exists but cannot be read
+     */
+    public InMemoryStorageEngine(int stripes, Path snapshotFile) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("At least one lock stripe is needed, was " + stripes);
+        }
+        this.stripes = new ReentrantLock[stripes];
+        this.allStripes = new int[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+            this.allStripes[i] = i;
+        }
+        this.snapshotFile = snapshotFile;
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            try {
+                load(snapshotFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not load the snapshot " + snapshotFile, e);
+            }
+        }
+    }
+
+    @Override
+    public CourseStore courses() {
+        return this;
+    }
+
+    @Override
+    public StudentStore students() {
+        return this;
+    }
+
+    @Override
+    public RegistrationStore registrations() {
+        return this;
+    }
+
+    // Courses
+
+    @Override
+    public void addCourse(Course course) throws SQLException {
+        int packed = course.getPackedSchedule();
+        Schedule textSchedule = packed == PackedSchedule.NONE ? course.getSchedule() : null;
+        synchronized (idLock) {
+            if (courses.containsKey(course.getCourseCode())) {
+                throw new SQLException("Course " + course.getCourseCode() + " already exists");
+            }
+            CourseSlot slot = new CourseSlot(courseCount, course.getCourseCode(), course.getTitle(),
+                    course.getDescription(), course.getSpacesLeft(), packed, textSchedule);
+            if (courseCount == coursesById.length) {
+                coursesById = Arrays.copyOf(coursesById, courseCount * 2);
+            }
+            coursesById[courseCount++] = slot;
+            courses.put(slot.courseCode, slot);
+        }
+    }
+
+    @Override
+    public Course findCourse(String courseCode) {
+        CourseSlot slot = courseCode == null ? null : courses.get(courseCode);
+        return slot == null ? null : slot.toCourse();
+    }
+
+    @Override
+    public void updateCapacity(String courseCode, int spacesLeft) {
+        CourseSlot slot = courses.get(courseCode);
+        if (slot == null) {
+            return;
+        }
+        int[] locked = lock(courseStripe(slot));
+        try {
+            slot.spacesLeft = spacesLeft;
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    @Override
+    public List<Course> getAvailableCourses() {
+        List<Course> available = new ArrayList<>();
+        for (CourseSlot slot : courses.values()) {
+            if (slot.spacesLeft > 0) {
+                available.add(slot.toCourse());
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public CoursePage getAvailableCoursesPage(String after, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("A page needs room for at least one course, limit was " + limit);
+        }
+        Collection<CourseSlot> candidates = after == null ? courses.values() : courses.tailMap(after, false).values();
+        List<Course> page = new ArrayList<>(limit);
+        for (CourseSlot slot : candidates) {
+            if (slot.spacesLeft > 0) {
+                if (page.size() == limit) {
+                    return new CoursePage(page, page.get(page.size() - 1).getCourseCode());
+                }
+                page.add(slot.toCourse());
+            }
+        }
+        return new CoursePage(page, null);
+    }
+
+    @Override
+    public int forEachCourse(Consumer<Course> action) {
+        int count = 0;
+        for (CourseSlot slot : courses.values()) {
+            action.accept(slot.toCourse());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Searches the catalogue by scanning every course. Unlike the SQLite engine's full-text index,
+     * ranking only counts which field each keyword matched in, with ties in course code order.
+     */
+    @Override
+    public List<Course> searchCourses(String keywords, int limit) {
+        List<String> terms = SearchQuery.terms(keywords);
+        if (terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<Course> found = search(terms, false, limit);
+        return found.isEmpty() ? search(terms, true, limit) : found;
+    }
+
+    /**
+     * Scores every course against the search terms.
+     *
+     * @param terms the search terms
+     * @param fuzzy whether words a typo or two away from a term, with the same first letter, also match
+     * @param limit the maximum number of courses to return
+     * @return the matching courses, best match first
+     */
+    private List<Course> search(List<String> terms, boolean fuzzy, int limit) {
+        List<Map.Entry<CourseSlot, Integer>> matches = new ArrayList<>();
+        for (CourseSlot slot : courses.values()) {
+            int score = 0;
+            for (String term : terms) {
+                int best = Math.max(matchWeight(slot.courseCode, term, fuzzy, CODE_WEIGHT),
+                        Math.max(matchWeight(slot.title, term, fuzzy, TITLE_WEIGHT),
+                                matchWeight(slot.description, term, fuzzy, DESCRIPTION_WEIGHT)));
+                if (best == 0) {
+                    score = 0;
+                    break;
+                }
+                score += best;
+            }
+            if (score > 0) {
+                matches.add(Map.entry(slot, score));
+            }
+        }
+        matches.sort(Comparator.comparing((Map.Entry<CourseSlot, Integer> match) -> match.getValue()).reversed());
+        List<Course> found = new ArrayList<>();
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            found.add(matches.get(i).getKey().toCourse());
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether a search term matches a word of a field.
+     *
+     * @param field the field's text, may be null
+     * @param term the search term
+     * @param fuzzy whether spelling alternatives match
+     * @param weight the field's weight
+     * @return the weight if the term matches, otherwise 0
+     */
+    private static int matchWeight(String field, String term, boolean fuzzy, int weight) {
+        if (field == null) {
+            return 0;
+        }
+        for (String word : WORD_BREAK.split(field.toLowerCase(Locale.ROOT))) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (word.startsWith(term)
+                    || fuzzy && word.charAt(0) == term.charAt(0) && SearchQuery.isAlternative(term, word)) {
+                return weight;
+            }
+        }
+        return 0;
+    }
+
+    // Students
+
+    @Override
+    public String nextStudentId() {
+        while (true) {
+            String studentId = String.format("%s%0" + StudentIdAllocator.DEFAULT_WIDTH + "d",
+                    StudentIdAllocator.DEFAULT_PREFIX, studentSequence.incrementAndGet());
+            StudentSlot slot = students.get(studentId);
+            if (slot == null || slot.student == null) {
+                return studentId;
+            }
+        }
+    }
+
+    @Override
+    public void saveStudent(Student student) throws SQLException {
+        StudentSlot slot = studentSlot(student.studentId());
+        synchronized (slot) {
+            if (slot.student != null) {
+                throw new SQLException("Student " + student.studentId() + " already exists");
+            }
+            slot.student = student;
+        }
+    }
+
+    @Override
+    public Student getStudentById(String studentId) {
+        StudentSlot slot = studentId == null ? null : students.get(studentId);
+        return slot == null ? null : slot.student;
+    }
+
+    /**
+     * Returns the slot of a student ID, creating it on first use.
+     *
+     * @param studentId the student ID
+     * @return the student's slot
+     */
+    private StudentSlot studentSlot(String studentId) {
+        StudentSlot slot = students.get(studentId);
+        if (slot != null) {
+            return slot;
+        }
+        synchronized (idLock) {
+            slot = students.get(studentId);
+            if (slot == null) {
+                slot = new StudentSlot(studentCount, studentId);
+                if (studentCount == studentsById.length) {
+                    studentsById = Arrays.copyOf(studentsById, studentCount * 2);
+                }
+                studentsById[studentCount++] = slot;
+                students.put(studentId, slot);
+            }
+            return slot;
+        }
+    }
+
+    // Registrations
+
+    @Override
+    public ReservationResult reserveSeat(String studentId, String courseCode) {
+        CourseSlot course = courses.get(courseCode);
+        if (course == null) {
+            return ReservationResult.NOT_FOUND;
+        }
+        StudentSlot student = studentSlot(studentId);
+        int[] locked = lock(courseStripe(course), studentStripe(student));
+        try {
+            ReservationResult result = checkSeat(student, course);
+            if (result == ReservationResult.REGISTERED) {
+                register(student, course);
+            }
+            return result;
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    @Override
+    public BatchReservation reserveSeats(String studentId, Collection<String> courseCodes, BatchMode mode) {
+        StudentSlot student = studentSlot(studentId);
+        Map<String, ReservationResult> results = new LinkedHashMap<>();
+        Map<String, String> titles = new HashMap<>();
+        List<CourseSlot> requested = new ArrayList<>();
+        List<Integer> stripeIndexes = new ArrayList<>(List.of(studentStripe(student)));
+        for (String courseCode : new LinkedHashSet<>(courseCodes)) {
+            CourseSlot course = courses.get(courseCode);
+            if (course == null) {
+                results.put(courseCode, ReservationResult.NOT_FOUND);
+            } else {
+                results.put(courseCode, null);
+                titles.put(courseCode, course.title);
+                requested.add(course);
+                stripeIndexes.add(courseStripe(course));
+            }
+        }
+        int[] locked = lock(stripeIndexes.stream().mapToInt(Integer::intValue).toArray());
+        try {
+            List<CourseSlot> candidates = new ArrayList<>();
+            boolean failed = requested.size() < results.size();
+            for (CourseSlot course : requested) {
+                ReservationResult result = checkSeat(student, course);
+                if (result == ReservationResult.REGISTERED && course.packed != PackedSchedule.NONE) {
+                    for (CourseSlot candidate : candidates) {
+                        if (candidate.packed != PackedSchedule.NONE && PackedSchedule.overlaps(course.packed, candidate.packed)) {
+                            result = ReservationResult.CONFLICT;
+                            break;
+                        }
+                    }
+                }
+                results.put(course.courseCode, result);
+                if (result == ReservationResult.REGISTERED) {
+                    candidates.add(course);
+                } else {
+                    failed = true;
+                }
+            }
+            if (failed && mode == BatchMode.ALL_OR_NOTHING) {
+                results.replaceAll((courseCode, result) ->
+                        result == ReservationResult.REGISTERED ? ReservationResult.BATCH_ABORTED : result);
+                return new BatchReservation(false, results, titles);
+            }
+            for (CourseSlot course : candidates) {
+                register(student, course);
+            }
+            return new BatchReservation(true, results, titles);
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    /**
+     * Works out whether a student can take a seat in a course. Both stripes must be held.
+     *
+     * @param student the student
+     * @param course the course
+     * @return REGISTERED if the seat can be taken, otherwise DUPLICATE, CONFLICT or FULL
+     */
+    private ReservationResult checkSeat(StudentSlot student, CourseSlot course) {
+        if (student.courses.contains(course.id)) {
+            return ReservationResult.DUPLICATE;
+        }
+        if (clashes(student, course)) {
+            return ReservationResult.CONFLICT;
+        }
+        return course.spacesLeft > 0 ? ReservationResult.REGISTERED : ReservationResult.FULL;
+    }
+
+    /**
+     * Checks whether a course clashes with any course a student is registered for. The student's stripe must be held.
+     *
+     * @param student the student
+     * @param course the course
+     * @return true if the course overlaps one of the student's courses
+     */
+    private boolean clashes(StudentSlot student, CourseSlot course) {
+        if (course.packed == PackedSchedule.NONE) {
+            return false;
+        }
+        CourseSlot[] byId = coursesById;
+        for (int courseId : student.courses.toArray()) {
+            int other = byId[courseId].packed;
+            if (other != PackedSchedule.NONE && PackedSchedule.overlaps(course.packed, other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes a seat and registers a student, taking them off the waitlist. Both stripes must be held.
+     *
+     * @param student the student
+     * @param course the course
+     */
+    private static void register(StudentSlot student, CourseSlot course) {
+        course.spacesLeft--;
+        course.registered.add(student.id);
+        student.courses.add(course.id);
+        course.leave(student.id);
+    }
+
+    @Override
+    public boolean releaseSeat(String studentId, String courseCode) {
+        CourseSlot course = courses.get(courseCode);
+        StudentSlot student = studentId == null ? null : students.get(studentId);
+        if (course == null || student == null) {
+            return false;
+        }
+        int[] locked = lock(courseStripe(course), studentStripe(student));
+        try {
+            if (course.waitlistSize() == 0) {
+                return deregister(student, course);
+            }
+        } finally {
+            unlock(locked);
+        }
+        // Promotion may register anyone on the waitlist, so it needs every stripe
+        locked = lock(allStripes);
+        try {
+            if (!deregister(student, course)) {
+                return false;
+            }
+            StudentSlot[] byId = studentsById;
+            while (course.waitlistSize() > 0) {
+                StudentSlot next = byId[course.serve()];
+                if (!next.courses.contains(course.id) && !clashes(next, course)) {
+                    register(next, course);
+                    break;
+                }
+            }
+            return true;
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    /**
+     * Removes a registration and gives its seat back to the course. Both stripes must be held.
+     *
+     * @param student the student
+     * @param course the course
+     * @return true if the student was registered
+     */
+    private static boolean deregister(StudentSlot student, CourseSlot course) {
+        if (!student.courses.remove(course.id)) {
+            return false;
+        }
+        course.registered.remove(student.id);
+        course.spacesLeft++;
+        return true;
+    }
+
+    @Override
+    public List<Course> getRegisteredCourses(String studentId) {
+        List<Course> registered = new ArrayList<>();
+        for (CourseSlot course : registeredSlots(studentId)) {
+            registered.add(course.toCourse());
+        }
+        return registered;
+    }
+
+    @Override
+    public WeeklyTimetable getWeeklyTimetable(String studentId) {
+        List<CourseSlot> registered = registeredSlots(studentId);
+        registered.sort(Comparator.comparingInt((CourseSlot course) -> PackedSchedule.startMinute(course.packed))
+                .thenComparing(course -> course.courseCode));
+        WeeklyTimetable timetable = new WeeklyTimetable();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            for (CourseSlot course : registered) {
+                if (course.packed != PackedSchedule.NONE && (course.packed & ScheduleSlot.maskOf(day)) != 0) {
+                    timetable.add(day, entry(course));
+                }
+            }
+        }
+        for (CourseSlot course : registered) {
+            if (course.packed == PackedSchedule.NONE) {
+                timetable.add(null, entry(course));
+            }
+        }
+        return timetable;
+    }
+
+    /**
+     * Builds the timetable entry of a course.
+     *
+     * @param course the course
+     * @return the entry
+     */
+    private static TimetableEntry entry(CourseSlot course) {
+        Schedule schedule = course.packed != PackedSchedule.NONE ? PackedSchedule.decode(course.packed) : course.textSchedule;
+        return new TimetableEntry(course.courseCode, course.title, schedule);
+    }
+
+    /**
+     * Returns the courses a student is registered for.
+     *
+     * @param studentId the student ID
+     * @return the course slots, in the order their courses were first stored
+     */
+    private List<CourseSlot> registeredSlots(String studentId) {
+        StudentSlot student = studentId == null ? null : students.get(studentId);
+        if (student == null) {
+            return new ArrayList<>();
+        }
+        int[] courseIds;
+        int[] locked = lock(studentStripe(student));
+        try {
+            courseIds = student.courses.toArray();
+        } finally {
+            unlock(locked);
+        }
+        CourseSlot[] byId = coursesById;
+        List<CourseSlot> registered = new ArrayList<>(courseIds.length);
+        for (int courseId : courseIds) {
+            registered.add(byId[courseId]);
+        }
+        return registered;
+    }
+
+    @Override
+    public int joinWaitlist(String studentId, String courseCode) {
+        CourseSlot course = courses.get(courseCode);
+        if (course == null) {
+            return 0;
+        }
+        StudentSlot student = studentSlot(studentId);
+        int[] locked = lock(courseStripe(course), studentStripe(student));
+        try {
+            int position = course.waitlistPosition(student.id);
+            if (position > 0) {
+                return position;
+            }
+            if (course.spacesLeft > 0 || student.courses.contains(course.id)) {
+                return 0;
+            }
+            return course.enqueue(student.id);
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    @Override
+    public int getWaitlistPosition(String studentId, String courseCode) {
+        CourseSlot course = courses.get(courseCode);
+        StudentSlot student = studentId == null ? null : students.get(studentId);
+        if (course == null || student == null) {
+            return 0;
+        }
+        int[] locked = lock(courseStripe(course));
+        try {
+            return course.waitlistPosition(student.id);
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    @Override
+    public boolean leaveWaitlist(String studentId, String courseCode) {
+        CourseSlot course = courses.get(courseCode);
+        StudentSlot student = studentId == null ? null : students.get(studentId);
+        if (course == null || student == null) {
+            return false;
+        }
+        int[] locked = lock(courseStripe(course));
+        try {
+            return course.leave(student.id);
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    // Locking
+
+    /**
+     * Returns the stripe guarding a course.
+     *
+     * @param course the course
+     * @return the stripe index
+     */
+    private int courseStripe(CourseSlot course) {
+        return course.id % stripes.length;
+    }
+
+    /**
+     * Returns the stripe guarding a student. Students are spread from the other end of the stripes,
+     * so the first courses and the first students do not share stripes.
+     *
+     * @param student the student
+     * @return the stripe index
+     */
+    private int studentStripe(StudentSlot student) {
+        return stripes.length - 1 - student.id % stripes.length;
+    }
+
+    /**
+     * Locks stripes in ascending order, each once.
+     *
+     * @param stripeIndexes the stripes to lock, in any order and possibly repeated
+     * @return the stripes that were locked, to pass to {@link #unlock(int[])}
+     */
+    private int[] lock(int... stripeIndexes) {
+        int[] sorted = Arrays.stream(stripeIndexes).sorted().distinct().toArray();
+        for (int stripe : sorted) {
+            stripes[stripe].lock();
+        }
+        return sorted;
+    }
+
+    /**
+     * Unlocks stripes locked by {@link #lock(int...)}.
+     *
+     * @param locked the locked stripes
+     */
+    private void unlock(int[] locked) {
+        for (int i = locked.length - 1; i >= 0; i--) {
+            stripes[locked[i]].unlock();
+        }
+    }
+
+    // Snapshots
+
+    /**
+     * Writes every course, student, registration and waitlist to the snapshot file. Every stripe is
+     * locked while the snapshot is taken, so it is consistent; the file is written next to the old
+     * one and moved into place, so a crash while writing leaves the previous snapshot intact.
+     *
+     * @throws IOException if the snapshot could not be written
+     * @throws IllegalStateException if the engine has no snapshot file
+     */
+    public void snapshot() throws IOException {
+        if (snapshotFile == null) {
+            throw new IllegalStateException("This engine has no snapshot file");
+        }
+        Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        int[] locked = lock(allStripes);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            CourseSlot[] courseSlots;
+            StudentSlot[] studentSlots;
+            synchronized (idLock) {
+                courseSlots = Arrays.copyOf(coursesById, courseCount);
+                studentSlots = Arrays.copyOf(studentsById, studentCount);
+            }
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(studentSequence.get());
+            out.writeInt(studentSlots.length);
+            for (StudentSlot slot : studentSlots) {
+                out.writeUTF(slot.studentId);
+                Student student = slot.student;
+                out.writeBoolean(student != null);
+                if (student != null) {
+                    writeNullable(out, student.name());
+                    writeNullable(out, student.surname());
+                }
+            }
+            out.writeInt(courseSlots.length);
+            for (CourseSlot slot : courseSlots) {
+                out.writeUTF(slot.courseCode);
+                writeNullable(out, slot.title);
+                writeNullable(out, slot.description);
+                out.writeInt(slot.spacesLeft);
+                out.writeInt(slot.packed);
+                out.writeBoolean(slot.textSchedule != null);
+                if (slot.textSchedule != null) {
+                    writeNullable(out, String.join(",", slot.textSchedule.days()));
+                    writeNullable(out, slot.textSchedule.startTime());
+                    writeNullable(out, slot.textSchedule.endTime());
+                }
+                int[] registered = slot.registered.toArray();
+                out.writeInt(registered.length);
+                for (int studentId : registered) {
+                    out.writeInt(studentId);
+                }
+                out.writeInt(slot.waitlistSize());
+                for (int ticket = slot.servedTicket + 1; ticket < slot.nextTicket; ticket++) {
+                    out.writeInt(slot.waitlist[ticket - slot.firstTicket]);
+                }
+            }
+        } finally {
+            unlock(locked);
+        }
+        Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a snapshot into this empty engine. Students and courses get the same int IDs they had
+     * when the snapshot was taken, so the registrations and waitlists can be read back as stored.
+     *
+     * @param file the snapshot file
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    private void load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            studentSequence.set(in.readLong());
+            int studentTotal = in.readInt();
+            for (int i = 0; i < studentTotal; i++) {
+                StudentSlot slot = studentSlot(in.readUTF());
+                if (in.readBoolean()) {
+                    slot.student = new Student(slot.studentId, readNullable(in), readNullable(in));
+                }
+            }
+            int courseTotal = in.readInt();
+            for (int i = 0; i < courseTotal; i++) {
+                String courseCode = in.readUTF();
+                String title = readNullable(in);
+                String description = readNullable(in);
+                int spacesLeft = in.readInt();
+                int packed = in.readInt();
+                Schedule textSchedule = in.readBoolean()
+                        ? new Schedule(Collections.singletonList(readNullable(in)), readNullable(in), readNullable(in))
+                        : null;
+                CourseSlot slot = new CourseSlot(courseCount, courseCode, title, description, spacesLeft, packed, textSchedule);
+                if (courseCount == coursesById.length) {
+                    coursesById = Arrays.copyOf(coursesById, courseCount * 2);
+                }
+                coursesById[courseCount++] = slot;
+                courses.put(courseCode, slot);
+                int registered = in.readInt();
+                for (int j = 0; j < registered; j++) {
+                    int studentId = in.readInt();
+                    slot.registered.add(studentId);
+                    studentsById[studentId].courses.add(slot.id);
+                }
+                int waiting = in.readInt();
+                for (int j = 0; j < waiting; j++) {
+                    slot.enqueue(in.readInt());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a string that may be null.
+     *
+     * @param out the stream
+     * @param value the string, may be null
+     * @throws IOException if the string could not be written
+     */
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeNullable(DataOutputStream, String)}.
+     *
+     * @param in the stream
+     * @return the string, or null
+     * @throws IOException if the string could not be read
+     */
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Writes a final snapshot if the engine has a snapshot file.
+     *
+     * @throws UncheckedIOException if the snapshot could not be written
+     */
+    @Override
+    public void close() {
+        if (snapshotFile != null) {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write the snapshot " + snapshotFile, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package registration.system.database_management.storage;
+
+import registration.system.course_management.BatchMode;
+import registration.system.course_management.BatchReservation;
+import registration.system.course_management.Course;
+import registration.system.course_management.ReservationResult;
+import registration.system.course_management.schedule.WeeklyTimetable;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The registrations and waitlists of a {@link StorageEngine}. Every method that changes seats is
+ * atomic: a course is never oversold, a student never holds two seats in one course, and a student
+ * is never registered for two courses that meet at the same time.
+ */
+public interface RegistrationStore {
+    /**
+     * Claims a seat in a course and registers the student for it, taking the student off the course's waitlist.
+     *
+     * @param studentId the student ID
+     * @param courseCode the course code
+     * @return REGISTERED if a seat was taken, otherwise the reason nothing was changed
+     * @throws SQLException if the registration could not be stored
+     */
+    ReservationResult reserveSeat(String studentId, String courseCode) throws SQLException;
+
+    /**
+     * Registers a student for several courses at once.
+     *
+     * @param studentId the student ID
+     * @param courseCodes the course codes; repeated codes are reserved once
+     * @param mode whether to keep the registrations that succeed when others fail
+     * @return whether the batch was committed and the result for each course
+     * @throws SQLException if the registrations could not be stored
+     */
+    BatchReservation reserveSeats(String studentId, Collection<String> courseCodes, BatchMode mode) throws SQLException;
+
+    /**
+     * Deregisters a student from a course. The seat goes to the first student on the course's
+     * waitlist who can take it, or back to the course if there is nobody.
+     *
+     * @param studentId the student ID
+     * @param courseCode the course code
+     * @return true if the student was registered
+     * @throws SQLException if the registration could not be removed
+     */
+    boolean releaseSeat(String studentId, String courseCode) throws SQLException;
+
+    /**
+     * Retrieves the courses a student is registered for, with their schedules.
+     *
+     * @param studentId the student ID
+     * @return the student's courses
+     * @throws SQLException if the registrations could not be read
+     */
+    List<Course> getRegisteredCourses(String studentId) throws SQLException;
+
+    /**
+     * Retrieves a student's courses grouped by day and sorted by start time.
+     *
+     * @param studentId the student ID
+     * @return the student's timetable, empty if the student has no registered courses
+     * @throws SQLException if the registrations could not be read
+     */
+    WeeklyTimetable getWeeklyTimetable(String studentId) throws SQLException;
+
+    /**
+     * Puts a student at the back of a full course's waitlist. A student already on the waitlist keeps their place.
+     *
+     * @param studentId the student ID
+     * @param courseCode the course code
+     * @return the student's position, starting at 1, or 0 if the course does not exist, still has
+     * spaces left, or the student is registered for it
+     * @throws SQLException if the waitlist could not be updated
+     */
+    int joinWaitlist(String studentId, String courseCode) throws SQLException;
+
+    /**
+     * Returns a student's position on a course's waitlist.
+     *
+     * @param studentId the student ID
+     * @param courseCode the course code
+     * @return the position, starting at 1, or 0 if the student is not on the waitlist
+     * @throws SQLException if the waitlist could not be read
+     */
+    int getWaitlistPosition(String studentId, String courseCode) throws SQLException;
+
+    /**
+     * Takes a student off a course's waitlist. Everyone behind the student moves up one place.
+     *
+     * @param studentId the student ID
+     * @param courseCode the course code
+     * @return true if the student was on the waitlist
+     * @throws SQLException if the waitlist could not be updated
+     */
+    boolean leaveWaitlist(String studentId, String courseCode) throws SQLException;
+}
@@ -0,0 +1,129 @@
+package registration.system.database_management.storage;
+
+import registration.system.course_management.BatchMode;
+import registration.system.course_management.BatchReservation;
+import registration.system.course_management.Course;
+import registration.system.course_management.CoursePage;
+import registration.system.course_management.ReservationResult;
+import registration.system.course_management.schedule.WeeklyTimetable;
+import registration.system.database_management.DatabaseManager;
+import registration.system.student_management.Student;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The storage engine backed by the SQLite database at {@link DatabaseManager#URL}.
+ * Every call is handed to DatabaseManager, so its connection pool, caches and metrics all apply.
+ */
+public class SqliteStorageEngine implements StorageEngine, CourseStore, StudentStore, RegistrationStore {
+    @Override
+    public CourseStore courses() {
+        return this;
+    }
+
+    @Override
+    public StudentStore students() {
+        return this;
+    }
+
+    @Override
+    public RegistrationStore registrations() {
+        return this;
+    }
+
+    @Override
+    public void addCourse(Course course) throws SQLException {
+        DatabaseManager.insertCourse(course);
+        if (course.getSchedule() != null) {
+            DatabaseManager.insertSchedule(course.getCourseCode(), course.getSchedule());
+        }
+    }
+
+    @Override
+    public Course findCourse(String courseCode) throws SQLException {
+        return DatabaseManager.findCourse(courseCode);
+    }
+
+    @Override
+    public void updateCapacity(String courseCode, int spacesLeft) throws SQLException {
+        DatabaseManager.updateCapacity(courseCode, spacesLeft);
+    }
+
+    @Override
+    public List<Course> getAvailableCourses() throws SQLException {
+        return DatabaseManager.getAvailableCourses();
+    }
+
+    @Override
+    public CoursePage getAvailableCoursesPage(String after, int limit) throws SQLException {
+        return DatabaseManager.getAvailableCoursesPage(after, limit);
+    }
+
+    @Override
+    public int forEachCourse(Consumer<Course> action) throws SQLException {
+        return DatabaseManager.forEachCourse(action);
+    }
+
+    @Override
+    public List<Course> searchCourses(String keywords, int limit) throws SQLException {
+        return DatabaseManager.searchCourses(keywords, limit);
+    }
+
+    @Override
+    public String nextStudentId() throws SQLException {
+        return DatabaseManager.getStudentIdAllocator().nextId();
+    }
+
+    @Override
+    public void saveStudent(Student student) throws SQLException {
+        DatabaseManager.saveStudent(student);
+    }
+
+    @Override
+    public Student getStudentById(String studentId) throws SQLException {
+        return DatabaseManager.getStudentById(studentId);
+    }
+
+    @Override
+    public ReservationResult reserveSeat(String studentId, String courseCode) throws SQLException {
+        return DatabaseManager.reserveSeat(studentId, courseCode);
+    }
+
+    @Override
+    public BatchReservation reserveSeats(String studentId, Collection<String> courseCodes, BatchMode mode) throws SQLException {
+        return DatabaseManager.reserveSeats(studentId, courseCodes, mode);
+    }
+
+    @Override
+    public boolean releaseSeat(String studentId, String courseCode) throws SQLException {
+        return DatabaseManager.releaseSeat(studentId, courseCode);
+    }
+
+    @Override
+    public List<Course> getRegisteredCourses(String studentId) throws SQLException {
+        return DatabaseManager.getRegisteredCourses(new Student(studentId, null, null));
+    }
+
+    @Override
+    public WeeklyTimetable getWeeklyTimetable(String studentId) throws SQLException {
+        return DatabaseManager.getWeeklyTimetable(studentId);
+    }
+
+    @Override
+    public int joinWaitlist(String studentId, String courseCode) throws SQLException {
+        return DatabaseManager.joinWaitlist(studentId, courseCode);
+    }
+
+    @Override
+    public int getWaitlistPosition(String studentId, String courseCode) throws SQLException {
+        return DatabaseManager.getWaitlistPosition(studentId, courseCode);
+    }
+
+    @Override
+    public boolean leaveWaitlist(String studentId, String courseCode) throws SQLException {
+        return DatabaseManager.leaveWaitlist(studentId, courseCode);
+    }
+}
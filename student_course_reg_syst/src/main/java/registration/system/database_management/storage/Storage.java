@@ -0,0 +1,84 @@
+package registration.system.database_management.storage;
+
+import java.util.Locale;
+
+/**
+ * Holds the process-wide {@link StorageEngine}. The engine starts as the one named by the
+ * {@value #ENGINE_PROPERTY} system property, {@value #SQLITE} or {@value #MEMORY}, and is SQLite
+ * when the property is not set; for example {@code java -Dregistration.storage=memory ...}.
+ */
+public final class Storage {
+    public static final String ENGINE_PROPERTY = "registration.storage";
+    public static final String SQLITE = "sqlite";
+    public static final String MEMORY = "memory";
+
+    private static volatile StorageEngine engine = createEngine(System.getProperty(ENGINE_PROPERTY, SQLITE));
+
+    private Storage() {
+    }
+
+    /**
+     * Creates a storage engine by name.
+     *
+     * @param name {@value #SQLITE} or {@value #MEMORY}, in any case
+     * @return a new engine; an in-memory engine starts empty
+     * @throws IllegalArgumentException if the name is not a known engine
+     */
+    public static StorageEngine createEngine(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case SQLITE -> new SqliteStorageEngine();
+            case MEMORY -> new InMemoryStorageEngine();
+            default -> throw new IllegalArgumentException("Unknown storage engine: " + name
+                    + ", expected " + SQLITE + " or " + MEMORY);
+        };
+    }
+
+    /**
+     * Returns the process-wide storage engine.
+     *
+     * @return the storage engine
+     */
+    public static StorageEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Replaces the process-wide storage engine. The previous engine is closed.
+     *
+     * @param storageEngine the new storage engine
+     */
+    public static synchronized void setEngine(StorageEngine storageEngine) {
+        StorageEngine previous = engine;
+        engine = storageEngine;
+        if (previous != storageEngine) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Returns the course catalogue of the process-wide engine.
+     *
+     * @return the course store
+     */
+    public static CourseStore courses() {
+        return engine.courses();
+    }
+
+    /**
+     * Returns the student records of the process-wide engine.
+     *
+     * @return the student store
+     */
+    public static StudentStore students() {
+        return engine.students();
+    }
+
+    /**
+     * Returns the registrations and waitlists of the process-wide engine.
+     *
+     * @return the registration store
+     */
+    public static RegistrationStore registrations() {
+        return engine.registrations();
+    }
+}
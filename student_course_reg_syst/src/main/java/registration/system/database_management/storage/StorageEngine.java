@@ -0,0 +1,37 @@
+package registration.system.database_management.storage;
+
+/**
+ * A place to keep courses, students and registrations. The registration logic reaches storage
+ * through {@link Storage}, so the engine can be swapped without touching it:
+ * {@link SqliteStorageEngine} keeps everything in the SQLite database managed by
+ * {@code DatabaseManager}, and {@link InMemoryStorageEngine} keeps everything on the heap.
+ */
+public interface StorageEngine extends AutoCloseable {
+    /**
+     * Returns the course catalogue.
+     *
+     * @return the course store
+     */
+    CourseStore courses();
+
+    /**
+     * Returns the student records.
+     *
+     * @return the student store
+     */
+    StudentStore students();
+
+    /**
+     * Returns the registrations and waitlists.
+     *
+     * @return the registration store
+     */
+    RegistrationStore registrations();
+
+    /**
+     * Releases the engine's resources. The default does nothing.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,35 @@
+package registration.system.database_management.storage;
+
+import registration.system.student_management.Student;
+
+import java.sql.SQLException;
+
+/**
+ * The student records of a {@link StorageEngine}.
+ */
+public interface StudentStore {
+    /**
+     * Returns a student ID that has not been handed out before.
+     *
+     * @return the new student ID, such as "SE00042"
+     * @throws SQLException if no ID could be reserved
+     */
+    String nextStudentId() throws SQLException;
+
+    /**
+     * Saves a new student.
+     *
+     * @param student the student to save
+     * @throws SQLException if the student could not be stored, for example because the ID is taken
+     */
+    void saveStudent(Student student) throws SQLException;
+
+    /**
+     * Retrieves a student by ID.
+     *
+     * @param studentId the student ID
+     * @return the student, or null if not found
+     * @throws SQLException if the student could not be read
+     */
+    Student getStudentById(String studentId) throws SQLException;
+}
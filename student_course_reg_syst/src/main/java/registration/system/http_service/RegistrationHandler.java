@@ -0,0 +1,410 @@
+package registration.system.http_service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import registration.system.course_management.BatchMode;
+import registration.system.course_management.BatchReservation;
+import registration.system.course_management.Course;
+import registration.system.course_management.CourseManager;
+import registration.system.course_management.CoursePage;
+import registration.system.course_management.ReservationResult;
+import registration.system.course_management.schedule.WeeklyTimetable;
+import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.SlowQueryLog;
+import registration.system.database_management.storage.Storage;
+import registration.system.student_management.Student;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes HTTP requests to the registration system. Every endpoint reads and writes JSON:
+ * <ul>
+ *     <li>{@code POST /login} with {@code {"studentId": ...}} returns the student</li>
+ *     <li>{@code POST /students} with {@code {"name": ..., "surname": ...}} creates a student profile</li>
+ *     <li>{@code GET /courses/available?limit=...&after=...} lists the courses with spaces left one page at a
+ *     time, as {@code {"courses": [...], "nextAfter": ...}}, where nextAfter is the course code to pass as
+ *     {@code after} for the next page, or null on the last page; limit defaults to
+ *     {@link CourseManager#PAGE_SIZE}</li>
+ *     <li>{@code GET /metrics} returns the latency percentiles of every data layer operation</li>
+ *     <li>{@code GET /metrics/slow-queries} returns the most recent slow queries, oldest first</li>
+ *     <li>{@code GET /courses/search?q=...&limit=...} lists the courses matching the keywords, best match first</li>
+ *     <li>{@code GET /students/{id}/courses} lists the student's registered courses</li>
+ *     <li>{@code GET /students/{id}/schedule} lists the schedule of each registered course</li>
+ *     <li>{@code GET /students/{id}/timetable} returns the student's courses grouped by day and sorted by start time</li>
+ *     <li>{@code POST /students/{id}/registrations} with {@code {"courseCode": ...}} registers for a course,
+ *     or with {@code {"courseCodes": [...], "allOrNothing": true}} for several courses in one transaction</li>
+ *     <li>{@code DELETE /students/{id}/registrations/{courseCode}} deregisters from a course</li>
+ *     <li>{@code GET /students/{id}/waitlist/{courseCode}} returns the student's position on a course's waitlist</li>
+ *     <li>{@code DELETE /students/{id}/waitlist/{courseCode}} takes the student off a course's waitlist</li>
+ * </ul>
+ * Errors are returned as {@code {"error": ...}} with a matching status code.
+ */
+class RegistrationHandler implements HttpHandler {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * A response status and the object to send as its JSON body.
+     */
+    private record Response(int status, Object body) {
+        private static Response error(int status, String message) {
+            return new Response(status, Map.of("error", message));
+        }
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        Response response;
+        try {
+            response = route(exchange.getRequestMethod(), exchange.getRequestURI().getPath().split("/"), exchange);
+        } catch (JsonProcessingException e) {
+            response = Response.error(400, "Malformed JSON: " + e.getOriginalMessage());
+        } catch (SQLException e) {
+            System.err.println("Error: request " + exchange.getRequestURI() + " failed:\n" + e.getMessage());
+            response = Response.error(500, "Database error");
+        } catch (RuntimeException e) {
+            System.err.println("Error: request " + exchange.getRequestURI() + " failed:\n" + e);
+            response = Response.error(500, "Internal error");
+        }
+        send(exchange, response);
+    }
+
+    /**
+     * Dispatches a request by method and path.
+     *
+     * @param method the HTTP method
+     * @param path the path segments; the first one is empty because the path starts with "/"
+     * @param exchange the exchange, for reading the request body
+     * @return the response to send
+     * @throws IOException if the request body cannot be read
+     * @throws SQLException if a database access error occurs
+     */
+    private Response route(String method, String[] path, HttpExchange exchange) throws IOException, SQLException {
+        if (path.length == 2 && path[1].equals("login") && method.equals("POST")) {
+            return login(readBody(exchange));
+        }
+        if (path.length == 2 && path[1].equals("students") && method.equals("POST")) {
+            return createStudent(readBody(exchange));
+        }
+        if (path.length == 3 && path[1].equals("courses") && path[2].equals("available") && method.equals("GET")) {
+            return availableCourses(queryParameters(exchange));
+        }
+        if (path.length == 2 && path[1].equals("metrics") && method.equals("GET")) {
+            return new Response(200, DatabaseManager.getMetrics().snapshot());
+        }
+        if (path.length == 3 && path[1].equals("metrics") && path[2].equals("slow-queries") && method.equals("GET")) {
+            SlowQueryLog slowQueryLog = DatabaseManager.getSlowQueryLog();
+            return new Response(200, slowQueryLog == null ? List.of() : slowQueryLog.recent());
+        }
+        if (path.length == 3 && path[1].equals("courses") && path[2].equals("search") && method.equals("GET")) {
+            return search(queryParameters(exchange));
+        }
+        if (path.length >= 4 && path[1].equals("students")) {
+            Student student = Storage.students().getStudentById(path[2].toUpperCase());
+            if (student == null) {
+                return Response.error(404, "Student not found.");
+            }
+            if (path.length == 4 && path[3].equals("courses") && method.equals("GET")) {
+                return new Response(200, Storage.registrations().getRegisteredCourses(student.studentId()));
+            }
+            if (path.length == 4 && path[3].equals("schedule") && method.equals("GET")) {
+                return schedule(student);
+            }
+            if (path.length == 4 && path[3].equals("timetable") && method.equals("GET")) {
+                WeeklyTimetable timetable = Storage.registrations().getWeeklyTimetable(student.studentId());
+                return new Response(200, Map.of("days", timetable.days(), "unscheduled", timetable.unscheduled()));
+            }
+            if (path.length == 4 && path[3].equals("registrations") && method.equals("POST")) {
+                return register(student, readBody(exchange));
+            }
+            if (path.length == 5 && path[3].equals("registrations") && method.equals("DELETE")) {
+                return deregister(student, path[4]);
+            }
+            if (path.length == 5 && path[3].equals("waitlist") && method.equals("GET")) {
+                return waitlistPosition(student, path[4]);
+            }
+            if (path.length == 5 && path[3].equals("waitlist") && method.equals("DELETE")) {
+                return leaveWaitlist(student, path[4]);
+            }
+        }
+        return Response.error(404, "No endpoint for " + method + " " + String.join("/", path));
+    }
+
+    /**
+     * Looks up a returning student.
+     *
+     * @param body the request body with the student ID
+     * @return the student, or 404 if there is no student with that ID
+     * @throws SQLException if a database access error occurs
+     */
+    private Response login(Map<String, Object> body) throws SQLException {
+        String studentId = field(body, "studentId");
+        Student student = studentId == null ? null : Storage.students().getStudentById(studentId.toUpperCase());
+        if (student == null) {
+            return Response.error(404, "Student not found! Please enter valid studentId i.e SE12345");
+        }
+        return new Response(200, student);
+    }
+
+    /**
+     * Lists one page of the courses with spaces left.
+     *
+     * @param parameters the query parameters: an optional page size as {@code limit} and the course code
+     *                   to start after as {@code after}
+     * @return the page of available courses, or 400 if the page size is invalid
+     * @throws SQLException if a database access error occurs
+     */
+    private Response availableCourses(Map<String, String> parameters) throws SQLException {
+        Integer limit = limit(parameters, CourseManager.PAGE_SIZE);
+        if (limit == null) {
+            return Response.error(400, "limit must be a number between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        CoursePage page = Storage.courses().getAvailableCoursesPage(parameters.get("after"), limit);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("courses", page.courses());
+        body.put("nextAfter", page.nextAfter());
+        return new Response(200, body);
+    }
+
+    /**
+     * Searches the course catalogue by keywords.
+     *
+     * @param parameters the query parameters: the keywords as {@code q} and an optional {@code limit}
+     * @return the matching courses, or 400 if the keywords or the limit are missing or invalid
+     * @throws SQLException if a database access error occurs
+     */
+    private Response search(Map<String, String> parameters) throws SQLException {
+        String keywords = parameters.get("q");
+        if (keywords == null || keywords.isBlank()) {
+            return Response.error(400, "q is required.");
+        }
+        Integer limit = limit(parameters, CourseManager.SEARCH_RESULTS);
+        if (limit == null) {
+            return Response.error(400, "limit must be a number between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        return new Response(200, Storage.courses().searchCourses(keywords, limit));
+    }
+
+    /**
+     * Reads the {@code limit} query parameter.
+     *
+     * @param parameters the query parameters
+     * @param defaultLimit the limit to use when the parameter is missing
+     * @return the limit, or null if it is not a number between 1 and the maximum page size
+     */
+    private static Integer limit(Map<String, String> parameters, int defaultLimit) {
+        int limit;
+        try {
+            limit = Integer.parseInt(parameters.getOrDefault("limit", String.valueOf(defaultLimit)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return limit >= 1 && limit <= MAX_PAGE_SIZE ? limit : null;
+    }
+
+    /**
+     * Creates a student profile with a newly allocated student ID.
+     *
+     * @param body the request body with the name and surname
+     * @return the new student, or 400 if the name or surname is missing
+     * @throws SQLException if a database access error occurs
+     */
+    private Response createStudent(Map<String, Object> body) throws SQLException {
+        String name = field(body, "name");
+        String surname = field(body, "surname");
+        if (name == null || name.isBlank() || surname == null || surname.isBlank()) {
+            return Response.error(400, "Both name and surname are required.");
+        }
+        Student student = new Student(Storage.students().nextStudentId(), name, surname);
+        Storage.students().saveStudent(student);
+        return new Response(201, student);
+    }
+
+    /**
+     * Lists the schedule of each course the student is registered for.
+     *
+     * @param student the student
+     * @return the course codes and their schedules
+     * @throws SQLException if a database access error occurs
+     */
+    private Response schedule(Student student) throws SQLException {
+        List<Map<String, Object>> schedule = new ArrayList<>();
+        for (Course course : Storage.registrations().getRegisteredCourses(student.studentId())) {
+            schedule.add(Map.of("courseCode", course.getCourseCode(), "schedule", course.getSchedule()));
+        }
+        return new Response(200, schedule);
+    }
+
+    /**
+     * Registers the student for a course, claiming the seat and recording the registration in one transaction.
+     *
+     * @param student the student
+     * @param body the request body with the course code
+     * @return the reservation result: 201 when registered, 202 with the waitlist position when the course is full,
+     * 409 when already registered or clashing with the timetable, 404 for an unknown course
+     * @throws SQLException if a database access error occurs
+     */
+    private Response register(Student student, Map<String, Object> body) throws SQLException {
+        if (body.get("courseCodes") instanceof List<?> courseCodes) {
+            return registerAll(student, courseCodes, Boolean.TRUE.equals(body.get("allOrNothing")));
+        }
+        String courseCode = field(body, "courseCode");
+        if (courseCode == null) {
+            return Response.error(400, "courseCode is required.");
+        }
+        ReservationResult result = Storage.registrations().reserveSeat(student.studentId(), courseCode);
+        if (result == ReservationResult.FULL) {
+            int position = Storage.registrations().joinWaitlist(student.studentId(), courseCode);
+            if (position > 0) {
+                return new Response(202, Map.of("result", result, "waitlistPosition", position));
+            }
+        }
+        int status = switch (result) {
+            case REGISTERED -> 201;
+            case FULL, DUPLICATE, CONFLICT, BATCH_ABORTED -> 409;
+            case NOT_FOUND -> 404;
+        };
+        return new Response(status, Map.of("result", result));
+    }
+
+    /**
+     * Registers the student for several courses in one transaction.
+     *
+     * @param student the student
+     * @param courseCodes the course codes
+     * @param allOrNothing whether to register for none of the courses if any of them fails
+     * @return the result for each course: 200 when the batch was committed, 409 when it was rolled back
+     * @throws SQLException if a database access error occurs
+     */
+    private Response registerAll(Student student, List<?> courseCodes, boolean allOrNothing) throws SQLException {
+        List<String> codes = new ArrayList<>();
+        for (Object courseCode : courseCodes) {
+            codes.add(String.valueOf(courseCode));
+        }
+        BatchReservation batch = Storage.registrations().reserveSeats(student.studentId(), codes,
+                allOrNothing ? BatchMode.ALL_OR_NOTHING : BatchMode.PARTIAL);
+        return new Response(batch.committed() ? 200 : 409, Map.of("committed", batch.committed(), "results", batch.results()));
+    }
+
+    /**
+     * Deregisters the student from a course and releases the seat.
+     *
+     * @param student the student
+     * @param courseCode the course code
+     * @return the deregistered course code, or 404 if the student was not registered
+     * @throws SQLException if a database access error occurs
+     */
+    private Response deregister(Student student, String courseCode) throws SQLException {
+        if (!Storage.registrations().releaseSeat(student.studentId(), courseCode)) {
+            return Response.error(404, "You are not registered for course: " + courseCode);
+        }
+        return new Response(200, Map.of("deregistered", courseCode));
+    }
+
+    /**
+     * Returns the student's position on the waitlist of a course.
+     *
+     * @param student the student
+     * @param courseCode the course code
+     * @return the position, or 404 if the student is not on the waitlist
+     * @throws SQLException if a database access error occurs
+     */
+    private Response waitlistPosition(Student student, String courseCode) throws SQLException {
+        int position = Storage.registrations().getWaitlistPosition(student.studentId(), courseCode);
+        if (position == 0) {
+            return Response.error(404, "You are not on the waitlist for course: " + courseCode);
+        }
+        return new Response(200, Map.of("courseCode", courseCode, "waitlistPosition", position));
+    }
+
+    /**
+     * Takes the student off the waitlist of a course.
+     *
+     * @param student the student
+     * @param courseCode the course code
+     * @return the course code, or 404 if the student was not on the waitlist
+     * @throws SQLException if a database access error occurs
+     */
+    private Response leaveWaitlist(Student student, String courseCode) throws SQLException {
+        if (!Storage.registrations().leaveWaitlist(student.studentId(), courseCode)) {
+            return Response.error(404, "You are not on the waitlist for course: " + courseCode);
+        }
+        return new Response(200, Map.of("leftWaitlist", courseCode));
+    }
+
+    /**
+     * Returns a field of a request body as text.
+     *
+     * @param body the request body
+     * @param name the field name
+     * @return the field value as text, or null if the field is missing
+     */
+    private static String field(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Decodes the query string of the request URI.
+     *
+     * @param exchange the exchange
+     * @return the query parameters; when a parameter is repeated, the first value wins
+     */
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            parameters.putIfAbsent(name, value);
+        }
+        return parameters;
+    }
+
+    /**
+     * Reads the request body as a JSON object.
+     *
+     * @param exchange the exchange
+     * @return the fields of the body, empty if there is no body
+     * @throws IOException if the body cannot be read or is not a JSON object
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readAllBytes();
+            return body.length == 0 ? Map.of() : MAPPER.readValue(body, Map.class);
+        }
+    }
+
+    /**
+     * Writes a response as JSON and closes the exchange.
+     *
+     * @param exchange the exchange
+     * @param response the status and body to send
+     * @throws IOException if the response cannot be written
+     */
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = MAPPER.writeValueAsBytes(response.body());
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
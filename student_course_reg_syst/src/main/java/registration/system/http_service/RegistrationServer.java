@@ -0,0 +1,139 @@
+package registration.system.http_service;
+
+import com.sun.net.httpserver.HttpServer;
+import registration.system.RegistrationApp;
+import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.SeatLedger;
+import registration.system.database_management.SlowQueryLog;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An embedded HTTP server that exposes the registration system as JSON endpoints, so many students
+ * can use one running instance at the same time. See {@link RegistrationHandler} for the endpoints.
+ */
+public class RegistrationServer {
+    public static final int DEFAULT_PORT = 8080;
+    public static final String SLOW_QUERY_LOG_FILE = "slow-queries.log";
+    public static final int DEFAULT_REQUEST_THREADS = 200;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Turns on TCP_NODELAY for accepted connections. The JDK server leaves it off by default, and
+     * small JSON responses then wait for the client's delayed ACK, adding about 40 ms to every request.
+     * The property is read once, when the first server is created.
+     */
+    static {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * Constructs a RegistrationServer with the default number of request threads.
+     *
+     * @param port the port to listen on, or 0 to pick a free port
+     * @throws IOException if the server cannot bind to the port
+     */
+    public RegistrationServer(int port) throws IOException {
+        this(port, DEFAULT_REQUEST_THREADS);
+    }
+
+    /**
+     * Constructs a RegistrationServer.
+     *
+     * @param port the port to listen on, or 0 to pick a free port
+     * @param requestThreads the maximum number of requests handled at once
+     * @throws IOException if the server cannot bind to the port
+     */
+    public RegistrationServer(int port, int requestThreads) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), requestThreads);
+        this.executor = newRequestExecutor(requestThreads);
+        server.createContext("/", new RegistrationHandler());
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Creates the executor that runs requests. Requests spend most of their time waiting on
+     * SQLite, so the pool is sized for blocked threads rather than for CPU cores.
+     *
+     * @param requestThreads the number of threads
+     * @return the request executor
+     */
+    private static ExecutorService newRequestExecutor(int requestThreads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory = task -> {
+            Thread thread = new Thread(task, "registration-http-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(requestThreads, threadFactory);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, giving requests in flight up to the given time to finish.
+     *
+     * @param delaySeconds the maximum time to wait for requests in flight
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(delaySeconds, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Initializes the database and starts the server. Statements slower than the slow-query
+     * threshold are logged to {@value #SLOW_QUERY_LOG_FILE}. Given a redo log path, seats are counted
+     * in memory by a {@link SeatLedger} that writes them to the courses table in the background.
+     *
+     * @param args an optional port, 8080 by default, an optional slow-query threshold in milliseconds
+     * and an optional seat ledger redo log path
+     * @throws SQLException if a database access error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    public static void main(String[] args) throws SQLException, IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        long slowQueryMillis = args.length > 1 ? Long.parseLong(args[1]) : SlowQueryLog.DEFAULT_THRESHOLD_MILLIS;
+        DatabaseManager.setSlowQueryLog(new SlowQueryLog(slowQueryMillis, Path.of(SLOW_QUERY_LOG_FILE)));
+        RegistrationApp.initializeDatabase();
+        if (args.length > 2) {
+            DatabaseManager.setSeatLedger(new SeatLedger(Path.of(args[2])));
+        }
+        RegistrationServer server = new RegistrationServer(port);
+        server.start();
+        System.out.println("Registration service listening on http://localhost:" + server.getPort());
+    }
+}
@@ -0,0 +1,52 @@
+package registration.system.load_testing;
+
+import java.util.List;
+
+/**
+ * The results of a load run.
+ *
+ * @param students the number of simulated students
+ * @param elapsedNanos how long the run took
+ * @param operations the statistics of each operation that was performed
+ */
+public record LoadReport(int students, long elapsedNanos, List<OperationStats> operations) {
+
+    /**
+     * Returns the throughput of one operation.
+     *
+     * @param stats the statistics of the operation
+     * @return the number of completed calls per second
+     */
+    public double throughput(OperationStats stats) {
+        return elapsedNanos == 0 ? 0 : stats.count() / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Returns the throughput of all operations together.
+     *
+     * @return the number of completed calls per second
+     */
+    public double totalThroughput() {
+        long count = operations.stream().mapToLong(OperationStats::count).sum();
+        return elapsedNanos == 0 ? 0 : count / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Returns a table with the throughput and latency percentiles of each operation.
+     *
+     * @return the report as text
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format("%d students over %.1f s, %.0f ops/s%n",
+                students, elapsedNanos / 1_000_000_000.0, totalThroughput()));
+        report.append(String.format("%-15s %8s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (OperationStats stats : operations) {
+            report.append(String.format("%-15s %8d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    stats.operation(), stats.count(), stats.errors(), throughput(stats),
+                    stats.p50Millis(), stats.p90Millis(), stats.p99Millis(), stats.maxMillis()));
+        }
+        return report.toString();
+    }
+}
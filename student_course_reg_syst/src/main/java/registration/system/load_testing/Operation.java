@@ -0,0 +1,28 @@
+package registration.system.load_testing;
+
+/**
+ * The operations a simulated student performs, with their default share of the workload.
+ * Profiles are created once per student when the run starts, so they have no weight in the mix.
+ */
+public enum Operation {
+    CREATE_PROFILE(0),
+    BROWSE(40),
+    SCHEDULE(20),
+    REGISTER(25),
+    DEREGISTER(15);
+
+    private final int defaultWeight;
+
+    Operation(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * Returns how often the operation is picked relative to the others, unless configured otherwise.
+     *
+     * @return the default weight
+     */
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+}
@@ -0,0 +1,48 @@
+package registration.system.load_testing;
+
+import java.util.Arrays;
+
+/**
+ * Latency statistics for one operation of a load run.
+ *
+ * @param operation the operation
+ * @param count the number of times the operation completed
+ * @param errors the number of times the operation failed with a database error
+ * @param p50Millis the median latency
+ * @param p90Millis the 90th percentile latency
+ * @param p99Millis the 99th percentile latency
+ * @param maxMillis the highest latency
+ */
+public record OperationStats(Operation operation, long count, long errors, double p50Millis, double p90Millis,
+                             double p99Millis, double maxMillis) {
+
+    /**
+     * Computes the statistics of an operation from its latency samples.
+     *
+     * @param operation the operation
+     * @param latencyNanos the latency of every completed call, in any order; sorted in place
+     * @param errors the number of failed calls
+     * @return the statistics
+     */
+    public static OperationStats of(Operation operation, long[] latencyNanos, long errors) {
+        Arrays.sort(latencyNanos);
+        return new OperationStats(operation, latencyNanos.length, errors,
+                percentile(latencyNanos, 50), percentile(latencyNanos, 90), percentile(latencyNanos, 99),
+                latencyNanos.length == 0 ? 0 : latencyNanos[latencyNanos.length - 1] / 1_000_000.0);
+    }
+
+    /**
+     * Returns a percentile of sorted samples using the nearest-rank method.
+     *
+     * @param sortedNanos the sorted latency samples
+     * @param percentile the percentile, between 0 and 100
+     * @return the percentile in milliseconds, or 0 if there are no samples
+     */
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+}
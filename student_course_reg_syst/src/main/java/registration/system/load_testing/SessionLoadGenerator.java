@@ -0,0 +1,283 @@
+package registration.system.load_testing;
+
+import registration.system.RegistrationApp;
+import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.storage.Storage;
+import registration.system.student_management.SessionCommand;
+import registration.system.student_management.SessionResult;
+import registration.system.student_management.StudentSession;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates concurrent students using the registration system through {@link StudentSession}s.
+ * Each student creates a profile, then until the run ends repeatedly picks an operation from the
+ * weighted mix, performs it and waits for a random think time. The latency of every operation is
+ * recorded and summarised in a {@link LoadReport}.
+ */
+public class SessionLoadGenerator {
+    private final int students;
+    private final long durationMillis;
+    private final long thinkTimeMillis;
+    private final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+
+    /**
+     * Constructs a SessionLoadGenerator with the default operation mix.
+     *
+     * @param students the number of concurrent students
+     * @param durationMillis how long the students keep performing operations
+     * @param thinkTimeMillis the average pause between two operations of a student; each pause
+     *                        is drawn uniformly between 0 and twice this value
+     */
+    public SessionLoadGenerator(int students, long durationMillis, long thinkTimeMillis) {
+        if (students < 1) {
+            throw new IllegalArgumentException("At least one student is needed, was " + students);
+        }
+        this.students = students;
+        this.durationMillis = durationMillis;
+        this.thinkTimeMillis = thinkTimeMillis;
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, operation.getDefaultWeight());
+        }
+    }
+
+    /**
+     * Sets how often an operation is picked relative to the others.
+     *
+     * @param operation the operation
+     * @param weight the new weight, or 0 to leave the operation out of the mix
+     */
+    public void setWeight(Operation operation, int weight) {
+        if (operation == Operation.CREATE_PROFILE || weight < 0) {
+            throw new IllegalArgumentException("Cannot weight " + operation + " with " + weight);
+        }
+        weights.put(operation, weight);
+    }
+
+    /**
+     * Runs the simulation against the database DatabaseManager is connected to.
+     * The database must already contain the courses the students browse and register for.
+     *
+     * @return the throughput and latency of each operation
+     * @throws SQLException if the course catalogue cannot be read
+     * @throws InterruptedException if the run is interrupted
+     */
+    public LoadReport run() throws SQLException, InterruptedException {
+        List<String> courseCodes = new ArrayList<>();
+        Storage.courses().forEachCourse(course -> courseCodes.add(course.getCourseCode()));
+        if (courseCodes.isEmpty()) {
+            throw new IllegalStateException("The database has no courses to register for");
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalStateException("Every operation has a weight of 0");
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        ExecutorService executor = Executors.newFixedThreadPool(students);
+        List<Future<SimulatedStudent>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < students; i++) {
+                futures.add(executor.submit(() -> {
+                    SimulatedStudent student = new SimulatedStudent(courseCodes);
+                    student.run(deadline);
+                    return student;
+                }));
+            }
+            List<SimulatedStudent> finished = new ArrayList<>();
+            for (Future<SimulatedStudent> future : futures) {
+                finished.add(future.get());
+            }
+            return report(finished, System.nanoTime() - start);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A simulated student failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Merges the samples of every student into one report.
+     *
+     * @param finished the students that completed the run
+     * @param elapsedNanos how long the run took
+     * @return the report
+     */
+    private LoadReport report(List<SimulatedStudent> finished, long elapsedNanos) {
+        List<OperationStats> operations = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            int count = 0;
+            long errors = 0;
+            for (SimulatedStudent student : finished) {
+                count += student.counts[operation.ordinal()];
+                errors += student.errors[operation.ordinal()];
+            }
+            if (count == 0 && errors == 0) {
+                continue;
+            }
+            long[] merged = new long[count];
+            int offset = 0;
+            for (SimulatedStudent student : finished) {
+                int n = student.counts[operation.ordinal()];
+                System.arraycopy(student.latencies[operation.ordinal()], 0, merged, offset, n);
+                offset += n;
+            }
+            operations.add(OperationStats.of(operation, merged, errors));
+        }
+        return new LoadReport(students, elapsedNanos, operations);
+    }
+
+    /**
+     * Picks the next operation according to the weights.
+     *
+     * @param random the random source of the calling thread
+     * @return the operation
+     */
+    private Operation pickOperation(ThreadLocalRandom random) {
+        int total = 0;
+        for (int weight : weights.values()) {
+            total += weight;
+        }
+        int pick = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("No operation picked");
+    }
+
+    /**
+     * One simulated student with its own session and latency samples.
+     */
+    private class SimulatedStudent {
+        private final List<String> courseCodes;
+        private final StudentSession session = new StudentSession();
+        private final List<String> registered = new ArrayList<>();
+        private String browseAfter;
+        private final long[][] latencies = new long[Operation.values().length][64];
+        private final int[] counts = new int[Operation.values().length];
+        private final long[] errors = new long[Operation.values().length];
+
+        private SimulatedStudent(List<String> courseCodes) {
+            this.courseCodes = courseCodes;
+        }
+
+        /**
+         * Creates the student's profile, then performs operations until the deadline.
+         *
+         * @param deadline the System.nanoTime() at which to stop
+         * @throws InterruptedException if the run is interrupted while thinking
+         */
+        private void run(long deadline) throws InterruptedException {
+            perform(Operation.CREATE_PROFILE, new SessionCommand.CreateProfile("Load", "Student"));
+            if (session.getStudent() == null) {
+                return;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                Operation operation = pickOperation(random);
+                SessionCommand command = command(operation, random);
+                SessionResult result = perform(operation, command);
+                if (result != null && result.isOk()) {
+                    track(command, result);
+                }
+                if (thinkTimeMillis > 0) {
+                    Thread.sleep(random.nextLong(2 * thinkTimeMillis + 1));
+                }
+            }
+        }
+
+        /**
+         * Builds the command for an operation. Browsing asks for the page after the one the student
+         * saw last, starting over after the last page. Deregistering picks one of the student's own
+         * registrations when there is one.
+         *
+         * @param operation the operation
+         * @param random the random source of the calling thread
+         * @return the command
+         */
+        private SessionCommand command(Operation operation, ThreadLocalRandom random) {
+            switch (operation) {
+                case BROWSE: return new SessionCommand.AvailableCourses(browseAfter);
+                case SCHEDULE: return new SessionCommand.ViewSchedule();
+                case REGISTER: return new SessionCommand.Register(courseCodes.get(random.nextInt(courseCodes.size())));
+                case DEREGISTER:
+                    List<String> pool = registered.isEmpty() ? courseCodes : registered;
+                    return new SessionCommand.Deregister(pool.get(random.nextInt(pool.size())));
+                default: throw new IllegalArgumentException("Not part of the mix: " + operation);
+            }
+        }
+
+        /**
+         * Keeps the student's list of registrations and place in the catalogue in step with successful commands.
+         *
+         * @param command the command that succeeded
+         * @param result the result of the command
+         */
+        private void track(SessionCommand command, SessionResult result) {
+            if (command instanceof SessionCommand.AvailableCourses) {
+                browseAfter = result.nextAfter();
+            } else if (command instanceof SessionCommand.Register register) {
+                registered.add(register.courseCode());
+            } else if (command instanceof SessionCommand.Deregister deregister) {
+                registered.remove(deregister.courseCode());
+            }
+        }
+
+        /**
+         * Executes a command and records its latency, or the error if it fails.
+         *
+         * @param operation the operation being performed
+         * @param command the command
+         * @return the result, or null if the command failed with a database error
+         */
+        private SessionResult perform(Operation operation, SessionCommand command) {
+            int index = operation.ordinal();
+            long start = System.nanoTime();
+            try {
+                SessionResult result = session.execute(command);
+                long latency = System.nanoTime() - start;
+                if (counts[index] == latencies[index].length) {
+                    latencies[index] = Arrays.copyOf(latencies[index], counts[index] * 2);
+                }
+                latencies[index][counts[index]++] = latency;
+                return result;
+            } catch (SQLException e) {
+                errors[index]++;
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Initializes the database, runs a simulation and prints its report followed by the data layer metrics.
+     *
+     * @param args the number of students (100), the duration in seconds (30) and the think time in milliseconds (100)
+     * @throws SQLException if a database access error occurs
+     * @throws IOException if an I/O error occurs
+     * @throws InterruptedException if the run is interrupted
+     */
+    public static void main(String[] args) throws SQLException, IOException, InterruptedException {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 30;
+        long thinkTime = args.length > 2 ? Long.parseLong(args[2]) : 100;
+        RegistrationApp.initializeDatabase();
+        System.out.print(new SessionLoadGenerator(students, TimeUnit.SECONDS.toMillis(seconds), thinkTime).run());
+        System.out.println();
+        System.out.print(DatabaseManager.getMetrics().report());
+    }
+}
@@ -21,7 +21,7 @@ public interface IStudentManagement {
     void processReturningUserLogin() throws SQLException;
 
     /**
-     * Generates a unique student ID.
+     * Generates a unique student ID without checking which IDs are taken.
      *
      * @return the generated student ID
      * @throws SQLException if a database access error occurs
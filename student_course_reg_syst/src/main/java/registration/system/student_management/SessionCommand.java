@@ -0,0 +1,91 @@
+package registration.system.student_management;
+
+import registration.system.course_management.CourseManager;
+
+/**
+ * A request made by a student in a {@link StudentSession}.
+ * Each command mirrors one action of the console menu.
+ */
+public sealed interface SessionCommand {
+
+    /**
+     * Logs in a returning student.
+     *
+     * @param studentId the student ID
+     */
+    record Login(String studentId) implements SessionCommand {}
+
+    /**
+     * Creates a student profile with a new student ID and logs the student in.
+     *
+     * @param name the student's name
+     * @param surname the student's surname
+     */
+    record CreateProfile(String name, String surname) implements SessionCommand {}
+
+    /**
+     * Lists one page of the courses that still have spaces left, {@link CourseManager#PAGE_SIZE} at a time.
+     *
+     * @param after the course code the page starts after, as returned by {@link SessionResult#nextAfter()},
+     *              or null for the first page
+     */
+    record AvailableCourses(String after) implements SessionCommand {
+
+        /**
+         * Lists the first page.
+         */
+        public AvailableCourses() {
+            this(null);
+        }
+    }
+
+    /**
+     * Searches the course catalogue by keywords.
+     *
+     * @param keywords the keywords to search the course codes, titles and descriptions for
+     */
+    record SearchCourses(String keywords) implements SessionCommand {}
+
+    /**
+     * Lists the courses the logged-in student is registered for.
+     */
+    record RegisteredCourses() implements SessionCommand {}
+
+    /**
+     * Lists the registered courses with their schedules.
+     */
+    record ViewSchedule() implements SessionCommand {}
+
+    /**
+     * Registers the logged-in student for a course.
+     *
+     * @param courseCode the course code
+     */
+    record Register(String courseCode) implements SessionCommand {}
+
+    /**
+     * Deregisters the logged-in student from a course.
+     *
+     * @param courseCode the course code
+     */
+    record Deregister(String courseCode) implements SessionCommand {}
+
+    /**
+     * Returns the logged-in student's position on the waitlist of a course.
+     *
+     * @param courseCode the course code
+     */
+    record WaitlistPosition(String courseCode) implements SessionCommand {}
+
+    /**
+     * Takes the logged-in student off the waitlist of a course.
+     *
+     * @param courseCode the course code
+     */
+    record LeaveWaitlist(String courseCode) implements SessionCommand {}
+
+    /**
+     * Ends the session.
+     */
+    record Logout() implements SessionCommand {}
+}
@@ -0,0 +1,44 @@
+package registration.system.student_management;
+
+import registration.system.course_management.Course;
+
+import java.util.List;
+
+/**
+ * The outcome of a {@link SessionCommand}.
+ *
+ * @param status whether the command succeeded, and why not if it did not
+ * @param message the message the console would show for this outcome
+ * @param student the logged-in student, or null if nobody is logged in
+ * @param courses the courses the command listed, empty for commands that do not list courses
+ * @param nextAfter the course code to pass to {@link SessionCommand.AvailableCourses} for the next page,
+ *                  or null on the last page and for commands that do not page
+ */
+public record SessionResult(Status status, String message, Student student, List<Course> courses, String nextAfter) {
+
+    /**
+     * Constructs the outcome of a command that does not page.
+     *
+     * @param status whether the command succeeded, and why not if it did not
+     * @param message the message the console would show for this outcome
+     * @param student the logged-in student, or null if nobody is logged in
+     * @param courses the courses the command listed, empty for commands that do not list courses
+     */
+    public SessionResult(Status status, String message, Student student, List<Course> courses) {
+        this(status, message, student, courses, null);
+    }
+
+    /**
+     * The possible outcomes of a command.
+     */
+    public enum Status { OK, NOT_LOGGED_IN, INVALID, NOT_FOUND, FULL, WAITLISTED, DUPLICATE, CONFLICT, NOT_REGISTERED, NOT_WAITLISTED }
+
+    /**
+     * Returns whether the command succeeded.
+     *
+     * @return true if the status is OK
+     */
+    public boolean isOk() {
+        return status == Status.OK;
+    }
+}
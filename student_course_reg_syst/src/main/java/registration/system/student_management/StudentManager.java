@@ -2,15 +2,22 @@ package registration.system.student_management;
 
 import registration.system.course_management.Course;
 import registration.system.course_management.CourseManager;
-import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.storage.Storage;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
+/**
+ * The console front end. Logging in, listing, searching, registering and deregistering are
+ * {@link SessionCommand}s run on a {@link StudentSession}, so the console shows the same outcomes
+ * as every other client; this class only reads input and prints the results.
+ */
 public class StudentManager extends CourseManager implements IStudentManagement {
     private Scanner scanner;
     private boolean exit = false;
+    private StudentSession session = new StudentSession();
 
     /**
      * Constructs a StudentManager object with a scanner for user input.
@@ -25,44 +32,31 @@ public class StudentManager extends CourseManager implements IStudentManagement
 
         String name = enterName();
         String surname = enterSurname();
-        String studentId = generateStudentId();
-        DatabaseManager.saveStudent(new Student(studentId, name, surname));
+        SessionResult result = session.execute(new SessionCommand.CreateProfile(name, surname));
 
-        System.out.println("Your student ID is    : " + studentId + "\n" +
-                "Profile created successfully..."
-        );
-        Student student = DatabaseManager.getStudentById(studentId);
-        if (student != null) {
-            displayMenu(student);
+        if (result.isOk()) {
+            System.out.println(result.message() + "\n" +
+                    "Profile created successfully..."
+            );
+            displayMenu(result.student());
         } else System.err.println("Error: failed to create profile!");
     }
 
     @Override
     public void processReturningUserLogin() throws SQLException {
         System.out.println("Please enter student ID: ");
-        String studentId = scanner.nextLine().toUpperCase();
+        String studentId = scanner.nextLine();
 
-        if (DatabaseManager.isValidStudentId(studentId)) {
-            Student student = DatabaseManager.getStudentById(studentId);
-            if (student != null) {
-                System.out.println("Welcome back " + student.name() + "!");
-                displayMenu(student);
-            }
-        } else { System.err.println("Student not found! Please enter valid studentId i.e SE12345"); processLogin(); }
+        SessionResult result = session.execute(new SessionCommand.Login(studentId));
+        if (result.isOk()) {
+            System.out.println(result.message());
+            displayMenu(result.student());
+        } else { System.err.println(result.message()); processLogin(); }
     }
 
     @Override
-    public String generateStudentId() {
-        String studentId;
-        try {
-            do {
-                studentId = "SE" + String.format("%05d", (int) (Math.random() * 100000));
-            } while (DatabaseManager.isValidStudentId(studentId));
-        } catch (SQLException e) {
-            System.err.println("Error: failed to generate student ID:\n" + e.getMessage());
-            studentId = "SE00000";
-        }
-        return studentId;
+    public String generateStudentId() throws SQLException {
+        return Storage.students().nextStudentId();
     }
 
     /**
@@ -147,13 +141,47 @@ public class StudentManager extends CourseManager implements IStudentManagement
                 1. Check for available courses
                 2. Check for registered courses
                 3. Check Schedule
-                4. Register for a course
+                4. Register for one or more courses
                 5. Deregister from a course
-                6. Exit
+                6. Search for courses
+                7. Exit
                 """
         );
     }
 
+    /**
+     * Prints the outcome of a session command: its message, then any courses it listed.
+     * Outcomes other than success, a waitlist place or a full course are printed as errors.
+     * @param result the outcome to print
+     */
+    private void show(SessionResult result) {
+        switch (result.status()) {
+            case OK, WAITLISTED, FULL -> {
+                if (result.courses().isEmpty()) {
+                    System.out.println(result.message());
+                } else {
+                    courseList(result.message(), result.courses());
+                }
+            }
+            default -> System.err.println(result.message());
+        }
+    }
+
+    /**
+     * Lists the courses with spaces left one page at a time, asking before each further page.
+     * @throws SQLException if a database access error occurs
+     */
+    private void listAvailableCourses() throws SQLException {
+        SessionResult page = session.execute(new SessionCommand.AvailableCourses());
+        show(page);
+        int shown = page.courses().size();
+        while (page.nextAfter() != null && showMoreCourses()) {
+            page = session.execute(new SessionCommand.AvailableCourses(page.nextAfter()));
+            courseList(page.courses(), shown + 1);
+            shown += page.courses().size();
+        }
+    }
+
     /**
      * Prompts the user for a course code and returns the corresponding course.
      * @param courses the list of courses to choose from
@@ -172,34 +200,54 @@ public class StudentManager extends CourseManager implements IStudentManagement
     }
 
     /**
-     * Registers the student for a course.
+     * Registers the student for a course, or for several courses at once when more than one
+     * course code is entered.
      * @param student the student to register
      * @throws SQLException if a database access error occurs
      */
     private void register(Student student) throws SQLException {
-        String message = "Enter course code to register: ";
-        List<Course> courseList = DatabaseManager.getAllCourses();
-        Course regCourse = promptForCourse(courseList, message);
-        boolean isRegistered = DatabaseManager.isStudentRegisteredForCourse(student, regCourse.getCourseCode());
+        System.out.println("Enter course code(s) to register, separated by commas: ");
+        List<String> courseCodes = new ArrayList<>();
+        for (String courseCode : scanner.nextLine().split("[,\\s]+")) {
+            if (!courseCode.isEmpty()) {
+                courseCodes.add(courseCode);
+            }
+        }
+        if (courseCodes.size() > 1) {
+            registerForCourses(student, courseCodes);
+        } else if (courseCodes.isEmpty()) {
+            System.err.println("Course not found.");
+        } else {
+            show(session.execute(new SessionCommand.Register(courseCodes.get(0))));
+        }
+    }
 
-        if (!isRegistered) {
-            registerForCourse(student, regCourse);
-        } else System.err.println("You cannot register for same course twice!");
+    /**
+     * Asks the student whether to list the next page of courses.
+     * @return true if the student wants to see more courses
+     */
+    @Override
+    protected boolean showMoreCourses() {
+        System.out.println("Show more courses? (y/n)");
+        return getYesOrNoInput().equalsIgnoreCase("y");
     }
 
     /**
-     * Deregisters the student from a course.
-     * @param student the student to deregister
+     * Prompts for keywords and lists the courses that match them.
      * @throws SQLException if a database access error occurs
      */
-    private void deregister(Student student) throws SQLException {
-        String message = "Enter course code to deregister: ";
-        List<Course> courseList1 = DatabaseManager.getAllCourses();
-        Course deregCourse = promptForCourse(courseList1, message);
+    private void search() throws SQLException {
+        System.out.println("Enter keywords to search for (course code, title or description): ");
+        show(session.execute(new SessionCommand.SearchCourses(scanner.nextLine())));
+    }
 
-        if (deregCourse != null) {
-            deregisterFromCourse(student, deregCourse);
-        } else System.err.println("Course not found.");
+    /**
+     * Deregisters the student from a course.
+     * @throws SQLException if a database access error occurs
+     */
+    private void deregister() throws SQLException {
+        System.out.println("Enter course code to deregister: ");
+        show(session.execute(new SessionCommand.Deregister(scanner.nextLine().trim())));
     }
 
     /**
@@ -209,14 +257,19 @@ public class StudentManager extends CourseManager implements IStudentManagement
      * @throws SQLException if a database access error occurs
      */
     public void userChoice(Student student, String userChoice) throws SQLException {
+        Student current = session.getStudent();
+        if (current == null || !current.studentId().equals(student.studentId())) {
+            session = new StudentSession(student);
+        }
         int choice = Integer.parseInt(userChoice);
         switch (choice) {
-            case 1: checkAvailableCourses(); break;
-            case 2: checkRegisteredCourses(student); break;
+            case 1: listAvailableCourses(); break;
+            case 2: show(session.execute(new SessionCommand.RegisteredCourses())); break;
             case 3: checkSchedule(student); break;
             case 4: register(student); break;
-            case 5: deregister(student); break;
-            case 6: System.out.println("Exiting program..."); exit = true; break;
+            case 5: deregister(); break;
+            case 6: search(); break;
+            case 7: System.out.println("Exiting program..."); session.execute(new SessionCommand.Logout()); exit = true; break;
             default: System.err.println("Invalid choice. Please choose one of the following options:");
         }
 
@@ -224,7 +277,7 @@ public class StudentManager extends CourseManager implements IStudentManagement
             System.out.println("\nDo you want to continue? (y/n)");
             String continueChoice = getYesOrNoInput();
             if (continueChoice.equalsIgnoreCase("n")) {
-                System.out.println("Session Complete.\nGoodbye!");
+                System.out.println(session.execute(new SessionCommand.Logout()).message());
                 exit = true;
             }
         }
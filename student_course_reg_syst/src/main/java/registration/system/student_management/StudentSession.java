@@ -0,0 +1,250 @@
+package registration.system.student_management;
+
+import registration.system.course_management.Course;
+import registration.system.course_management.CourseManager;
+import registration.system.course_management.CoursePage;
+import registration.system.course_management.ReservationResult;
+import registration.system.database_management.storage.Storage;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A student's session with the registration system, driven by command objects instead of the console.
+ * The session does no console I/O: every command returns a {@link SessionResult} with the outcome.
+ * A session belongs to one student and is not safe for use by several threads at once;
+ * concurrent students each get their own session.
+ */
+public class StudentSession {
+    private static final String NAME_PATTERN = "^[a-zA-Z]+$";
+
+    private Student student;
+
+    /**
+     * Constructs a session with nobody logged in.
+     */
+    public StudentSession() {
+    }
+
+    /**
+     * Constructs a session for a student who has already logged in, such as the console's current student.
+     *
+     * @param student the logged-in student
+     */
+    StudentSession(Student student) {
+        this.student = student;
+    }
+
+    /**
+     * Returns the logged-in student.
+     *
+     * @return the student, or null if nobody is logged in
+     */
+    public Student getStudent() {
+        return student;
+    }
+
+    /**
+     * Executes a command.
+     *
+     * @param command the command to execute
+     * @return the outcome of the command
+     * @throws SQLException if a database access error occurs
+     */
+    public SessionResult execute(SessionCommand command) throws SQLException {
+        if (command instanceof SessionCommand.Login login) {
+            return login(login.studentId());
+        }
+        if (command instanceof SessionCommand.CreateProfile profile) {
+            return createProfile(profile.name(), profile.surname());
+        }
+        if (command instanceof SessionCommand.AvailableCourses available) {
+            CoursePage page = Storage.courses().getAvailableCoursesPage(available.after(), CourseManager.PAGE_SIZE);
+            String message = page.courses().isEmpty() ? "Sorry, there are no available courses." : "Available courses:";
+            return new SessionResult(SessionResult.Status.OK, message, student, page.courses(), page.nextAfter());
+        }
+        if (command instanceof SessionCommand.SearchCourses search) {
+            List<Course> courses = Storage.courses().searchCourses(search.keywords(), CourseManager.SEARCH_RESULTS);
+            String keywords = search.keywords() == null ? "" : search.keywords().trim();
+            String message = courses.isEmpty() ? "No courses match \"" + keywords + "\"."
+                    : "Courses matching \"" + keywords + "\":";
+            return result(SessionResult.Status.OK, message, courses);
+        }
+        if (command instanceof SessionCommand.Logout) {
+            student = null;
+            return result(SessionResult.Status.OK, "Session Complete.\nGoodbye!", List.of());
+        }
+        if (student == null) {
+            return result(SessionResult.Status.NOT_LOGGED_IN, "Please log in first.", List.of());
+        }
+        if (command instanceof SessionCommand.RegisteredCourses) {
+            List<Course> courses = Storage.registrations().getRegisteredCourses(student.studentId());
+            String message = courses.isEmpty() ? "You are not registered for a course." : "Registered course(s):";
+            return result(SessionResult.Status.OK, message, courses);
+        }
+        if (command instanceof SessionCommand.ViewSchedule) {
+            List<Course> courses = Storage.registrations().getRegisteredCourses(student.studentId());
+            if (courses.isEmpty()) {
+                return result(SessionResult.Status.NOT_REGISTERED, "Schedule not found! You have no registered courses.", courses);
+            }
+            return result(SessionResult.Status.OK, "Schedule:", courses);
+        }
+        if (command instanceof SessionCommand.Register register) {
+            return register(register.courseCode());
+        }
+        if (command instanceof SessionCommand.Deregister deregister) {
+            return deregister(deregister.courseCode());
+        }
+        if (command instanceof SessionCommand.WaitlistPosition waitlist) {
+            return waitlistPosition(waitlist.courseCode());
+        }
+        if (command instanceof SessionCommand.LeaveWaitlist waitlist) {
+            return leaveWaitlist(waitlist.courseCode());
+        }
+        throw new IllegalArgumentException("Unknown command: " + command);
+    }
+
+    /**
+     * Logs in a returning student.
+     *
+     * @param studentId the student ID, in any case
+     * @return OK with the student, or NOT_FOUND if there is no student with that ID
+     * @throws SQLException if a database access error occurs
+     */
+    private SessionResult login(String studentId) throws SQLException {
+        Student found = studentId == null ? null : Storage.students().getStudentById(studentId.toUpperCase());
+        if (found == null) {
+            return result(SessionResult.Status.NOT_FOUND, "Student not found! Please enter valid studentId i.e SE12345", List.of());
+        }
+        student = found;
+        return result(SessionResult.Status.OK, "Welcome back " + student.name() + "!", List.of());
+    }
+
+    /**
+     * Creates a profile with a newly allocated student ID and logs the new student in.
+     *
+     * @param name the name, letters only
+     * @param surname the surname, letters only
+     * @return OK with the new student, or INVALID if the name or surname is not letters only
+     * @throws SQLException if a database access error occurs
+     */
+    private SessionResult createProfile(String name, String surname) throws SQLException {
+        if (name == null || !name.matches(NAME_PATTERN) || surname == null || !surname.matches(NAME_PATTERN)) {
+            return result(SessionResult.Status.INVALID, "Name and surname should contain only letters.", List.of());
+        }
+        Student created = new Student(Storage.students().nextStudentId(), name, surname);
+        Storage.students().saveStudent(created);
+        student = created;
+        return result(SessionResult.Status.OK, "Your student ID is    : " + student.studentId(), List.of());
+    }
+
+    /**
+     * Registers the logged-in student for a course.
+     * The messages name the course by its title, as the console always has.
+     *
+     * @param courseCode the course code
+     * @return OK if a seat was taken, WAITLISTED if the course is full and the student was put on its waitlist,
+     * otherwise FULL, DUPLICATE, NOT_FOUND or CONFLICT
+     * @throws SQLException if a database access error occurs
+     */
+    private SessionResult register(String courseCode) throws SQLException {
+        ReservationResult reservation = Storage.registrations().reserveSeat(student.studentId(), courseCode);
+        String title = reservation == ReservationResult.NOT_FOUND ? courseCode : titleOf(courseCode);
+        return switch (reservation) {
+            case REGISTERED -> result(SessionResult.Status.OK,
+                    "You have successfully registered for course: " + title, List.of());
+            case FULL -> joinWaitlist(courseCode, title);
+            case DUPLICATE -> result(SessionResult.Status.DUPLICATE,
+                    "You cannot register for same course twice!", List.of());
+            case NOT_FOUND -> result(SessionResult.Status.NOT_FOUND, "Course not found.", List.of());
+            case CONFLICT -> result(SessionResult.Status.CONFLICT,
+                    "Course " + title + " clashes with your timetable.", List.of());
+            case BATCH_ABORTED -> throw new IllegalStateException("A single reservation cannot be aborted by a batch");
+        };
+    }
+
+    /**
+     * Deregisters the logged-in student from a course.
+     *
+     * @param courseCode the course code
+     * @return OK if the registration was removed, otherwise NOT_REGISTERED
+     * @throws SQLException if a database access error occurs
+     */
+    private SessionResult deregister(String courseCode) throws SQLException {
+        if (!Storage.registrations().releaseSeat(student.studentId(), courseCode)) {
+            return result(SessionResult.Status.NOT_REGISTERED, "You are not registered for course: " + courseCode, List.of());
+        }
+        return result(SessionResult.Status.OK, "Successfully deregistered from course: " + titleOf(courseCode), List.of());
+    }
+
+    /**
+     * Looks up the title of a course through the course cache.
+     *
+     * @param courseCode the course code
+     * @return the course title, or the course code if the course no longer exists
+     * @throws SQLException if a database access error occurs
+     */
+    private String titleOf(String courseCode) throws SQLException {
+        Course course = Storage.courses().findCourse(courseCode);
+        return course == null ? courseCode : course.getTitle();
+    }
+
+    /**
+     * Puts the logged-in student on the waitlist of a full course.
+     *
+     * @param courseCode the course code
+     * @param title the course title
+     * @return WAITLISTED with the position, or FULL if the student could not be put on the waitlist
+     * @throws SQLException if a database access error occurs
+     */
+    private SessionResult joinWaitlist(String courseCode, String title) throws SQLException {
+        int position = Storage.registrations().joinWaitlist(student.studentId(), courseCode);
+        if (position == 0) {
+            return result(SessionResult.Status.FULL, "Course " + title + " is full.", List.of());
+        }
+        return result(SessionResult.Status.WAITLISTED,
+                "Course " + title + " is full. You are number " + position + " on the waitlist.", List.of());
+    }
+
+    /**
+     * Looks up the logged-in student's position on the waitlist of a course.
+     *
+     * @param courseCode the course code
+     * @return OK with the position in the message, or NOT_WAITLISTED
+     * @throws SQLException if a database access error occurs
+     */
+    private SessionResult waitlistPosition(String courseCode) throws SQLException {
+        int position = Storage.registrations().getWaitlistPosition(student.studentId(), courseCode);
+        if (position == 0) {
+            return result(SessionResult.Status.NOT_WAITLISTED, "You are not on the waitlist for course: " + courseCode, List.of());
+        }
+        return result(SessionResult.Status.OK,
+                "You are number " + position + " on the waitlist for course: " + courseCode, List.of());
+    }
+
+    /**
+     * Takes the logged-in student off the waitlist of a course.
+     *
+     * @param courseCode the course code
+     * @return OK if the student was on the waitlist, otherwise NOT_WAITLISTED
+     * @throws SQLException if a database access error occurs
+     */
+    private SessionResult leaveWaitlist(String courseCode) throws SQLException {
+        if (!Storage.registrations().leaveWaitlist(student.studentId(), courseCode)) {
+            return result(SessionResult.Status.NOT_WAITLISTED, "You are not on the waitlist for course: " + courseCode, List.of());
+        }
+        return result(SessionResult.Status.OK, "You have left the waitlist for course: " + courseCode, List.of());
+    }
+
+    /**
+     * Builds a result for the current student.
+     *
+     * @param status the outcome
+     * @param message the message for the outcome
+     * @param courses the listed courses
+     * @return the result
+     */
+    private SessionResult result(SessionResult.Status status, String message, List<Course> courses) {
+        return new SessionResult(status, message, student, courses);
+    }
+}
@@ -33,3 +33,6 @@ CREATE TABLE IF NOT EXISTS schedule (
     endTime TIME,
     FOREIGN KEY (courseCode) REFERENCES courses(courseCode)
 );
+
+
+CREATE INDEX IF NOT EXISTS idx_schedule_courseCode ON schedule (courseCode);
\ No newline at end of file
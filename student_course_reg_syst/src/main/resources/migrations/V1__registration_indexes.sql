@@ -0,0 +1,18 @@
+CREATE TABLE registrations_new (
+    registrationID INTEGER PRIMARY KEY AUTOINCREMENT,
+    studentID VARCHAR(7),
+    courseCode VARCHAR(10),
+    FOREIGN KEY (studentID) REFERENCES students(studentID),
+    FOREIGN KEY (courseCode) REFERENCES courses(courseCode)
+);
+
+INSERT INTO registrations_new (registrationID, studentID, courseCode)
+SELECT MIN(registrationID), studentID, courseCode FROM registrations GROUP BY studentID, courseCode;
+
+DROP TABLE registrations;
+
+ALTER TABLE registrations_new RENAME TO registrations;
+
+CREATE UNIQUE INDEX idx_registrations_studentID_courseCode ON registrations (studentID, courseCode);
+
+CREATE INDEX idx_registrations_courseCode ON registrations (courseCode);
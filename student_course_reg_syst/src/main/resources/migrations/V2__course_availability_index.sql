@@ -0,0 +1 @@
+CREATE INDEX idx_courses_spacesLeft ON courses (spacesLeft);
@@ -0,0 +1,9 @@
+CREATE TABLE id_sequence (
+    name VARCHAR(50) PRIMARY KEY,
+    nextValue INTEGER NOT NULL
+);
+
+INSERT INTO id_sequence (name, nextValue)
+SELECT 'students', COALESCE(MAX(CAST(SUBSTR(studentID, 3) AS INTEGER)), 0) + 1
+FROM students
+WHERE studentID GLOB 'SE[0-9]*';
@@ -0,0 +1,47 @@
+ALTER TABLE schedule ADD COLUMN dayMask INTEGER;
+ALTER TABLE schedule ADD COLUMN startMinute INTEGER;
+ALTER TABLE schedule ADD COLUMN endMinute INTEGER;
+ALTER TABLE schedule ADD COLUMN timeNotation INTEGER;
+
+CREATE VIEW schedule_slot AS
+SELECT scheduleID,
+       NULLIF((CASE WHEN days LIKE '%Monday%' THEN 1 ELSE 0 END)
+            | (CASE WHEN days LIKE '%Tuesday%' THEN 2 ELSE 0 END)
+            | (CASE WHEN days LIKE '%Wednesday%' THEN 4 ELSE 0 END)
+            | (CASE WHEN days LIKE '%Thursday%' THEN 8 ELSE 0 END)
+            | (CASE WHEN days LIKE '%Friday%' THEN 16 ELSE 0 END)
+            | (CASE WHEN days LIKE '%Saturday%' THEN 32 ELSE 0 END)
+            | (CASE WHEN days LIKE '%Sunday%' THEN 64 ELSE 0 END), 0) AS dayMask,
+       (startHour % 12 + CASE WHEN startText LIKE '%PM' THEN 12 WHEN startText LIKE '%AM' THEN 0 ELSE startHour / 12 * 12 END) * 60
+           + CAST(substr(startText, instr(startText, ':') + 1, 2) AS INTEGER) AS startMinute,
+       (endHour % 12 + CASE WHEN endText LIKE '%PM' THEN 12 WHEN endText LIKE '%AM' THEN 0 ELSE endHour / 12 * 12 END) * 60
+           + CAST(substr(endText, instr(endText, ':') + 1, 2) AS INTEGER) AS endMinute,
+       (CASE WHEN instr(startText, ':') = 3 THEN 1 ELSE 0 END)
+           | (CASE WHEN startText LIKE '%M' THEN 0 ELSE 2 END) AS timeNotation
+FROM (
+    SELECT scheduleID, days, startText, endText,
+           CASE WHEN instr(startText, ':') > 1 THEN CAST(substr(startText, 1, instr(startText, ':') - 1) AS INTEGER) END AS startHour,
+           CASE WHEN instr(endText, ':') > 1 THEN CAST(substr(endText, 1, instr(endText, ':') - 1) AS INTEGER) END AS endHour
+    FROM (SELECT scheduleID, days, trim(startTime) AS startText, trim(endTime) AS endText FROM schedule)
+);
+
+UPDATE schedule SET (dayMask, startMinute, endMinute, timeNotation) =
+    (SELECT v.dayMask, v.startMinute, v.endMinute, v.timeNotation FROM schedule_slot v WHERE v.scheduleID = schedule.scheduleID);
+
+CREATE TRIGGER schedule_slot_insert
+AFTER INSERT ON schedule
+FOR EACH ROW
+BEGIN
+    UPDATE schedule SET (dayMask, startMinute, endMinute, timeNotation) =
+        (SELECT v.dayMask, v.startMinute, v.endMinute, v.timeNotation FROM schedule_slot v WHERE v.scheduleID = NEW.scheduleID)
+    WHERE scheduleID = NEW.scheduleID;
+END;
+
+CREATE TRIGGER schedule_slot_update
+AFTER UPDATE OF days, startTime, endTime ON schedule
+FOR EACH ROW
+BEGIN
+    UPDATE schedule SET (dayMask, startMinute, endMinute, timeNotation) =
+        (SELECT v.dayMask, v.startMinute, v.endMinute, v.timeNotation FROM schedule_slot v WHERE v.scheduleID = NEW.scheduleID)
+    WHERE scheduleID = NEW.scheduleID;
+END;
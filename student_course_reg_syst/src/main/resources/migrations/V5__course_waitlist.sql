@@ -0,0 +1,17 @@
+CREATE TABLE waitlist_queue (
+    courseCode VARCHAR(10) PRIMARY KEY,
+    nextTicket INTEGER NOT NULL DEFAULT 1,
+    servedTicket INTEGER NOT NULL DEFAULT 0,
+    FOREIGN KEY (courseCode) REFERENCES courses(courseCode)
+);
+
+CREATE TABLE waitlist (
+    courseCode VARCHAR(10) NOT NULL,
+    studentID VARCHAR(7) NOT NULL,
+    ticket INTEGER NOT NULL,
+    PRIMARY KEY (courseCode, studentID),
+    FOREIGN KEY (courseCode) REFERENCES courses(courseCode),
+    FOREIGN KEY (studentID) REFERENCES students(studentID)
+) WITHOUT ROWID;
+
+CREATE INDEX idx_waitlist_courseCode_ticket ON waitlist (courseCode, ticket);
@@ -0,0 +1,54 @@
+CREATE TABLE course_search_key (
+    docid INTEGER PRIMARY KEY,
+    courseCode VARCHAR(10) NOT NULL UNIQUE
+);
+
+CREATE VIRTUAL TABLE course_search USING fts5 (
+    courseCode,
+    title,
+    description,
+    tokenize = 'unicode61 remove_diacritics 2',
+    prefix = '2 3'
+);
+
+CREATE VIRTUAL TABLE course_search_terms USING fts5vocab (course_search, row);
+
+INSERT INTO course_search (course_search, rank) VALUES ('rank', 'bm25(10.0, 5.0, 1.0)');
+
+INSERT INTO course_search_key (courseCode)
+SELECT courseCode FROM courses;
+
+INSERT INTO course_search (rowid, courseCode, title, description)
+SELECT k.docid, c.courseCode, c.title, c.description
+FROM courses c
+JOIN course_search_key k ON k.courseCode = c.courseCode;
+
+CREATE TRIGGER course_search_insert
+AFTER INSERT ON courses
+FOR EACH ROW
+BEGIN
+    INSERT INTO course_search_key (courseCode) VALUES (NEW.courseCode);
+    INSERT INTO course_search (rowid, courseCode, title, description)
+    VALUES ((SELECT docid FROM course_search_key WHERE courseCode = NEW.courseCode),
+            NEW.courseCode, NEW.title, NEW.description);
+END;
+
+CREATE TRIGGER course_search_delete
+AFTER DELETE ON courses
+FOR EACH ROW
+BEGIN
+    DELETE FROM course_search WHERE rowid = (SELECT docid FROM course_search_key WHERE courseCode = OLD.courseCode);
+    DELETE FROM course_search_key WHERE courseCode = OLD.courseCode;
+END;
+
+CREATE TRIGGER course_search_update
+AFTER UPDATE OF courseCode, title, description ON courses
+FOR EACH ROW
+WHEN OLD.courseCode IS NOT NEW.courseCode OR OLD.title IS NOT NEW.title OR OLD.description IS NOT NEW.description
+BEGIN
+    DELETE FROM course_search WHERE rowid = (SELECT docid FROM course_search_key WHERE courseCode = OLD.courseCode);
+    UPDATE course_search_key SET courseCode = NEW.courseCode WHERE courseCode = OLD.courseCode;
+    INSERT INTO course_search (rowid, courseCode, title, description)
+    VALUES ((SELECT docid FROM course_search_key WHERE courseCode = NEW.courseCode),
+            NEW.courseCode, NEW.title, NEW.description);
+END;
@@ -0,0 +1,71 @@
+package course_management_tests;
+
+import org.junit.jupiter.api.*;
+import registration.system.course_management.Course;
+import registration.system.course_management.CourseCatalogReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CourseCatalogReaderTest {
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testReadsCoursesOneAtATime() throws IOException {
+        String catalogue = """
+                [
+                  { "courseCode": "A1", "title": "First", "description": "a", "spacesLeft": 1 },
+                  { "courseCode": "B2", "title": "Second", "description": "b", "spacesLeft": 2 }
+                ]
+                """;
+        try (CourseCatalogReader reader = new CourseCatalogReader(json(catalogue))) {
+            assertTrue(reader.hasNext());
+            assertEquals("A1", reader.next().getCourseCode());
+            assertTrue(reader.hasNext());
+            assertEquals(2, reader.next().getSpacesLeft());
+            assertFalse(reader.hasNext());
+            assertThrows(NoSuchElementException.class, reader::next);
+        }
+    }
+
+    @Test
+    void testStreamFromClasspath() throws IOException {
+        List<String> codes;
+        try (Stream<Course> courses = CourseCatalogReader.fromClasspath().stream()) {
+            codes = courses.map(Course::getCourseCode).collect(Collectors.toList());
+        }
+
+        assertEquals(10, codes.size());
+        assertEquals("SE101_Intro", codes.get(0));
+    }
+
+    @Test
+    void testMissingResourceIsReported() {
+        assertThrows(FileNotFoundException.class, () -> CourseCatalogReader.fromClasspath("missing.json"));
+    }
+
+    @Test
+    void testNonArrayCatalogueIsRejected() {
+        assertThrows(IOException.class, () -> new CourseCatalogReader(json("{\"courseCode\": \"A1\"}")));
+    }
+
+    @Test
+    void testMalformedCourseIsReportedWhileIterating() throws IOException {
+        try (CourseCatalogReader reader = new CourseCatalogReader(json("[{\"spacesLeft\": \"many\"}]"))) {
+            assertTrue(reader.hasNext());
+            assertThrows(UncheckedIOException.class, reader::next);
+        }
+    }
+}
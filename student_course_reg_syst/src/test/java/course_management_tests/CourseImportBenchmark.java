@@ -0,0 +1,87 @@
+package course_management_tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import registration.system.course_management.Course;
+import registration.system.course_management.CourseImporter;
+import registration.system.course_management.ImportReport;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.DatabaseManager;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the row-by-row course upload with the bulk importer.
+ * Run with {@code mvn test -Pbenchmarks}; the catalogue size can be set with {@code -Dbenchmark.courses=N}.
+ */
+@Tag("benchmark")
+public class CourseImportBenchmark {
+    private static final int COURSES = Integer.getInteger("benchmark.courses", 5_000);
+
+    @TempDir
+    Path tempDir;
+
+    private String previousUrl;
+
+    @BeforeEach
+    void setUp() {
+        previousUrl = DatabaseManager.URL;
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.setURL(previousUrl);
+    }
+
+    private static List<Course> generateCourses(int count) {
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Schedule schedule = new Schedule(List.of("Monday", "Wednesday"), "10:00 AM", "12:00 PM");
+            courses.add(new Course(String.format("BM%06d", i), "Course " + i, "Generated course " + i, 50, schedule));
+        }
+        return courses;
+    }
+
+    private void useFreshDatabase(String name) throws SQLException, IOException {
+        DatabaseManager.setURL("jdbc:sqlite:" + tempDir.resolve(name));
+        try (Connection conn = DatabaseManager.connect();
+             BufferedReader schema = new BufferedReader(new FileReader("src/main/resources/database.sql"))) {
+            DatabaseManager.processSqlStatements(conn, schema);
+        }
+    }
+
+    @Test
+    void compareRowByRowWithBulkImport() throws SQLException, IOException {
+        List<Course> courses = generateCourses(COURSES);
+        File catalogue = tempDir.resolve("courses.json").toFile();
+        new ObjectMapper().writeValue(catalogue, courses);
+
+        useFreshDatabase("row-by-row.db");
+        long start = System.nanoTime();
+        for (Course course : courses) {
+            course.saveToDatabase();
+        }
+        ImportReport rowByRow = new ImportReport(courses.size(), System.nanoTime() - start);
+
+        useFreshDatabase("bulk.db");
+        ImportReport bulk = new CourseImporter().importCourses(catalogue);
+
+        System.out.println("Row-by-row upload : " + rowByRow);
+        System.out.println("Bulk import       : " + bulk);
+        System.out.printf("Speed-up          : %.1fx%n", bulk.rowsPerSecond() / rowByRow.rowsPerSecond());
+
+        assertEquals(COURSES, bulk.courses());
+        assertEquals(COURSES, DatabaseManager.getAllCourses().size());
+    }
+}
@@ -0,0 +1,125 @@
+package course_management_tests;
+
+import org.junit.jupiter.api.*;
+import registration.system.course_management.Course;
+import registration.system.course_management.CourseImporter;
+import registration.system.course_management.ImportReport;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.DatabaseManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CourseImporterTest {
+    private static final String CATALOGUE = """
+            [
+              {
+                "courseCode": "SE201_Data",
+                "title": "Data Structures",
+                "description": "Lists, trees and graphs.",
+                "spacesLeft": 30,
+                "schedule": { "days": ["Monday", "Wednesday"], "startTime": "10:00 AM", "endTime": "12:00 PM" }
+              },
+              {
+                "courseCode": "SE202_Algo",
+                "title": "Algorithms",
+                "description": "Sorting and searching.",
+                "spacesLeft": 25,
+                "schedule": { "days": ["Friday"], "startTime": "9:00 AM", "endTime": "11:00 AM" }
+              }
+            ]
+            """;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        DatabaseManager.setURL("jdbc:sqlite:test.db");
+        DatabaseManager.setSchemaPath("src/test/resources/database.sql");
+
+        try (Connection conn = DatabaseManager.connect()) {
+            DatabaseManager.createTables(conn);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection conn = DatabaseManager.connect()) {
+            conn.createStatement().execute("DELETE FROM courses");
+            conn.createStatement().execute("DELETE FROM course_code");
+            conn.createStatement().execute("DELETE FROM students");
+            conn.createStatement().execute("DELETE FROM registrations");
+            conn.createStatement().execute("DELETE FROM schedule");
+        }
+        DatabaseManager.getCourseCache().invalidateAll();
+        DatabaseManager.getTimetableCache().invalidateAll();
+    }
+
+    private static InputStream catalogue(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testImportCourses() throws IOException, SQLException {
+        ImportReport report = new CourseImporter(1).importCourses(catalogue(CATALOGUE));
+
+        assertEquals(2, report.courses());
+        assertTrue(report.rowsPerSecond() > 0);
+
+        Course course = DatabaseManager.getCourseByCourseCode("SE201_Data");
+        assertNotNull(course);
+        assertEquals("Data Structures", course.getTitle());
+        assertEquals(30, course.getSpacesLeft());
+
+        Schedule schedule = DatabaseManager.getScheduleByCourseCode("SE202_Algo");
+        assertNotNull(schedule);
+        assertEquals("9:00 AM", schedule.startTime());
+    }
+
+    @Test
+    void testReimportUpdatesCoursesButKeepsSeatsTaken() throws IOException, SQLException {
+        CourseImporter importer = new CourseImporter();
+        importer.importCourses(catalogue(CATALOGUE));
+        DatabaseManager.updateCapacity("SE201_Data", 12);
+
+        importer.importCourses(catalogue(CATALOGUE.replace("Data Structures", "Data Structures I")));
+
+        Course course = DatabaseManager.getCourseByCourseCode("SE201_Data");
+        assertNotNull(course);
+        assertEquals("Data Structures I", course.getTitle());
+        assertEquals(12, course.getSpacesLeft());
+
+        try (Connection conn = DatabaseManager.connect();
+             ResultSet rs = conn.createStatement().executeQuery("SELECT COUNT(*) AS count FROM schedule")) {
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt("count"));
+        }
+    }
+
+    @Test
+    void testInvalidCatalogueIsRejected() {
+        assertThrows(IOException.class, () -> new CourseImporter().importCourses(catalogue("{}")));
+    }
+
+    @Test
+    void testUnchangedCatalogueIsNotImportedAgain() throws IOException, SQLException {
+        CourseImporter importer = new CourseImporter();
+
+        ImportReport first = importer.importCoursesIfChanged();
+        assertFalse(first.skipped());
+        assertTrue(first.courses() > 0);
+
+        ImportReport second = importer.importCoursesIfChanged();
+        assertTrue(second.skipped());
+        assertEquals(0, second.courses());
+        assertTrue(second.toString().contains("unchanged"));
+
+        tearDown();
+        assertFalse(importer.importCoursesIfChanged().skipped());
+    }
+}
@@ -3,11 +3,13 @@ package course_management_tests;
 import org.junit.jupiter.api.*;
 import registration.system.course_management.Course;
 import registration.system.course_management.CourseManager;
-import registration.system.database_management.DatabaseManager;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.storage.InMemoryStorageEngine;
+import registration.system.database_management.storage.SqliteStorageEngine;
+import registration.system.database_management.storage.Storage;
 import registration.system.student_management.Student;
 
 import java.io.*;
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 
@@ -15,25 +17,20 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class CourseManagerTest {
     @BeforeEach
-    void setUp() throws SQLException, IOException {
-        DatabaseManager.setURL("jdbc:sqlite:test.db");
-        DatabaseManager.setSchemaPath("src/test/resources/database.sql");
-
-        try (Connection conn = DatabaseManager.connect()) {
-            DatabaseManager.createTables(conn);
-            DatabaseManager.insertSampleData(conn);
-        }
+    void setUp() throws SQLException {
+        Storage.setEngine(new InMemoryStorageEngine());
+        Storage.courses().addCourse(new Course("CS101", "Introduction to Computer Science", "Basics of CS", 100,
+                new Schedule(List.of("Monday"), "10:00", "12:00")));
     }
 
     @AfterEach
-    void tearDown() throws SQLException {
-        try (Connection conn = DatabaseManager.connect()) {
-            conn.createStatement().execute("DELETE FROM courses");
-            conn.createStatement().execute("DELETE FROM course_code");
-            conn.createStatement().execute("DELETE FROM students");
-            conn.createStatement().execute("DELETE FROM registrations");
-            conn.createStatement().execute("DELETE FROM schedule");
-        }
+    void tearDown() {
+        Storage.setEngine(new SqliteStorageEngine());
+    }
+
+    private static boolean isRegistered(Student student, String courseCode) throws SQLException {
+        return Storage.registrations().getRegisteredCourses(student.studentId()).stream()
+                .anyMatch(c -> c.getCourseCode().equals(courseCode));
     }
 
     @Test
@@ -52,11 +49,31 @@ public class CourseManagerTest {
         assertEquals(expectedOutput, outContent.toString());
     }
 
+    @Test
+    void testCheckAvailableCoursesPrintsEveryPage() throws SQLException {
+        for (int i = 0; i < CourseManager.PAGE_SIZE; i++) {
+            String courseCode = String.format("MA%03d", i);
+            Storage.courses().addCourse(new Course(courseCode, "Maths " + i, "Paged", 10,
+                    new Schedule(List.of("Friday"), "09:00", "10:00")));
+        }
+        CourseManager courseManager = new CourseManager();
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+
+        courseManager.checkAvailableCourses();
+
+        String[] lines = outContent.toString().split("\n");
+        assertEquals(CourseManager.PAGE_SIZE + 2, lines.length);
+        assertEquals("1. CS101 - Introduction to Computer Science", lines[1]);
+        assertEquals((CourseManager.PAGE_SIZE + 1) + ". MA019 - Maths 19", lines[CourseManager.PAGE_SIZE + 1]);
+    }
+
     @Test
     void testCheckRegisteredCourses() throws SQLException {
-        Course course = DatabaseManager.getCourseByCourseCode("CS101");
+        Course course = Storage.courses().findCourse("CS101");
         Student student = new Student("S001", "John", "Doe");
-        DatabaseManager.saveStudent(student);
+        Storage.students().saveStudent(student);
 
         assert course != null;
         CourseManager courseManager = new CourseManager();
@@ -76,9 +93,9 @@ public class CourseManagerTest {
 
     @Test
     void testCheckSchedule() throws SQLException {
-        Course course = DatabaseManager.getCourseByCourseCode("CS101");
+        Course course = Storage.courses().findCourse("CS101");
         Student student = new Student("S001", "John", "Doe");
-        DatabaseManager.saveStudent(student);
+        Storage.students().saveStudent(student);
 
         assert course != null;
         CourseManager courseManager = new CourseManager();
@@ -90,45 +107,58 @@ public class CourseManagerTest {
         courseManager.checkSchedule(student);
 
         String expectedOutput = """
-                Schedule for CS101:
-                Days: [Monday]
-                Start Time - 10:00
-                End Time - 12:00
+                Monday
+                  10:00 - 12:00  CS101  Introduction to Computer Science
                 """;
         assertEquals(expectedOutput, outContent.toString());
     }
 
     @Test
     void testRegisterForCourse() throws SQLException {
-        Course course = DatabaseManager.getCourseByCourseCode("CS101");
+        Course course = Storage.courses().findCourse("CS101");
         Student student = new Student("S001", "John", "Doe");
-        DatabaseManager.saveStudent(student);
+        Storage.students().saveStudent(student);
 
 
         assert course != null;
         CourseManager courseManager = new CourseManager();
 
         courseManager.registerForCourse(student, course);
-        assertTrue(DatabaseManager.isStudentRegisteredForCourse(student, course.getCourseCode()));
+        assertTrue(isRegistered(student, course.getCourseCode()));
 
-        List<Course> registeredCourses = DatabaseManager.getRegisteredCourses(student);
+        List<Course> registeredCourses = Storage.registrations().getRegisteredCourses(student.studentId());
         assertTrue(registeredCourses.stream().anyMatch(c -> c.getCourseCode().equals("CS101")));
     }
 
+    @Test
+    void testRegisterForCourses() throws SQLException {
+        Student student = new Student("S001", "John", "Doe");
+        Storage.students().saveStudent(student);
+        CourseManager courseManager = new CourseManager();
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+
+        courseManager.registerForCourses(student, List.of("CS101", "XX999"));
+
+        assertEquals("You have successfully registered for course: Introduction to Computer Science\n", outContent.toString());
+        assertTrue(isRegistered(student, "CS101"));
+    }
+
     @Test
     void testDeregisterFromCourse() throws SQLException {
-        Course course = DatabaseManager.getCourseByCourseCode("CS101");
+        Course course = Storage.courses().findCourse("CS101");
         Student student = new Student("S001", "John", "Doe");
-        DatabaseManager.saveStudent(student);
+        Storage.students().saveStudent(student);
 
         assert course != null;
         CourseManager courseManager = new CourseManager();
 
         courseManager.registerForCourse(student, course);
-        assertTrue(DatabaseManager.isStudentRegisteredForCourse(student, course.getCourseCode()));
+        assertTrue(isRegistered(student, course.getCourseCode()));
 
         courseManager.deregisterFromCourse(student, course);
-        List<Course> registeredCourses = DatabaseManager.getRegisteredCourses(student);
+        List<Course> registeredCourses = Storage.registrations().getRegisteredCourses(student.studentId());
         assertTrue(registeredCourses.isEmpty());
     }
 }
@@ -0,0 +1,85 @@
+package course_management_tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import registration.system.course_management.Course;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.DatabaseManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures keyword search latency over a large generated catalogue: prefix searches that hit
+ * the full-text index directly, and misspelt searches that fall back to spelling alternatives.
+ * Run with {@code mvn test -Pbenchmarks}; the catalogue size can be set with {@code -Dbenchmark.courses=N}.
+ */
+@Tag("benchmark")
+public class CourseSearchBenchmark {
+    private static final int COURSES = Integer.getInteger("benchmark.courses", 100_000);
+    private static final int SEARCHES = 200;
+    private static final String[] SUBJECTS = {
+            "Algorithms", "Biology", "Chemistry", "Databases", "Economics", "Finance", "Geography", "History",
+            "Linguistics", "Mathematics", "Networks", "Philosophy", "Physics", "Psychology", "Sociology", "Statistics"
+    };
+    private static final String[] LEVELS = {"Introduction to", "Applied", "Advanced", "Topics in", "Seminar in"};
+    private static final String[] PREFIX_SEARCHES = {"algo", "intro bio", "advanced stat", "ph", "seminar hist", "cs0001"};
+    private static final String[] MISSPELT_SEARCHES = {"algoritms", "chemestry", "psycology", "statistcs"};
+
+    @TempDir
+    Path tempDir;
+
+    private String previousUrl;
+    private String previousSchemaPath;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        previousUrl = DatabaseManager.URL;
+        previousSchemaPath = DatabaseManager.SCHEMA_PATH;
+        DatabaseManager.setURL("jdbc:sqlite:" + tempDir.resolve("search.db"));
+        DatabaseManager.setSchemaPath("src/main/resources/database.sql");
+        try (Connection conn = DatabaseManager.connect()) {
+            DatabaseManager.createTables(conn);
+        }
+        List<Course> courses = new ArrayList<>(COURSES);
+        Schedule schedule = new Schedule(List.of("Monday"), "10:00", "12:00");
+        for (int i = 0; i < COURSES; i++) {
+            String subject = SUBJECTS[i % SUBJECTS.length];
+            String level = LEVELS[i / SUBJECTS.length % LEVELS.length];
+            courses.add(new Course(String.format("CS%06d", i), level + " " + subject,
+                    "Generated " + subject.toLowerCase() + " course", 50, schedule));
+        }
+        DatabaseManager.upsertCourses(courses.iterator(), 10_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.setSchemaPath(previousSchemaPath);
+        DatabaseManager.setURL(previousUrl);
+    }
+
+    private double averageMillis(String[] searches) throws SQLException {
+        long start = System.nanoTime();
+        for (int i = 0; i < SEARCHES; i++) {
+            assertFalse(DatabaseManager.searchCourses(searches[i % searches.length], 10).isEmpty());
+        }
+        return (System.nanoTime() - start) / 1e6 / SEARCHES;
+    }
+
+    @Test
+    void measureSearchLatency() throws SQLException {
+        averageMillis(PREFIX_SEARCHES);
+        double prefix = averageMillis(PREFIX_SEARCHES);
+        double misspelt = averageMillis(MISSPELT_SEARCHES);
+
+        System.out.printf("Catalogue         : %d courses%n", COURSES);
+        System.out.printf("Prefix search     : %.2f ms%n", prefix);
+        System.out.printf("Misspelt search   : %.2f ms%n", misspelt);
+    }
+}
@@ -1,15 +1,11 @@
 package course_management_tests;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
-import org.mockito.MockedConstruction;
 import org.mockito.MockedStatic;
 import registration.system.course_management.Course;
 import registration.system.course_management.schedule.Schedule;
 import registration.system.database_management.DatabaseManager;
 
-import java.io.File;
-import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
 
@@ -40,7 +36,7 @@ public class CourseTest {
         // Mock the DatabaseManager methods
         try (MockedStatic<DatabaseManager> mockedDatabaseManager = mockStatic(DatabaseManager.class)) {
             // Simulate that the course does not exist in the database
-            mockedDatabaseManager.when(() -> DatabaseManager.getCourseByCourseCode("CS101")).thenReturn(null);
+            mockedDatabaseManager.when(() -> DatabaseManager.findCourse("CS101")).thenReturn(null);
 
             course.saveToDatabase();
 
@@ -50,16 +46,11 @@ public class CourseTest {
     }
 
     @Test
-    void testLoadCourses() throws IOException {
-        // Mock the ObjectMapper and its behavior
-        Course[] mockCourses = { course };
-        try (MockedConstruction<ObjectMapper> ignored = mockConstruction(ObjectMapper.class,
-                (mock, context) -> when(mock.readValue(any(File.class), eq(Course[].class))).thenReturn(mockCourses)))
-        {
-            List<Course> courses = Course.loadCourses();
+    void testLoadCourses() {
+        List<Course> courses = Course.loadCourses();
 
-            assertEquals(1, courses.size());
-            assertEquals("CS101", courses.get(0).getCourseCode());
-        }
+        assertFalse(courses.isEmpty());
+        assertEquals("SE101_Intro", courses.get(0).getCourseCode());
+        assertEquals(List.of("Monday", "Wednesday", "Friday"), courses.get(0).getSchedule().days());
     }
 }
@@ -0,0 +1,72 @@
+package course_management_tests;
+
+import org.junit.jupiter.api.Test;
+import registration.system.course_management.Course;
+import registration.system.course_management.schedule.PackedSchedule;
+import registration.system.course_management.schedule.Schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedScheduleTest {
+    @Test
+    void testPackAndUnpack() {
+        int packed = PackedSchedule.pack(0b10101, 10 * 60, 12 * 60 + 30);
+
+        assertEquals(0b10101, PackedSchedule.dayMask(packed));
+        assertEquals(600, PackedSchedule.startMinute(packed));
+        assertEquals(750, PackedSchedule.endMinute(packed));
+        assertNotEquals(PackedSchedule.NONE, packed);
+        assertThrows(IllegalArgumentException.class, () -> PackedSchedule.pack(0, 600, 660));
+        assertThrows(IllegalArgumentException.class, () -> PackedSchedule.pack(1, 660, 600));
+        assertThrows(IllegalArgumentException.class, () -> PackedSchedule.pack(1, 600, PackedSchedule.MINUTES_PER_DAY));
+    }
+
+    @Test
+    void testDecodeKeepsTheStoredNotation() {
+        Schedule twelveHour = new Schedule(List.of("Monday", "Wednesday"), "9:30 AM", "11:00 AM");
+        Schedule twentyFourHour = new Schedule(List.of("Friday"), "09:00", "14:15");
+
+        assertEquals(new Schedule(List.of("Monday,Wednesday"), "9:30 AM", "11:00 AM"),
+                PackedSchedule.decode(PackedSchedule.encode(twelveHour)));
+        assertEquals(new Schedule(List.of("Friday"), "09:00", "14:15"),
+                PackedSchedule.decode(PackedSchedule.encode(twentyFourHour)));
+        assertEquals(PackedSchedule.NONE, PackedSchedule.encode(new Schedule(List.of("Someday"), "10:00", "11:00")));
+    }
+
+    @Test
+    void testOverlaps() {
+        int mondayMorning = PackedSchedule.pack(0b1, 9 * 60, 11 * 60);
+        int mondayLate = PackedSchedule.pack(0b1, 10 * 60, 12 * 60);
+        int mondayAfter = PackedSchedule.pack(0b1, 11 * 60, 12 * 60);
+        int tuesday = PackedSchedule.pack(0b10, 9 * 60, 11 * 60);
+
+        assertTrue(PackedSchedule.overlaps(mondayMorning, mondayLate));
+        assertFalse(PackedSchedule.overlaps(mondayMorning, mondayAfter));
+        assertFalse(PackedSchedule.overlaps(mondayMorning, tuesday));
+    }
+
+    @Test
+    void testCompareOrdersByWeek() {
+        int tuesdayEarly = PackedSchedule.pack(0b10, 8 * 60, 9 * 60);
+        int mondayLate = PackedSchedule.pack(0b1, 15 * 60, 16 * 60);
+        int mondayEarly = PackedSchedule.pack(0b101, 8 * 60, 9 * 60, 3);
+        List<Integer> sorted = new ArrayList<>(List.of(tuesdayEarly, mondayLate, mondayEarly));
+
+        sorted.sort(PackedSchedule::compare);
+
+        assertEquals(List.of(mondayEarly, mondayLate, tuesdayEarly), sorted);
+    }
+
+    @Test
+    void testCourseDecodesLazily() {
+        int packed = PackedSchedule.encode(new Schedule(List.of("Tuesday"), "10:00", "12:00"));
+        Course course = new Course("CS101", "Intro", "Basics", 10, packed);
+
+        assertEquals(packed, course.getPackedSchedule());
+        assertEquals(new Schedule(List.of("Tuesday"), "10:00", "12:00"), course.getSchedule());
+        assertEquals(packed, new Course("CS101", "Intro", course.getSchedule()).getPackedSchedule());
+    }
+}
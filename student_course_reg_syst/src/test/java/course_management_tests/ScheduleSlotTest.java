@@ -0,0 +1,53 @@
+package course_management_tests;
+
+import org.junit.jupiter.api.Test;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.course_management.schedule.ScheduleSlot;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduleSlotTest {
+    @Test
+    void testParseListOfDaysAndTwelveHourTimes() {
+        ScheduleSlot slot = ScheduleSlot.parse(new Schedule(List.of("Monday", "Wednesday", "Friday"), "10:00 AM", "12:30 PM"));
+
+        assertEquals(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY), slot.days());
+        assertEquals(0b10101, slot.dayMask());
+        assertEquals(LocalTime.of(10, 0), slot.start());
+        assertEquals(LocalTime.of(12, 30), slot.end());
+    }
+
+    @Test
+    void testParseStoredDaysAndTwentyFourHourTimes() {
+        ScheduleSlot slot = ScheduleSlot.parse(new Schedule(List.of("Tuesday, thursday"), "08:00", "14:15"));
+
+        assertEquals(EnumSet.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY), slot.days());
+        assertEquals(LocalTime.of(14, 15), slot.end());
+        assertEquals(LocalTime.of(8, 0), ScheduleSlot.parse(new Schedule(List.of("Monday"), "08:00 AM", "9:00 AM")).start());
+    }
+
+    @Test
+    void testUnparseableScheduleIsNull() {
+        assertNull(ScheduleSlot.tryParse(null));
+        assertNull(ScheduleSlot.tryParse(new Schedule(List.of("Someday"), "10:00", "11:00")));
+        assertNull(ScheduleSlot.tryParse(new Schedule(List.of("Monday"), "noon", "11:00")));
+        assertNull(ScheduleSlot.tryParse(new Schedule(List.of("Monday"), "11:00", "10:00")));
+    }
+
+    @Test
+    void testOverlaps() {
+        ScheduleSlot monday10to12 = ScheduleSlot.parse(new Schedule(List.of("Monday"), "10:00", "12:00"));
+        ScheduleSlot monday11to13 = ScheduleSlot.parse(new Schedule(List.of("Monday"), "11:00", "13:00"));
+        ScheduleSlot monday12to14 = ScheduleSlot.parse(new Schedule(List.of("Monday"), "12:00", "14:00"));
+        ScheduleSlot tuesday10to12 = ScheduleSlot.parse(new Schedule(List.of("Tuesday"), "10:00", "12:00"));
+
+        assertTrue(monday10to12.overlaps(monday11to13));
+        assertFalse(monday10to12.overlaps(monday12to14));
+        assertFalse(monday10to12.overlaps(tuesday10to12));
+    }
+}
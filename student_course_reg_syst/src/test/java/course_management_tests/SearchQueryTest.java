@@ -0,0 +1,45 @@
+package course_management_tests;
+
+import org.junit.jupiter.api.Test;
+import registration.system.course_management.search.SearchQuery;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchQueryTest {
+
+    @Test
+    void testTerms() {
+        assertEquals(List.of("intro", "comp", "cs101"), SearchQuery.terms("  Intro, comp! CS101 intro"));
+        assertEquals(List.of("café"), SearchQuery.terms("Café"));
+        assertTrue(SearchQuery.terms("\"*)(").isEmpty());
+        assertTrue(SearchQuery.terms(null).isEmpty());
+        assertEquals(SearchQuery.MAX_TERMS, SearchQuery.terms("a b c d e f g h i j").size());
+    }
+
+    @Test
+    void testMatchExpressions() {
+        assertEquals("(\"intro\"*) AND (\"cs\"*)", SearchQuery.prefixMatch(List.of("intro", "cs")));
+        assertEquals("(\"algoritms\"* OR \"algorithms\") AND (\"cs\"*)",
+                SearchQuery.match(List.of("algoritms", "cs"), List.of(List.of("algorithms", "algoritms"), List.of())));
+    }
+
+    @Test
+    void testEditDistance() {
+        assertEquals(0, SearchQuery.editDistance("science", "science", 2));
+        assertEquals(1, SearchQuery.editDistance("scince", "science", 2));
+        assertEquals(1, SearchQuery.editDistance("sceince", "science", 2));
+        assertEquals(2, SearchQuery.editDistance("algoritms", "algorithm", 2));
+        assertEquals(3, SearchQuery.editDistance("biology", "science", 2));
+        assertEquals(2, SearchQuery.editDistance("a", "abcdef", 1));
+    }
+
+    @Test
+    void testAlternatives() {
+        assertTrue(SearchQuery.isAlternative("scince", "science"));
+        assertTrue(SearchQuery.isAlternative("algoritms", "algorithms"));
+        assertFalse(SearchQuery.isAlternative("cat", "cut"));
+        assertFalse(SearchQuery.isAlternative("physics", "phonics"));
+    }
+}
@@ -0,0 +1,128 @@
+package course_management_tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import registration.system.course_management.Course;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.course_management.schedule.WeeklyTimetable;
+import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.OperationMetrics;
+import registration.system.student_management.Student;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares reading a student's timetable course by course, one schedule query per registered course
+ * as checkSchedule used to, with reading it in a single query, for students taking more and more courses.
+ * Round trips are counted with the data layer metrics: the per-course path grows with the number of
+ * courses, the single query stays at one.
+ * Run with {@code mvn test -Pbenchmarks}.
+ */
+@Tag("benchmark")
+public class TimetableBenchmark {
+    private static final int[] COURSES_PER_STUDENT = {1, 5, 10, 20, 40};
+    private static final int READS = 500;
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"};
+
+    @TempDir
+    Path tempDir;
+
+    private String previousUrl;
+    private String previousSchemaPath;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        previousUrl = DatabaseManager.URL;
+        previousSchemaPath = DatabaseManager.SCHEMA_PATH;
+        DatabaseManager.setURL("jdbc:sqlite:" + tempDir.resolve("timetable.db"));
+        DatabaseManager.setSchemaPath("src/main/resources/database.sql");
+        try (Connection conn = DatabaseManager.connect()) {
+            DatabaseManager.createTables(conn);
+        }
+        int maxCourses = COURSES_PER_STUDENT[COURSES_PER_STUDENT.length - 1];
+        List<Course> courses = new ArrayList<>(maxCourses);
+        for (int i = 0; i < maxCourses; i++) {
+            int hour = 8 + i / DAYS.length % 10;
+            courses.add(new Course(String.format("TT%03d", i), "Course " + i, "Generated course", 1_000,
+                    new Schedule(List.of(DAYS[i % DAYS.length]), hour + ":00", hour + ":50")));
+        }
+        DatabaseManager.upsertCourses(courses.iterator(), 1_000);
+        for (int courseCount : COURSES_PER_STUDENT) {
+            DatabaseManager.saveStudent(new Student(studentId(courseCount), "Bench", "Student"));
+            for (int i = 0; i < courseCount; i++) {
+                DatabaseManager.reserveSeat(studentId(courseCount), courses.get(i).getCourseCode());
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.setSchemaPath(previousSchemaPath);
+        DatabaseManager.setURL(previousUrl);
+    }
+
+    private static String studentId(int courseCount) {
+        return String.format("B%04d", courseCount);
+    }
+
+    /**
+     * Reads a timetable the way checkSchedule used to: the registered courses, then each schedule on its own.
+     */
+    private static int readCourseByCourse(Student student) throws SQLException {
+        int found = 0;
+        for (Course course : DatabaseManager.getRegisteredCourses(student)) {
+            if (DatabaseManager.getScheduleByCourseCode(course.getCourseCode()) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the number of connection checkouts recorded since the metrics were last reset, one per round trip.
+     */
+    private static long roundTrips() {
+        long total = 0;
+        for (OperationMetrics operation : DatabaseManager.getMetrics().snapshot()) {
+            total += operation.count();
+        }
+        return total;
+    }
+
+    @Test
+    void measureTimetableRoundTrips() throws SQLException {
+        System.out.printf("%8s %20s %14s %20s %14s%n", "courses", "per-course trips", "per-course ms", "single query trips", "single ms");
+        for (int courseCount : COURSES_PER_STUDENT) {
+            Student student = new Student(studentId(courseCount), "Bench", "Student");
+
+            DatabaseManager.getMetrics().reset();
+            long start = System.nanoTime();
+            for (int i = 0; i < READS; i++) {
+                assertEquals(courseCount, readCourseByCourse(student));
+            }
+            double perCourseMillis = (System.nanoTime() - start) / 1e6 / READS;
+            double perCourseTrips = (double) roundTrips() / READS;
+
+            DatabaseManager.getMetrics().reset();
+            start = System.nanoTime();
+            for (int i = 0; i < READS; i++) {
+                WeeklyTimetable timetable = DatabaseManager.getWeeklyTimetable(student.studentId());
+                assertFalse(timetable.isEmpty());
+            }
+            double singleMillis = (System.nanoTime() - start) / 1e6 / READS;
+            double singleTrips = (double) roundTrips() / READS;
+
+            System.out.printf("%8d %20.1f %14.3f %20.1f %14.3f%n", courseCount, perCourseTrips, perCourseMillis,
+                    singleTrips, singleMillis);
+            assertEquals(courseCount + 1, perCourseTrips);
+            assertEquals(1, singleTrips);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package course_management_tests;
+
+import org.junit.jupiter.api.Test;
+import registration.system.course_management.Course;
+import registration.system.course_management.TimetableValidator;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.course_management.schedule.ScheduleSlot;
+import registration.system.course_management.schedule.TimetableConflict;
+import registration.system.course_management.schedule.TimetableIndex;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimetableIndexTest {
+    private static ScheduleSlot slot(String days, String start, String end) {
+        return ScheduleSlot.parse(new Schedule(List.of(days), start, end));
+    }
+
+    private static Course course(String courseCode, String days, String start, String end) {
+        return new Course(courseCode, "Title " + courseCode, new Schedule(List.of(days), start, end));
+    }
+
+    @Test
+    void testFindConflict() {
+        TimetableIndex index = new TimetableIndex();
+        index.add("CS101", slot("Monday,Wednesday", "10:00 AM", "12:00 PM"));
+        index.add("CS102", slot("Monday", "1:00 PM", "3:00 PM"));
+
+        assertEquals("CS101", index.findConflict(slot("Wednesday", "11:00 AM", "11:30 AM")));
+        assertEquals("CS102", index.findConflict(slot("Monday", "2:00 PM", "4:00 PM")));
+        assertNotNull(index.findConflict(slot("Monday", "9:00 AM", "4:00 PM")));
+        assertNull(index.findConflict(slot("Monday", "12:00 PM", "1:00 PM")));
+        assertNull(index.findConflict(slot("Tuesday", "10:00 AM", "12:00 PM")));
+    }
+
+    @Test
+    void testRemove() {
+        TimetableIndex index = new TimetableIndex();
+        index.add("CS101", slot("Monday", "10:00", "12:00"));
+        index.remove("CS101");
+
+        assertFalse(index.contains("CS101"));
+        assertEquals(0, index.size());
+        assertNull(index.findConflict(slot("Monday", "10:00", "12:00")));
+    }
+
+    @Test
+    void testClashingTimetableIsStillSearched() {
+        TimetableIndex index = new TimetableIndex();
+        index.add("CS101", slot("Monday", "8:00", "17:00"));
+        index.add("CS102", slot("Monday", "9:00", "10:00"));
+        index.remove("CS102");
+
+        assertEquals("CS101", index.findConflict(slot("Monday", "15:00", "16:00")));
+
+        index.add("CS103", slot("Monday", "12:00", "13:00"));
+        index.remove("CS101");
+        assertEquals("CS103", index.findConflict(slot("Monday", "12:30", "14:00")));
+        assertNull(index.findConflict(slot("Monday", "15:00", "16:00")));
+    }
+
+    @Test
+    void testValidateReportsEachClashOnce() {
+        Map<String, List<Course>> timetables = new LinkedHashMap<>();
+        timetables.put("SE00001", List.of(
+                course("CS101", "Monday", "10:00 AM", "12:00 PM"),
+                course("CS102", "Monday", "11:00 AM", "1:00 PM"),
+                course("CS103", "Tuesday", "11:00 AM", "1:00 PM")));
+        timetables.put("SE00002", List.of(
+                course("CS101", "Monday", "10:00 AM", "12:00 PM"),
+                course("CS103", "Tuesday", "11:00 AM", "1:00 PM")));
+
+        List<TimetableConflict> conflicts = TimetableValidator.validate(timetables);
+
+        assertEquals(List.of(new TimetableConflict("SE00001", "CS102", "CS101")), conflicts);
+    }
+
+    @Test
+    void testValidateManyStudentsInParallel() {
+        Map<String, List<Course>> timetables = new LinkedHashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            List<Course> courses = new ArrayList<>();
+            courses.add(course("CS101", "Monday", "10:00", "12:00"));
+            courses.add(course("CS102", i % 2 == 0 ? "Monday" : "Friday", "11:00", "12:00"));
+            timetables.put(String.format("SE%05d", i), courses);
+        }
+
+        assertEquals(5_000, TimetableValidator.validate(timetables).size());
+    }
+}
@@ -0,0 +1,45 @@
+package course_management_tests;
+
+import org.junit.jupiter.api.Test;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.course_management.schedule.TimetableEntry;
+import registration.system.course_management.schedule.WeekView;
+import registration.system.course_management.schedule.WeeklyTimetable;
+
+import java.time.DayOfWeek;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeekViewTest {
+    @Test
+    void testRenderGroupsByDayAndAlignsCourses() {
+        TimetableEntry structures = new TimetableEntry("CS102", "Data Structures",
+                new Schedule(List.of("Monday,Friday"), "9:00 AM", "10:30 AM"));
+        TimetableEntry algorithms = new TimetableEntry("CS103", "Algorithms",
+                new Schedule(List.of("Monday"), "13:00", "14:00"));
+        WeeklyTimetable timetable = new WeeklyTimetable();
+        timetable.add(DayOfWeek.FRIDAY, structures);
+        timetable.add(DayOfWeek.MONDAY, structures);
+        timetable.add(DayOfWeek.MONDAY, algorithms);
+
+        String expected = """
+                Monday
+                  9:00 AM - 10:30 AM  CS102  Data Structures
+                  13:00 - 14:00       CS103  Algorithms
+                Friday
+                  9:00 AM - 10:30 AM  CS102  Data Structures
+                """;
+        assertEquals(expected, WeekView.render(timetable));
+    }
+
+    @Test
+    void testRenderListsUnscheduledCoursesLast() {
+        WeeklyTimetable timetable = new WeeklyTimetable();
+        timetable.add(null, new TimetableEntry("CS104", "Ethics", new Schedule(List.of("Someday"), "soon", "later")));
+
+        assertFalse(timetable.isEmpty());
+        assertEquals("Unscheduled\n  CS104  Ethics (Someday soon - later)\n", WeekView.render(timetable));
+        assertTrue(new WeeklyTimetable().isEmpty());
+    }
+}
@@ -0,0 +1,155 @@
+package database_management_tests;
+
+import org.junit.jupiter.api.*;
+import registration.system.course_management.ReservationResult;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.AsyncDatabase;
+import registration.system.database_management.DatabaseManager;
+import registration.system.student_management.Student;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncDatabaseTest {
+    private AsyncDatabase database;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        DatabaseManager.setURL("jdbc:sqlite:test.db");
+        DatabaseManager.setSchemaPath("src/test/resources/database.sql");
+        try (Connection conn = DatabaseManager.connect()) {
+            DatabaseManager.createTables(conn);
+            DatabaseManager.insertSampleData(conn);
+        }
+        database = new AsyncDatabase(3, 64);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        database.close();
+        try (Connection conn = DatabaseManager.connect()) {
+            conn.createStatement().execute("DELETE FROM courses");
+            conn.createStatement().execute("DELETE FROM course_code");
+            conn.createStatement().execute("DELETE FROM students");
+            conn.createStatement().execute("DELETE FROM registrations");
+            conn.createStatement().execute("DELETE FROM schedule");
+            conn.createStatement().execute("DELETE FROM waitlist");
+            conn.createStatement().execute("DELETE FROM waitlist_queue");
+        }
+        DatabaseManager.getCourseCache().invalidateAll();
+        DatabaseManager.getTimetableCache().invalidateAll();
+    }
+
+    @Test
+    void testReadsAndWrites() throws SQLException {
+        Student student = new Student("S001", "John", "Doe");
+        AsyncDatabase.await(database.saveStudent(student));
+
+        assertEquals("John", AsyncDatabase.await(database.getStudentById("S001")).name());
+        assertEquals(ReservationResult.REGISTERED, AsyncDatabase.await(database.reserveSeat("S001", "CS101")));
+        assertEquals(1, AsyncDatabase.await(database.getRegisteredCourses(student)).size());
+
+        List<Schedule> schedules = AsyncDatabase.await(database.getSchedulesByCourseCodes(List.of("CS101", "XX999")));
+        assertEquals("10:00", schedules.get(0).startTime());
+        assertNull(schedules.get(1));
+    }
+
+    @Test
+    void testWritesRunOneAtATime() throws SQLException {
+        List<CompletableFuture<String>> writes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            writes.add(database.write(() -> Thread.currentThread().getName()));
+        }
+        Set<String> threads = new HashSet<>();
+        for (CompletableFuture<String> write : writes) {
+            threads.add(AsyncDatabase.await(write));
+        }
+        assertEquals(Set.of("registration-db-write-1"), threads);
+    }
+
+    @Test
+    void testReadsRunSideBySide() throws SQLException {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        List<CompletableFuture<Boolean>> reads = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            reads.add(database.read(() -> {
+                allStarted.countDown();
+                try {
+                    return allStarted.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new SQLException(e);
+                }
+            }));
+        }
+        for (CompletableFuture<Boolean> read : reads) {
+            assertTrue(AsyncDatabase.await(read));
+        }
+    }
+
+    @Test
+    void testConcurrentReservationsRespectCapacity() throws SQLException {
+        DatabaseManager.updateCapacity("CS101", 5);
+        List<CompletableFuture<ReservationResult>> reservations = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String studentId = String.format("S%03d", i);
+            database.saveStudent(new Student(studentId, "Student", "Async"));
+            reservations.add(database.reserveSeat(studentId, "CS101"));
+        }
+        int registered = 0;
+        for (CompletableFuture<ReservationResult> reservation : reservations) {
+            if (AsyncDatabase.await(reservation) == ReservationResult.REGISTERED) {
+                registered++;
+            }
+        }
+        assertEquals(5, registered);
+        assertEquals(0, DatabaseManager.getCourseByCourseCode("CS101").getSpacesLeft());
+    }
+
+    @Test
+    void testFailuresRethrowTheSqlException() throws SQLException {
+        Student student = new Student("S001", "John", "Doe");
+        AsyncDatabase.await(database.saveStudent(student));
+
+        assertThrows(SQLException.class, () -> AsyncDatabase.await(database.saveStudent(student)));
+        assertThrows(SQLException.class, () -> AsyncDatabase.await(database.saveStudent(student).thenApply(done -> 1)));
+    }
+
+    @Test
+    void testFullLaneRejectsCalls() throws SQLException {
+        try (AsyncDatabase small = new AsyncDatabase(1, 1)) {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch running = new CountDownLatch(1);
+            CompletableFuture<Boolean> blocking = small.read(() -> {
+                running.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new SQLException(e);
+                }
+            });
+            try {
+                assertTrue(running.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                fail(e);
+            }
+            CompletableFuture<Integer> queued = small.read(() -> 1);
+            CompletableFuture<Integer> rejected = small.read(() -> 2);
+
+            assertThrows(RejectedExecutionException.class, () -> AsyncDatabase.await(rejected));
+            release.countDown();
+            assertTrue(AsyncDatabase.await(blocking));
+            assertEquals(1, AsyncDatabase.await(queued));
+        }
+    }
+}
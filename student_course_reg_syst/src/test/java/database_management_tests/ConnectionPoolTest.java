@@ -0,0 +1,240 @@
+package database_management_tests;
+
+import org.junit.jupiter.api.*;
+import registration.system.database_management.ConnectionPool;
+import registration.system.database_management.PoolMetrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTest {
+    private static final String URL = "jdbc:sqlite:test.db";
+    private ConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void testConnectionIsReused() throws SQLException {
+        pool = new ConnectionPool(URL, 2, 1_000, 30_000, 0);
+
+        Connection first = pool.getConnection();
+        String firstPhysical = first.toString();
+        first.close();
+
+        try (Connection second = pool.getConnection()) {
+            assertEquals(firstPhysical, second.toString());
+        }
+
+        PoolMetrics metrics = pool.getMetrics();
+        assertEquals(2, metrics.checkouts());
+        assertEquals(1, metrics.opened());
+        assertEquals(0, metrics.active());
+        assertEquals(1, metrics.idle());
+    }
+
+    @Test
+    void testClosedLeaseCannotBeUsed() throws SQLException {
+        pool = new ConnectionPool(URL, 1, 1_000, 30_000, 0);
+
+        Connection conn = pool.getConnection();
+        conn.close();
+
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::createStatement);
+    }
+
+    @Test
+    void testCheckoutTimesOutWhenPoolIsExhausted() throws SQLException {
+        pool = new ConnectionPool(URL, 1, 50, 30_000, 0);
+
+        try (Connection held = pool.getConnection()) {
+            assertThrows(SQLException.class, pool::getConnection);
+            assertFalse(held.isClosed());
+            assertEquals(1, pool.getMetrics().active());
+        }
+    }
+
+    @Test
+    void testOpenTransactionIsRolledBackOnReturn() throws SQLException {
+        pool = new ConnectionPool(URL, 1, 1_000, 30_000, 0);
+
+        Connection conn = pool.getConnection();
+        conn.setAutoCommit(false);
+        conn.close();
+
+        try (Connection reused = pool.getConnection()) {
+            assertTrue(reused.getAutoCommit());
+        }
+    }
+
+    @Test
+    void testConcurrentCheckoutsNeverExceedPoolSize() throws Exception {
+        pool = new ConnectionPool(URL, 3, 5_000, 30_000, 0);
+        int threads = 12;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                futures[i] = executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 20; j++) {
+                        try (Connection conn = pool.getConnection()) {
+                            assertTrue(pool.getMetrics().active() <= 3);
+                            conn.createStatement().execute("SELECT 1");
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        PoolMetrics metrics = pool.getMetrics();
+        assertEquals(threads * 20, metrics.checkouts());
+        assertTrue(metrics.opened() <= 3);
+        assertEquals(0, metrics.active());
+    }
+
+    @Test
+    void testLeakIsDetected() throws Exception {
+        pool = new ConnectionPool(URL, 1, 1_000, 30_000, 20);
+
+        try (Connection leaked = pool.getConnection()) {
+            assertFalse(leaked.isClosed());
+            long deadline = System.currentTimeMillis() + 2_000;
+            while (pool.getMetrics().leaksDetected() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        assertEquals(1, pool.getMetrics().leaksDetected());
+    }
+
+    @Test
+    void testPreparedStatementsAreCachedAcrossCheckouts() throws SQLException {
+        pool = new ConnectionPool(URL, 1, 1_000, 30_000, 0, 8);
+        String sql = "SELECT ? AS value";
+
+        for (int i = 0; i < 3; i++) {
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, i);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(i, rs.getInt("value"));
+                }
+            }
+        }
+
+        PoolMetrics metrics = pool.getMetrics();
+        assertEquals(1, metrics.statementCacheMisses());
+        assertEquals(2, metrics.statementCacheHits());
+    }
+
+    @Test
+    void testNestedUseOfSameSqlGetsSeparateStatements() throws SQLException {
+        pool = new ConnectionPool(URL, 1, 1_000, 30_000, 0, 8);
+        String sql = "SELECT ? AS value";
+
+        try (Connection conn = pool.getConnection();
+             PreparedStatement outer = conn.prepareStatement(sql);
+             PreparedStatement inner = conn.prepareStatement(sql)) {
+            assertNotSame(outer, inner);
+            outer.setInt(1, 1);
+            inner.setInt(1, 2);
+            try (ResultSet outerRs = outer.executeQuery(); ResultSet innerRs = inner.executeQuery()) {
+                assertTrue(outerRs.next());
+                assertTrue(innerRs.next());
+                assertEquals(1, outerRs.getInt("value"));
+                assertEquals(2, innerRs.getInt("value"));
+            }
+        }
+
+        assertEquals(2, pool.getMetrics().statementCacheMisses());
+    }
+
+    @Test
+    void testLeastRecentlyUsedStatementIsEvicted() throws SQLException {
+        pool = new ConnectionPool(URL, 1, 1_000, 30_000, 0, 2);
+
+        try (Connection conn = pool.getConnection()) {
+            for (String sql : new String[]{"SELECT 1", "SELECT 2", "SELECT 3", "SELECT 1"}) {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.executeQuery();
+                }
+            }
+        }
+
+        PoolMetrics metrics = pool.getMetrics();
+        assertEquals(4, metrics.statementCacheMisses());
+        assertEquals(0, metrics.statementCacheHits());
+    }
+
+    @Test
+    void testClosedCachedStatementCannotBeUsed() throws SQLException {
+        pool = new ConnectionPool(URL, 1, 1_000, 30_000, 0, 8);
+
+        try (Connection conn = pool.getConnection()) {
+            PreparedStatement stmt = conn.prepareStatement("SELECT 1");
+            stmt.close();
+
+            assertTrue(stmt.isClosed());
+            assertThrows(SQLException.class, stmt::executeQuery);
+        }
+    }
+
+    @Test
+    void testCachedStatementBelongsToTheLease() throws SQLException {
+        pool = new ConnectionPool(URL, 1, 1_000, 30_000, 0, 8);
+
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT 1")) {
+            assertSame(conn, stmt.getConnection());
+        }
+    }
+
+    @Test
+    void testStaleStatementCannotTouchTheReissuedOne() throws SQLException {
+        pool = new ConnectionPool(URL, 1, 1_000, 30_000, 0, 8);
+        String sql = "SELECT ? AS value";
+
+        try (Connection conn = pool.getConnection()) {
+            PreparedStatement stale = conn.prepareStatement(sql);
+            stale.close();
+            try (PreparedStatement current = conn.prepareStatement(sql)) {
+                assertEquals(1, pool.getMetrics().statementCacheHits());
+                assertNotSame(stale, current);
+                current.setInt(1, 7);
+
+                assertThrows(SQLException.class, () -> stale.setInt(1, 8));
+                stale.close();
+                assertTrue(stale.isClosed());
+                assertFalse(current.isClosed());
+                try (ResultSet rs = current.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(7, rs.getInt("value"));
+                }
+            }
+        }
+    }
+}
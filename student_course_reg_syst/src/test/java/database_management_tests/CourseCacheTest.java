@@ -0,0 +1,100 @@
+package database_management_tests;
+
+import org.junit.jupiter.api.*;
+import registration.system.course_management.Course;
+import registration.system.database_management.CourseCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CourseCacheTest {
+    private static Course course(String courseCode, int spacesLeft) {
+        return new Course(courseCode, "Title " + courseCode, "Description", spacesLeft);
+    }
+
+    @Test
+    void testGetReturnsCopy() {
+        CourseCache cache = new CourseCache();
+        cache.put(course("CS101", 10));
+
+        Course cached = cache.get("CS101");
+        assertNotNull(cached);
+        cached.setSpacesLeft(0);
+
+        assertEquals(10, cache.get("CS101").getSpacesLeft());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    void testMissingCourseIsAMiss() {
+        CourseCache cache = new CourseCache();
+
+        assertNull(cache.get("CS999"));
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testEntriesExpire() throws InterruptedException {
+        CourseCache cache = new CourseCache(20, 10);
+        cache.put(course("CS101", 10));
+
+        Thread.sleep(40);
+
+        assertNull(cache.get("CS101"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testOldestEntryIsEvictedWhenFull() {
+        CourseCache cache = new CourseCache(60_000, 2);
+        cache.put(course("CS101", 10));
+        cache.put(course("CS102", 10));
+        cache.put(course("CS103", 10));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("CS101"));
+        assertNotNull(cache.get("CS102"));
+        assertNotNull(cache.get("CS103"));
+    }
+
+    @Test
+    void testReloadedEntryIsEvictedLast() {
+        CourseCache cache = new CourseCache(60_000, 2);
+        cache.put(course("CS101", 10));
+        cache.put(course("CS102", 10));
+        cache.put(course("CS101", 9));
+        cache.put(course("CS103", 10));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("CS102"));
+        assertEquals(9, cache.get("CS101").getSpacesLeft());
+        assertNotNull(cache.get("CS103"));
+    }
+
+    @Test
+    void testSpacesLeftUpdates() {
+        CourseCache cache = new CourseCache();
+        cache.put(course("CS101", 10));
+
+        cache.adjustSpacesLeft("CS101", -1);
+        assertEquals(9, cache.get("CS101").getSpacesLeft());
+
+        cache.updateSpacesLeft("CS101", 3);
+        assertEquals(3, cache.get("CS101").getSpacesLeft());
+
+        cache.adjustSpacesLeft("CS999", -1);
+        assertNull(cache.get("CS999"));
+    }
+
+    @Test
+    void testInvalidate() {
+        CourseCache cache = new CourseCache();
+        cache.put(course("CS101", 10));
+        cache.put(course("CS102", 10));
+
+        cache.invalidate("CS101");
+        assertNull(cache.get("CS101"));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,153 @@
+package database_management_tests;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.*;
+import registration.system.database_management.ConnectionPool;
+import registration.system.database_management.DataLayerMetrics;
+import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.LatencyHistogram;
+import registration.system.database_management.LatencySummary;
+import registration.system.database_management.OperationMetrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataLayerMetricsTest {
+    private static final String URL = "jdbc:sqlite:test.db";
+    private ConnectionPool pool;
+    private DataLayerMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ConnectionPool(URL, 2, 1_000, 30_000, 0);
+        metrics = new DataLayerMetrics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    /**
+     * Runs one query on a connection checked out through the metrics.
+     */
+    private void runQuery() throws SQLException {
+        try (Connection conn = metrics.connect(pool);
+             PreparedStatement statement = conn.prepareStatement("SELECT 1 UNION ALL SELECT 2");
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rs.getInt(1);
+            }
+        }
+    }
+
+    @Test
+    void testCheckoutIsAttributedToTheCaller() throws SQLException {
+        runQuery();
+        runQuery();
+
+        List<OperationMetrics> snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.size());
+        OperationMetrics operation = snapshot.get(0);
+        assertEquals("DataLayerMetricsTest.runQuery", operation.operation());
+        assertEquals(2, operation.count());
+        assertEquals(0, operation.errors());
+        assertEquals(2, operation.execute().count());
+        assertTrue(operation.total().maxMillis() >= operation.execute().maxMillis());
+    }
+
+    @Test
+    void testDatabaseManagerOperationsAreRecorded() throws SQLException, IOException {
+        DatabaseManager.setURL(URL);
+        DatabaseManager.setSchemaPath("src/test/resources/database.sql");
+        try (Connection conn = DatabaseManager.connect()) {
+            DatabaseManager.createTables(conn);
+        }
+        DatabaseManager.getMetrics().reset();
+
+        DatabaseManager.getAllCourses();
+
+        assertTrue(DatabaseManager.getMetrics().snapshot().stream()
+                .anyMatch(operation -> operation.operation().equals("DatabaseManager.getAllCourses") && operation.count() == 1));
+        assertTrue(DatabaseManager.getMetrics().report().contains("DatabaseManager.getAllCourses"));
+    }
+
+    @Test
+    void testFailedStatementIsCounted() throws SQLException {
+        try (Connection conn = metrics.connect(pool)) {
+            assertThrows(SQLException.class, () -> conn.prepareStatement("SELECT * FROM no_such_table"));
+        }
+
+        assertEquals(1, metrics.snapshot().get(0).errors());
+    }
+
+    @Test
+    void testDisabledMetricsRecordNothing() throws SQLException {
+        metrics.setEnabled(false);
+
+        runQuery();
+
+        assertTrue(metrics.snapshot().isEmpty());
+    }
+
+    @Test
+    void testReportListsEveryPhase() throws SQLException {
+        runQuery();
+
+        String report = metrics.report();
+        assertTrue(report.contains("p99 ms"));
+        for (String phase : List.of("total", "acquire", "prepare", "execute", "map")) {
+            assertTrue(report.contains(phase), phase);
+        }
+    }
+
+    @Test
+    void testQueriesAreRecordedAsFlightRecorderEvents() throws SQLException, IOException {
+        Path file = Files.createTempFile("registration", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("registration.Query");
+            recording.enable("registration.DatabaseOperation");
+            recording.start();
+            runQuery();
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent query = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("registration.Query"))
+                    .findFirst().orElseThrow();
+            assertEquals("SELECT 1 UNION ALL SELECT 2", query.getString("sql"));
+            assertEquals("DataLayerMetricsTest.runQuery", query.getString("operation"));
+            assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("registration.DatabaseOperation")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+
+        LatencySummary summary = histogram.summary();
+        assertEquals(1000, summary.count());
+        assertEquals(500, summary.p50Millis(), 500 * 0.07);
+        assertEquals(950, summary.p95Millis(), 950 * 0.07);
+        assertEquals(990, summary.p99Millis(), 990 * 0.07);
+        assertEquals(1000, summary.maxMillis());
+        assertEquals(500.5, summary.meanMillis(), 0.001);
+        assertEquals(0, new LatencyHistogram().percentileNanos(99));
+    }
+}
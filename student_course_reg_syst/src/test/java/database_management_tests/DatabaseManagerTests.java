@@ -1,15 +1,32 @@
 package database_management_tests;
 
 import org.junit.jupiter.api.*;
+import registration.system.course_management.BatchMode;
+import registration.system.course_management.BatchReservation;
 import registration.system.course_management.Course;
+import registration.system.course_management.CoursePage;
+import registration.system.course_management.ReservationResult;
+import registration.system.course_management.TimetableValidator;
+import registration.system.course_management.schedule.PackedSchedule;
 import registration.system.course_management.schedule.Schedule;
+import registration.system.course_management.schedule.TimetableConflict;
+import registration.system.course_management.schedule.TimetableEntry;
+import registration.system.course_management.schedule.TimetableIndex;
+import registration.system.course_management.schedule.WeeklyTimetable;
+import registration.system.database_management.AppMetadata;
+import registration.system.database_management.ConnectionPool;
 import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.PoolMetrics;
+import registration.system.database_management.StorageProfile;
 import registration.system.student_management.Student;
 
 import java.io.*;
 import java.sql.*;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -36,6 +53,21 @@ public class DatabaseManagerTests {
             conn.createStatement().execute("DELETE FROM students");
             conn.createStatement().execute("DELETE FROM registrations");
             conn.createStatement().execute("DELETE FROM schedule");
+            conn.createStatement().execute("DELETE FROM waitlist");
+            conn.createStatement().execute("DELETE FROM waitlist_queue");
+        }
+        DatabaseManager.getCourseCache().invalidateAll();
+        DatabaseManager.getTimetableCache().invalidateAll();
+    }
+
+    @Test
+    void testUnchangedSchemaIsNotRunAgain() throws SQLException, IOException {
+        try (Connection conn = DatabaseManager.connect()) {
+            assertFalse(DatabaseManager.createTables(conn));
+
+            AppMetadata.put(conn, AppMetadata.SCHEMA_HASH, "stale");
+            assertTrue(DatabaseManager.createTables(conn));
+            assertFalse(DatabaseManager.createTables(conn));
         }
     }
 
@@ -154,4 +186,570 @@ public class DatabaseManagerTests {
         assertEquals("10:00", schedule.startTime());
         assertEquals("12:00", schedule.endTime());
     }
+
+    @Test
+    void testConnectionsArePooled() throws SQLException {
+        PoolMetrics before = DatabaseManager.getPoolMetrics();
+
+        DatabaseManager.getCourseByCourseCode("CS101");
+        DatabaseManager.isValidStudentId("S999");
+
+        PoolMetrics after = DatabaseManager.getPoolMetrics();
+        assertEquals(before.checkouts() + 2, after.checkouts());
+        assertEquals(before.opened(), after.opened());
+        assertEquals(0, after.active());
+    }
+
+    @Test
+    void testRepeatedLookupsReusePreparedStatements() throws SQLException {
+        Student student = new Student("S005", "Mary", "Jones");
+        DatabaseManager.isStudentRegisteredForCourse(student, "CS101");
+        PoolMetrics before = DatabaseManager.getPoolMetrics();
+
+        DatabaseManager.isStudentRegisteredForCourse(student, "CS101");
+        DatabaseManager.isStudentRegisteredForCourse(student, "CS101");
+
+        PoolMetrics after = DatabaseManager.getPoolMetrics();
+        assertEquals(before.statementCacheMisses(), after.statementCacheMisses());
+        assertEquals(before.statementCacheHits() + 2, after.statementCacheHits());
+    }
+
+    @Test
+    void testReserveSeat() throws SQLException {
+        DatabaseManager.saveStudent(new Student("S006", "Tom", "Baker"));
+
+        assertEquals(ReservationResult.REGISTERED, DatabaseManager.reserveSeat("S006", "CS101"));
+        assertEquals(ReservationResult.DUPLICATE, DatabaseManager.reserveSeat("S006", "CS101"));
+        assertEquals(ReservationResult.NOT_FOUND, DatabaseManager.reserveSeat("S006", "CS999"));
+        assertEquals(99, DatabaseManager.getCourseByCourseCode("CS101").getSpacesLeft());
+
+        DatabaseManager.updateCapacity("CS101", 0);
+        DatabaseManager.saveStudent(new Student("S007", "Ann", "Lee"));
+        assertEquals(ReservationResult.FULL, DatabaseManager.reserveSeat("S007", "CS101"));
+    }
+
+    @Test
+    void testReserveSeatRejectsScheduleConflict() throws SQLException {
+        DatabaseManager.saveStudent(new Student("S009", "Kim", "Ng"));
+        DatabaseManager.insertCourse(new Course("CS102", "Data Structures", "Lists and trees", 50));
+        DatabaseManager.insertSchedule("CS102", new Schedule(List.of("Monday"), "11:00", "13:00"));
+        DatabaseManager.insertCourse(new Course("CS103", "Algorithms", "Sorting and searching", 50));
+        DatabaseManager.insertSchedule("CS103", new Schedule(List.of("Monday"), "12:00", "14:00"));
+
+        assertEquals(ReservationResult.REGISTERED, DatabaseManager.reserveSeat("S009", "CS101"));
+        assertEquals(ReservationResult.CONFLICT, DatabaseManager.reserveSeat("S009", "CS102"));
+        assertEquals(ReservationResult.REGISTERED, DatabaseManager.reserveSeat("S009", "CS103"));
+        assertEquals(50, DatabaseManager.getCourseByCourseCode("CS102").getSpacesLeft());
+
+        assertTrue(DatabaseManager.releaseSeat("S009", "CS101"));
+        assertTrue(DatabaseManager.releaseSeat("S009", "CS103"));
+        assertEquals(ReservationResult.REGISTERED, DatabaseManager.reserveSeat("S009", "CS102"));
+    }
+
+    @Test
+    void testConcurrentClashingReservationsAreNotBothRegistered() throws Exception {
+        DatabaseManager.saveStudent(new Student("S011", "Max", "Ode"));
+        DatabaseManager.insertCourse(new Course("CS102", "Data Structures", "Lists and trees", 50));
+        DatabaseManager.insertSchedule("CS102", new Schedule(List.of("Monday"), "11:00", "13:00"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int i = 0; i < 30; i++) {
+                CountDownLatch start = new CountDownLatch(1);
+                Future<ReservationResult> first = executor.submit(() -> {
+                    start.await();
+                    return DatabaseManager.reserveSeat("S011", "CS101");
+                });
+                Future<ReservationResult> second = executor.submit(() -> {
+                    start.await();
+                    return DatabaseManager.reserveSeat("S011", "CS102");
+                });
+                // Dropping the cached timetable hands each reservation a different index instance
+                Future<?> invalidate = executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 20; j++) {
+                        DatabaseManager.getTimetableCache().invalidate("S011");
+                    }
+                    return null;
+                });
+                start.countDown();
+
+                List<ReservationResult> outcomes = List.of(first.get(60, TimeUnit.SECONDS), second.get(60, TimeUnit.SECONDS));
+                invalidate.get(60, TimeUnit.SECONDS);
+                assertEquals(1, Collections.frequency(outcomes, ReservationResult.REGISTERED), outcomes.toString());
+                DatabaseManager.releaseSeat("S011", "CS101");
+                DatabaseManager.releaseSeat("S011", "CS102");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTimetableIsLoadedFromDatabase() throws SQLException {
+        DatabaseManager.saveStudent(new Student("S010", "Lee", "Cho"));
+        DatabaseManager.insertCourse(new Course("CS102", "Data Structures", "Lists and trees", 50));
+        DatabaseManager.insertSchedule("CS102", new Schedule(List.of("Monday"), "11:00", "13:00"));
+        DatabaseManager.registerStudentForCourse("S010", "CS101");
+
+        assertEquals(1, DatabaseManager.getTimetable("S010").size());
+        assertEquals(ReservationResult.CONFLICT, DatabaseManager.reserveSeat("S010", "CS102"));
+
+        DatabaseManager.registerStudentForCourse("S010", "CS102");
+        assertEquals(List.of(new TimetableConflict("S010", "CS102", "CS101")), TimetableValidator.validateAll());
+    }
+
+    @Test
+    void testScheduleIsStoredPacked() throws SQLException {
+        DatabaseManager.insertCourse(new Course("CS103", "Algorithms", "Sorting and searching", 30));
+        DatabaseManager.insertSchedule("CS103", new Schedule(List.of("Tuesday", "Thursday"), "1:30 PM", "3:00 PM"));
+
+        Course course = DatabaseManager.findCourse("CS103");
+        int packed = course.getPackedSchedule();
+        assertEquals(0b1010, PackedSchedule.dayMask(packed));
+        assertEquals(13 * 60 + 30, PackedSchedule.startMinute(packed));
+        assertEquals(15 * 60, PackedSchedule.endMinute(packed));
+        assertEquals(new Schedule(List.of("Tuesday,Thursday"), "1:30 PM", "3:00 PM"), course.getSchedule());
+
+        try (Connection conn = DatabaseManager.connect();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE schedule SET startTime = '14:00' WHERE courseCode = 'CS103'")) {
+            stmt.executeUpdate();
+        }
+        DatabaseManager.getCourseCache().invalidateAll();
+        assertEquals(14 * 60, PackedSchedule.startMinute(DatabaseManager.findCourse("CS103").getPackedSchedule()));
+    }
+
+    @Test
+    void testWaitlistIsPromotedInOrder() throws SQLException {
+        for (String studentId : List.of("S020", "S021", "S022", "S023")) {
+            DatabaseManager.saveStudent(new Student(studentId, "Wait", "Listed"));
+        }
+        DatabaseManager.updateCapacity("CS101", 1);
+        assertEquals(ReservationResult.REGISTERED, DatabaseManager.reserveSeat("S020", "CS101"));
+        assertEquals(ReservationResult.FULL, DatabaseManager.reserveSeat("S021", "CS101"));
+
+        assertEquals(0, DatabaseManager.joinWaitlist("S020", "CS101"));
+        assertEquals(1, DatabaseManager.joinWaitlist("S021", "CS101"));
+        assertEquals(2, DatabaseManager.joinWaitlist("S022", "CS101"));
+        assertEquals(3, DatabaseManager.joinWaitlist("S023", "CS101"));
+        assertEquals(1, DatabaseManager.joinWaitlist("S021", "CS101"));
+
+        assertTrue(DatabaseManager.leaveWaitlist("S022", "CS101"));
+        assertFalse(DatabaseManager.leaveWaitlist("S022", "CS101"));
+        assertEquals(2, DatabaseManager.getWaitlistPosition("S023", "CS101"));
+
+        assertTrue(DatabaseManager.releaseSeat("S020", "CS101"));
+        assertTrue(DatabaseManager.isStudentRegisteredForCourse(new Student("S021", null, null), "CS101"));
+        assertEquals(0, DatabaseManager.getWaitlistPosition("S021", "CS101"));
+        assertEquals(1, DatabaseManager.getWaitlistPosition("S023", "CS101"));
+        assertEquals(0, DatabaseManager.getCourseByCourseCode("CS101").getSpacesLeft());
+
+        assertTrue(DatabaseManager.releaseSeat("S021", "CS101"));
+        assertTrue(DatabaseManager.releaseSeat("S023", "CS101"));
+        assertEquals(1, DatabaseManager.getCourseByCourseCode("CS101").getSpacesLeft());
+    }
+
+    @Test
+    void testWaitlistSkipsStudentsWhoCannotTakeTheSeat() throws SQLException {
+        for (String studentId : List.of("S030", "S031", "S032")) {
+            DatabaseManager.saveStudent(new Student(studentId, "Wait", "Listed"));
+        }
+        DatabaseManager.insertCourse(new Course("CS105", "Networks", "Protocols", 1));
+        DatabaseManager.insertSchedule("CS105", new Schedule(List.of("Monday"), "11:00", "13:00"));
+        assertEquals(ReservationResult.REGISTERED, DatabaseManager.reserveSeat("S030", "CS105"));
+        assertEquals(1, DatabaseManager.joinWaitlist("S031", "CS105"));
+        assertEquals(2, DatabaseManager.joinWaitlist("S032", "CS105"));
+        assertEquals(ReservationResult.REGISTERED, DatabaseManager.reserveSeat("S031", "CS101"));
+
+        assertTrue(DatabaseManager.releaseSeat("S030", "CS105"));
+
+        assertFalse(DatabaseManager.isStudentRegisteredForCourse(new Student("S031", null, null), "CS105"));
+        assertTrue(DatabaseManager.isStudentRegisteredForCourse(new Student("S032", null, null), "CS105"));
+        assertEquals(0, DatabaseManager.getWaitlistPosition("S031", "CS105"));
+    }
+
+    @Test
+    void testReservationsRecheckClashesAfterAPromotion() throws SQLException {
+        for (String studentId : List.of("S034", "S035", "S036", "S037")) {
+            DatabaseManager.saveStudent(new Student(studentId, "Wait", "Listed"));
+        }
+        for (String courseCode : List.of("CS105", "CS106")) {
+            DatabaseManager.insertCourse(new Course(courseCode, "Networks", "Protocols", 1));
+            DatabaseManager.insertSchedule(courseCode, new Schedule(List.of("Monday"), "11:00", "13:00"));
+        }
+        assertEquals(ReservationResult.REGISTERED, DatabaseManager.reserveSeat("S034", "CS105"));
+        assertEquals(ReservationResult.REGISTERED, DatabaseManager.reserveSeat("S035", "CS106"));
+        assertEquals(1, DatabaseManager.joinWaitlist("S036", "CS105"));
+        assertEquals(1, DatabaseManager.joinWaitlist("S037", "CS106"));
+        TimetableIndex before36 = DatabaseManager.getTimetable("S036");
+        TimetableIndex before37 = DatabaseManager.getTimetable("S037");
+
+        assertTrue(DatabaseManager.releaseSeat("S034", "CS105"));
+        assertTrue(DatabaseManager.releaseSeat("S035", "CS106"));
+        // Timetables read before the promotions committed, as a concurrent reservation could have cached them
+        DatabaseManager.getTimetableCache().putIfAbsent("S036", before36);
+        DatabaseManager.getTimetableCache().putIfAbsent("S037", before37);
+
+        assertEquals(ReservationResult.CONFLICT, DatabaseManager.reserveSeat("S036", "CS101"));
+        BatchReservation batch = DatabaseManager.reserveSeats("S037", List.of("CS101"), BatchMode.PARTIAL);
+        assertEquals(ReservationResult.CONFLICT, batch.results().get("CS101"));
+        assertTrue(DatabaseManager.getTimetable("S036").contains("CS105"));
+        assertTrue(DatabaseManager.getTimetable("S037").contains("CS106"));
+        assertEquals(100, DatabaseManager.getCourseByCourseCode("CS101").getSpacesLeft());
+    }
+
+    @Test
+    void testWaitlistPositionUsesPrimaryKeys() throws SQLException {
+        List<String> plan = DatabaseManager.explainQueryPlan(DatabaseManager.WAITLIST_POSITION_SQL);
+
+        assertTrue(plan.stream().noneMatch(step -> step.startsWith("SCAN")), plan.toString());
+    }
+
+    @Test
+    void testWeeklyTimetableIsOneQuery() throws SQLException {
+        DatabaseManager.saveStudent(new Student("S010", "Eve", "Park"));
+        DatabaseManager.insertCourse(new Course("CS102", "Data Structures", "Lists and trees", 50));
+        DatabaseManager.insertSchedule("CS102", new Schedule(List.of("Monday, Wednesday"), "08:00", "09:30"));
+        DatabaseManager.insertCourse(new Course("CS103", "Algorithms", "Sorting and searching", 50));
+        DatabaseManager.insertSchedule("CS103", new Schedule(List.of("Wednesday"), "14:00", "15:00"));
+        DatabaseManager.insertCourse(new Course("CS104", "Ethics", "Right and wrong", 50));
+        DatabaseManager.insertSchedule("CS104", new Schedule(List.of("Someday"), "soon", "later"));
+        for (String courseCode : List.of("CS101", "CS102", "CS103", "CS104")) {
+            assertEquals(ReservationResult.REGISTERED, DatabaseManager.reserveSeat("S010", courseCode));
+        }
+        DatabaseManager.getMetrics().reset();
+
+        WeeklyTimetable timetable = DatabaseManager.getWeeklyTimetable("S010");
+
+        assertEquals(1, DatabaseManager.getMetrics().snapshot().get(0).count());
+        assertEquals(List.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), new ArrayList<>(timetable.days().keySet()));
+        assertEquals(List.of("CS102", "CS101"),
+                timetable.entries(DayOfWeek.MONDAY).stream().map(TimetableEntry::courseCode).toList());
+        assertEquals(List.of("CS102", "CS103"),
+                timetable.entries(DayOfWeek.WEDNESDAY).stream().map(TimetableEntry::courseCode).toList());
+        assertEquals("CS104", timetable.unscheduled().get(0).courseCode());
+        assertTrue(DatabaseManager.getWeeklyTimetable("S999").isEmpty());
+    }
+
+    @Test
+    void testSearchCourses() throws SQLException {
+        DatabaseManager.insertCourse(new Course("CS106", "Algorithms", "Sorting and searching", 10));
+        DatabaseManager.insertCourse(new Course("CS107", "Data Structures", "Trees, graphs and their algorithms", 10));
+        DatabaseManager.insertCourse(new Course("MA201", "Linear Algebra", "Matrices and vectors", 10));
+
+        List<String> byPrefix = new ArrayList<>();
+        for (Course course : DatabaseManager.searchCourses("algo", 10)) {
+            byPrefix.add(course.getCourseCode());
+        }
+        assertEquals(List.of("CS106", "CS107"), byPrefix);
+        assertEquals(2, DatabaseManager.searchCourses("cs10 algorithms", 10).size());
+        assertEquals(1, DatabaseManager.searchCourses("cs10 algorithms", 1).size());
+        assertEquals("CS101", DatabaseManager.searchCourses("Intro comp sci", 10).get(0).getCourseCode());
+        assertEquals("MA201", DatabaseManager.searchCourses("linear algerba", 10).get(0).getCourseCode());
+        assertTrue(DatabaseManager.searchCourses("chemistry", 10).isEmpty());
+        assertTrue(DatabaseManager.searchCourses("\"*)", 10).isEmpty());
+
+        DatabaseManager.upsertCourses(List.of(new Course("MA201", "Statistics", "Probability", 10)).iterator(), 10);
+        assertTrue(DatabaseManager.searchCourses("linear", 10).isEmpty());
+        assertEquals("MA201", DatabaseManager.searchCourses("stat", 10).get(0).getCourseCode());
+
+        assertNotNull(DatabaseManager.searchCourses("cs101", 10).get(0).getSchedule());
+    }
+
+    @Test
+    void testReserveSeatsPartially() throws SQLException {
+        DatabaseManager.saveStudent(new Student("S040", "Ana", "Batch"));
+        DatabaseManager.insertCourse(new Course("CS106", "Compilers", "Parsing", 0));
+        DatabaseManager.insertSchedule("CS106", new Schedule(List.of("Tuesday"), "09:00", "10:00"));
+        DatabaseManager.insertCourse(new Course("CS107", "Databases", "Queries", 10));
+        DatabaseManager.insertSchedule("CS107", new Schedule(List.of("Monday"), "11:00", "12:00"));
+
+        BatchReservation batch = DatabaseManager.reserveSeats("S040",
+                List.of("CS101", "CS106", "CS107", "XX999", "CS101"), BatchMode.PARTIAL);
+
+        assertTrue(batch.committed());
+        assertEquals(List.of("CS101", "CS106", "CS107", "XX999"), new ArrayList<>(batch.results().keySet()));
+        assertEquals(ReservationResult.REGISTERED, batch.results().get("CS101"));
+        assertEquals(ReservationResult.FULL, batch.results().get("CS106"));
+        assertEquals(ReservationResult.CONFLICT, batch.results().get("CS107"));
+        assertEquals(ReservationResult.NOT_FOUND, batch.results().get("XX999"));
+        assertEquals(List.of("CS101"), batch.registered());
+        assertEquals(99, DatabaseManager.getCourseByCourseCode("CS101").getSpacesLeft());
+        assertTrue(DatabaseManager.getTimetable("S040").contains("CS101"));
+
+        BatchReservation again = DatabaseManager.reserveSeats("S040", List.of("CS101"), BatchMode.PARTIAL);
+        assertEquals(ReservationResult.DUPLICATE, again.results().get("CS101"));
+    }
+
+    @Test
+    void testReserveSeatsAllOrNothing() throws SQLException {
+        DatabaseManager.saveStudent(new Student("S041", "Ben", "Batch"));
+        DatabaseManager.insertCourse(new Course("CS106", "Compilers", "Parsing", 0));
+        DatabaseManager.insertSchedule("CS106", new Schedule(List.of("Tuesday"), "09:00", "10:00"));
+        DatabaseManager.insertCourse(new Course("CS108", "Graphics", "Rendering", 10));
+        DatabaseManager.insertSchedule("CS108", new Schedule(List.of("Wednesday"), "09:00", "10:00"));
+
+        BatchReservation aborted = DatabaseManager.reserveSeats("S041", List.of("CS101", "CS106"), BatchMode.ALL_OR_NOTHING);
+
+        assertFalse(aborted.committed());
+        assertEquals(ReservationResult.BATCH_ABORTED, aborted.results().get("CS101"));
+        assertEquals(ReservationResult.FULL, aborted.results().get("CS106"));
+        assertEquals(100, DatabaseManager.getCourseByCourseCode("CS101").getSpacesLeft());
+        assertFalse(DatabaseManager.isStudentRegisteredForCourse(new Student("S041", null, null), "CS101"));
+
+        BatchReservation committed = DatabaseManager.reserveSeats("S041", List.of("CS101", "CS108"), BatchMode.ALL_OR_NOTHING);
+
+        assertTrue(committed.committed());
+        assertEquals(List.of("CS101", "CS108"), committed.registered());
+        assertEquals(2, DatabaseManager.getRegisteredCourses(new Student("S041", null, null)).size());
+    }
+
+    @Test
+    void testReleaseSeat() throws SQLException {
+        DatabaseManager.saveStudent(new Student("S008", "Sam", "Hill"));
+        DatabaseManager.reserveSeat("S008", "CS101");
+
+        assertTrue(DatabaseManager.releaseSeat("S008", "CS101"));
+        assertFalse(DatabaseManager.releaseSeat("S008", "CS101"));
+        assertEquals(100, DatabaseManager.getCourseByCourseCode("CS101").getSpacesLeft());
+    }
+
+    @Test
+    void testConcurrentCallersShareOnePool() throws Exception {
+        DatabaseManager.resetPool();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<ConnectionPool>> pools = new ArrayList<>();
+        try {
+            for (int i = 0; i < 32; i++) {
+                pools.add(executor.submit(() -> {
+                    start.await();
+                    return DatabaseManager.getPool();
+                }));
+            }
+            start.countDown();
+            ConnectionPool shared = DatabaseManager.getPool();
+            for (Future<ConnectionPool> pool : pools) {
+                assertSame(shared, pool.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        DatabaseManager.setPoolSize(DatabaseManager.POOL_SIZE + 1);
+        try {
+            assertNotSame(pools.get(0).get(), DatabaseManager.getPool());
+        } finally {
+            DatabaseManager.setPoolSize(DatabaseManager.POOL_SIZE - 1);
+        }
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        int seats = 10;
+        int students = 64;
+        DatabaseManager.updateCapacity("CS101", seats);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<ReservationResult>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < students; i++) {
+                String studentId = String.format("SE%05d", i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return DatabaseManager.reserveSeat(studentId, "CS101");
+                }));
+            }
+            start.countDown();
+
+            int registered = 0;
+            for (Future<ReservationResult> result : results) {
+                ReservationResult outcome = result.get(60, TimeUnit.SECONDS);
+                if (outcome == ReservationResult.REGISTERED) {
+                    registered++;
+                } else {
+                    assertEquals(ReservationResult.FULL, outcome);
+                }
+            }
+            assertEquals(seats, registered);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, DatabaseManager.getCourseByCourseCode("CS101").getSpacesLeft());
+        try (Connection conn = DatabaseManager.connect();
+             ResultSet rs = conn.createStatement().executeQuery("SELECT COUNT(*) AS count FROM registrations WHERE courseCode = 'CS101'")) {
+            assertTrue(rs.next());
+            assertEquals(seats, rs.getInt("count"));
+        }
+    }
+
+    @Test
+    void testFindCourseUsesCache() throws SQLException {
+        Course course = DatabaseManager.findCourse("CS101");
+        assertNotNull(course);
+        assertEquals("[Monday]", course.getSchedule().days().toString());
+        long hits = DatabaseManager.getCourseCache().getHits();
+
+        assertNotNull(DatabaseManager.findCourse("CS101"));
+        assertEquals(hits + 1, DatabaseManager.getCourseCache().getHits());
+        assertNull(DatabaseManager.findCourse("CS999"));
+    }
+
+    @Test
+    void testCourseWritesKeepCacheCurrent() throws SQLException {
+        DatabaseManager.findCourse("CS101");
+
+        DatabaseManager.updateCapacity("CS101", 15);
+        assertEquals(15, DatabaseManager.findCourse("CS101").getSpacesLeft());
+
+        DatabaseManager.saveStudent(new Student("S009", "Eve", "Adams"));
+        DatabaseManager.reserveSeat("S009", "CS101");
+        assertEquals(14, DatabaseManager.findCourse("CS101").getSpacesLeft());
+
+        DatabaseManager.releaseSeat("S009", "CS101");
+        assertEquals(15, DatabaseManager.findCourse("CS101").getSpacesLeft());
+
+        DatabaseManager.insertSchedule("CS101", new Schedule(List.of("Friday"), "08:00", "09:00"));
+        assertEquals(15, DatabaseManager.findCourse("CS101").getSpacesLeft());
+    }
+
+    private static void assertUsesIndexes(List<String> plan) {
+        assertFalse(plan.isEmpty());
+        for (String step : plan) {
+            assertFalse(step.startsWith("SCAN"), "Expected an index lookup but got: " + plan);
+        }
+    }
+
+    @Test
+    void testGetRegisteredCoursesUsesIndexes() throws SQLException {
+        List<String> plan = DatabaseManager.explainQueryPlan(DatabaseManager.REGISTERED_COURSES_SQL);
+
+        assertUsesIndexes(plan);
+        assertTrue(plan.stream().anyMatch(step -> step.contains("idx_registrations_studentID_courseCode")), plan.toString());
+        assertTrue(plan.stream().anyMatch(step -> step.contains("idx_schedule_courseCode")), plan.toString());
+    }
+
+    @Test
+    void testGetWeeklyTimetableUsesIndexes() throws SQLException {
+        List<String> plan = DatabaseManager.explainQueryPlan(DatabaseManager.WEEKLY_TIMETABLE_SQL);
+
+        for (String step : plan) {
+            assertFalse(step.startsWith("SCAN") && !step.contains("CONSTANT ROWS") && !step.startsWith("SCAN w"),
+                    "Only the seven days of the week should be scanned: " + plan);
+        }
+        assertTrue(plan.stream().anyMatch(step -> step.contains("idx_registrations_studentID_courseCode")), plan.toString());
+        assertTrue(plan.stream().anyMatch(step -> step.contains("idx_schedule_courseCode")), plan.toString());
+    }
+
+    @Test
+    void testIsStudentRegisteredForCourseUsesIndex() throws SQLException {
+        List<String> plan = DatabaseManager.explainQueryPlan(DatabaseManager.IS_REGISTERED_SQL);
+
+        assertUsesIndexes(plan);
+        assertTrue(plan.get(0).contains("COVERING INDEX idx_registrations_studentID_courseCode"), plan.toString());
+    }
+
+    @Test
+    void testGetAvailableCoursesUsesIndexes() throws SQLException {
+        List<String> plan = DatabaseManager.explainQueryPlan(DatabaseManager.AVAILABLE_COURSES_SQL);
+
+        assertUsesIndexes(plan);
+        assertTrue(plan.stream().anyMatch(step -> step.contains("idx_courses_spacesLeft")), plan.toString());
+    }
+
+    @Test
+    void testGetAvailableCoursesAreOrderedByCode() throws SQLException {
+        // Seat counts in the opposite order to the course codes
+        DatabaseManager.insertCourse(new Course("AA100", "Academic Writing", "Essays and reports", 500));
+        DatabaseManager.insertSchedule("AA100", new Schedule(List.of("Friday"), "16:00", "17:00"));
+        DatabaseManager.insertCourse(new Course("ZZ100", "Zoology", "Animal biology", 1));
+        DatabaseManager.insertSchedule("ZZ100", new Schedule(List.of("Friday"), "09:00", "10:00"));
+
+        List<String> courseCodes = courseCodes(DatabaseManager.getAvailableCourses());
+
+        assertEquals("AA100", courseCodes.get(0));
+        assertEquals("ZZ100", courseCodes.get(courseCodes.size() - 1));
+        assertEquals(courseCodes.stream().sorted().toList(), courseCodes);
+    }
+
+    @Test
+    void testCoursePages() throws SQLException {
+        for (int i = 2; i <= 6; i++) {
+            String courseCode = "CS10" + i;
+            DatabaseManager.insertCourse(new Course(courseCode, "Course " + i, "Paged", i == 4 ? 0 : 10));
+            DatabaseManager.insertSchedule(courseCode, new Schedule(List.of("Friday"), "09:00", "10:00"));
+        }
+
+        List<String> all = new ArrayList<>();
+        CoursePage page = DatabaseManager.getAllCoursesPage(null, 2);
+        all.addAll(courseCodes(page.courses()));
+        while (page.hasMore()) {
+            page = DatabaseManager.getAllCoursesPage(page.nextAfter(), 2);
+            all.addAll(courseCodes(page.courses()));
+        }
+        assertEquals(List.of("CS101", "CS102", "CS103", "CS104", "CS105", "CS106"), all);
+
+        CoursePage available = DatabaseManager.getAvailableCoursesPage("CS102", 2);
+        assertEquals(List.of("CS103", "CS105"), courseCodes(available.courses()));
+        assertEquals("CS105", available.nextAfter());
+        CoursePage last = DatabaseManager.getAvailableCoursesPage("CS105", 2);
+        assertEquals(List.of("CS106"), courseCodes(last.courses()));
+        assertFalse(last.hasMore());
+        assertThrows(IllegalArgumentException.class, () -> DatabaseManager.getAllCoursesPage(null, 0));
+    }
+
+    @Test
+    void testForEachCourse() throws SQLException {
+        DatabaseManager.insertCourse(new Course("CS100", "Full", "No seats", 0));
+        DatabaseManager.insertSchedule("CS100", new Schedule(List.of("Friday"), "09:00", "10:00"));
+
+        List<String> all = new ArrayList<>();
+        assertEquals(2, DatabaseManager.forEachCourse(course -> all.add(course.getCourseCode())));
+        assertEquals(List.of("CS100", "CS101"), all);
+
+        List<Course> available = new ArrayList<>();
+        assertEquals(1, DatabaseManager.forEachAvailableCourse(available::add));
+        assertEquals("CS101", available.get(0).getCourseCode());
+        assertEquals("10:00", available.get(0).getSchedule().startTime());
+    }
+
+    @Test
+    void testCoursePagesSeekThePrimaryKey() throws SQLException {
+        for (String sql : List.of(DatabaseManager.ALL_COURSES_PAGE_SQL, DatabaseManager.AVAILABLE_COURSES_PAGE_SQL)) {
+            List<String> plan = DatabaseManager.explainQueryPlan(sql);
+
+            assertTrue(plan.get(0).contains("sqlite_autoindex_courses_1 (courseCode>?)"), plan.toString());
+            assertTrue(plan.stream().noneMatch(step -> step.contains("TEMP B-TREE")), plan.toString());
+        }
+    }
+
+    private static List<String> courseCodes(List<Course> courses) {
+        List<String> courseCodes = new ArrayList<>();
+        for (Course course : courses) {
+            courseCodes.add(course.getCourseCode());
+        }
+        return courseCodes;
+    }
+
+    private static String pragma(Connection conn, String name) throws SQLException {
+        try (ResultSet rs = conn.createStatement().executeQuery("PRAGMA " + name)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+
+    @Test
+    void testStorageProfileIsAppliedToConnections() throws SQLException {
+        try (Connection conn = DatabaseManager.connect()) {
+            assertEquals("wal", pragma(conn, "journal_mode"));
+            assertEquals("1", pragma(conn, "synchronous"));
+            assertEquals("-16000", pragma(conn, "cache_size"));
+            assertEquals("2", pragma(conn, "temp_store"));
+            assertEquals("5000", pragma(conn, "busy_timeout"));
+        }
+        assertEquals(StorageProfile.WAL_DURABLE, StorageProfile.named("WAL-durable"));
+        assertThrows(IllegalArgumentException.class, () -> StorageProfile.named("unknown"));
+    }
 }
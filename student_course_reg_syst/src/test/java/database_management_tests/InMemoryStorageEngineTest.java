@@ -0,0 +1,138 @@
+package database_management_tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import registration.system.course_management.Course;
+import registration.system.course_management.ReservationResult;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.storage.InMemoryStorageEngine;
+import registration.system.database_management.storage.SqliteStorageEngine;
+import registration.system.database_management.storage.Storage;
+import registration.system.database_management.storage.StorageEngine;
+import registration.system.student_management.Student;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryStorageEngineTest extends StorageEngineContract {
+    @TempDir
+    Path tempDir;
+
+    @Override
+    protected StorageEngine createEngine() {
+        return new InMemoryStorageEngine();
+    }
+
+    @Test
+    void testSnapshotRoundTrip() throws Exception {
+        Path file = tempDir.resolve("storage.snapshot");
+        try (InMemoryStorageEngine saved = new InMemoryStorageEngine(4, file)) {
+            saved.addCourse(new Course("CS101", "Programming", "Loops", 1, new Schedule(List.of("Monday"), "10:00", "12:00")));
+            saved.addCourse(new Course("AR101", "Art", null, 3, new Schedule(List.of("Someday"), "noon", "later")));
+            saved.saveStudent(new Student("SE00001", "Ada", "Lovelace"));
+            saved.saveStudent(new Student("SE00002", "Alan", "Turing"));
+            assertEquals(ReservationResult.REGISTERED, saved.reserveSeat("SE00001", "CS101"));
+            assertEquals(1, saved.joinWaitlist("SE00002", "CS101"));
+            saved.reserveSeat("SE00002", "AR101");
+        }
+        assertTrue(Files.exists(file));
+
+        try (InMemoryStorageEngine loaded = new InMemoryStorageEngine(4, file)) {
+            assertEquals("Lovelace", loaded.getStudentById("SE00001").surname());
+            assertEquals(0, loaded.findCourse("CS101").getSpacesLeft());
+            assertEquals("12:00", loaded.findCourse("CS101").getSchedule().endTime());
+            assertEquals("noon", loaded.findCourse("AR101").getSchedule().startTime());
+            assertNull(loaded.findCourse("AR101").getDescription());
+            assertEquals(1, loaded.getWaitlistPosition("SE00002", "CS101"));
+            assertEquals(List.of("AR101"), loaded.getRegisteredCourses("SE00002").stream().map(Course::getCourseCode).toList());
+
+            assertTrue(loaded.releaseSeat("SE00001", "CS101"));
+            assertEquals(2, loaded.getRegisteredCourses("SE00002").size());
+        }
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        InMemoryStorageEngine burst = new InMemoryStorageEngine(8, null);
+        int courses = 16;
+        int seats = 25;
+        int studentCount = 200;
+        for (int i = 0; i < courses; i++) {
+            burst.addCourse(new Course(String.format("BC%03d", i), "Course " + i, "Burst", seats,
+                    new Schedule(List.of("Monday"), (8 + i) + ":00", (8 + i) + ":50")));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger registered = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int s = 0; s < studentCount; s++) {
+            String studentId = String.format("SE%05d", s);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < courses; i++) {
+                    String courseCode = String.format("BC%03d", Math.floorMod(i + studentId.hashCode(), courses));
+                    if (burst.reserveSeat(studentId, courseCode) == ReservationResult.REGISTERED) {
+                        registered.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(courses * seats, registered.get());
+        for (int i = 0; i < courses; i++) {
+            assertEquals(0, burst.findCourse(String.format("BC%03d", i)).getSpacesLeft());
+        }
+        int held = 0;
+        for (int s = 0; s < studentCount; s++) {
+            held += burst.getRegisteredCourses(String.format("SE%05d", s)).size();
+        }
+        assertEquals(courses * seats, held);
+    }
+
+    @Test
+    void testWaitlistPositionsStayExactAsTicketsAreServedAndReturned() throws Exception {
+        InMemoryStorageEngine queue = new InMemoryStorageEngine(4, null);
+        queue.addCourse(new Course("CS101", "Programming", "Loops", 1, new Schedule(List.of("Monday"), "10:00", "12:00")));
+        assertEquals(ReservationResult.REGISTERED, queue.reserveSeat("SE00000", "CS101"));
+        List<String> waiting = new ArrayList<>();
+        String holder = "SE00000";
+        for (int round = 1; round <= 40; round++) {
+            String joining = String.format("SE%05d", round);
+            assertEquals(waiting.size() + 1, queue.joinWaitlist(joining, "CS101"));
+            waiting.add(joining);
+            if (round % 3 == 0) {
+                // Leave from the middle, so everyone behind moves up
+                assertTrue(queue.leaveWaitlist(waiting.remove(waiting.size() / 2), "CS101"));
+            }
+            if (round % 4 == 0) {
+                assertTrue(queue.releaseSeat(holder, "CS101"));
+                holder = waiting.remove(0);
+            }
+            for (int i = 0; i < waiting.size(); i++) {
+                assertEquals(i + 1, queue.getWaitlistPosition(waiting.get(i), "CS101"));
+            }
+            assertEquals(0, queue.getWaitlistPosition(holder, "CS101"));
+        }
+    }
+
+    @Test
+    void testSnapshotNeedsAFile() {
+        assertThrows(IllegalStateException.class, () -> ((InMemoryStorageEngine) engine).snapshot());
+    }
+
+    @Test
+    void testEngineIsChosenByName() {
+        assertInstanceOf(InMemoryStorageEngine.class, Storage.createEngine(Storage.MEMORY));
+        assertInstanceOf(SqliteStorageEngine.class, Storage.createEngine(" SQLite "));
+        assertThrows(IllegalArgumentException.class, () -> Storage.createEngine("postgres"));
+    }
+}
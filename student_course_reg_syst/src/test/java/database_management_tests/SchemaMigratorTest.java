@@ -0,0 +1,135 @@
+package database_management_tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.SchemaMigrator;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaMigratorTest {
+    @TempDir
+    Path tempDir;
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        conn = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("migrate.db"));
+        try (BufferedReader schema = new BufferedReader(new FileReader("src/main/resources/database.sql"))) {
+            DatabaseManager.processSqlStatements(conn, schema);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    private int countSchemaObjects(String type, String namePattern) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT COUNT(*) AS count FROM sqlite_master WHERE type = ? AND name LIKE ?")) {
+            stmt.setString(1, type);
+            stmt.setString(2, namePattern);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("count") : 0;
+            }
+        }
+    }
+
+    @Test
+    void testMigrateAppliesEveryVersionOnce() throws SQLException, IOException {
+        assertEquals(0, SchemaMigrator.getCurrentVersion(conn));
+
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), SchemaMigrator.migrate(conn));
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), SchemaMigrator.getCurrentVersion(conn));
+
+        assertEquals(0, SchemaMigrator.migrate(conn));
+    }
+
+    @Test
+    void testDuplicateRegistrationsAreMergedAndPrevented() throws SQLException, IOException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO registrations (studentID, courseCode) VALUES ('SE00001', 'CS101')");
+            stmt.executeUpdate("INSERT INTO registrations (studentID, courseCode) VALUES ('SE00001', 'CS101')");
+        }
+
+        SchemaMigrator.migrate(conn);
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) AS count FROM registrations")) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt("count"));
+        }
+        try (Statement stmt = conn.createStatement()) {
+            assertThrows(SQLException.class, () ->
+                    stmt.executeUpdate("INSERT INTO registrations (studentID, courseCode) VALUES ('SE00001', 'CS101')"));
+        }
+    }
+
+    @Test
+    void testCourseSearchSurvivesVacuum() throws SQLException, IOException {
+        SchemaMigrator.migrate(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO courses VALUES ('CS101', 'Introduction to Computer Science', 'Programming basics', 30)");
+            stmt.executeUpdate("INSERT INTO courses VALUES ('MA101', 'Calculus', 'Limits and derivatives', 30)");
+            stmt.executeUpdate("INSERT INTO courses VALUES ('PH101', 'Physics', 'Mechanics and waves', 30)");
+            // Leaves a gap in the courses rowids, which VACUUM is free to renumber
+            stmt.executeUpdate("DELETE FROM courses WHERE courseCode = 'CS101'");
+            stmt.executeUpdate("UPDATE courses SET title = 'Classical Physics' WHERE courseCode = 'PH101'");
+            stmt.executeUpdate("UPDATE courses SET courseCode = 'MA102' WHERE courseCode = 'MA101'");
+            stmt.executeUpdate("VACUUM");
+        }
+
+        assertEquals(List.of("PH101"), search("classical"));
+        assertEquals(List.of("MA102"), search("calculus"));
+        assertEquals(List.of(), search("ma101"));
+        assertEquals(List.of(), search("programming"));
+    }
+
+    private List<String> search(String query) throws SQLException {
+        List<String> courseCodes = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(DatabaseManager.COURSE_SEARCH_SQL)) {
+            stmt.setString(1, query);
+            stmt.setInt(2, 10);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    courseCodes.add(rs.getString("courseCode"));
+                }
+            }
+        }
+        return courseCodes;
+    }
+
+    @Test
+    void testStudentIdSequenceStartsAfterExistingIds() throws SQLException, IOException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO students (studentID, name, surname) VALUES ('SE04321', 'John', 'Doe')");
+            stmt.executeUpdate("INSERT INTO students (studentID, name, surname) VALUES ('SE00007', 'Jane', 'Doe')");
+            stmt.executeUpdate("INSERT INTO students (studentID, name, surname) VALUES ('S001', 'Jim', 'Doe')");
+        }
+
+        SchemaMigrator.migrate(conn);
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT nextValue FROM id_sequence WHERE name = 'students'")) {
+            assertTrue(rs.next());
+            assertEquals(4322, rs.getLong("nextValue"));
+        }
+    }
+
+    @Test
+    void testTriggerScriptIsSplitAtEnd() throws SQLException, IOException {
+        SchemaMigrator.migrate(conn);
+
+        assertEquals(2, countSchemaObjects("trigger", "schedule_slot_%"));
+    }
+}
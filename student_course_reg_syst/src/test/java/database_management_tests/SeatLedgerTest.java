@@ -0,0 +1,246 @@
+package database_management_tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import registration.system.course_management.Course;
+import registration.system.course_management.ReservationResult;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.AppMetadata;
+import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.SeatLedger;
+import registration.system.database_management.storage.SqliteStorageEngine;
+import registration.system.database_management.storage.StorageEngine;
+import registration.system.student_management.Student;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the storage engine contract against SQLite with seats counted by a seat ledger, and checks
+ * that the ledger flushes its deltas and recovers them from the redo log.
+ */
+public class SeatLedgerTest extends StorageEngineContract {
+    @TempDir
+    Path tempDir;
+
+    private String previousUrl;
+    private String previousSchemaPath;
+    private Path redoLog;
+
+    @Override
+    protected StorageEngine createEngine() throws Exception {
+        previousUrl = DatabaseManager.URL;
+        previousSchemaPath = DatabaseManager.SCHEMA_PATH;
+        DatabaseManager.setURL("jdbc:sqlite:" + tempDir.resolve("ledger.db"));
+        DatabaseManager.setSchemaPath("src/test/resources/database.sql");
+        try (Connection conn = DatabaseManager.connect()) {
+            DatabaseManager.createTables(conn);
+        }
+        redoLog = tempDir.resolve("seats.redo");
+        DatabaseManager.setSeatLedger(new SeatLedger(redoLog, 0, SeatLedger.DEFAULT_MAX_LOG_BYTES));
+        return new SqliteStorageEngine();
+    }
+
+    @AfterEach
+    void restoreDatabase() {
+        DatabaseManager.setSeatLedger(null);
+        DatabaseManager.setSchemaPath(previousSchemaPath);
+        DatabaseManager.setURL(previousUrl);
+    }
+
+    private static int storedSpacesLeft(String courseCode) throws SQLException {
+        try (Connection conn = DatabaseManager.connect();
+             PreparedStatement stmt = conn.prepareStatement("SELECT spacesLeft FROM courses WHERE courseCode = ?")) {
+            stmt.setString(1, courseCode);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getInt("spacesLeft");
+            }
+        }
+    }
+
+    @Test
+    void testClaimsAreCountedInMemoryUntilFlushed() throws SQLException {
+        SeatLedger ledger = DatabaseManager.getSeatLedger();
+
+        assertEquals(ReservationResult.REGISTERED, engine.registrations().reserveSeat("SE00001", "CS101"));
+
+        assertEquals(2, storedSpacesLeft("CS101"));
+        assertEquals(1, engine.courses().findCourse("CS101").getSpacesLeft());
+        assertEquals(1, ledger.getPendingChanges());
+
+        ledger.flush();
+
+        assertEquals(1, storedSpacesLeft("CS101"));
+        assertEquals(0, ledger.getPendingChanges());
+        try (Connection conn = DatabaseManager.connect()) {
+            assertNotNull(AppMetadata.get(conn, SeatLedger.FLUSHED_SEQUENCE));
+        }
+    }
+
+    @Test
+    void testConcurrentClaimsNeverOversell() throws Exception {
+        List<String> students = new ArrayList<>();
+        for (int i = 10; i < 40; i++) {
+            Student student = new Student("SE000" + i, "Test", "Student");
+            engine.students().saveStudent(student);
+            students.add(student.studentId());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ReservationResult>> results = new ArrayList<>();
+            for (String studentId : students) {
+                results.add(executor.submit(() -> engine.registrations().reserveSeat(studentId, "CS101")));
+            }
+            int registered = 0;
+            for (Future<ReservationResult> result : results) {
+                if (result.get() == ReservationResult.REGISTERED) {
+                    registered++;
+                }
+            }
+            assertEquals(2, registered);
+        } finally {
+            executor.shutdown();
+        }
+
+        DatabaseManager.getSeatLedger().flush();
+        assertEquals(0, storedSpacesLeft("CS101"));
+    }
+
+    /**
+     * Copies the database and the redo log as a crash at this moment would leave them on disk.
+     */
+    private Path crash() throws Exception {
+        Path crashed = Files.createDirectory(tempDir.resolve("crashed"));
+        for (String file : List.of("ledger.db", "ledger.db-wal")) {
+            if (Files.exists(tempDir.resolve(file))) {
+                Files.copy(tempDir.resolve(file), crashed.resolve(file));
+            }
+        }
+        Files.copy(redoLog, crashed.resolve("seats.redo"));
+        return crashed;
+    }
+
+    /**
+     * Opens the database and redo log left by {@link #crash()} in place of the running ones.
+     */
+    private void restart(Path crashed) throws Exception {
+        DatabaseManager.setSeatLedger(null);
+        DatabaseManager.setURL("jdbc:sqlite:" + crashed.resolve("ledger.db"));
+        DatabaseManager.setSeatLedger(new SeatLedger(crashed.resolve("seats.redo"), 0, SeatLedger.DEFAULT_MAX_LOG_BYTES));
+    }
+
+    @Test
+    void testUnflushedClaimsAreRecoveredFromTheRedoLog() throws Exception {
+        engine.registrations().reserveSeat("SE00001", "CS101");
+        engine.registrations().reserveSeat("SE00002", "MA101");
+        engine.registrations().releaseSeat("SE00002", "MA101");
+        assertTrue(Files.size(redoLog) > 0);
+
+        Path crashed = crash();
+        assertEquals(2, storedSpacesLeft("CS101"));
+        restart(crashed);
+
+        assertEquals(1, storedSpacesLeft("CS101"));
+        assertEquals(1, storedSpacesLeft("MA101"));
+        assertEquals(0, Files.size(crashed.resolve("seats.redo")));
+        assertEquals(ReservationResult.REGISTERED, engine.registrations().reserveSeat("SE00003", "CS101"));
+        assertEquals(ReservationResult.FULL, engine.registrations().reserveSeat("SE00002", "CS101"));
+    }
+
+    @Test
+    void testRecordCutShortMidNumberIsSkipped() throws Exception {
+        engine.registrations().reserveSeat("SE00001", "CS101");
+        Path crashed = crash();
+        // A capacity change of CS101 by 30, cut short after its first digit
+        Files.writeString(crashed.resolve("seats.redo"), "99 CS101 3", StandardOpenOption.APPEND);
+
+        restart(crashed);
+
+        assertEquals(1, storedSpacesLeft("CS101"));
+        assertEquals(1, engine.courses().findCourse("CS101").getSpacesLeft());
+    }
+
+    @Test
+    void testChangesLoggedBeforeACommitThatNeverHappenedAreNotApplied() throws Exception {
+        engine.registrations().reserveSeat("SE00001", "CS101");
+        SeatLedger ledger = DatabaseManager.getSeatLedger();
+        Path crashed;
+        try (Connection conn = DatabaseManager.connect()) {
+            SeatLedger.SeatChanges seats = ledger.begin();
+            assertTrue(seats.tryClaim(conn, "MA101"));
+            conn.setAutoCommit(false);
+            try (PreparedStatement register = conn.prepareStatement("INSERT INTO registrations (studentID, courseCode) VALUES (?, ?)");
+                 PreparedStatement deregister = conn.prepareStatement("DELETE FROM registrations WHERE studentID = ? AND courseCode = ?")) {
+                register.setString(1, "SE00002");
+                register.setString(2, "MA101");
+                register.executeUpdate();
+                seats.claimed("SE00002", "MA101");
+                deregister.setString(1, "SE00001");
+                deregister.setString(2, "CS101");
+                deregister.executeUpdate();
+                seats.released(conn, "SE00001", "CS101");
+                assertEquals(0, DatabaseManager.getCourseByCourseCode("MA101").getSpacesLeft());
+                assertEquals(2, DatabaseManager.getCourseByCourseCode("CS101").getSpacesLeft());
+
+                // Both changes are in the redo log, but the process stops before the transaction commits
+                crashed = crash();
+            } finally {
+                seats.rollback(conn);
+                conn.setAutoCommit(true);
+            }
+        }
+        assertEquals(1, DatabaseManager.getCourseByCourseCode("MA101").getSpacesLeft());
+        assertEquals(1, DatabaseManager.getCourseByCourseCode("CS101").getSpacesLeft());
+
+        restart(crashed);
+
+        assertEquals(1, storedSpacesLeft("MA101"));
+        assertEquals(1, storedSpacesLeft("CS101"));
+        assertEquals(ReservationResult.REGISTERED, engine.registrations().reserveSeat("SE00002", "MA101"));
+        assertEquals(ReservationResult.FULL, engine.registrations().reserveSeat("SE00003", "MA101"));
+    }
+
+    @Test
+    void testReleasedSeatIsVisibleToAConcurrentWaitlistJoin() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 40; i++) {
+                String courseCode = String.format("RJ%03d", i);
+                String registered = String.format("SE1%04d", i * 2);
+                String waiting = String.format("SE1%04d", i * 2 + 1);
+                engine.courses().addCourse(new Course(courseCode, "Race " + i, "Release and join", 1,
+                        new Schedule(List.of("Friday"), "10:00", "11:00")));
+                engine.students().saveStudent(new Student(registered, "Test", "Student"));
+                engine.students().saveStudent(new Student(waiting, "Test", "Student"));
+                assertEquals(ReservationResult.REGISTERED, engine.registrations().reserveSeat(registered, courseCode));
+
+                Future<Boolean> release = executor.submit(() -> engine.registrations().releaseSeat(registered, courseCode));
+                Future<Integer> join = executor.submit(() -> engine.registrations().joinWaitlist(waiting, courseCode));
+                assertTrue(release.get());
+                join.get();
+
+                // Either the student joined first and was promoted, or they found the seat free
+                boolean promoted = engine.registrations().getRegisteredCourses(waiting).stream()
+                        .anyMatch(course -> course.getCourseCode().equals(courseCode));
+                int spacesLeft = engine.courses().findCourse(courseCode).getSpacesLeft();
+                assertEquals(0, engine.registrations().getWaitlistPosition(waiting, courseCode), courseCode);
+                assertEquals(promoted ? 0 : 1, spacesLeft, courseCode);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
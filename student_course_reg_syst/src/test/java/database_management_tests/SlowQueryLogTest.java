@@ -0,0 +1,164 @@
+package database_management_tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import registration.system.database_management.ConnectionPool;
+import registration.system.database_management.DataLayerMetrics;
+import registration.system.database_management.SlowQuery;
+import registration.system.database_management.SlowQueryLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowQueryLogTest {
+    private static final String URL = "jdbc:sqlite:test.db";
+    private static final String QUERY = "SELECT value FROM json_each(?) WHERE value > ?";
+
+    @TempDir
+    Path directory;
+    private ConnectionPool pool;
+    private DataLayerMetrics metrics;
+    private SlowQueryLog log;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ConnectionPool(URL, 2, 1_000, 30_000, 0);
+        metrics = new DataLayerMetrics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (log != null) {
+            log.close();
+        }
+        pool.close();
+    }
+
+    /**
+     * Runs one query with two bind values, reading the three rows it returns.
+     */
+    private void runQuery() throws SQLException {
+        try (Connection conn = metrics.connect(pool);
+             PreparedStatement statement = conn.prepareStatement(QUERY)) {
+            statement.setString(1, "[1, 2, 3, 4, 5]");
+            statement.setInt(2, 2);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    rs.getInt(1);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSlowQueryIsLoggedWithParametersRowsAndPlan() throws SQLException, IOException {
+        Path file = directory.resolve("slow.log");
+        log = new SlowQueryLog(0, file);
+        metrics.setSlowQueryLog(log);
+
+        runQuery();
+        assertTrue(log.flush(5_000));
+
+        List<SlowQuery> recent = log.recent();
+        assertEquals(1, recent.size());
+        SlowQuery query = recent.get(0);
+        assertEquals("SlowQueryLogTest.runQuery", query.operation());
+        assertEquals(QUERY, query.sql());
+        assertEquals(List.of("'[1, 2, 3, 4, 5]'", "2"), query.parameters());
+        assertEquals(3, query.rows());
+        assertFalse(query.failed());
+        assertTrue(query.plan().stream().anyMatch(step -> step.contains("SCAN")), query.plan().toString());
+
+        String written = Files.readString(file);
+        assertTrue(written.contains("SlowQueryLogTest.runQuery"));
+        assertTrue(written.contains("Parameters: '[1, 2, 3, 4, 5]', 2"));
+        assertTrue(written.contains("Plan:"));
+    }
+
+    @Test
+    void testPlanIsExplainedOnAPooledConnectionOncePerStatement() throws SQLException {
+        log = new SlowQueryLog(0, null);
+        metrics.setSlowQueryLog(log);
+
+        runQuery();
+        assertTrue(log.flush(5_000));
+        long checkouts = pool.getMetrics().checkouts();
+        assertEquals(2, checkouts, "the run and the explain each check out a connection");
+        for (int i = 0; i < 3; i++) {
+            runQuery();
+        }
+        assertTrue(log.flush(5_000));
+
+        // Each run checks out one connection; the repeated statement's plan comes from the cache
+        assertEquals(checkouts + 3, pool.getMetrics().checkouts());
+        List<SlowQuery> recent = log.recent();
+        assertEquals(4, recent.size());
+        assertSame(recent.get(0).plan(), recent.get(3).plan());
+    }
+
+    @Test
+    void testUpdateCountIsLoggedAsRows() throws SQLException {
+        log = new SlowQueryLog(0, null);
+        metrics.setSlowQueryLog(log);
+
+        try (Connection conn = metrics.connect(pool)) {
+            conn.prepareStatement("CREATE TEMP TABLE slow_rows (n INTEGER)").executeUpdate();
+            try (PreparedStatement insert = conn.prepareStatement("INSERT INTO slow_rows VALUES (1), (2)")) {
+                insert.executeUpdate();
+            }
+            conn.prepareStatement("DROP TABLE temp.slow_rows").executeUpdate();
+        }
+        assertTrue(log.flush(5_000));
+
+        assertTrue(log.recent().stream().anyMatch(query -> query.sql().startsWith("INSERT") && query.rows() == 2));
+    }
+
+    @Test
+    void testFastQueryIsNotLogged() throws SQLException {
+        log = new SlowQueryLog(60_000, null);
+        metrics.setSlowQueryLog(log);
+
+        runQuery();
+        assertTrue(log.flush(5_000));
+
+        assertTrue(log.recent().isEmpty());
+    }
+
+    @Test
+    void testRingKeepsTheMostRecentQueries() throws SQLException {
+        log = new SlowQueryLog(0, 2, null, SlowQueryLog.DEFAULT_MAX_FILE_BYTES, 0);
+        metrics.setSlowQueryLog(log);
+
+        for (int i = 0; i < 5; i++) {
+            runQuery();
+        }
+        assertTrue(log.flush(5_000));
+
+        assertEquals(2, log.recent().size());
+    }
+
+    @Test
+    void testLogFileIsRolledOver() throws SQLException {
+        Path file = directory.resolve("slow.log");
+        log = new SlowQueryLog(0, 100, file, 300, 2);
+        metrics.setSlowQueryLog(log);
+
+        for (int i = 0; i < 10; i++) {
+            runQuery();
+        }
+        assertTrue(log.flush(5_000));
+
+        assertTrue(Files.exists(file));
+        assertTrue(Files.exists(directory.resolve("slow.log.1")));
+        assertTrue(Files.exists(directory.resolve("slow.log.2")));
+        assertFalse(Files.exists(directory.resolve("slow.log.3")));
+    }
+}
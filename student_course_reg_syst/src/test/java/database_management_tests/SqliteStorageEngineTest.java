@@ -0,0 +1,36 @@
+package database_management_tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.storage.SqliteStorageEngine;
+import registration.system.database_management.storage.StorageEngine;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+
+public class SqliteStorageEngineTest extends StorageEngineContract {
+    @TempDir
+    Path tempDir;
+
+    private String previousUrl;
+    private String previousSchemaPath;
+
+    @Override
+    protected StorageEngine createEngine() throws Exception {
+        previousUrl = DatabaseManager.URL;
+        previousSchemaPath = DatabaseManager.SCHEMA_PATH;
+        DatabaseManager.setURL("jdbc:sqlite:" + tempDir.resolve("storage.db"));
+        DatabaseManager.setSchemaPath("src/test/resources/database.sql");
+        try (Connection conn = DatabaseManager.connect()) {
+            DatabaseManager.createTables(conn);
+        }
+        return new SqliteStorageEngine();
+    }
+
+    @AfterEach
+    void restoreDatabase() {
+        DatabaseManager.setSchemaPath(previousSchemaPath);
+        DatabaseManager.setURL(previousUrl);
+    }
+}
@@ -0,0 +1,60 @@
+package database_management_tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import registration.system.RegistrationApp;
+import registration.system.database_management.DatabaseManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares initializing a new database, which runs the schema and imports the whole catalogue,
+ * with initializing it again on later launches, when the recorded hashes show nothing changed.
+ * Run with {@code mvn test -Pbenchmarks}.
+ */
+@Tag("benchmark")
+public class StartupBenchmark {
+    private static final int LAUNCHES = 50;
+
+    @TempDir
+    Path tempDir;
+
+    private String previousUrl;
+    private String previousSchemaPath;
+
+    @BeforeEach
+    void setUp() {
+        previousUrl = DatabaseManager.URL;
+        previousSchemaPath = DatabaseManager.SCHEMA_PATH;
+        DatabaseManager.setURL("jdbc:sqlite:" + tempDir.resolve("startup.db"));
+        DatabaseManager.setSchemaPath(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.setSchemaPath(previousSchemaPath);
+        DatabaseManager.setURL(previousUrl);
+    }
+
+    @Test
+    void measureInitializeDatabase() throws SQLException, IOException {
+        long start = System.nanoTime();
+        RegistrationApp.initializeDatabase();
+        double coldMillis = (System.nanoTime() - start) / 1e6;
+
+        start = System.nanoTime();
+        for (int i = 0; i < LAUNCHES; i++) {
+            RegistrationApp.initializeDatabase();
+        }
+        double warmMillis = (System.nanoTime() - start) / 1e6 / LAUNCHES;
+
+        System.out.printf("%20s %12s%n", "initializeDatabase", "ms");
+        System.out.printf("%20s %12.3f%n", "new database", coldMillis);
+        System.out.printf("%20s %12.3f%n", "unchanged", warmMillis);
+        assertTrue(warmMillis < coldMillis);
+    }
+}
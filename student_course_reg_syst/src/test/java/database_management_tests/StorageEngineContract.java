@@ -0,0 +1,189 @@
+package database_management_tests;
+
+import org.junit.jupiter.api.*;
+import registration.system.course_management.BatchMode;
+import registration.system.course_management.BatchReservation;
+import registration.system.course_management.Course;
+import registration.system.course_management.CoursePage;
+import registration.system.course_management.ReservationResult;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.course_management.schedule.WeeklyTimetable;
+import registration.system.database_management.storage.StorageEngine;
+import registration.system.student_management.Student;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The behaviour every storage engine shares. Each engine's test extends this class and supplies an empty engine.
+ */
+public abstract class StorageEngineContract {
+    protected StorageEngine engine;
+
+    /**
+     * Returns an empty engine for one test.
+     */
+    protected abstract StorageEngine createEngine() throws Exception;
+
+    @BeforeEach
+    void setUpEngine() throws Exception {
+        engine = createEngine();
+        addCourse("CS101", "Introduction to Programming", "Variables, loops and functions", 2, "Monday", "10:00", "12:00");
+        addCourse("CS102", "Data Structures", "Lists, trees and graphs", 1, "Monday", "11:00", "13:00");
+        addCourse("MA101", "Calculus", "Limits and derivatives", 1, "Tuesday", "09:00", "10:00");
+        addCourse("PH101", "Physics", "Mechanics", 0, "Wednesday", "09:00", "10:00");
+        for (String studentId : List.of("SE00001", "SE00002", "SE00003")) {
+            engine.students().saveStudent(new Student(studentId, "Test", "Student"));
+        }
+    }
+
+    @AfterEach
+    void tearDownEngine() {
+        engine.close();
+    }
+
+    private void addCourse(String code, String title, String description, int spaces, String day, String start, String end)
+            throws SQLException {
+        engine.courses().addCourse(new Course(code, title, description, spaces, new Schedule(List.of(day), start, end)));
+    }
+
+    @Test
+    void testFindCourse() throws SQLException {
+        Course course = engine.courses().findCourse("CS101");
+
+        assertEquals("Introduction to Programming", course.getTitle());
+        assertEquals(2, course.getSpacesLeft());
+        assertEquals("Monday", course.getSchedule().days().get(0));
+        assertNull(engine.courses().findCourse("XX999"));
+    }
+
+    @Test
+    void testAddingACourseTwiceFails() {
+        assertThrows(SQLException.class, () -> addCourse("CS101", "Again", "Again", 1, "Friday", "10:00", "11:00"));
+    }
+
+    @Test
+    void testAvailableCoursesArePagedByCode() throws SQLException {
+        assertEquals(List.of("CS101", "CS102", "MA101"),
+                engine.courses().getAvailableCourses().stream().map(Course::getCourseCode).toList());
+
+        CoursePage first = engine.courses().getAvailableCoursesPage(null, 2);
+        assertEquals(List.of("CS101", "CS102"), first.courses().stream().map(Course::getCourseCode).toList());
+        assertTrue(first.hasMore());
+        CoursePage second = engine.courses().getAvailableCoursesPage(first.nextAfter(), 2);
+        assertEquals(List.of("MA101"), second.courses().stream().map(Course::getCourseCode).toList());
+        assertFalse(second.hasMore());
+        assertEquals(4, engine.courses().forEachCourse(course -> { }));
+    }
+
+    @Test
+    void testReserveSeat() throws SQLException {
+        assertEquals(ReservationResult.REGISTERED, engine.registrations().reserveSeat("SE00001", "CS101"));
+        assertEquals(ReservationResult.DUPLICATE, engine.registrations().reserveSeat("SE00001", "CS101"));
+        assertEquals(ReservationResult.CONFLICT, engine.registrations().reserveSeat("SE00001", "CS102"));
+        assertEquals(ReservationResult.FULL, engine.registrations().reserveSeat("SE00001", "PH101"));
+        assertEquals(ReservationResult.NOT_FOUND, engine.registrations().reserveSeat("SE00001", "XX999"));
+
+        assertEquals(1, engine.courses().findCourse("CS101").getSpacesLeft());
+        assertEquals(List.of("CS101"),
+                engine.registrations().getRegisteredCourses("SE00001").stream().map(Course::getCourseCode).toList());
+    }
+
+    @Test
+    void testAllOrNothingBatchIsAbortedByOneFailure() throws SQLException {
+        BatchReservation batch = engine.registrations().reserveSeats("SE00001", List.of("CS101", "MA101", "PH101"),
+                BatchMode.ALL_OR_NOTHING);
+
+        assertFalse(batch.committed());
+        assertEquals(ReservationResult.BATCH_ABORTED, batch.results().get("CS101"));
+        assertEquals(ReservationResult.FULL, batch.results().get("PH101"));
+        assertTrue(engine.registrations().getRegisteredCourses("SE00001").isEmpty());
+        assertEquals(2, engine.courses().findCourse("CS101").getSpacesLeft());
+    }
+
+    @Test
+    void testPartialBatchKeepsWhatSucceeds() throws SQLException {
+        BatchReservation batch = engine.registrations().reserveSeats("SE00001", List.of("CS101", "CS102", "MA101"),
+                BatchMode.PARTIAL);
+
+        assertTrue(batch.committed());
+        assertEquals(ReservationResult.REGISTERED, batch.results().get("CS101"));
+        assertEquals(ReservationResult.CONFLICT, batch.results().get("CS102"));
+        assertEquals(ReservationResult.REGISTERED, batch.results().get("MA101"));
+        assertEquals(2, engine.registrations().getRegisteredCourses("SE00001").size());
+    }
+
+    @Test
+    void testBatchCarriesTheRequestedTitles() throws SQLException {
+        BatchReservation batch = engine.registrations().reserveSeats("SE00001", List.of("CS101", "XX999"),
+                BatchMode.PARTIAL);
+
+        assertEquals("Introduction to Programming", batch.title("CS101"));
+        assertEquals(ReservationResult.NOT_FOUND, batch.results().get("XX999"));
+        assertEquals("XX999", batch.title("XX999"));
+    }
+
+    @Test
+    void testReleasedSeatGoesToTheWaitlist() throws SQLException {
+        assertEquals(ReservationResult.REGISTERED, engine.registrations().reserveSeat("SE00001", "MA101"));
+        assertEquals(0, engine.registrations().joinWaitlist("SE00001", "MA101"));
+        assertEquals(0, engine.registrations().joinWaitlist("SE00002", "CS101"));
+        assertEquals(1, engine.registrations().joinWaitlist("SE00002", "MA101"));
+        assertEquals(2, engine.registrations().joinWaitlist("SE00003", "MA101"));
+        assertEquals(1, engine.registrations().joinWaitlist("SE00002", "MA101"));
+
+        assertTrue(engine.registrations().releaseSeat("SE00001", "MA101"));
+        assertFalse(engine.registrations().releaseSeat("SE00001", "MA101"));
+
+        assertEquals(List.of("MA101"),
+                engine.registrations().getRegisteredCourses("SE00002").stream().map(Course::getCourseCode).toList());
+        assertEquals(0, engine.courses().findCourse("MA101").getSpacesLeft());
+        assertEquals(1, engine.registrations().getWaitlistPosition("SE00003", "MA101"));
+        assertTrue(engine.registrations().leaveWaitlist("SE00003", "MA101"));
+        assertFalse(engine.registrations().leaveWaitlist("SE00003", "MA101"));
+        assertEquals(0, engine.registrations().getWaitlistPosition("SE00003", "MA101"));
+    }
+
+    @Test
+    void testReleasedSeatWithoutAWaitlistIsFreed() throws SQLException {
+        engine.registrations().reserveSeat("SE00001", "CS102");
+
+        assertTrue(engine.registrations().releaseSeat("SE00001", "CS102"));
+
+        assertEquals(1, engine.courses().findCourse("CS102").getSpacesLeft());
+    }
+
+    @Test
+    void testWeeklyTimetable() throws SQLException {
+        engine.registrations().reserveSeats("SE00001", List.of("MA101", "CS101"), BatchMode.PARTIAL);
+
+        WeeklyTimetable timetable = engine.registrations().getWeeklyTimetable("SE00001");
+
+        assertEquals(List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY), List.copyOf(timetable.days().keySet()));
+        assertEquals("CS101", timetable.entries(DayOfWeek.MONDAY).get(0).courseCode());
+        assertEquals("MA101", timetable.entries(DayOfWeek.TUESDAY).get(0).courseCode());
+        assertTrue(engine.registrations().getWeeklyTimetable("SE00002").isEmpty());
+    }
+
+    @Test
+    void testSearchCourses() throws SQLException {
+        assertEquals("CS102", engine.courses().searchCourses("struct", 10).get(0).getCourseCode());
+        assertEquals("MA101", engine.courses().searchCourses("calculsu", 10).get(0).getCourseCode());
+        assertTrue(engine.courses().searchCourses("chemistry", 10).isEmpty());
+        assertTrue(engine.courses().searchCourses("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testStudents() throws SQLException {
+        assertEquals("Test", engine.students().getStudentById("SE00001").name());
+        assertNull(engine.students().getStudentById("SE99999"));
+        assertThrows(SQLException.class, () -> engine.students().saveStudent(new Student("SE00001", "Other", "Student")));
+
+        String studentId = engine.students().nextStudentId();
+        assertTrue(studentId.matches("SE\\d{5}"), studentId);
+        assertNotEquals(studentId, engine.students().nextStudentId());
+    }
+}
@@ -0,0 +1,120 @@
+package database_management_tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import registration.system.course_management.Course;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.StorageProfile;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures read and write throughput of each storage profile with concurrent clients.
+ * Readers list available courses while writers register and deregister students.
+ * Run with {@code mvn test -Pbenchmarks}; tune with {@code -Dbenchmark.clients=N} and {@code -Dbenchmark.seconds=N}.
+ */
+@Tag("benchmark")
+public class StorageProfileBenchmark {
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 8);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 3);
+    private static final int COURSES = 200;
+
+    @TempDir
+    Path tempDir;
+
+    private String previousUrl;
+    private StorageProfile previousProfile;
+
+    @BeforeEach
+    void setUp() {
+        previousUrl = DatabaseManager.URL;
+        previousProfile = DatabaseManager.STORAGE_PROFILE;
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.setStorageProfile(previousProfile);
+        DatabaseManager.setURL(previousUrl);
+    }
+
+    private void useFreshDatabase(StorageProfile profile) throws SQLException, IOException {
+        DatabaseManager.setStorageProfile(profile);
+        DatabaseManager.setURL("jdbc:sqlite:" + tempDir.resolve(profile.name() + ".db"));
+        try (Connection conn = DatabaseManager.connect();
+             BufferedReader schema = new BufferedReader(new FileReader("src/main/resources/database.sql"))) {
+            DatabaseManager.processSqlStatements(conn, schema);
+        }
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            Schedule schedule = new Schedule(List.of("Monday"), "10:00 AM", "12:00 PM");
+            courses.add(new Course(String.format("BM%04d", i), "Course " + i, "Generated course " + i, 1_000_000, schedule));
+        }
+        DatabaseManager.upsertCourses(courses.iterator(), 500);
+    }
+
+    private String run(StorageProfile profile) throws Exception {
+        useFreshDatabase(profile);
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        LongAdder failures = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int client = 0; client < CLIENTS; client++) {
+                boolean writer = client % 2 == 0;
+                String studentId = String.format("SE%05d", client);
+                clients.add(executor.submit(() -> {
+                    int i = 0;
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            if (writer) {
+                                String courseCode = String.format("BM%04d", i++ % COURSES);
+                                DatabaseManager.reserveSeat(studentId, courseCode);
+                                DatabaseManager.releaseSeat(studentId, courseCode);
+                                writes.add(2);
+                            } else {
+                                DatabaseManager.getAvailableCourses();
+                                reads.increment();
+                            }
+                        } catch (SQLException e) {
+                            failures.increment();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> client : clients) {
+                client.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return String.format("%-17s reads/s: %8.0f  writes/s: %8.0f  failures: %d",
+                profile.name(), reads.sum() / (double) SECONDS, writes.sum() / (double) SECONDS, failures.sum());
+    }
+
+    @Test
+    void compareStorageProfiles() throws Exception {
+        System.out.println("Storage profiles with " + CLIENTS + " concurrent clients (half readers, half writers):");
+        for (StorageProfile profile : StorageProfile.PRESETS) {
+            String result = run(profile);
+            System.out.println(result);
+            assertFalse(result.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package database_management_tests;
+
+import org.junit.jupiter.api.*;
+import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.StudentIdAllocator;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StudentIdAllocatorTest {
+    @BeforeAll
+    static void setup() throws SQLException, IOException {
+        DatabaseManager.setURL("jdbc:sqlite:test.db");
+        DatabaseManager.setSchemaPath("src/test/resources/database.sql");
+        try (Connection conn = DatabaseManager.connect()) {
+            DatabaseManager.createTables(conn);
+        }
+    }
+
+    private static long nextSequenceValue() throws SQLException {
+        try (Connection conn = DatabaseManager.connect();
+             PreparedStatement stmt = conn.prepareStatement("SELECT nextValue FROM id_sequence WHERE name = ?")) {
+            stmt.setString(1, StudentIdAllocator.SEQUENCE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getLong("nextValue");
+            }
+        }
+    }
+
+    @Test
+    void testIdsAreSequentialWithinABlock() throws SQLException {
+        StudentIdAllocator allocator = new StudentIdAllocator("SE", 5, 10);
+
+        String first = allocator.nextId();
+        String second = allocator.nextId();
+
+        assertTrue(first.matches("SE\\d{5,}"));
+        assertEquals(Long.parseLong(first.substring(2)) + 1, Long.parseLong(second.substring(2)));
+    }
+
+    @Test
+    void testOneReservationPerBlock() throws SQLException {
+        StudentIdAllocator allocator = new StudentIdAllocator("SE", 5, 10);
+
+        allocator.nextId();
+        long afterFirstBlock = nextSequenceValue();
+        for (int i = 1; i < 10; i++) {
+            allocator.nextId();
+        }
+        assertEquals(afterFirstBlock, nextSequenceValue());
+
+        allocator.nextId();
+        assertEquals(afterFirstBlock + 10, nextSequenceValue());
+    }
+
+    @Test
+    void testConcurrentAllocatorsNeverHandOutTheSameId() throws Exception {
+        List<StudentIdAllocator> allocators = List.of(
+                new StudentIdAllocator("SE", 5, 7), new StudentIdAllocator("SE", 5, 13));
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        int threads = 8;
+        int idsPerThread = 250;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                StudentIdAllocator allocator = allocators.get(i % allocators.size());
+                futures[i] = executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < idsPerThread; j++) {
+                        if (!ids.add(allocator.nextId())) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, duplicates.get());
+        assertEquals(threads * idsPerThread, ids.size());
+    }
+
+    @Test
+    void testIdWidth() {
+        StudentIdAllocator allocator = new StudentIdAllocator("SE", 5, 10);
+        assertEquals("SE00042", allocator.format(42));
+        assertEquals("SE99999", allocator.format(99_999));
+        assertEquals("SE100000", allocator.format(100_000));
+
+        StudentIdAllocator wide = new StudentIdAllocator("SE", 7, 10);
+        assertEquals("SE0100000", wide.format(100_000));
+    }
+
+    @Test
+    void testMissingSequenceStartsAtOne() throws SQLException {
+        String sequence = "test_sequence_" + System.nanoTime();
+
+        assertEquals(1, DatabaseManager.reserveSequenceBlock(sequence, 5));
+        assertEquals(6, DatabaseManager.reserveSequenceBlock(sequence, 5));
+
+        try (Connection conn = DatabaseManager.connect();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM id_sequence WHERE name = ?")) {
+            stmt.setString(1, sequence);
+            stmt.executeUpdate();
+        }
+    }
+}
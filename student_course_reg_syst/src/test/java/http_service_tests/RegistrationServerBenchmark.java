@@ -0,0 +1,146 @@
+package http_service_tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import registration.system.course_management.Course;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.DatabaseManager;
+import registration.system.http_service.RegistrationServer;
+import registration.system.student_management.Student;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for the HTTP service: concurrent students log in, list courses, register, check their
+ * schedule and deregister, and the latency of each endpoint is reported as p50/p99.
+ * Run with {@code mvn test -Pbenchmarks}; tune with {@code -Dbenchmark.clients=N} and {@code -Dbenchmark.seconds=N}.
+ */
+@Tag("benchmark")
+public class RegistrationServerBenchmark {
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 200);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 5);
+    private static final int COURSES = 200;
+    private static final String[] OPERATIONS = {"login", "available", "register", "courses", "schedule", "deregister"};
+
+    @TempDir
+    Path tempDir;
+
+    private String previousUrl;
+    private RegistrationServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        previousUrl = DatabaseManager.URL;
+        DatabaseManager.setURL("jdbc:sqlite:" + tempDir.resolve("http.db"));
+        try (Connection conn = DatabaseManager.connect();
+             BufferedReader schema = new BufferedReader(new FileReader("src/main/resources/database.sql"))) {
+            DatabaseManager.processSqlStatements(conn, schema);
+        }
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            Schedule schedule = new Schedule(List.of("Monday"), "10:00 AM", "12:00 PM");
+            courses.add(new Course(String.format("BM%04d", i), "Course " + i, "Generated course " + i, 1_000_000, schedule));
+        }
+        DatabaseManager.upsertCourses(courses.iterator(), 500);
+        for (int client = 0; client < CLIENTS; client++) {
+            DatabaseManager.saveStudent(new Student(String.format("LT%05d", client), "Load", "Test"));
+        }
+
+        server = new RegistrationServer(0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        DatabaseManager.setURL(previousUrl);
+    }
+
+    private static long percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)];
+    }
+
+    @Test
+    void measureEndpointLatency() throws Exception {
+        String base = "http://localhost:" + server.getPort();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Map<String, ConcurrentLinkedQueue<Long>> latencies = new LinkedHashMap<>();
+        for (String operation : OPERATIONS) {
+            latencies.put(operation, new ConcurrentLinkedQueue<>());
+        }
+        LongAdder failures = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                String studentId = String.format("LT%05d", c);
+                int first = c;
+                clients.add(executor.submit(() -> {
+                    int i = first;
+                    while (System.nanoTime() < deadline) {
+                        String courseCode = String.format("BM%04d", i++ % COURSES);
+                        String student = base + "/students/" + studentId;
+                        HttpRequest[] requests = {
+                                HttpRequest.newBuilder(URI.create(base + "/login"))
+                                        .POST(HttpRequest.BodyPublishers.ofString("{\"studentId\": \"" + studentId + "\"}")).build(),
+                                HttpRequest.newBuilder(URI.create(base + "/courses/available")).GET().build(),
+                                HttpRequest.newBuilder(URI.create(student + "/registrations"))
+                                        .POST(HttpRequest.BodyPublishers.ofString("{\"courseCode\": \"" + courseCode + "\"}")).build(),
+                                HttpRequest.newBuilder(URI.create(student + "/courses")).GET().build(),
+                                HttpRequest.newBuilder(URI.create(student + "/schedule")).GET().build(),
+                                HttpRequest.newBuilder(URI.create(student + "/registrations/" + courseCode)).DELETE().build()
+                        };
+                        for (int op = 0; op < requests.length; op++) {
+                            long start = System.nanoTime();
+                            HttpResponse<Void> response = client.send(requests[op], HttpResponse.BodyHandlers.discarding());
+                            latencies.get(OPERATIONS[op]).add(System.nanoTime() - start);
+                            if (response.statusCode() >= 300) {
+                                failures.increment();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : clients) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.println("HTTP endpoint latency with " + CLIENTS + " concurrent students over " + SECONDS + " s:");
+        long total = 0;
+        for (Map.Entry<String, ConcurrentLinkedQueue<Long>> entry : latencies.entrySet()) {
+            long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            total += sorted.length;
+            System.out.printf("%-11s requests: %7d  p50: %8.2f ms  p99: %8.2f ms%n", entry.getKey(), sorted.length,
+                    percentile(sorted, 50) / 1_000_000.0, percentile(sorted, 99) / 1_000_000.0);
+        }
+        System.out.printf("total       requests/s: %8.0f  failures: %d%n", total / (double) SECONDS, failures.sum());
+        assertEquals(0, failures.sum());
+    }
+}
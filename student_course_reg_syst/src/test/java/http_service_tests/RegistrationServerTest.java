@@ -0,0 +1,179 @@
+package http_service_tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import registration.system.course_management.Course;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.DatabaseManager;
+import registration.system.http_service.RegistrationServer;
+import registration.system.student_management.Student;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegistrationServerTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private RegistrationServer server;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        DatabaseManager.setURL("jdbc:sqlite:test.db");
+        DatabaseManager.setSchemaPath("src/test/resources/database.sql");
+        try (Connection conn = DatabaseManager.connect()) {
+            DatabaseManager.createTables(conn);
+            DatabaseManager.insertSampleData(conn);
+        }
+        DatabaseManager.saveStudent(new Student("S001", "John", "Doe"));
+
+        server = new RegistrationServer(0, 4);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        server.stop(0);
+        try (Connection conn = DatabaseManager.connect()) {
+            conn.createStatement().execute("DELETE FROM courses");
+            conn.createStatement().execute("DELETE FROM course_code");
+            conn.createStatement().execute("DELETE FROM students");
+            conn.createStatement().execute("DELETE FROM registrations");
+            conn.createStatement().execute("DELETE FROM schedule");
+            conn.createStatement().execute("DELETE FROM waitlist");
+            conn.createStatement().execute("DELETE FROM waitlist_queue");
+        }
+        DatabaseManager.getCourseCache().invalidateAll();
+        DatabaseManager.getTimetableCache().invalidateAll();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, publisher)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testLogin() throws Exception {
+        HttpResponse<String> response = send("POST", "/login", "{\"studentId\": \"s001\"}");
+        assertEquals(200, response.statusCode());
+        assertEquals("John", MAPPER.readTree(response.body()).get("name").asText());
+
+        assertEquals(404, send("POST", "/login", "{\"studentId\": \"SE99999\"}").statusCode());
+        assertEquals(400, send("POST", "/login", "not json").statusCode());
+    }
+
+    @Test
+    void testCreateStudent() throws Exception {
+        HttpResponse<String> response = send("POST", "/students", "{\"name\": \"Jane\", \"surname\": \"Doe\"}");
+        assertEquals(201, response.statusCode());
+
+        String studentId = MAPPER.readTree(response.body()).get("studentId").asText();
+        assertNotNull(DatabaseManager.getStudentById(studentId));
+        assertEquals(400, send("POST", "/students", "{\"name\": \"Jane\"}").statusCode());
+    }
+
+    @Test
+    void testAvailableCourses() throws Exception {
+        HttpResponse<String> response = send("GET", "/courses/available", null);
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+
+        JsonNode page = MAPPER.readTree(response.body());
+        assertEquals(1, page.get("courses").size());
+        assertEquals("CS101", page.get("courses").get(0).get("courseCode").asText());
+        assertTrue(page.get("nextAfter").isNull());
+    }
+
+    @Test
+    void testAvailableCoursesPage() throws Exception {
+        DatabaseManager.insertCourse(new Course("CS102", "Data Structures", "Trees", 10));
+        DatabaseManager.insertSchedule("CS102", new Schedule(List.of("Friday"), "09:00", "10:00"));
+
+        JsonNode first = MAPPER.readTree(send("GET", "/courses/available?limit=1", null).body());
+        assertEquals(1, first.get("courses").size());
+        assertEquals("CS101", first.get("nextAfter").asText());
+
+        JsonNode last = MAPPER.readTree(send("GET", "/courses/available?limit=1&after=CS101", null).body());
+        assertEquals("CS102", last.get("courses").get(0).get("courseCode").asText());
+        assertTrue(last.get("nextAfter").isNull());
+        assertEquals(400, send("GET", "/courses/available?limit=many", null).statusCode());
+    }
+
+    @Test
+    void testSearchCourses() throws Exception {
+        HttpResponse<String> response = send("GET", "/courses/search?q=intro%20sci", null);
+        assertEquals(200, response.statusCode());
+        JsonNode courses = MAPPER.readTree(response.body());
+        assertEquals(1, courses.size());
+        assertEquals("CS101", courses.get(0).get("courseCode").asText());
+
+        assertEquals(0, MAPPER.readTree(send("GET", "/courses/search?q=chemistry", null).body()).size());
+        assertEquals(400, send("GET", "/courses/search", null).statusCode());
+        assertEquals(400, send("GET", "/courses/search?q=cs&limit=0", null).statusCode());
+    }
+
+    @Test
+    void testMetrics() throws Exception {
+        send("GET", "/courses/available", null);
+
+        HttpResponse<String> response = send("GET", "/metrics", null);
+        assertEquals(200, response.statusCode());
+        JsonNode operations = MAPPER.readTree(response.body());
+        assertTrue(operations.size() > 0);
+        assertTrue(operations.get(0).has("total"));
+        assertTrue(operations.get(0).get("total").has("p99Millis"));
+        assertEquals(200, send("GET", "/metrics/slow-queries", null).statusCode());
+    }
+
+    @Test
+    void testRegisterScheduleAndDeregister() throws Exception {
+        assertEquals(201, send("POST", "/students/S001/registrations", "{\"courseCode\": \"CS101\"}").statusCode());
+        HttpResponse<String> duplicate = send("POST", "/students/S001/registrations", "{\"courseCode\": \"CS101\"}");
+        assertEquals(409, duplicate.statusCode());
+        assertEquals("DUPLICATE", MAPPER.readTree(duplicate.body()).get("result").asText());
+        assertEquals(404, send("POST", "/students/S001/registrations", "{\"courseCode\": \"XX999\"}").statusCode());
+
+        JsonNode registered = MAPPER.readTree(send("GET", "/students/S001/courses", null).body());
+        assertEquals(1, registered.size());
+        JsonNode schedule = MAPPER.readTree(send("GET", "/students/S001/schedule", null).body());
+        assertEquals("10:00", schedule.get(0).get("schedule").get("startTime").asText());
+        JsonNode timetable = MAPPER.readTree(send("GET", "/students/S001/timetable", null).body());
+        assertEquals("CS101", timetable.get("days").get("MONDAY").get(0).get("courseCode").asText());
+
+        assertEquals(200, send("DELETE", "/students/S001/registrations/CS101", null).statusCode());
+        assertEquals(404, send("DELETE", "/students/S001/registrations/CS101", null).statusCode());
+        assertEquals(100, DatabaseManager.getCourseByCourseCode("CS101").getSpacesLeft());
+    }
+
+    @Test
+    void testWaitlist() throws Exception {
+        DatabaseManager.updateCapacity("CS101", 0);
+
+        HttpResponse<String> full = send("POST", "/students/S001/registrations", "{\"courseCode\": \"CS101\"}");
+        assertEquals(202, full.statusCode());
+        assertEquals(1, MAPPER.readTree(full.body()).get("waitlistPosition").asInt());
+        HttpResponse<String> position = send("GET", "/students/S001/waitlist/CS101", null);
+        assertEquals(1, MAPPER.readTree(position.body()).get("waitlistPosition").asInt());
+
+        assertEquals(200, send("DELETE", "/students/S001/waitlist/CS101", null).statusCode());
+        assertEquals(404, send("GET", "/students/S001/waitlist/CS101", null).statusCode());
+    }
+
+    @Test
+    void testUnknownStudentAndEndpoint() throws Exception {
+        assertEquals(404, send("GET", "/students/SE99999/courses", null).statusCode());
+        assertEquals(404, send("GET", "/nothing/here", null).statusCode());
+    }
+}
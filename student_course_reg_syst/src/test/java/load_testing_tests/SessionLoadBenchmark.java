@@ -0,0 +1,68 @@
+package load_testing_tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import registration.system.course_management.Course;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.SchemaMigrator;
+import registration.system.load_testing.LoadReport;
+import registration.system.load_testing.SessionLoadGenerator;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simulates concurrent students with a mixed workload and reports throughput and latency percentiles per operation.
+ * Run with {@code mvn test -Pbenchmarks}; tune with {@code -Dbenchmark.clients=N}, {@code -Dbenchmark.seconds=N}
+ * and {@code -Dbenchmark.thinkMillis=N}.
+ */
+@Tag("benchmark")
+public class SessionLoadBenchmark {
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 100);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 5);
+    private static final int THINK_MILLIS = Integer.getInteger("benchmark.thinkMillis", 10);
+    private static final int COURSES = 200;
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"};
+
+    @TempDir
+    Path tempDir;
+
+    private String previousUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        previousUrl = DatabaseManager.URL;
+        DatabaseManager.setURL("jdbc:sqlite:" + tempDir.resolve("sessions.db"));
+        try (Connection conn = DatabaseManager.connect();
+             BufferedReader schema = new BufferedReader(new FileReader("src/main/resources/database.sql"))) {
+            DatabaseManager.processSqlStatements(conn, schema);
+            SchemaMigrator.migrate(conn);
+        }
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            Schedule schedule = new Schedule(List.of(DAYS[i % DAYS.length]),
+                    String.format("%d:00", 8 + i / DAYS.length % 10), String.format("%d:00", 9 + i / DAYS.length % 10));
+            courses.add(new Course(String.format("BM%04d", i), "Course " + i, "Generated course " + i, 1_000_000, schedule));
+        }
+        DatabaseManager.upsertCourses(courses.iterator(), 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.setURL(previousUrl);
+    }
+
+    @Test
+    void simulateConcurrentStudents() throws Exception {
+        LoadReport report = new SessionLoadGenerator(CLIENTS, SECONDS * 1000L, THINK_MILLIS).run();
+        System.out.print("Mixed session workload, " + THINK_MILLIS + " ms think time: " + report);
+        assertTrue(report.operations().stream().allMatch(stats -> stats.errors() == 0));
+    }
+}
@@ -0,0 +1,81 @@
+package load_testing_tests;
+
+import org.junit.jupiter.api.*;
+import registration.system.database_management.DatabaseManager;
+import registration.system.load_testing.LoadReport;
+import registration.system.load_testing.Operation;
+import registration.system.load_testing.OperationStats;
+import registration.system.load_testing.SessionLoadGenerator;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionLoadGeneratorTest {
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        DatabaseManager.setURL("jdbc:sqlite:test.db");
+        DatabaseManager.setSchemaPath("src/test/resources/database.sql");
+        try (Connection conn = DatabaseManager.connect()) {
+            DatabaseManager.createTables(conn);
+            DatabaseManager.insertSampleData(conn);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection conn = DatabaseManager.connect()) {
+            conn.createStatement().execute("DELETE FROM courses");
+            conn.createStatement().execute("DELETE FROM course_code");
+            conn.createStatement().execute("DELETE FROM students");
+            conn.createStatement().execute("DELETE FROM registrations");
+            conn.createStatement().execute("DELETE FROM schedule");
+        }
+        DatabaseManager.getCourseCache().invalidateAll();
+        DatabaseManager.getTimetableCache().invalidateAll();
+    }
+
+    @Test
+    void testReportCoversEveryOperation() throws Exception {
+        LoadReport report = new SessionLoadGenerator(4, 300, 0).run();
+
+        assertEquals(4, report.students());
+        for (OperationStats stats : report.operations()) {
+            assertEquals(0, stats.errors());
+            assertTrue(stats.p50Millis() <= stats.p99Millis());
+            assertTrue(stats.p99Millis() <= stats.maxMillis());
+        }
+        OperationStats profiles = report.operations().stream()
+                .filter(stats -> stats.operation() == Operation.CREATE_PROFILE).findFirst().orElseThrow();
+        assertEquals(4, profiles.count());
+        assertTrue(report.totalThroughput() > 0);
+        assertTrue(report.toString().contains("REGISTER"));
+    }
+
+    @Test
+    void testSeatCountStaysConsistent() throws Exception {
+        SessionLoadGenerator generator = new SessionLoadGenerator(4, 300, 0);
+        generator.setWeight(Operation.BROWSE, 0);
+        generator.setWeight(Operation.SCHEDULE, 0);
+        generator.run();
+
+        try (Connection conn = DatabaseManager.connect(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT c.spacesLeft, " +
+                     "(SELECT COUNT(*) FROM registrations r WHERE r.courseCode = c.courseCode) AS registered " +
+                     "FROM courses c WHERE c.courseCode = 'CS101'")) {
+            assertTrue(rs.next());
+            assertEquals(100, rs.getInt("spacesLeft") + rs.getInt("registered"));
+        }
+    }
+
+    @Test
+    void testCreateProfileCannotBeWeighted() {
+        SessionLoadGenerator generator = new SessionLoadGenerator(1, 100, 0);
+        assertThrows(IllegalArgumentException.class, () -> generator.setWeight(Operation.CREATE_PROFILE, 1));
+        assertThrows(IllegalArgumentException.class, () -> generator.setWeight(Operation.BROWSE, -1));
+    }
+}
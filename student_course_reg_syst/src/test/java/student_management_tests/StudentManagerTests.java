@@ -2,12 +2,15 @@ package student_management_tests;
 
 import org.junit.jupiter.api.*;
 import registration.system.course_management.Course;
-import registration.system.database_management.DatabaseManager;
+import registration.system.course_management.CourseManager;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.storage.InMemoryStorageEngine;
+import registration.system.database_management.storage.SqliteStorageEngine;
+import registration.system.database_management.storage.Storage;
 import registration.system.student_management.Student;
 import registration.system.student_management.StudentManager;
 
 import java.io.*;
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.*;
 
@@ -21,14 +24,10 @@ public class StudentManagerTests {
     private String input;
 
     @BeforeEach
-    void setUp() throws IOException, SQLException {
-        DatabaseManager.setURL("jdbc:sqlite:test.db");
-        DatabaseManager.setSchemaPath("src/test/resources/database.sql");
-
-        try (Connection conn = DatabaseManager.connect()) {
-            DatabaseManager.createTables(conn);
-            DatabaseManager.insertSampleData(conn);
-        }
+    void setUp() throws SQLException {
+        Storage.setEngine(new InMemoryStorageEngine());
+        Storage.courses().addCourse(new Course("CS101", "Introduction to Computer Science", "Basics of CS", 100,
+                new Schedule(List.of("Monday"), "10:00", "12:00")));
 
         outputStream = new ByteArrayOutputStream();
         errOutput = new ByteArrayOutputStream();
@@ -37,14 +36,8 @@ public class StudentManagerTests {
     }
 
     @AfterEach
-    void tearDown() throws SQLException {
-        try (Connection conn = DatabaseManager.connect()) {
-            conn.createStatement().execute("DELETE FROM courses");
-            conn.createStatement().execute("DELETE FROM course_code");
-            conn.createStatement().execute("DELETE FROM students");
-            conn.createStatement().execute("DELETE FROM registrations");
-            conn.createStatement().execute("DELETE FROM schedule");
-        }
+    void tearDown() {
+        Storage.setEngine(new SqliteStorageEngine());
 
         System.setOut(System.out);
         System.setIn(System.in);
@@ -97,9 +90,9 @@ public class StudentManagerTests {
     @Test
     void testProcessReturningUserLogin() throws SQLException {
         Student student = new Student("SE00123", "John", "Doe");
-        DatabaseManager.saveStudent(student);
+        Storage.students().saveStudent(student);
 
-        input = "SE00123\n6";
+        input = "SE00123\n7";
         inputStream = new ByteArrayInputStream(input.getBytes());
         System.setIn(inputStream);
 
@@ -113,9 +106,9 @@ public class StudentManagerTests {
     @Test
     void testProcessReturningInvalidUserLogin() throws SQLException {
         Student student = new Student("SE00123", "John", "Doe");
-        DatabaseManager.saveStudent(student);
+        Storage.students().saveStudent(student);
 
-        input = "SE12345\nY\nSE00123\n6";
+        input = "SE12345\nY\nSE00123\n7";
         inputStream = new ByteArrayInputStream(input.getBytes());
         System.setIn(inputStream);
 
@@ -128,7 +121,7 @@ public class StudentManagerTests {
 
     @Test
     void testProcessNewUserLogin() throws SQLException {
-        input = "John\nDoe\n6";
+        input = "John\nDoe\n7";
         inputStream = new ByteArrayInputStream(input.getBytes());
         System.setIn(inputStream);
 
@@ -148,7 +141,7 @@ public class StudentManagerTests {
 
     @Test
     void testPromptForCourse() throws SQLException {
-        List<Course> courses = DatabaseManager.getAllCourses();
+        List<Course> courses = Storage.courses().getAvailableCourses();
 
         input = "CS101";
         inputStream = new ByteArrayInputStream(input.getBytes());
@@ -165,7 +158,7 @@ public class StudentManagerTests {
     @Test
     void testUserChoice() throws SQLException {
         Student student = new Student("S001", "John", "Doe");
-        DatabaseManager.saveStudent(student);
+        Storage.students().saveStudent(student);
 
         input = "1\nn";
         inputStream = new ByteArrayInputStream(input.getBytes());
@@ -178,6 +171,54 @@ public class StudentManagerTests {
         assertTrue(outputStream.toString().contains("Available courses:"));
     }
 
+    @Test
+    void testUserChoiceStopsBrowsingAfterAPage() throws SQLException {
+        Student student = new Student("S001", "John", "Doe");
+        Storage.students().saveStudent(student);
+        for (int i = 0; i < CourseManager.PAGE_SIZE; i++) {
+            String courseCode = String.format("MA%03d", i);
+            Storage.courses().addCourse(new Course(courseCode, "Maths " + i, "Paged", 10,
+                    new Schedule(List.of("Friday"), "09:00", "10:00")));
+        }
+
+        input = "n\nn";
+        inputStream = new ByteArrayInputStream(input.getBytes());
+        System.setIn(inputStream);
+
+        StudentManager studentManager = new StudentManager();
+        studentManager.setScanner(new Scanner(System.in));
+        studentManager.userChoice(student, "1");
+
+        String output = outputStream.toString();
+        assertTrue(output.contains(CourseManager.PAGE_SIZE + ". MA018 - Maths 18"));
+        assertTrue(output.contains("Show more courses? (y/n)"));
+        assertFalse(output.contains("MA019"));
+    }
+
+    @Test
+    void testMenuRegistersAndDeregistersThroughTheSession() throws SQLException {
+        Student student = new Student("S001", "John", "Doe");
+        Storage.students().saveStudent(student);
+
+        input = "CS101\ny\nCS101\ny\nCS101\nn";
+        inputStream = new ByteArrayInputStream(input.getBytes());
+        System.setIn(inputStream);
+
+        StudentManager studentManager = new StudentManager();
+        studentManager.setScanner(new Scanner(System.in));
+        studentManager.userChoice(student, "4");
+        assertEquals(1, Storage.registrations().getRegisteredCourses("S001").size());
+        studentManager.userChoice(student, "4");
+        studentManager.userChoice(student, "5");
+
+        assertTrue(Storage.registrations().getRegisteredCourses("S001").isEmpty());
+        String output = outputStream.toString();
+        assertTrue(output.contains("You have successfully registered for course: Introduction to Computer Science"));
+        assertTrue(output.contains("Successfully deregistered from course: Introduction to Computer Science"));
+        assertTrue(output.contains("Session Complete.\nGoodbye!"));
+        assertTrue(errOutput.toString().contains("You cannot register for same course twice!"));
+    }
+
     @Test
     void testEnterName_ValidInput() {
         input = "John\n";
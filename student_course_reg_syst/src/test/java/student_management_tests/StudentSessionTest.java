@@ -0,0 +1,149 @@
+package student_management_tests;
+
+import org.junit.jupiter.api.*;
+import registration.system.course_management.Course;
+import registration.system.course_management.CourseManager;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.DatabaseManager;
+import registration.system.student_management.SessionCommand;
+import registration.system.student_management.SessionResult;
+import registration.system.student_management.Student;
+import registration.system.student_management.StudentSession;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StudentSessionTest {
+    private StudentSession session;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        DatabaseManager.setURL("jdbc:sqlite:test.db");
+        DatabaseManager.setSchemaPath("src/test/resources/database.sql");
+        try (Connection conn = DatabaseManager.connect()) {
+            DatabaseManager.createTables(conn);
+            DatabaseManager.insertSampleData(conn);
+        }
+        DatabaseManager.saveStudent(new Student("S001", "John", "Doe"));
+        session = new StudentSession();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection conn = DatabaseManager.connect()) {
+            conn.createStatement().execute("DELETE FROM courses");
+            conn.createStatement().execute("DELETE FROM course_code");
+            conn.createStatement().execute("DELETE FROM students");
+            conn.createStatement().execute("DELETE FROM registrations");
+            conn.createStatement().execute("DELETE FROM schedule");
+            conn.createStatement().execute("DELETE FROM waitlist");
+            conn.createStatement().execute("DELETE FROM waitlist_queue");
+        }
+        DatabaseManager.getCourseCache().invalidateAll();
+        DatabaseManager.getTimetableCache().invalidateAll();
+    }
+
+    @Test
+    void testLogin() throws SQLException {
+        SessionResult unknown = session.execute(new SessionCommand.Login("S999"));
+        assertEquals(SessionResult.Status.NOT_FOUND, unknown.status());
+        assertNull(session.getStudent());
+
+        SessionResult result = session.execute(new SessionCommand.Login("s001"));
+        assertTrue(result.isOk());
+        assertEquals("Welcome back John!", result.message());
+        assertEquals("S001", result.student().studentId());
+    }
+
+    @Test
+    void testSearchCourses() throws SQLException {
+        SessionResult result = session.execute(new SessionCommand.SearchCourses("computer scince"));
+        assertTrue(result.isOk());
+        assertEquals("CS101", result.courses().get(0).getCourseCode());
+
+        SessionResult none = session.execute(new SessionCommand.SearchCourses("chemistry"));
+        assertTrue(none.isOk());
+        assertEquals("No courses match \"chemistry\".", none.message());
+    }
+
+    @Test
+    void testCreateProfile() throws SQLException {
+        assertEquals(SessionResult.Status.INVALID,
+                session.execute(new SessionCommand.CreateProfile("J0hn", "Doe")).status());
+
+        SessionResult result = session.execute(new SessionCommand.CreateProfile("Jane", "Doe"));
+        assertTrue(result.isOk());
+        assertNotNull(DatabaseManager.getStudentById(result.student().studentId()));
+    }
+
+    @Test
+    void testAvailableCoursesArePaged() throws SQLException {
+        for (int i = 0; i < CourseManager.PAGE_SIZE; i++) {
+            String courseCode = String.format("MA%03d", i);
+            DatabaseManager.insertCourse(new Course(courseCode, "Maths " + i, "Paged", 10));
+            DatabaseManager.insertSchedule(courseCode, new Schedule(List.of("Friday"), "09:00", "10:00"));
+        }
+
+        SessionResult first = session.execute(new SessionCommand.AvailableCourses());
+        assertEquals(CourseManager.PAGE_SIZE, first.courses().size());
+        assertEquals("CS101", first.courses().get(0).getCourseCode());
+        assertEquals("MA018", first.nextAfter());
+
+        SessionResult last = session.execute(new SessionCommand.AvailableCourses(first.nextAfter()));
+        assertEquals(List.of("MA019"), last.courses().stream().map(Course::getCourseCode).toList());
+        assertNull(last.nextAfter());
+    }
+
+    @Test
+    void testCommandsNeedLogin() throws SQLException {
+        assertTrue(session.execute(new SessionCommand.AvailableCourses()).isOk());
+        assertEquals(SessionResult.Status.NOT_LOGGED_IN,
+                session.execute(new SessionCommand.Register("CS101")).status());
+    }
+
+    @Test
+    void testRegisterScheduleDeregister() throws SQLException {
+        session.execute(new SessionCommand.Login("S001"));
+        assertEquals(SessionResult.Status.NOT_REGISTERED, session.execute(new SessionCommand.ViewSchedule()).status());
+
+        assertTrue(session.execute(new SessionCommand.Register("CS101")).isOk());
+        assertEquals(SessionResult.Status.DUPLICATE, session.execute(new SessionCommand.Register("CS101")).status());
+        assertEquals(SessionResult.Status.NOT_FOUND, session.execute(new SessionCommand.Register("XX999")).status());
+
+        SessionResult registered = session.execute(new SessionCommand.RegisteredCourses());
+        assertEquals(1, registered.courses().size());
+        SessionResult schedule = session.execute(new SessionCommand.ViewSchedule());
+        assertEquals("10:00", schedule.courses().get(0).getSchedule().startTime());
+
+        assertTrue(session.execute(new SessionCommand.Deregister("CS101")).isOk());
+        assertEquals(SessionResult.Status.NOT_REGISTERED,
+                session.execute(new SessionCommand.Deregister("CS101")).status());
+    }
+
+    @Test
+    void testWaitlist() throws SQLException {
+        DatabaseManager.updateCapacity("CS101", 0);
+        session.execute(new SessionCommand.Login("S001"));
+
+        SessionResult full = session.execute(new SessionCommand.Register("CS101"));
+        assertEquals(SessionResult.Status.WAITLISTED, full.status());
+        assertEquals("Course Introduction to Computer Science is full. You are number 1 on the waitlist.", full.message());
+        assertEquals("You are number 1 on the waitlist for course: CS101",
+                session.execute(new SessionCommand.WaitlistPosition("CS101")).message());
+
+        assertTrue(session.execute(new SessionCommand.LeaveWaitlist("CS101")).isOk());
+        assertEquals(SessionResult.Status.NOT_WAITLISTED,
+                session.execute(new SessionCommand.WaitlistPosition("CS101")).status());
+    }
+
+    @Test
+    void testLogout() throws SQLException {
+        session.execute(new SessionCommand.Login("S001"));
+        assertTrue(session.execute(new SessionCommand.Logout()).isOk());
+        assertNull(session.getStudent());
+    }
+}
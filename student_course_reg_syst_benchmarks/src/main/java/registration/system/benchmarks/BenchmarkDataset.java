@@ -0,0 +1,219 @@
+package registration.system.benchmarks;
+
+import registration.system.course_management.Course;
+import registration.system.course_management.schedule.Schedule;
+import registration.system.database_management.DatabaseManager;
+import registration.system.database_management.SchemaMigrator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates and caches the SQLite databases the benchmarks run against.
+ * Each dataset has a fixed number of generated courses, the requested number of students,
+ * and {@link #REGISTRATIONS_PER_STUDENT} registrations per student. Datasets are written once
+ * to {@code target/datasets/} and copied for every trial, so a trial never sees the writes of another.
+ */
+public class BenchmarkDataset {
+    public static final String DATASET_DIRECTORY = "target/datasets";
+    public static final int COURSES = 200;
+    public static final int REGISTRATIONS_PER_STUDENT = 3;
+    public static final int COURSE_CAPACITY = 1_000_000;
+
+    /**
+     * The number of students that get an ID in the "SE00000" range.
+     * The rest use other prefixes, so with large datasets the range is 90% full.
+     */
+    public static final int SE_STUDENTS = 90_000;
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"};
+
+    /**
+     * Returns a fresh copy of the dataset with the given number of students, generating it first
+     * if it has not been generated yet.
+     *
+     * @param students the number of students in the dataset
+     * @param copyName a name for the copy, unique per trial
+     * @return the path of the copy
+     * @throws IOException if the dataset cannot be written or copied
+     * @throws SQLException if a database access error occurs while generating the dataset
+     */
+    public static synchronized Path copyOf(int students, String copyName) throws IOException, SQLException {
+        Path dataset = Paths.get(DATASET_DIRECTORY, "students-" + students + ".db");
+        if (!Files.exists(dataset)) {
+            generate(students, dataset);
+        }
+        Path copy = Paths.get(DATASET_DIRECTORY, copyName + ".db");
+        Files.copy(dataset, copy, StandardCopyOption.REPLACE_EXISTING);
+        return copy;
+    }
+
+    /**
+     * Returns the ID of the n-th generated student.
+     * Students below {@link #SE_STUDENTS} get "SE" IDs; the rest use the prefixes "SF", "SG" and so on,
+     * so every ID stays seven characters long.
+     *
+     * @param n the student number
+     * @return the student ID
+     */
+    public static String studentId(int n) {
+        if (n < SE_STUDENTS) {
+            return String.format("SE%05d", n);
+        }
+        int overflow = n - SE_STUDENTS;
+        return String.format("S%c%05d", (char) ('F' + overflow / 100_000), overflow % 100_000);
+    }
+
+    /**
+     * Returns the course code of the n-th generated course.
+     *
+     * @param n the course number
+     * @return the course code
+     */
+    public static String courseCode(int n) {
+        return String.format("BM%04d", n);
+    }
+
+    /**
+     * Writes a dataset to a temporary file and moves it into place once it is complete,
+     * so an interrupted run never leaves a half-written dataset behind.
+     *
+     * @param students the number of students in the dataset
+     * @param dataset the path to write the dataset to
+     * @throws IOException if the schema cannot be read or the file cannot be moved
+     * @throws SQLException if a database access error occurs
+     */
+    private static void generate(int students, Path dataset) throws IOException, SQLException {
+        Files.createDirectories(dataset.getParent());
+        Path partial = dataset.resolveSibling(dataset.getFileName() + ".partial");
+        Files.deleteIfExists(partial);
+
+        long start = System.nanoTime();
+        System.out.println("Generating dataset with " + students + " students: " + dataset);
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + partial)) {
+            createSchema(conn);
+            conn.setAutoCommit(false);
+            insertCourses(conn);
+            insertStudents(conn, students);
+            conn.commit();
+        }
+        Files.move(partial, dataset, StandardCopyOption.REPLACE_EXISTING);
+        System.out.printf("Generated dataset in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Creates the baseline schema from database.sql on the classpath and applies every migration.
+     *
+     * @param conn the connection to the new database
+     * @throws IOException if the schema cannot be read
+     * @throws SQLException if a database access error occurs
+     */
+    private static void createSchema(Connection conn) throws IOException, SQLException {
+        InputStream schema = BenchmarkDataset.class.getClassLoader().getResourceAsStream("database.sql");
+        if (schema == null) {
+            throw new IOException("database.sql is not on the classpath");
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(schema, StandardCharsets.UTF_8))) {
+            DatabaseManager.processSqlStatements(conn, reader);
+        }
+        DatabaseManager.createTrigger(conn);
+        SchemaMigrator.migrate(conn);
+    }
+
+    /**
+     * Inserts the generated courses and their schedules.
+     *
+     * @param conn the connection to the new database
+     * @throws SQLException if a database access error occurs
+     */
+    private static void insertCourses(Connection conn) throws SQLException {
+        String courseSql = "INSERT INTO courses (courseCode, title, description, spacesLeft) VALUES (?, ?, ?, ?)";
+        String scheduleSql = "INSERT INTO schedule (courseCode, days, startTime, endTime) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement courseStmt = conn.prepareStatement(courseSql);
+             PreparedStatement scheduleStmt = conn.prepareStatement(scheduleSql)) {
+            for (Course course : courses()) {
+                courseStmt.setString(1, course.getCourseCode());
+                courseStmt.setString(2, course.getTitle());
+                courseStmt.setString(3, course.getDescription());
+                courseStmt.setInt(4, course.getSpacesLeft());
+                courseStmt.addBatch();
+
+                Schedule schedule = course.getSchedule();
+                scheduleStmt.setString(1, course.getCourseCode());
+                scheduleStmt.setString(2, String.join(",", schedule.days()));
+                scheduleStmt.setString(3, schedule.startTime());
+                scheduleStmt.setString(4, schedule.endTime());
+                scheduleStmt.addBatch();
+            }
+            courseStmt.executeBatch();
+            scheduleStmt.executeBatch();
+        }
+    }
+
+    /**
+     * Inserts the students and their registrations. Student n registers for courses spread
+     * across the catalogue, so every course ends up with roughly the same number of students.
+     *
+     * @param conn the connection to the new database
+     * @param students the number of students to insert
+     * @throws SQLException if a database access error occurs
+     */
+    private static void insertStudents(Connection conn, int students) throws SQLException {
+        String studentSql = "INSERT INTO students (studentID, name, surname) VALUES (?, ?, ?)";
+        String registrationSql = "INSERT INTO registrations (studentID, courseCode) VALUES (?, ?)";
+        try (PreparedStatement studentStmt = conn.prepareStatement(studentSql);
+             PreparedStatement registrationStmt = conn.prepareStatement(registrationSql)) {
+            for (int n = 0; n < students; n++) {
+                String studentId = studentId(n);
+                studentStmt.setString(1, studentId);
+                studentStmt.setString(2, "Student" + n);
+                studentStmt.setString(3, "Benchmark");
+                studentStmt.addBatch();
+
+                for (int r = 0; r < REGISTRATIONS_PER_STUDENT; r++) {
+                    registrationStmt.setString(1, studentId);
+                    registrationStmt.setString(2, courseCode((n + r * (COURSES / REGISTRATIONS_PER_STUDENT)) % COURSES));
+                    registrationStmt.addBatch();
+                }
+
+                if ((n + 1) % BATCH_SIZE == 0) {
+                    studentStmt.executeBatch();
+                    registrationStmt.executeBatch();
+                }
+            }
+            studentStmt.executeBatch();
+            registrationStmt.executeBatch();
+        }
+    }
+
+    /**
+     * Returns the generated courses. Every course has room for all registrations the benchmarks make.
+     *
+     * @return the generated courses
+     */
+    private static List<Course> courses() {
+        List<Course> courses = new ArrayList<>(COURSES);
+        for (int n = 0; n < COURSES; n++) {
+            String startTime = String.format("%02d:00", 8 + n % 4);
+            String endTime = String.format("%02d:00", 9 + n % 4);
+            Schedule schedule = new Schedule(List.of(DAYS[n % DAYS.length], DAYS[(n + 2) % DAYS.length]), startTime, endTime);
+            courses.add(new Course(courseCode(n), "Benchmark Course " + n,
+                    "Generated course " + n + " for benchmarks", COURSE_CAPACITY, schedule));
+        }
+        return courses;
+    }
+}
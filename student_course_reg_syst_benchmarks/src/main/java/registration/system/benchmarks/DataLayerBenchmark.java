@@ -0,0 +1,168 @@
+package registration.system.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import registration.system.course_management.Course;
+import registration.system.course_management.CourseManager;
+import registration.system.course_management.CoursePage;
+import registration.system.course_management.ImportReport;
+import registration.system.database_management.DatabaseManager;
+import registration.system.student_management.Student;
+import registration.system.student_management.StudentManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH benchmarks for the registration data layer, run against generated datasets of 1k, 100k and 1M students.
+ * Every trial works on its own copy of the dataset, so writes made by one trial never affect the next.
+ * The concrete subclasses run the same benchmarks single-threaded and multi-threaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class DataLayerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int students;
+
+    private final AtomicLong registrations = new AtomicLong();
+    private StudentManager studentManager;
+    private Path database;
+
+    /**
+     * Points the DatabaseManager at a fresh copy of the dataset and opens a new connection pool for it.
+     *
+     * @throws IOException if the dataset cannot be generated or copied
+     * @throws SQLException if a database access error occurs while generating the dataset
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        database = BenchmarkDataset.copyOf(students, getClass().getSimpleName() + "-" + students);
+        DatabaseManager.setURL("jdbc:sqlite:" + database);
+        DatabaseManager.resetPool();
+        studentManager = new StudentManager();
+    }
+
+    /**
+     * Closes the connection pool and deletes the trial's copy of the dataset.
+     *
+     * @throws IOException if the copy cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.println();
+        System.out.println(DatabaseManager.getPoolMetrics());
+        DatabaseManager.resetPool();
+        for (String suffix : new String[]{"", "-wal", "-shm", "-journal"}) {
+            Files.deleteIfExists(Paths.get(database + suffix));
+        }
+    }
+
+    /**
+     * Loads every course with its schedule.
+     * @return the courses
+     * @throws SQLException if a database access error occurs
+     */
+    @Benchmark
+    public List<Course> getAllCourses() throws SQLException {
+        return DatabaseManager.getAllCourses();
+    }
+
+    /**
+     * Loads the courses that still have spaces left.
+     * @return the available courses
+     * @throws SQLException if a database access error occurs
+     */
+    @Benchmark
+    public List<Course> getAvailableCourses() throws SQLException {
+        return DatabaseManager.getAvailableCourses();
+    }
+
+    /**
+     * Loads the first page of available courses, as the browse menu does.
+     * @return the first page
+     * @throws SQLException if a database access error occurs
+     */
+    @Benchmark
+    public CoursePage getAvailableCoursesPage() throws SQLException {
+        return DatabaseManager.getAvailableCoursesPage(null, CourseManager.PAGE_SIZE);
+    }
+
+    /**
+     * Streams every available course into a blackhole without collecting them in a list.
+     * @param blackhole consumes each course
+     * @return the number of courses streamed
+     * @throws SQLException if a database access error occurs
+     */
+    @Benchmark
+    public int forEachAvailableCourse(Blackhole blackhole) throws SQLException {
+        return DatabaseManager.forEachAvailableCourse(blackhole::consume);
+    }
+
+    /**
+     * Loads the courses of a random student from the dataset.
+     * @return the student's courses
+     * @throws SQLException if a database access error occurs
+     */
+    @Benchmark
+    public List<Course> getRegisteredCourses() throws SQLException {
+        String studentId = BenchmarkDataset.studentId(ThreadLocalRandom.current().nextInt(students));
+        return DatabaseManager.getRegisteredCourses(new Student(studentId, "Student", "Benchmark"));
+    }
+
+    /**
+     * Registers a new student for a random course. Each invocation uses a student ID no other
+     * invocation has used, so the unique registration index never rejects the insert.
+     * @throws SQLException if a database access error occurs
+     */
+    @Benchmark
+    public void registerStudentForCourse() throws SQLException {
+        String studentId = "BR" + registrations.incrementAndGet();
+        String courseCode = BenchmarkDataset.courseCode(ThreadLocalRandom.current().nextInt(BenchmarkDataset.COURSES));
+        DatabaseManager.registerStudentForCourse(studentId, courseCode);
+    }
+
+    /**
+     * Generates a free student ID. Most invocations are served from the allocator's reserved block;
+     * the rest include the round trip that reserves the next block.
+     * @return the generated student ID
+     * @throws SQLException if a database access error occurs
+     */
+    @Benchmark
+    public String generateStudentId() throws SQLException {
+        return studentManager.generateStudentId();
+    }
+
+    /**
+     * Imports the bundled course catalogue. After the first invocation every course already exists,
+     * so this measures the upsert path.
+     * @return the import report
+     */
+    @Benchmark
+    public ImportReport uploadCoursesToDatabase() {
+        return Course.uploadCoursesToDatabase();
+    }
+}
@@ -0,0 +1,11 @@
+package registration.system.benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Runs the data layer benchmarks from as many threads as the connection pool has connections,
+ * measuring throughput under contention for the pool and the SQLite write lock.
+ */
+@Threads(8)
+public class MultiThreadedDataLayerBenchmark extends DataLayerBenchmark {
+}
@@ -0,0 +1,10 @@
+package registration.system.benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Runs the data layer benchmarks from a single thread, measuring the latency of each operation on its own.
+ */
+@Threads(1)
+public class SingleThreadedDataLayerBenchmark extends DataLayerBenchmark {
+}